@@ -1,5 +1,6 @@
 package com.nuvik.litebansreborn;
 
+import com.nuvik.litebansreborn.ai.GroqAIService;
 import com.nuvik.litebansreborn.api.LiteBansRebornAPI;
 import com.nuvik.litebansreborn.antivpn.ClientDetector;
 import com.nuvik.litebansreborn.antivpn.VPNManager;
@@ -14,6 +15,7 @@ import com.nuvik.litebansreborn.listeners.*;
 import com.nuvik.litebansreborn.managers.*;
 import com.nuvik.litebansreborn.notifications.DiscordNotifier;
 import com.nuvik.litebansreborn.notifications.TelegramNotifier;
+import com.nuvik.litebansreborn.services.LoginCheckService;
 import com.nuvik.litebansreborn.web.WebPanelServer;
 import com.nuvik.litebansreborn.utils.ColorUtil;
 import com.nuvik.litebansreborn.utils.UpdateChecker;
@@ -83,6 +85,7 @@ public class LiteBansReborn extends JavaPlugin {
     private PointManager pointManager;
     private TemplateManager templateManager;
     private GeoIPManager geoIPManager;
+    private LoginCheckService loginCheckService;
     
     // Notification Systems
     private DiscordNotifier discordNotifier;
@@ -109,6 +112,7 @@ public class LiteBansReborn extends JavaPlugin {
     private MaintenanceManager maintenanceManager;
     private RoleSyncManager roleSyncManager;
     private AIManager aiManager;
+    private GroqAIService groqAIService;
     
     // V5.1 Features
     private SocialNetworkManager socialNetworkManager;
@@ -211,6 +215,7 @@ public class LiteBansReborn extends JavaPlugin {
         log(Level.INFO, "Initializing v5.0 features...");
         maintenanceManager = new MaintenanceManager(this);
         aiManager = new AIManager(this);
+        groqAIService = new GroqAIService(this);
         
         try {
             if (getServer().getPluginManager().getPlugin("LuckPerms") != null) {
@@ -282,6 +287,12 @@ public class LiteBansReborn extends JavaPlugin {
         if (discordBotManager != null) {
             discordBotManager.stop();
         }
+        if (aiManager != null) {
+            aiManager.shutdown();
+        }
+        if (groqAIService != null) {
+            groqAIService.shutdown();
+        }
         
         // THIRD: Shutdown notifiers
         if (discordNotifier != null) {
@@ -355,6 +366,8 @@ public class LiteBansReborn extends JavaPlugin {
     
     private void initializeCache() {
         cacheManager = new CacheManager(this);
+        // Authoritative mode: preload every active ban/mute before any login is processed
+        cacheManager.loadActiveIndex();
     }
     
     /**
@@ -380,6 +393,7 @@ public class LiteBansReborn extends JavaPlugin {
         pointManager = new PointManager(this);
         templateManager = new TemplateManager(this);
         geoIPManager = new GeoIPManager(this);
+        loginCheckService = new LoginCheckService(this);
         
         // Load templates from config
         templateManager.loadTemplates();
@@ -566,6 +580,37 @@ public class LiteBansReborn extends JavaPlugin {
             cacheManager.cleanup();
         }, 20L * 60 * 5, 20L * 60 * 5));
         
+        // Active punishment index refresh (authoritative cache mode only)
+        if (cacheManager.isAuthoritative()) {
+            long interval = 20L * Math.max(1, configManager.getInt("cache.authoritative.refresh-interval", 5));
+            scheduledTasks.add(Bukkit.getScheduler().runTaskTimerAsynchronously(this,
+                    cacheManager::refreshActiveIndex, interval, interval));
+        }
+        
+        // Player data write-behind flush
+        if (databaseManager.getWriteQueue() != null) {
+            long interval = Math.max(1, configManager.getInt("database.write-behind.flush-interval-ms", 2000) / 50);
+            scheduledTasks.add(Bukkit.getScheduler().runTaskTimerAsynchronously(this,
+                    databaseManager.getWriteQueue()::flush, interval, interval));
+        }
+        
+        // Punishment archiving
+        if (databaseManager.getArchiver() != null) {
+            long interval = 20L * 60 * Math.max(1, configManager.getInt("database.archive.interval-minutes", 60));
+            scheduledTasks.add(Bukkit.getScheduler().runTaskTimerAsynchronously(this,
+                    databaseManager.getArchiver()::run, interval, interval));
+        }
+        
+        // Anti-VPN range list hot reload
+        if (configManager.getBoolean("anti-vpn.ip-ranges.hot-reload", true)) {
+            long interval = 20L * Math.max(5, configManager.getInt("anti-vpn.ip-ranges.check-interval", 30));
+            scheduledTasks.add(Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
+                if (vpnManager != null) {
+                    vpnManager.reloadRangesIfChanged();
+                }
+            }, interval, interval));
+        }
+        
         // Warning expiry task (runs every 6 hours)
         scheduledTasks.add(Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
             warnManager.expireOldWarnings();
@@ -700,6 +745,7 @@ public class LiteBansReborn extends JavaPlugin {
     public PointManager getPointManager() { return pointManager; }
     public TemplateManager getTemplateManager() { return templateManager; }
     public GeoIPManager getGeoIPManager() { return geoIPManager; }
+    public LoginCheckService getLoginCheckService() { return loginCheckService; }
     
     public DiscordNotifier getDiscordNotifier() { return discordNotifier; }
     public TelegramNotifier getTelegramNotifier() { return telegramNotifier; }
@@ -726,6 +772,7 @@ public class LiteBansReborn extends JavaPlugin {
     public MaintenanceManager getMaintenanceManager() { return maintenanceManager; }
     public RoleSyncManager getRoleSyncManager() { return roleSyncManager; }
     public AIManager getAIManager() { return aiManager; }
+    public GroqAIService getGroqAIService() { return groqAIService; }
     
     // V5.1 Getters
     public SocialNetworkManager getSocialNetworkManager() { return socialNetworkManager; }
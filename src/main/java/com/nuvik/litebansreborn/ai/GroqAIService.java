@@ -11,7 +11,8 @@ import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -26,57 +27,91 @@ public class GroqAIService {
     
     private final LiteBansReborn plugin;
     private final String apiKey;
+    private final String apiUrl;
     private final boolean enabled;
     private final Gson gson;
+    private final ToxicityPipeline<ToxicityResult> toxicityPipeline;
     
     public GroqAIService(LiteBansReborn plugin) {
         this.plugin = plugin;
-        this.apiKey = plugin.getConfig().getString("ai.groq-api-key", "");
-        this.enabled = plugin.getConfig().getBoolean("ai.enabled", false) && !apiKey.isEmpty();
+        this.apiKey = plugin.getConfigManager().getString("ai.groq-api-key", "");
+        // ai.groq-base-url overrides the endpoint, e.g. for a proxy or a local stub server
+        String baseUrl = plugin.getConfigManager().getString("ai.groq-base-url", "");
+        this.apiUrl = baseUrl.isEmpty() ? GROQ_API_URL : baseUrl;
+        this.enabled = plugin.getConfigManager().getBoolean("ai.enabled", false) && !apiKey.isEmpty();
         this.gson = new Gson();
         
+        this.toxicityPipeline = new ToxicityPipeline<>(
+            ToxicityPipeline.Settings.fromConfig(plugin.getConfigManager()),
+            this::analyzeToxicityBatch,
+            reason -> new ToxicityResult(false, 0, reason)
+        );
+        
         if (enabled) {
             plugin.getLogger().info("[AI] Groq AI Service initialized with model: " + DEFAULT_MODEL);
         }
     }
     
     /**
-     * Analyze chat message for toxicity
+     * Analyze chat message for toxicity (cached, deduplicated and batched)
      */
     public CompletableFuture<ToxicityResult> analyzeToxicity(String playerName, String message) {
         if (!enabled) {
             return CompletableFuture.completedFuture(new ToxicityResult(false, 0, "AI disabled"));
         }
-        
-        String prompt = String.format("""
-            Analyze this Minecraft chat message for toxicity.
-            Player: %s
-            Message: "%s"
+        return toxicityPipeline.analyze(message, playerName);
+    }
+    
+    /**
+     * One Groq call for a batch of messages (null entries = could not be parsed)
+     */
+    private CompletableFuture<List<ToxicityResult>> analyzeToxicityBatch(List<ToxicityPipeline.Request> batch) {
+        if (batch.size() == 1) {
+            ToxicityPipeline.Request request = batch.get(0);
+            String prompt = String.format("""
+                Analyze this Minecraft chat message for toxicity.
+                Player: %s
+                Message: "%s"
+                
+                Respond ONLY in JSON format:
+                {
+                  "isToxic": true/false,
+                  "toxicityScore": 0-100,
+                  "category": "none/spam/insult/hate/threat/advertising",
+                  "reason": "brief explanation",
+                  "suggestedAction": "none/warn/mute/ban"
+                }
+                """, request.playerName(), request.message());
             
-            Respond ONLY in JSON format:
-            {
-              "isToxic": true/false,
-              "toxicityScore": 0-100,
-              "category": "none/spam/insult/hate/threat/advertising",
-              "reason": "brief explanation",
-              "suggestedAction": "none/warn/mute/ban"
-            }
-            """, playerName, message);
+            return callGroqAPI(prompt, 500).thenApply(response -> {
+                try {
+                    return Collections.singletonList(parseToxicity(gson.fromJson(response, JsonObject.class)));
+                } catch (Exception e) {
+                    return Collections.singletonList(null);
+                }
+            });
+        }
         
-        return callGroqAPI(prompt).thenApply(response -> {
-            try {
-                JsonObject json = gson.fromJson(response, JsonObject.class);
-                boolean isToxic = json.get("isToxic").getAsBoolean();
-                int score = json.get("toxicityScore").getAsInt();
-                String reason = json.get("reason").getAsString();
-                String category = json.has("category") ? json.get("category").getAsString() : "unknown";
-                String action = json.has("suggestedAction") ? json.get("suggestedAction").getAsString() : "none";
-                
-                return new ToxicityResult(isToxic, score, reason, category, action);
-            } catch (Exception e) {
-                return new ToxicityResult(false, 0, "Parse error: " + e.getMessage());
-            }
-        });
+        String prompt = ToxicityPipeline.batchPrompt(batch,
+            "\"isToxic\": true/false, \"toxicityScore\": 0-100, \"category\": \"none/spam/insult/hate/threat/advertising\", "
+                + "\"reason\": \"brief explanation\", \"suggestedAction\": \"none/warn/mute/ban\"");
+        
+        return callGroqAPI(prompt, ToxicityPipeline.batchMaxTokens(batch.size()))
+            .thenApply(response -> ToxicityPipeline.parseBatch(response, batch.size(), this::parseToxicity));
+    }
+    
+    private ToxicityResult parseToxicity(JsonObject json) {
+        try {
+            boolean isToxic = json.get("isToxic").getAsBoolean();
+            int score = json.get("toxicityScore").getAsInt();
+            String reason = json.get("reason").getAsString();
+            String category = json.has("category") ? json.get("category").getAsString() : "unknown";
+            String action = json.has("suggestedAction") ? json.get("suggestedAction").getAsString() : "none";
+            
+            return new ToxicityResult(isToxic, score, reason, category, action);
+        } catch (Exception e) {
+            return null;
+        }
     }
     
     /**
@@ -192,9 +227,13 @@ public class GroqAIService {
      * Call Groq API with a prompt
      */
     private CompletableFuture<String> callGroqAPI(String prompt) {
+        return callGroqAPI(prompt, 500);
+    }
+    
+    private CompletableFuture<String> callGroqAPI(String prompt, int maxTokens) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                URL url = new URL(GROQ_API_URL);
+                URL url = new URL(apiUrl);
                 HttpURLConnection conn = (HttpURLConnection) url.openConnection();
                 conn.setRequestMethod("POST");
                 conn.setRequestProperty("Authorization", "Bearer " + apiKey);
@@ -207,7 +246,7 @@ public class GroqAIService {
                 JsonObject requestBody = new JsonObject();
                 requestBody.addProperty("model", DEFAULT_MODEL);
                 requestBody.addProperty("temperature", 0.3);
-                requestBody.addProperty("max_tokens", 500);
+                requestBody.addProperty("max_tokens", maxTokens);
                 
                 JsonArray messages = new JsonArray();
                 JsonObject systemMsg = new JsonObject();
@@ -264,6 +303,14 @@ public class GroqAIService {
         return enabled;
     }
     
+    public ToxicityPipeline.Stats getToxicityStats() {
+        return toxicityPipeline.getStats();
+    }
+    
+    public void shutdown() {
+        toxicityPipeline.shutdown();
+    }
+    
     // Result classes
     public record ToxicityResult(boolean isToxic, int score, String reason, String category, String action) {
         public ToxicityResult(boolean isToxic, int score, String reason) {
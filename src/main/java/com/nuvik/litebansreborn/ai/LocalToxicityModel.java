@@ -0,0 +1,273 @@
+package com.nuvik.litebansreborn.ai;
+
+import com.nuvik.litebansreborn.chatfilter.NormalizedText;
+import com.nuvik.litebansreborn.chatfilter.TextNormalizer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Local Toxicity Model - in-process logistic regression over hashed n-grams
+ *
+ * Messages are normalized (case, accents, look-alikes, leetspeak) and
+ * turned into word unigrams, word bigrams and padded character trigrams,
+ * each hashed into 2^bucketBits weights. Scoring is one pass over the
+ * message plus a sigmoid; it takes microseconds and allocates only the
+ * normalized view (the walk is accumulated in locals, no feature buffer).
+ *
+ * File format (big-endian):
+ * <pre>
+ *   int    magic "LBRT"
+ *   int    version (1)
+ *   int    bucketBits
+ *   int    toxic examples, int clean examples
+ *   float  bias
+ *   int    n, then n x (int bucket, float weight) for non-zero weights
+ * </pre>
+ */
+public final class LocalToxicityModel {
+
+    private static final int MAGIC = 0x4C425254; // "LBRT"
+    private static final int VERSION = 1;
+
+    public static final int DEFAULT_BUCKET_BITS = 18;
+    public static final int MIN_BUCKET_BITS = 8;
+    public static final int MAX_BUCKET_BITS = 24;
+
+    private static final TextNormalizer NORMALIZER = new TextNormalizer(true, true);
+
+    private final int bucketBits;
+    private final float[] weights;
+    private final float bias;
+    private final int toxicExamples;
+    private final int cleanExamples;
+
+    LocalToxicityModel(int bucketBits, float[] weights, float bias, int toxicExamples, int cleanExamples) {
+        this.bucketBits = bucketBits;
+        this.weights = weights;
+        this.bias = bias;
+        this.toxicExamples = toxicExamples;
+        this.cleanExamples = cleanExamples;
+    }
+
+    /**
+     * Probability (0..1) that the message is toxic
+     */
+    public double probability(String message) {
+        // Same walk as forEachFeature, summed in locals so the chat path allocates nothing extra
+        CharSequence text = NORMALIZER.normalize(message);
+        int mask = (1 << bucketBits) - 1;
+        int n = text.length();
+        double sum = 0;
+        int count = 0;
+        long previous = 0;
+        boolean hasPrevious = false;
+        int i = 0;
+
+        while (i < n) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            long token = TOKEN_SEED;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) {
+                token = hashChar(token, text.charAt(i));
+                i++;
+            }
+
+            sum += weights[unigram(token, mask)];
+            count++;
+            if (hasPrevious) {
+                sum += weights[bigram(previous, token, mask)];
+                count++;
+            }
+            previous = token;
+            hasPrevious = true;
+
+            int padded = i - start + 2;
+            for (int k = 0; k + 2 < padded; k++) {
+                sum += weights[trigram(text, start, padded, k, mask)];
+                count++;
+            }
+        }
+        if (count == 0) {
+            return sigmoid(bias);
+        }
+        return sigmoid(bias + sum / Math.sqrt(count));
+    }
+
+    /**
+     * Probability for pre-extracted feature buckets (same formula as above)
+     */
+    double score(int[] buckets) {
+        if (buckets.length == 0) {
+            return sigmoid(bias);
+        }
+        double sum = 0;
+        for (int bucket : buckets) {
+            sum += weights[bucket];
+        }
+        return sigmoid(bias + sum / Math.sqrt(buckets.length));
+    }
+
+    public int getToxicExamples() {
+        return toxicExamples;
+    }
+
+    public int getCleanExamples() {
+        return cleanExamples;
+    }
+
+    // ==================== Features ====================
+
+    /**
+     * Normalize a message the way the model sees it
+     */
+    static NormalizedText normalize(String message) {
+        return NORMALIZER.normalize(message);
+    }
+
+    /**
+     * Emit the hashed bucket of every feature in the (already normalized) text
+     */
+    static void forEachFeature(CharSequence text, int bucketBits, IntConsumer sink) {
+        int mask = (1 << bucketBits) - 1;
+        int n = text.length();
+        long previous = 0;
+        boolean hasPrevious = false;
+        int i = 0;
+
+        while (i < n) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            long token = TOKEN_SEED;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) {
+                token = hashChar(token, text.charAt(i));
+                i++;
+            }
+
+            sink.accept(unigram(token, mask));
+            if (hasPrevious) {
+                sink.accept(bigram(previous, token, mask));
+            }
+            previous = token;
+            hasPrevious = true;
+
+            // Trigrams over "^token$" catch misspellings and partial obfuscation
+            int padded = i - start + 2;
+            for (int k = 0; k + 2 < padded; k++) {
+                sink.accept(trigram(text, start, padded, k, mask));
+            }
+        }
+    }
+
+    private static final long TOKEN_SEED = 0xcbf29ce484222325L;
+
+    private static long hashChar(long token, char c) {
+        return (token ^ c) * 0x100000001b3L;
+    }
+
+    private static int unigram(long token, int mask) {
+        return (int) mix(token, 1) & mask;
+    }
+
+    private static int bigram(long previous, long token, int mask) {
+        return (int) mix(previous * 31 + token, 2) & mask;
+    }
+
+    /**
+     * Trigram k of the token at start, padded to "^token$" (padded = token length + 2)
+     */
+    private static int trigram(CharSequence text, int start, int padded, int k, int mask) {
+        long gram = 0;
+        for (int p = k; p < k + 3; p++) {
+            char c = p == 0 ? '^' : p == padded - 1 ? '$' : text.charAt(start + p - 1);
+            gram = gram * 0x10001L + c;
+        }
+        return (int) mix(gram, 3) & mask;
+    }
+
+    private static long mix(long value, long seed) {
+        long h = value ^ (seed * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-x));
+    }
+
+    // ==================== Persistence ====================
+
+    /**
+     * Write the model atomically (temp file, then move)
+     */
+    public void save(Path path) throws IOException {
+        int nonZero = 0;
+        for (float weight : weights) {
+            if (weight != 0f) {
+                nonZero++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(6 * 4 + 4 + 4 + nonZero * 8);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(bucketBits)
+                .putInt(toxicExamples).putInt(cleanExamples)
+                .putFloat(bias).putInt(nonZero);
+        for (int bucket = 0; bucket < weights.length; bucket++) {
+            if (weights[bucket] != 0f) {
+                buffer.putInt(bucket).putFloat(weights[bucket]);
+            }
+        }
+
+        Files.createDirectories(path.getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, Arrays.copyOf(buffer.array(), buffer.position()));
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static LocalToxicityModel load(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < 28 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a toxicity model file: " + path.getFileName());
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported toxicity model version " + version);
+        }
+        int bucketBits = buffer.getInt();
+        if (bucketBits < MIN_BUCKET_BITS || bucketBits > MAX_BUCKET_BITS) {
+            throw new IOException("Invalid bucket size 2^" + bucketBits);
+        }
+        int toxic = buffer.getInt();
+        int clean = buffer.getInt();
+        float bias = buffer.getFloat();
+        int entries = buffer.getInt();
+        if (entries < 0 || buffer.remaining() < entries * 8L) {
+            throw new IOException("Truncated toxicity model file");
+        }
+
+        float[] weights = new float[1 << bucketBits];
+        for (int i = 0; i < entries; i++) {
+            int bucket = buffer.getInt();
+            float weight = buffer.getFloat();
+            if (bucket < 0 || bucket >= weights.length) {
+                throw new IOException("Corrupt toxicity model file");
+            }
+            weights[bucket] = weight;
+        }
+        return new LocalToxicityModel(bucketBits, weights, bias, toxic, clean);
+    }
+}
@@ -0,0 +1,285 @@
+package com.nuvik.litebansreborn.ai;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Toxicity Model Trainer - builds a {@link LocalToxicityModel} from local data
+ *
+ * Training data:
+ * - punishment snapshots: lines written by the punished player count as
+ *   toxic when the reason matches one of the configured toxic reasons,
+ *   lines from everyone else count as clean
+ * - an optional staff-labelled file, one "toxic|clean&lt;TAB&gt;message" per
+ *   line; these labels override anything taken from snapshots
+ *
+ * Messages are deduplicated on their normalized form and labelled by
+ * majority of their sightings, so "gg" said once by a banned player stays
+ * clean; ties are dropped. The model is a
+ * class-balanced logistic regression fitted with a few epochs of SGD;
+ * one message in ten is held out to report accuracy.
+ */
+public final class ToxicityModelTrainer {
+
+    private static final int EPOCHS = 8;
+    private static final double LEARNING_RATE = 0.5;
+    private static final double L2 = 1e-6;
+    private static final long SEED = 0x4C425254L;
+
+    /**
+     * Outcome of a training run
+     */
+    public record Result(LocalToxicityModel model, int toxic, int clean, int snapshots,
+                         int holdout, double accuracy, double confidentShare) {}
+
+    private final int bucketBits;
+    private final List<String> toxicReasons;
+    // normalized message -> {toxic sightings, clean sightings}
+    private final Map<String, int[]> sightings = new LinkedHashMap<>();
+    private final Map<String, Boolean> labelled = new LinkedHashMap<>();
+    private int snapshots = 0;
+
+    public ToxicityModelTrainer(int bucketBits, List<String> toxicReasons) {
+        if (bucketBits < LocalToxicityModel.MIN_BUCKET_BITS || bucketBits > LocalToxicityModel.MAX_BUCKET_BITS) {
+            throw new IllegalArgumentException("bucketBits must be between " + LocalToxicityModel.MIN_BUCKET_BITS
+                    + " and " + LocalToxicityModel.MAX_BUCKET_BITS + ", got " + bucketBits);
+        }
+        this.bucketBits = bucketBits;
+        this.toxicReasons = toxicReasons.stream().map(r -> r.toLowerCase(Locale.ROOT)).toList();
+    }
+
+    /**
+     * Add one sighting of a message; the label is decided by majority at training time
+     */
+    public void add(String message, boolean toxic) {
+        String key = LocalToxicityModel.normalize(message).toString().trim();
+        if (!key.isEmpty()) {
+            sightings.computeIfAbsent(key, k -> new int[2])[toxic ? 0 : 1]++;
+        }
+    }
+
+    /**
+     * Read every snapshot file in the folder
+     */
+    public void addSnapshots(Path folder) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*.txt")) {
+            for (Path file : files) {
+                addSnapshot(file);
+            }
+        }
+    }
+
+    private void addSnapshot(Path file) throws IOException {
+        String target = null;
+        boolean toxicReason = false;
+        boolean inChat = false;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("Target: ")) {
+                    target = line.substring(8).trim();
+                } else if (line.startsWith("Reason: ")) {
+                    toxicReason = isToxicReason(line.substring(8));
+                } else if (line.startsWith("=== Chat Context")) {
+                    inChat = true;
+                } else if (line.startsWith("=== End of Snapshot")) {
+                    break;
+                } else if (inChat) {
+                    addChatLine(line, target, toxicReason);
+                }
+            }
+        }
+        snapshots++;
+    }
+
+    // "[HH:mm:ss] name: message"
+    private void addChatLine(String line, String target, boolean toxicReason) {
+        int close = line.indexOf("] ");
+        int colon = close < 0 ? -1 : line.indexOf(": ", close + 2);
+        if (colon < 0) {
+            return;
+        }
+        String name = line.substring(close + 2, colon);
+        String message = line.substring(colon + 2);
+        if (name.equalsIgnoreCase(target)) {
+            // Unrelated bans (cheating, ...) say nothing about the player's chat
+            if (toxicReason) {
+                add(message, true);
+            }
+        } else {
+            add(message, false);
+        }
+    }
+
+    /**
+     * Read the staff-labelled file (blank lines and # comments are skipped)
+     */
+    public void addLabelled(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int tab = line.indexOf('\t');
+            if (tab < 0) {
+                continue;
+            }
+            String label = line.substring(0, tab).trim().toLowerCase(Locale.ROOT);
+            if (!label.equals("toxic") && !label.equals("clean")) {
+                continue;
+            }
+            String key = LocalToxicityModel.normalize(line.substring(tab + 1)).toString().trim();
+            if (!key.isEmpty()) {
+                labelled.put(key, label.equals("toxic"));
+            }
+        }
+    }
+
+    private boolean isToxicReason(String reason) {
+        String lower = reason.toLowerCase(Locale.ROOT);
+        for (String keyword : toxicReasons) {
+            if (lower.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fit the model
+     *
+     * @param minPerClass fewer examples than this in either class fails the run
+     * @param cleanBelow  lower threshold, used to report how often the model would decide alone
+     * @param toxicAbove  upper threshold, same
+     */
+    public Result train(int minPerClass, double cleanBelow, double toxicAbove) {
+        Map<String, Boolean> examples = new LinkedHashMap<>();
+        for (Map.Entry<String, int[]> entry : sightings.entrySet()) {
+            int[] seen = entry.getValue();
+            if (seen[0] != seen[1]) {
+                examples.put(entry.getKey(), seen[0] > seen[1]);
+            }
+        }
+        examples.putAll(labelled);
+
+        List<int[]> features = new ArrayList<>(examples.size());
+        List<Boolean> labels = new ArrayList<>(examples.size());
+        int toxic = 0;
+        for (Map.Entry<String, Boolean> entry : examples.entrySet()) {
+            int[] buckets = featuresOf(entry.getKey());
+            if (buckets.length == 0) {
+                continue;
+            }
+            features.add(buckets);
+            labels.add(entry.getValue());
+            if (entry.getValue()) {
+                toxic++;
+            }
+        }
+        int clean = features.size() - toxic;
+        if (toxic < minPerClass || clean < minPerClass) {
+            throw new IllegalStateException("Not enough training data (" + toxic + " toxic, "
+                    + clean + " clean, need " + minPerClass + " of each)");
+        }
+
+        // Shuffle once, hold out every tenth example
+        Integer[] order = new Integer[features.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(SEED);
+        Collections.shuffle(Arrays.asList(order), random);
+        int holdout = order.length / 10;
+        int[] train = new int[order.length - holdout];
+        int[] test = new int[holdout];
+        for (int i = 0; i < order.length; i++) {
+            if (i < holdout) {
+                test[i] = order[i];
+            } else {
+                train[i - holdout] = order[i];
+            }
+        }
+
+        // Class weights so a chat log that is mostly clean doesn't drown the toxic class
+        double toxicWeight = features.size() / (2.0 * toxic);
+        double cleanWeight = features.size() / (2.0 * clean);
+
+        float[] weights = new float[1 << bucketBits];
+        double bias = Math.log(toxic / (double) clean);
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            double rate = LEARNING_RATE / (1 + epoch);
+            shuffle(train, random);
+            for (int index : train) {
+                int[] buckets = features.get(index);
+                double scale = 1.0 / Math.sqrt(buckets.length);
+                double score = bias;
+                for (int bucket : buckets) {
+                    score += weights[bucket] * scale;
+                }
+                boolean label = labels.get(index);
+                double gradient = ((label ? 1 : 0) - LocalToxicityModel.sigmoid(score))
+                        * (label ? toxicWeight : cleanWeight);
+                bias += rate * gradient * 0.1;
+                for (int bucket : buckets) {
+                    weights[bucket] += (float) (rate * (gradient * scale - L2 * weights[bucket]));
+                }
+            }
+        }
+
+        LocalToxicityModel model = new LocalToxicityModel(bucketBits, weights, (float) bias, toxic, clean);
+
+        int correct = 0;
+        int confident = 0;
+        for (int index : test) {
+            double probability = model.score(features.get(index));
+            if ((probability >= 0.5) == labels.get(index)) {
+                correct++;
+            }
+            if (probability < cleanBelow || probability > toxicAbove) {
+                confident++;
+            }
+        }
+        return new Result(model, toxic, clean, snapshots, holdout,
+                holdout == 0 ? 0 : correct / (double) holdout,
+                holdout == 0 ? 0 : confident / (double) holdout);
+    }
+
+    private int[] featuresOf(String normalized) {
+        int[][] buckets = {new int[32]};
+        int[] size = new int[1];
+        LocalToxicityModel.forEachFeature(normalized, bucketBits, bucket -> {
+            if (size[0] == buckets[0].length) {
+                buckets[0] = Arrays.copyOf(buckets[0], size[0] * 2);
+            }
+            buckets[0][size[0]++] = bucket;
+        });
+        return Arrays.copyOf(buckets[0], size[0]);
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.nuvik.litebansreborn.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.nuvik.litebansreborn.chatfilter.NormalizedText;
+import com.nuvik.litebansreborn.chatfilter.TextNormalizer;
+import com.nuvik.litebansreborn.config.ConfigManager;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Toxicity Pipeline - sits between callers and a remote toxicity model
+ *
+ * - verdicts are cached by a hash of the normalized message (case, accents,
+ *   look-alikes and whitespace folded) for a configurable TTL
+ * - concurrent requests for the same message share one in-flight lookup
+ * - new messages wait up to batch-window-ms and are sent together, up to
+ *   batch-size per remote call
+ * - at most max-concurrent remote calls run at once; while all permits are
+ *   taken messages keep queueing (up to max-pending) and go out in fuller
+ *   batches as calls complete
+ *
+ * Failed or unparseable verdicts are returned through the fallback and are
+ * never cached.
+ *
+ * @param <V> verdict type of the provider
+ */
+public final class ToxicityPipeline<V> {
+
+    private static final Gson GSON = new Gson();
+    private static final TextNormalizer NORMALIZER = new TextNormalizer(true, true);
+
+    /**
+     * A message waiting to be analyzed
+     */
+    public record Request(String message, String playerName) {}
+
+    /**
+     * Sends one batch in one remote call
+     *
+     * The result list is in request order; a null entry (or a missing one)
+     * marks that message as failed.
+     */
+    @FunctionalInterface
+    public interface BatchAnalyzer<V> {
+        CompletableFuture<List<V>> analyze(List<Request> batch);
+    }
+
+    public record Settings(Duration cacheTtl, long cacheSize, int maxConcurrent, int batchSize,
+                           long batchWindowMillis, int maxPending) {
+
+        public static final Settings DEFAULTS = new Settings(Duration.ofMinutes(30), 10_000, 4, 8, 150, 500);
+
+        /**
+         * Read the ai.toxicity.* keys, falling back to {@link #DEFAULTS}
+         */
+        public static Settings fromConfig(ConfigManager config) {
+            return new Settings(
+                    Duration.ofMinutes(config.getInt("ai.toxicity.cache-ttl-minutes", (int) DEFAULTS.cacheTtl().toMinutes())),
+                    config.getInt("ai.toxicity.cache-size", (int) DEFAULTS.cacheSize()),
+                    config.getInt("ai.toxicity.max-concurrent-requests", DEFAULTS.maxConcurrent()),
+                    Math.max(1, config.getInt("ai.toxicity.batch-size", DEFAULTS.batchSize())),
+                    config.getInt("ai.toxicity.batch-window-ms", (int) DEFAULTS.batchWindowMillis()),
+                    config.getInt("ai.toxicity.max-pending", DEFAULTS.maxPending()));
+        }
+    }
+
+    public record Stats(long hits, long coalesced, long misses, long rejected, long failures,
+                        long remoteCalls, long messagesSent, double avgLatencyMillis, long maxLatencyMillis,
+                        long cached, int inFlight, int pending) {
+
+        /**
+         * Share of lookups answered without a new remote lookup (cache or in-flight)
+         */
+        public double hitRate() {
+            long total = hits + coalesced + misses;
+            return total == 0 ? 0 : (hits + coalesced) / (double) total;
+        }
+    }
+
+    private record Pending<V>(long key, Request request, CompletableFuture<V> future) {}
+
+    private final Settings settings;
+    private final BatchAnalyzer<V> analyzer;
+    private final Function<String, V> fallback;
+
+    private final Cache<Long, V> verdicts;
+    private final Map<Long, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private ScheduledExecutorService scheduler; // started on the first batch window, guarded by lock
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Pending<V>> pending = new ArrayDeque<>();
+    private boolean flushScheduled = false;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder remoteCalls = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * @param fallback builds the verdict returned when a message can't be analyzed (gets a short reason)
+     */
+    public ToxicityPipeline(Settings settings, BatchAnalyzer<V> analyzer, Function<String, V> fallback) {
+        this.settings = settings;
+        this.analyzer = analyzer;
+        this.fallback = fallback;
+        this.verdicts = Caffeine.newBuilder()
+                .maximumSize(settings.cacheSize())
+                .expireAfterWrite(settings.cacheTtl())
+                .build();
+        this.permits = new Semaphore(Math.max(1, settings.maxConcurrent()));
+    }
+
+    /**
+     * Get a verdict for a message, from cache, an identical in-flight request or the next batch
+     */
+    public CompletableFuture<V> analyze(String message, String playerName) {
+        if (closed) {
+            return CompletableFuture.completedFuture(fallback.apply("AI disabled"));
+        }
+        long key = key(message);
+
+        V cached = verdicts.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        // A batch may have finished between the cache check and claiming the key
+        cached = verdicts.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            inFlight.remove(key, created);
+            created.complete(cached);
+            return created;
+        }
+
+        misses.increment();
+        List<List<Pending<V>>> ready;
+        synchronized (lock) {
+            if (closed) {
+                inFlight.remove(key, created);
+                created.complete(fallback.apply("AI disabled"));
+                return created;
+            }
+            if (pending.size() >= settings.maxPending()) {
+                rejected.increment();
+                inFlight.remove(key, created);
+                created.complete(fallback.apply("AI busy"));
+                return created;
+            }
+            pending.add(new Pending<>(key, new Request(message, playerName), created));
+
+            if (pending.size() >= settings.batchSize()) {
+                ready = drainLocked();
+            } else {
+                ready = List.of();
+                if (!flushScheduled) {
+                    flushScheduled = true;
+                    if (scheduler == null) {
+                        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                            Thread thread = new Thread(r, "LiteBansReborn-AI-Batcher");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+                    }
+                    scheduler.schedule(this::flush, settings.batchWindowMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        ready.forEach(this::dispatch);
+        return created;
+    }
+
+    /**
+     * Drop every cached verdict
+     */
+    public void invalidateAll() {
+        verdicts.invalidateAll();
+    }
+
+    public Stats getStats() {
+        long calls = remoteCalls.sum();
+        int waiting;
+        synchronized (lock) {
+            waiting = pending.size();
+        }
+        return new Stats(hits.sum(), coalesced.sum(), misses.sum(), rejected.sum(), failures.sum(),
+                calls, messagesSent.sum(),
+                calls == 0 ? 0 : latencyNanos.sum() / (double) calls / 1_000_000.0,
+                TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()),
+                verdicts.estimatedSize(), inFlight.size(), waiting);
+    }
+
+    /**
+     * Stop batching; anything still queued gets the fallback verdict
+     */
+    public void shutdown() {
+        List<Pending<V>> left;
+        synchronized (lock) {
+            closed = true;
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+            left = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (Pending<V> entry : left) {
+            inFlight.remove(entry.key(), entry.future());
+            entry.future().complete(fallback.apply("AI disabled"));
+        }
+    }
+
+    // ==================== Batching ====================
+
+    private void flush() {
+        List<List<Pending<V>>> ready;
+        synchronized (lock) {
+            flushScheduled = false;
+            ready = drainLocked();
+        }
+        ready.forEach(this::dispatch);
+    }
+
+    /**
+     * Take as many batches as there are free permits
+     */
+    private List<List<Pending<V>>> drainLocked() {
+        if (pending.isEmpty() || closed) {
+            return List.of();
+        }
+        List<List<Pending<V>>> ready = new ArrayList<>();
+        while (!pending.isEmpty() && permits.tryAcquire()) {
+            int size = Math.min(settings.batchSize(), pending.size());
+            List<Pending<V>> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(pending.poll());
+            }
+            ready.add(batch);
+        }
+        return ready;
+    }
+
+    private void dispatch(List<Pending<V>> batch) {
+        List<Request> requests = new ArrayList<>(batch.size());
+        for (Pending<V> entry : batch) {
+            requests.add(entry.request());
+        }
+        remoteCalls.increment();
+        messagesSent.add(batch.size());
+        long start = System.nanoTime();
+
+        CompletableFuture<List<V>> call;
+        try {
+            call = analyzer.analyze(Collections.unmodifiableList(requests));
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        call.whenComplete((results, error) -> {
+            long elapsed = System.nanoTime() - start;
+            latencyNanos.add(elapsed);
+            maxLatencyNanos.accumulateAndGet(elapsed, Math::max);
+            permits.release();
+
+            for (int i = 0; i < batch.size(); i++) {
+                Pending<V> entry = batch.get(i);
+                V verdict = error == null && results != null && i < results.size() ? results.get(i) : null;
+                if (verdict != null) {
+                    verdicts.put(entry.key(), verdict);
+                } else {
+                    failures.increment();
+                    verdict = fallback.apply(error != null ? "AI request failed" : "Parse error");
+                }
+                inFlight.remove(entry.key(), entry.future());
+                entry.future().complete(verdict);
+            }
+
+            // Messages that queued up while every permit was busy
+            flush();
+        });
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * 64-bit FNV-1a over the normalized message with whitespace runs collapsed and trimmed
+     */
+    static long key(String message) {
+        NormalizedText normalized = NORMALIZER.normalize(message);
+        long hash = 0xcbf29ce484222325L;
+        boolean space = false;
+        boolean started = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = started;
+                continue;
+            }
+            if (space) {
+                hash = (hash ^ ' ') * 0x100000001b3L;
+                space = false;
+            }
+            hash = (hash ^ c) * 0x100000001b3L;
+            started = true;
+        }
+        return hash;
+    }
+
+    /**
+     * Prompt asking for one verdict per message of the batch
+     *
+     * @param verdictFields the provider's verdict object without braces, e.g. "toxic": true/false, "score": 0-100
+     */
+    public static String batchPrompt(List<Request> batch, String verdictFields) {
+        return """
+            Analyze each of these Minecraft chat messages for toxicity. Respond with JSON only.
+            %s
+            Respond with a JSON array holding exactly one object per message, in this exact format:
+            [{"id": 1, %s}]
+            """.formatted(numberedMessages(batch), verdictFields);
+    }
+
+    /**
+     * Reply token budget for a batch prompt
+     */
+    public static int batchMaxTokens(int messages) {
+        return 120 * messages + 100;
+    }
+
+    /**
+     * Numbered message list for a batch prompt: 1. Player: name | Message: "text"
+     */
+    static String numberedMessages(List<Request> batch) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) {
+            Request request = batch.get(i);
+            sb.append(i + 1).append(". Player: ").append(request.playerName())
+                    .append(" | Message: ").append(GSON.toJson(request.message())).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parse a batch reply into one verdict per message, in request order
+     *
+     * Entries that are missing, or that the verdict parser rejects by
+     * returning null or throwing, are null.
+     */
+    public static <V> List<V> parseBatch(String response, int expected, Function<JsonObject, V> verdict) {
+        List<V> results = new ArrayList<>(expected);
+        for (JsonObject json : parseBatch(response, expected)) {
+            V parsed = null;
+            if (json != null) {
+                try {
+                    parsed = verdict.apply(json);
+                } catch (RuntimeException ignored) {
+                    // Malformed entry, falls back like a missing one
+                }
+            }
+            results.add(parsed);
+        }
+        return results;
+    }
+
+    /**
+     * Parse a batch reply into one JSON object per message (null where missing)
+     *
+     * Accepts a bare array or an object wrapping it, with or without code
+     * fences; entries are placed by their "id" when present, else by position.
+     */
+    static List<JsonObject> parseBatch(String response, int expected) {
+        List<JsonObject> results = new ArrayList<>(Collections.nCopies(expected, null));
+        try {
+            int start = response.indexOf('[');
+            int end = response.lastIndexOf(']');
+            if (start < 0 || end < start) {
+                return results;
+            }
+            JsonArray array = GSON.fromJson(response.substring(start, end + 1), JsonArray.class);
+            for (int i = 0; i < array.size(); i++) {
+                JsonElement element = array.get(i);
+                if (!element.isJsonObject()) {
+                    continue;
+                }
+                JsonObject object = element.getAsJsonObject();
+                int index = object.has("id") ? object.get("id").getAsInt() - 1 : i;
+                if (index >= 0 && index < expected) {
+                    results.set(index, object);
+                }
+            }
+        } catch (Exception ignored) {
+            // Whatever could not be placed stays null and falls back
+        }
+        return results;
+    }
+}
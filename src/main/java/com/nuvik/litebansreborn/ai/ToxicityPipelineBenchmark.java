@@ -0,0 +1,260 @@
+package com.nuvik.litebansreborn.ai;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Toxicity Pipeline Benchmark - sends a chat burst through the pipeline
+ * with and without batching against a local stub chat-completions server
+ *
+ * The stub answers every numbered message of a batch prompt after a fixed
+ * latency, and hangs past the client timeout on a few calls so the fallback
+ * path is exercised too. No AI provider is contacted, so it can run offline.
+ * Run from /lbr debug ai.
+ */
+public final class ToxicityPipelineBenchmark {
+
+    private ToxicityPipelineBenchmark() {
+    }
+
+    /**
+     * Latencies in milliseconds; calls counts requests the stub server received
+     */
+    public record Result(int messages, Stats unbatched, Stats batched) {
+    }
+
+    public record Stats(long mean, long p50, long p95, long p99, int calls, long failed, double hitRate) {
+    }
+
+    private record Verdict(boolean toxic, int score) {
+    }
+
+    private static final Gson GSON = new Gson();
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+    private static final int LATENCY_MS = 150;
+    private static final int JITTER_MS = 50;
+    private static final double HANG_CHANCE = 0.03;
+    private static final int HANG_MS = 2500;
+    private static final int SPACING_MS = 5;
+
+    private static final List<String> PHRASES = List.of(
+            "gg", "anyone want to trade", "lag", "where is spawn", "you are trash", "nice build",
+            "how do i claim land", "stop killing me", "noob", "can i get help", "lol", "ez"
+    );
+
+    public static Result run(int messages, long seed) throws IOException {
+        StubServer server = new StubServer(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "LiteBansReborn-AI-Benchmark");
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .executor(executor)
+                .build();
+        try {
+            List<String> burst = burst(messages, seed);
+            ToxicityPipeline.Settings defaults = ToxicityPipeline.Settings.DEFAULTS;
+
+            // One message per call, sent as soon as a permit is free
+            ToxicityPipeline.Settings single = new ToxicityPipeline.Settings(defaults.cacheTtl(),
+                    defaults.cacheSize(), defaults.maxConcurrent(), 1, 0, defaults.maxPending());
+            Stats unbatched = measure(burst, single, client, server);
+            Stats batched = measure(burst, defaults, client, server);
+            return new Result(messages, unbatched, batched);
+        } finally {
+            executor.shutdownNow();
+            server.stop();
+        }
+    }
+
+    private static Stats measure(List<String> burst, ToxicityPipeline.Settings settings,
+                                 HttpClient client, StubServer server) {
+        ToxicityPipeline<Verdict> pipeline = new ToxicityPipeline<>(settings,
+                batch -> analyze(client, server.url(), batch), reason -> new Verdict(false, 0));
+        int callsBefore = server.calls.get();
+        long[] millis = new long[burst.size()];
+        List<CompletableFuture<Verdict>> futures = new ArrayList<>(burst.size());
+        try {
+            for (int i = 0; i < burst.size(); i++) {
+                int index = i;
+                long start = System.nanoTime();
+                futures.add(pipeline.analyze(burst.get(i), "Player" + (i % 20)).whenComplete((verdict, error) ->
+                        millis[index] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                try {
+                    Thread.sleep(SPACING_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            ToxicityPipeline.Stats stats = pipeline.getStats();
+
+            Arrays.sort(millis);
+            long total = 0;
+            for (long value : millis) {
+                total += value;
+            }
+            return new Stats(total / millis.length, percentile(millis, 0.50), percentile(millis, 0.95),
+                    percentile(millis, 0.99), server.calls.get() - callsBefore, stats.failures(), stats.hitRate());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    /**
+     * Same request shape and reply parsing as the AI providers, with a short timeout
+     */
+    private static CompletableFuture<List<Verdict>> analyze(HttpClient client, String url,
+                                                            List<ToxicityPipeline.Request> batch) {
+        JsonObject message = new JsonObject();
+        message.addProperty("role", "user");
+        message.addProperty("content", ToxicityPipeline.batchPrompt(batch, "\"toxic\": true/false, \"score\": 0-100"));
+        JsonArray messages = new JsonArray();
+        messages.add(message);
+        JsonObject body = new JsonObject();
+        body.add("messages", messages);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(GSON.toJson(body)))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                return List.<Verdict>of();
+            }
+            String content = GSON.fromJson(response.body(), JsonObject.class)
+                    .getAsJsonArray("choices").get(0).getAsJsonObject()
+                    .getAsJsonObject("message").get("content").getAsString();
+            return ToxicityPipeline.parseBatch(content, batch.size(),
+                    json -> new Verdict(json.get("toxic").getAsBoolean(), json.get("score").getAsInt()));
+        });
+    }
+
+    /**
+     * Chat burst with the repetition of a busy server: common phrases, some with a suffix
+     */
+    private static List<String> burst(int messages, long seed) {
+        Random random = new Random(seed);
+        List<String> burst = new ArrayList<>(messages);
+        for (int i = 0; i < messages; i++) {
+            String phrase = PHRASES.get(random.nextInt(PHRASES.size()));
+            burst.add(random.nextInt(3) == 0 ? phrase + " " + random.nextInt(50) : phrase);
+        }
+        return burst;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    /**
+     * Local HTTP server answering batch prompts like an OpenAI-compatible endpoint
+     */
+    private static final class StubServer {
+
+        private static final Pattern NUMBERED = Pattern.compile("(?m)^(\\d+)\\. Player: ");
+
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "LiteBansReborn-AI-Stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubServer(long seed) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+            Random random = new Random(seed);
+            server.createContext("/v1/chat/completions", exchange -> {
+                calls.incrementAndGet();
+                int delay;
+                synchronized (random) {
+                    delay = random.nextDouble() < HANG_CHANCE ? HANG_MS : LATENCY_MS + random.nextInt(JITTER_MS + 1);
+                }
+                String prompt;
+                try {
+                    JsonObject request = GSON.fromJson(new String(exchange.getRequestBody().readAllBytes(),
+                            StandardCharsets.UTF_8), JsonObject.class);
+                    prompt = request.getAsJsonArray("messages").get(0).getAsJsonObject().get("content").getAsString();
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    exchange.close();
+                    return;
+                }
+
+                JsonArray verdicts = new JsonArray();
+                Matcher matcher = NUMBERED.matcher(prompt);
+                while (matcher.find()) {
+                    JsonObject verdict = new JsonObject();
+                    verdict.addProperty("id", Integer.parseInt(matcher.group(1)));
+                    verdict.addProperty("toxic", false);
+                    verdict.addProperty("score", 3);
+                    verdict.addProperty("reason", "stub");
+                    verdicts.add(verdict);
+                }
+                JsonObject message = new JsonObject();
+                message.addProperty("role", "assistant");
+                message.addProperty("content", GSON.toJson(verdicts));
+                JsonObject choice = new JsonObject();
+                choice.add("message", message);
+                JsonArray choices = new JsonArray();
+                choices.add(choice);
+                JsonObject reply = new JsonObject();
+                reply.add("choices", choices);
+
+                byte[] body = GSON.toJson(reply).getBytes(StandardCharsets.UTF_8);
+                try {
+                    exchange.getResponseHeaders().set("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                } catch (IOException ignored) {
+                    // Client timed out and went away
+                } finally {
+                    exchange.close();
+                }
+            });
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.nuvik.litebansreborn.antivpn;
+
+import okhttp3.Call;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Hedged Provider Query - asks VPN API providers in latency order and
+ * takes the first answer
+ *
+ * The best ranked provider (see {@link ProviderStats#score()}) is queried
+ * first. If it has not answered after its p95 latency, the next one is
+ * started as well, up to maxParallel at a time; a failed or empty answer
+ * starts the next provider right away. The first provider to return a
+ * result wins and the others are cancelled, including their HTTP calls.
+ */
+final class HedgedProviderQuery {
+
+    private static final ThreadLocal<Attempt> CURRENT = new ThreadLocal<>();
+
+    private final ExecutorService executor;
+    private final int maxParallel;
+    private final long minDelayMs;
+    private final long maxDelayMs;
+    private final long timeoutMs;
+    private final Consumer<VPNManager.VPNAPIProvider> onError;
+    private final Map<String, ProviderStats> stats = new ConcurrentHashMap<>();
+    private final LongAdder hedges = new LongAdder();
+
+    HedgedProviderQuery(ExecutorService executor, int maxParallel, long minDelayMs, long maxDelayMs,
+                        long timeoutMs, Consumer<VPNManager.VPNAPIProvider> onError) {
+        this.executor = executor;
+        this.maxParallel = Math.max(1, maxParallel);
+        this.minDelayMs = minDelayMs;
+        this.maxDelayMs = Math.max(minDelayMs, maxDelayMs);
+        this.timeoutMs = timeoutMs;
+        this.onError = onError;
+    }
+
+    /**
+     * Register an HTTP call made by a provider so a cancelled attempt can abort it
+     */
+    static Call track(Call call) {
+        Attempt attempt = CURRENT.get();
+        if (attempt != null) {
+            attempt.call = call;
+            if (attempt.cancelled) {
+                call.cancel();
+            }
+        }
+        return call;
+    }
+
+    ProviderStats stats(VPNManager.VPNAPIProvider provider) {
+        return stats.computeIfAbsent(provider.getName(), ProviderStats::new);
+    }
+
+    List<ProviderStats.Snapshot> snapshots(List<VPNManager.VPNAPIProvider> providers) {
+        List<ProviderStats.Snapshot> list = new ArrayList<>();
+        for (VPNManager.VPNAPIProvider provider : rank(providers)) {
+            list.add(stats(provider).snapshot());
+        }
+        return list;
+    }
+
+    long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * Providers ordered best first (stable, so configured order breaks ties)
+     */
+    List<VPNManager.VPNAPIProvider> rank(List<VPNManager.VPNAPIProvider> providers) {
+        // Scores change while other lookups run, so sort on a fixed copy of them
+        List<Ranked> scored = new ArrayList<>(providers.size());
+        for (VPNManager.VPNAPIProvider provider : providers) {
+            scored.add(new Ranked(provider, stats(provider).score()));
+        }
+        scored.sort(Comparator.comparingDouble(Ranked::score));
+
+        List<VPNManager.VPNAPIProvider> ranked = new ArrayList<>(scored.size());
+        for (Ranked entry : scored) {
+            ranked.add(entry.provider());
+        }
+        return ranked;
+    }
+
+    private record Ranked(VPNManager.VPNAPIProvider provider, double score) {
+    }
+
+    /**
+     * Query a single provider on the calling thread, recording its latency
+     */
+    VPNResult attempt(VPNManager.VPNAPIProvider provider, String ip) throws Exception {
+        ProviderStats providerStats = stats(provider);
+        long start = System.nanoTime();
+        try {
+            VPNResult result = provider.check(ip);
+            long millis = elapsedMillis(start);
+            if (result != null) {
+                providerStats.recordSuccess(millis);
+            } else {
+                providerStats.recordFailure(millis);
+            }
+            return result;
+        } catch (Exception e) {
+            Attempt current = CURRENT.get();
+            if (current != null && current.cancelled) {
+                providerStats.recordCancelled(elapsedMillis(start));
+            } else {
+                providerStats.recordFailure(elapsedMillis(start));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Race the given providers for an answer (blocking)
+     *
+     * @return the first result, or null if every provider failed or the timeout passed
+     */
+    VPNResult query(String ip, List<VPNManager.VPNAPIProvider> providers) {
+        List<VPNManager.VPNAPIProvider> ranked = rank(providers);
+        BlockingQueue<Attempt> finished = new LinkedBlockingQueue<>();
+        List<Attempt> started = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        long nextLaunch = System.nanoTime();
+        int next = 0;
+        int running = 0;
+
+        try {
+            while (running > 0 || next < ranked.size()) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    break;
+                }
+                boolean canLaunch = next < ranked.size() && running < maxParallel;
+                if (canLaunch && now >= nextLaunch) {
+                    Attempt attempt = new Attempt(ranked.get(next++), ip, finished);
+                    if (!attempt.start()) {
+                        break;
+                    }
+                    if (running > 0) {
+                        hedges.increment();
+                    }
+                    started.add(attempt);
+                    running++;
+                    nextLaunch = now + TimeUnit.MILLISECONDS.toNanos(hedgeDelay(attempt.provider));
+                    continue;
+                }
+
+                long wait = deadline - now;
+                if (canLaunch) {
+                    wait = Math.min(wait, nextLaunch - now);
+                }
+                Attempt done = finished.poll(wait, TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    continue;
+                }
+                running--;
+                if (done.result != null) {
+                    return done.result;
+                }
+                // No answer from this one, start the next without waiting
+                nextLaunch = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Attempt attempt : started) {
+                attempt.cancel();
+            }
+        }
+        return null;
+    }
+
+    private long hedgeDelay(VPNManager.VPNAPIProvider provider) {
+        long p95 = stats(provider).p95();
+        if (p95 < 0) {
+            // Not enough samples yet, fall back to twice the running average
+            p95 = stats(provider).averageMillis() * 2;
+        }
+        return Math.max(minDelayMs, Math.min(maxDelayMs, p95));
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * One provider lookup running on the executor
+     */
+    private final class Attempt implements Runnable {
+
+        private final VPNManager.VPNAPIProvider provider;
+        private final String ip;
+        private final BlockingQueue<Attempt> finished;
+        private volatile Future<?> future;
+        private volatile Call call;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private VPNResult result;
+
+        Attempt(VPNManager.VPNAPIProvider provider, String ip, BlockingQueue<Attempt> finished) {
+            this.provider = provider;
+            this.ip = ip;
+            this.finished = finished;
+        }
+
+        boolean start() {
+            try {
+                future = executor.submit(this);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            CURRENT.set(this);
+            try {
+                result = attempt(provider, ip);
+            } catch (Exception e) {
+                if (!cancelled) {
+                    onError.accept(provider);
+                }
+            } finally {
+                CURRENT.remove();
+                done = true;
+                finished.add(this);
+            }
+        }
+
+        void cancel() {
+            if (done) {
+                return;
+            }
+            cancelled = true;
+            Call active = call;
+            if (active != null) {
+                active.cancel();
+            }
+            Future<?> running = future;
+            if (running != null) {
+                running.cancel(true);
+            }
+        }
+    }
+}
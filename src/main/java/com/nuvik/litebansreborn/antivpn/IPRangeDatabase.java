@@ -0,0 +1,650 @@
+package com.nuvik.litebansreborn.antivpn;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * IP Range Database - offline classification of IPs against CIDR lists
+ *
+ * Lists are plain text files (one CIDR or single IP per line, '#' starts a
+ * comment) for IPv4 and IPv6 alike. The file name picks the category:
+ * vpn*, proxy*, tor*, anything else (datacenter, hosting, ASN dumps) counts
+ * as hosting.
+ *
+ * All ranges are flattened into sorted, non-overlapping segments (where
+ * lists overlap the categories are combined) stored in primitive arrays,
+ * one set per address family. A lookup parses the address in place and
+ * binary searches the segments, so it allocates nothing. Instances are
+ * immutable; reloading builds a new one.
+ */
+public final class IPRangeDatabase {
+
+    public static final int VPN = 1;
+    public static final int PROXY = 2;
+    public static final int HOSTING = 4;
+    public static final int TOR = 8;
+
+    private static final IPRangeDatabase EMPTY = new IPRangeDatabase(new String[0],
+            new long[0], new long[0], new byte[0], new short[0],
+            new long[0], new long[0], new long[0], new long[0], new byte[0], new short[0], 0, 0);
+
+    private static final BigInteger LONG_MASK = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+    private final String[] sources;
+
+    // IPv4 segments (addresses as unsigned 32-bit values in longs)
+    private final long[] v4Start;
+    private final long[] v4End;
+    private final byte[] v4Flags;
+    private final short[] v4Source;
+
+    // IPv6 segments (128-bit addresses as high/low longs, compared unsigned)
+    private final long[] v6StartHigh;
+    private final long[] v6StartLow;
+    private final long[] v6EndHigh;
+    private final long[] v6EndLow;
+    private final byte[] v6Flags;
+    private final short[] v6Source;
+
+    private final int ranges;
+    private final int invalidLines;
+    // Created once so IPv6 lookups do not allocate a lambda per call
+    private final V6Consumer v6Search = this::searchV6OrMapped;
+
+    /**
+     * Receives a parsed IPv6 address
+     */
+    @FunctionalInterface
+    private interface V6Consumer {
+        int accept(long high, long low);
+    }
+
+    private IPRangeDatabase(String[] sources, long[] v4Start, long[] v4End, byte[] v4Flags, short[] v4Source,
+                            long[] v6StartHigh, long[] v6StartLow, long[] v6EndHigh, long[] v6EndLow,
+                            byte[] v6Flags, short[] v6Source, int ranges, int invalidLines) {
+        this.sources = sources;
+        this.v4Start = v4Start;
+        this.v4End = v4End;
+        this.v4Flags = v4Flags;
+        this.v4Source = v4Source;
+        this.v6StartHigh = v6StartHigh;
+        this.v6StartLow = v6StartLow;
+        this.v6EndHigh = v6EndHigh;
+        this.v6EndLow = v6EndLow;
+        this.v6Flags = v6Flags;
+        this.v6Source = v6Source;
+        this.ranges = ranges;
+        this.invalidLines = invalidLines;
+    }
+
+    public static IPRangeDatabase empty() {
+        return EMPTY;
+    }
+
+    // ==================== LOOKUP ====================
+
+    /**
+     * Segment containing the IP, or -1 (also for unparsable input)
+     *
+     * Segment indexes below {@link #v4Segments()} are IPv4, the rest IPv6.
+     */
+    public int find(String ip) {
+        if (ip.indexOf(':') >= 0) {
+            return findV6(ip);
+        }
+        long address = parseV4(ip, 0, ip.length());
+        return address < 0 ? -1 : searchV4(address);
+    }
+
+    /**
+     * Category bits of a segment returned by {@link #find(String)}
+     */
+    public int flags(int segment) {
+        return segment < v4Flags.length ? v4Flags[segment] : v6Flags[segment - v4Flags.length];
+    }
+
+    /**
+     * Name of the list a segment came from
+     */
+    public String source(int segment) {
+        return sources[segment < v4Source.length ? v4Source[segment] : v6Source[segment - v4Source.length]];
+    }
+
+    public int v4Segments() {
+        return v4Start.length;
+    }
+
+    public int v6Segments() {
+        return v6StartHigh.length;
+    }
+
+    /**
+     * Ranges read from the lists (before merging)
+     */
+    public int getRangeCount() {
+        return ranges;
+    }
+
+    public int getInvalidLines() {
+        return invalidLines;
+    }
+
+    public int getListCount() {
+        return sources.length;
+    }
+
+    /**
+     * Network an address belongs to for verdict sharing: its /24 for IPv4
+     * (also IPv4-mapped IPv6), its /64 for IPv6, or null if unparsable
+     */
+    public static String subnetOf(String ip) {
+        if (ip.indexOf(':') < 0) {
+            long address = parseV4(ip, 0, ip.length());
+            return address < 0 ? null : v4Subnet(address);
+        }
+        int length = ip.indexOf('%');
+        if (length < 0) {
+            length = ip.length();
+        }
+        String[] subnet = new String[1];
+        parseV6(ip, 0, length, (high, low) -> {
+            if (high == 0 && low >>> 32 == 0xFFFFL) {
+                subnet[0] = v4Subnet(low & 0xFFFFFFFFL);
+            } else {
+                subnet[0] = Long.toHexString(high >>> 48) + ":" + Long.toHexString(high >>> 32 & 0xFFFF) + ":"
+                        + Long.toHexString(high >>> 16 & 0xFFFF) + ":" + Long.toHexString(high & 0xFFFF) + "::/64";
+            }
+            return 0;
+        });
+        return subnet[0];
+    }
+
+    private static String v4Subnet(long address) {
+        return (address >>> 24) + "." + (address >>> 16 & 0xFF) + "." + (address >>> 8 & 0xFF) + ".0/24";
+    }
+
+    private int searchV4(long address) {
+        int low = 0;
+        int high = v4Start.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (v4Start[mid] <= address) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // high is the last segment starting at or before the address
+        return high >= 0 && address <= v4End[high] ? high : -1;
+    }
+
+    private int searchV6(long addressHigh, long addressLow) {
+        int low = 0;
+        int high = v6StartHigh.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(v6StartHigh[mid], v6StartLow[mid], addressHigh, addressLow) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high >= 0 && compare(addressHigh, addressLow, v6EndHigh[high], v6EndLow[high]) <= 0) {
+            return v4Start.length + high;
+        }
+        return -1;
+    }
+
+    private static int compare(long aHigh, long aLow, long bHigh, long bLow) {
+        int result = Long.compareUnsigned(aHigh, bHigh);
+        return result != 0 ? result : Long.compareUnsigned(aLow, bLow);
+    }
+
+    private int findV6(String ip) {
+        int length = ip.indexOf('%');
+        if (length < 0) {
+            length = ip.length();
+        }
+        if (length > 0 && ip.charAt(0) == '[' && ip.charAt(length - 1) == ']') {
+            return parseV6(ip, 1, length - 1, v6Search);
+        }
+        return parseV6(ip, 0, length, v6Search);
+    }
+
+    private int searchV6OrMapped(long high, long low) {
+        // IPv4-mapped addresses are looked up as IPv4
+        if (high == 0 && low >>> 32 == 0xFFFFL) {
+            return searchV4(low & 0xFFFFFFFFL);
+        }
+        return searchV6(high, low);
+    }
+
+    /**
+     * Parse an IPv6 address into two longs without allocating and pass it on
+     *
+     * @return the consumer's result, or -1 if the address is invalid
+     */
+    private static int parseV6(String ip, int from, int to, V6Consumer consumer) {
+        long headHigh = 0;
+        long headLow = 0;
+        int headGroups = 0;
+        long tailHigh = 0;
+        long tailLow = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+
+        int i = from;
+        if (to - from >= 2 && ip.charAt(i) == ':' && ip.charAt(i + 1) == ':') {
+            compressed = true;
+            i += 2;
+        }
+        while (i < to) {
+            int start = i;
+            int value = 0;
+            int digit;
+            while (i < to && i - start < 5 && (digit = hex(ip.charAt(i))) >= 0) {
+                value = value << 4 | digit;
+                i++;
+            }
+            int groups = 1;
+            if (i < to && ip.charAt(i) == '.') {
+                // Embedded IPv4 (::ffff:1.2.3.4), always the last two groups
+                long v4 = parseV4(ip, start, to);
+                if (v4 < 0) {
+                    return -1;
+                }
+                groups = 2;
+                i = to;
+                if (compressed) {
+                    tailHigh = tailHigh << 32 | tailLow >>> 32;
+                    tailLow = tailLow << 32 | v4;
+                } else {
+                    headHigh = headHigh << 32 | headLow >>> 32;
+                    headLow = headLow << 32 | v4;
+                }
+            } else {
+                if (i == start || i - start > 4) {
+                    return -1;
+                }
+                if (compressed) {
+                    tailHigh = tailHigh << 16 | tailLow >>> 48;
+                    tailLow = tailLow << 16 | value;
+                } else {
+                    headHigh = headHigh << 16 | headLow >>> 48;
+                    headLow = headLow << 16 | value;
+                }
+            }
+            if (compressed) {
+                tailGroups += groups;
+            } else {
+                headGroups += groups;
+            }
+            if (i == to) {
+                break;
+            }
+            if (ip.charAt(i) != ':') {
+                return -1;
+            }
+            i++;
+            if (i < to && ip.charAt(i) == ':') {
+                if (compressed) {
+                    return -1;
+                }
+                compressed = true;
+                i++;
+            } else if (i == to) {
+                return -1;
+            }
+        }
+
+        int total = headGroups + tailGroups;
+        if (compressed ? total > 7 : total != 8) {
+            return -1;
+        }
+        // Shift the head into place, the compressed zeros sit between head and tail
+        int shift = 16 * (8 - headGroups);
+        long high;
+        long low;
+        if (shift == 0) {
+            high = headHigh;
+            low = headLow;
+        } else if (shift == 128) {
+            high = 0;
+            low = 0;
+        } else if (shift >= 64) {
+            high = headLow << (shift - 64);
+            low = 0;
+        } else {
+            high = headHigh << shift | headLow >>> (64 - shift);
+            low = headLow << shift;
+        }
+        return consumer.accept(high | tailHigh, low | tailLow);
+    }
+
+    private static int hex(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Dotted IPv4 as an unsigned value, or -1
+     */
+    private static long parseV4(String ip, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int value = 0;
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 3 || value > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && digits > 0 && octets < 3) {
+                address = address << 8 | value;
+                octets++;
+                value = 0;
+                digits = 0;
+            } else {
+                return -1;
+            }
+        }
+        if (digits == 0 || octets != 3) {
+            return -1;
+        }
+        return address << 8 | value;
+    }
+
+    // ==================== LOADING ====================
+
+    /**
+     * Category bits implied by a list's file name
+     */
+    static int categoryOf(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.startsWith("vpn")) {
+            return VPN;
+        }
+        if (name.startsWith("proxy") || name.startsWith("proxies")) {
+            return PROXY;
+        }
+        if (name.startsWith("tor")) {
+            return TOR;
+        }
+        return HOSTING;
+    }
+
+    /**
+     * Load every .txt/.list/.netset file in the folder (missing folder = empty database)
+     */
+    public static IPRangeDatabase load(Path folder) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            return EMPTY;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(folder)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(path -> isListFile(path.getFileName().toString()))
+                    .sorted()
+                    .toList();
+        }
+
+        Builder builder = new Builder();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            String source = name.substring(0, name.lastIndexOf('.'));
+            int category = categoryOf(name);
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    builder.addLine(line, category, source);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    static boolean isListFile(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".txt") || lower.endsWith(".list") || lower.endsWith(".netset");
+    }
+
+    /**
+     * Collects ranges and flattens them into segments
+     */
+    static final class Builder {
+
+        private record Range(BigInteger start, BigInteger end, int flags, int source) {
+        }
+
+        private final List<String> sources = new ArrayList<>();
+        private final List<Range> v4 = new ArrayList<>();
+        private final List<Range> v6 = new ArrayList<>();
+        private int invalidLines = 0;
+
+        /**
+         * Add one list line; blank lines and comments are ignored
+         */
+        void addLine(String line, int flags, String source) {
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith(";")) {
+                return;
+            }
+            // Only the first token counts (lists often append a description)
+            int space = indexOfWhitespace(line);
+            if (space > 0) {
+                line = line.substring(0, space);
+            }
+            if (!add(line, flags, source)) {
+                invalidLines++;
+            }
+        }
+
+        private static int indexOfWhitespace(String line) {
+            for (int i = 0; i < line.length(); i++) {
+                if (Character.isWhitespace(line.charAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Add a CIDR ("10.0.0.0/8", "2001:db8::/32") or a single address
+         */
+        boolean add(String cidr, int flags, String source) {
+            int slash = cidr.indexOf('/');
+            String address = slash < 0 ? cidr : cidr.substring(0, slash);
+            boolean v6 = address.indexOf(':') >= 0;
+            int bits = v6 ? 128 : 32;
+            int prefix = bits;
+            if (slash >= 0) {
+                try {
+                    prefix = Integer.parseInt(cidr.substring(slash + 1));
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+                if (prefix < 0 || prefix > bits) {
+                    return false;
+                }
+            }
+
+            BigInteger value = parse(address, v6);
+            if (value == null) {
+                return false;
+            }
+            BigInteger hostMask = BigInteger.ONE.shiftLeft(bits - prefix).subtract(BigInteger.ONE);
+            BigInteger start = value.andNot(hostMask);
+            BigInteger end = start.or(hostMask);
+
+            int sourceIndex = sources.indexOf(source);
+            if (sourceIndex < 0) {
+                sourceIndex = sources.size();
+                sources.add(source);
+            }
+            (v6 ? this.v6 : this.v4).add(new Range(start, end, flags, sourceIndex));
+            return true;
+        }
+
+        private static BigInteger parse(String address, boolean v6) {
+            if (!v6) {
+                long value = parseV4(address, 0, address.length());
+                return value < 0 ? null : BigInteger.valueOf(value);
+            }
+            BigInteger[] parsed = new BigInteger[1];
+            parseV6(address, 0, address.length(), (high, low) -> {
+                parsed[0] = unsigned(high).shiftLeft(64).or(unsigned(low));
+                return 0;
+            });
+            return parsed[0];
+        }
+
+        private static BigInteger unsigned(long value) {
+            return BigInteger.valueOf(value).and(LONG_MASK);
+        }
+
+        IPRangeDatabase build() {
+            Segments four = flatten(v4);
+            Segments six = flatten(v6);
+            long[] v4Start = new long[four.size()];
+            long[] v4End = new long[four.size()];
+            for (int i = 0; i < four.size(); i++) {
+                v4Start[i] = four.starts.get(i).longValue();
+                v4End[i] = four.ends.get(i).longValue();
+            }
+            long[] v6StartHigh = new long[six.size()];
+            long[] v6StartLow = new long[six.size()];
+            long[] v6EndHigh = new long[six.size()];
+            long[] v6EndLow = new long[six.size()];
+            for (int i = 0; i < six.size(); i++) {
+                v6StartHigh[i] = six.starts.get(i).shiftRight(64).longValue();
+                v6StartLow[i] = six.starts.get(i).longValue();
+                v6EndHigh[i] = six.ends.get(i).shiftRight(64).longValue();
+                v6EndLow[i] = six.ends.get(i).longValue();
+            }
+            return new IPRangeDatabase(sources.toArray(new String[0]),
+                    v4Start, v4End, four.flags(), four.sources(),
+                    v6StartHigh, v6StartLow, v6EndHigh, v6EndLow, six.flags(), six.sources(),
+                    v4.size() + v6.size(), invalidLines);
+        }
+
+        /**
+         * Sweep over all range boundaries; between two boundaries the active
+         * ranges are constant, so each gap becomes one segment carrying their
+         * combined flags and the first list (by load order) covering it
+         */
+        private Segments flatten(List<Range> ranges) {
+            record Event(BigInteger point, Range range, boolean open) {
+            }
+            List<Event> events = new ArrayList<>(ranges.size() * 2);
+            for (Range range : ranges) {
+                events.add(new Event(range.start(), range, true));
+                events.add(new Event(range.end().add(BigInteger.ONE), range, false));
+            }
+            events.sort(Comparator.comparing(Event::point));
+
+            Segments segments = new Segments();
+            int[] flagCounts = new int[4];
+            int[] sourceCounts = new int[sources.size()];
+            int i = 0;
+            while (i < events.size()) {
+                BigInteger point = events.get(i).point();
+                for (; i < events.size() && events.get(i).point().equals(point); i++) {
+                    Event event = events.get(i);
+                    int delta = event.open() ? 1 : -1;
+                    for (int bit = 0; bit < flagCounts.length; bit++) {
+                        if ((event.range().flags() & 1 << bit) != 0) {
+                            flagCounts[bit] += delta;
+                        }
+                    }
+                    sourceCounts[event.range().source()] += delta;
+                }
+                if (i == events.size()) {
+                    break;
+                }
+                int flags = 0;
+                for (int bit = 0; bit < flagCounts.length; bit++) {
+                    if (flagCounts[bit] > 0) {
+                        flags |= 1 << bit;
+                    }
+                }
+                int source = -1;
+                for (int j = 0; j < sourceCounts.length && source < 0; j++) {
+                    if (sourceCounts[j] > 0) {
+                        source = j;
+                    }
+                }
+                if (source >= 0) {
+                    segments.add(point, events.get(i).point().subtract(BigInteger.ONE), flags, source);
+                }
+            }
+            return segments;
+        }
+    }
+
+    /**
+     * Segment lists under construction, adjacent equal segments are joined
+     */
+    private static final class Segments {
+
+        private final List<BigInteger> starts = new ArrayList<>();
+        private final List<BigInteger> ends = new ArrayList<>();
+        private final List<Integer> flagList = new ArrayList<>();
+        private final List<Integer> sourceList = new ArrayList<>();
+
+        void add(BigInteger start, BigInteger end, int flags, int source) {
+            int last = starts.size() - 1;
+            if (last >= 0 && flagList.get(last) == flags && sourceList.get(last) == source
+                    && ends.get(last).add(BigInteger.ONE).equals(start)) {
+                ends.set(last, end);
+                return;
+            }
+            starts.add(start);
+            ends.add(end);
+            flagList.add(flags);
+            sourceList.add(source);
+        }
+
+        int size() {
+            return starts.size();
+        }
+
+        byte[] flags() {
+            byte[] flags = new byte[flagList.size()];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = flagList.get(i).byteValue();
+            }
+            return flags;
+        }
+
+        short[] sources() {
+            short[] result = new short[sourceList.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = sourceList.get(i).shortValue();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.nuvik.litebansreborn.antivpn;
+
+import java.util.Arrays;
+
+/**
+ * Provider Stats - running latency and error figures for one VPN API provider
+ *
+ * Latency and error rate are exponentially weighted moving averages, so a
+ * provider that slows down or starts failing drops in the ranking within a
+ * handful of lookups. The last {@link #WINDOW} latencies are kept for the
+ * p95 used as hedge delay.
+ */
+public final class ProviderStats {
+
+    static final int WINDOW = 64;
+    private static final double ALPHA = 0.2;
+    private static final int MIN_P95_SAMPLES = 8;
+    private static final long INITIAL_LATENCY_MS = 500;
+    // An error costs as much as this much extra latency when ranking
+    private static final long ERROR_PENALTY_MS = 2000;
+
+    private final String name;
+    private final long[] latencies = new long[WINDOW];
+    private int latencyCount = 0;
+    private int latencyHead = 0;
+    private double latencyEwma = INITIAL_LATENCY_MS;
+    private double errorEwma = 0;
+    private long successes = 0;
+    private long failures = 0;
+    private long cancelled = 0;
+
+    public record Snapshot(String name, long averageMillis, long p95Millis, double errorRate,
+                           long successes, long failures, long cancelled) {
+    }
+
+    public ProviderStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized void recordSuccess(long millis) {
+        successes++;
+        addLatency(millis);
+        errorEwma = (1 - ALPHA) * errorEwma;
+    }
+
+    /**
+     * An exception or an answer without data
+     */
+    public synchronized void recordFailure(long millis) {
+        failures++;
+        latencyEwma = ALPHA * millis + (1 - ALPHA) * latencyEwma;
+        errorEwma = ALPHA + (1 - ALPHA) * errorEwma;
+    }
+
+    /**
+     * Cancelled because another provider answered first; the elapsed time is
+     * a lower bound of its latency, which keeps slow providers from looking
+     * fast just because they never get to finish
+     */
+    public synchronized void recordCancelled(long millis) {
+        cancelled++;
+        if (millis > latencyEwma) {
+            latencyEwma = ALPHA * millis + (1 - ALPHA) * latencyEwma;
+        }
+    }
+
+    private void addLatency(long millis) {
+        latencies[latencyHead] = millis;
+        latencyHead = (latencyHead + 1) % WINDOW;
+        latencyCount = Math.min(latencyCount + 1, WINDOW);
+        latencyEwma = ALPHA * millis + (1 - ALPHA) * latencyEwma;
+    }
+
+    /**
+     * Ranking score, lower is better (expected latency plus error penalty)
+     */
+    public synchronized double score() {
+        return latencyEwma + errorEwma * ERROR_PENALTY_MS;
+    }
+
+    /**
+     * 95th percentile of recent successful lookups, or -1 with too few samples
+     */
+    public synchronized long p95() {
+        if (latencyCount < MIN_P95_SAMPLES) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.95 * latencyCount) - 1];
+    }
+
+    public synchronized long averageMillis() {
+        return Math.round(latencyEwma);
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(name, Math.round(latencyEwma), p95(), errorEwma, successes, failures, cancelled);
+    }
+}
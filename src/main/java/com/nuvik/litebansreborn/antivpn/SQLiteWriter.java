@@ -0,0 +1,258 @@
+package com.nuvik.litebansreborn.antivpn;
+
+import com.nuvik.litebansreborn.LiteBansReborn;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+
+/**
+ * SQLite Writer - single thread owning the write connection
+ *
+ * Writes are queued and the thread drains whatever is waiting (up to
+ * maxBatch) into one transaction, so a burst of joins costs one commit
+ * instead of one per row. Prepared statements are cached per SQL string.
+ * A write's future completes only after its transaction committed; a write
+ * that fails is rolled back to its savepoint, logged and completed
+ * exceptionally without affecting the rest of its batch.
+ */
+final class SQLiteWriter {
+
+    /**
+     * Work done on the write connection, returns an update count
+     */
+    @FunctionalInterface
+    interface Task {
+        int run(SQLiteWriter writer) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    private record Write(String description, Task task, CompletableFuture<Integer> done) {
+    }
+
+    private static final Write STOP = new Write("stop", writer -> 0, new CompletableFuture<>());
+
+    private final LiteBansReborn plugin;
+    private final Connection connection;
+    private final int maxBatch;
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final Thread thread;
+    private volatile boolean closed = false;
+
+    SQLiteWriter(LiteBansReborn plugin, Connection connection, int maxBatch) throws SQLException {
+        this.plugin = plugin;
+        this.connection = connection;
+        this.maxBatch = Math.max(1, maxBatch);
+        connection.setAutoCommit(false);
+        this.thread = new Thread(this::run, "LiteBansReborn-VPN-Writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queue a single statement
+     */
+    CompletableFuture<Integer> update(String description, String sql, Binder binder) {
+        return submit(description, writer -> {
+            PreparedStatement statement = writer.statement(sql);
+            binder.bind(statement);
+            return statement.executeUpdate();
+        });
+    }
+
+    /**
+     * Queue a task that may run several statements (all in the same transaction)
+     */
+    CompletableFuture<Integer> submit(String description, Task task) {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        if (closed) {
+            done.completeExceptionally(new SQLException("VPN database is closed"));
+            return done;
+        }
+        Write write = new Write(description, task, done);
+        queue.add(write);
+        // Raced with close(): if the writer already did its last drain, nobody will run this
+        if (closed && !thread.isAlive() && queue.remove(write)) {
+            done.completeExceptionally(new SQLException("VPN database is closed"));
+        }
+        return done;
+    }
+
+    /**
+     * Cached prepared statement (writer thread only)
+     */
+    PreparedStatement statement(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    int getPending() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Write> batch = new ArrayList<>(maxBatch);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            stopping = batch.remove(STOP);
+            try {
+                if (!batch.isEmpty()) {
+                    execute(batch);
+                }
+            } catch (RuntimeException e) {
+                // Keep the writer alive, whatever happened to this batch
+                abort(batch, e);
+            }
+            batch.clear();
+        }
+
+        // Anything queued before close() still gets written
+        queue.drainTo(batch);
+        batch.remove(STOP);
+        try {
+            if (!batch.isEmpty()) {
+                execute(batch);
+            }
+        } catch (RuntimeException e) {
+            abort(batch, e);
+        }
+        batch.clear();
+        closeConnection();
+
+        // Writes that slipped past the closed check after the last drain
+        queue.drainTo(batch);
+        batch.remove(STOP);
+        fail(batch, new SQLException("VPN database is closed"));
+    }
+
+    private void abort(List<Write> batch, RuntimeException error) {
+        plugin.log(Level.SEVERE, "VPN database writer failed a batch of " + batch.size() + " writes: " + error);
+        try {
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // Nothing left to undo
+        }
+        fail(batch, error);
+    }
+
+    private static void fail(List<Write> batch, Throwable error) {
+        for (Write write : batch) {
+            write.done().completeExceptionally(error);
+        }
+    }
+
+    private void execute(List<Write> batch) {
+        int[] results = new int[batch.size()];
+        Exception[] errors = new Exception[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Write write = batch.get(i);
+            Savepoint savepoint = null;
+            try {
+                savepoint = connection.setSavepoint();
+                results[i] = write.task().run(this);
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException | RuntimeException e) {
+                errors[i] = e;
+                plugin.log(Level.WARNING, "Failed to " + write.description() + ": " + e);
+                rollback(savepoint);
+            }
+        }
+
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            plugin.log(Level.WARNING, "Failed to commit " + batch.size() + " VPN database writes: " + e.getMessage());
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // Nothing left to undo
+            }
+            fail(batch, e);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors[i] != null) {
+                batch.get(i).done().completeExceptionally(errors[i]);
+            } else {
+                batch.get(i).done().complete(results[i]);
+            }
+        }
+    }
+
+    private void rollback(Savepoint savepoint) {
+        if (savepoint == null) {
+            return;
+        }
+        try {
+            connection.rollback(savepoint);
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException ignored) {
+            // The failed statement already ended the transaction, commit reports it
+        }
+    }
+
+    private void closeConnection() {
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // Closing anyway
+            }
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            plugin.log(Level.WARNING, "Failed to close VPN database: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop accepting writes, flush the queue and close the connection
+     */
+    void close(long timeoutMillis) {
+        closed = true;
+        queue.add(STOP);
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            plugin.log(Level.WARNING, "VPN database writer did not finish in time, " + queue.size() + " writes dropped");
+            thread.interrupt();
+        }
+        // The writer is gone, nothing left in the queue will ever run
+        if (!thread.isAlive()) {
+            List<Write> leftover = new ArrayList<>();
+            queue.drainTo(leftover);
+            leftover.remove(STOP);
+            fail(leftover, new SQLException("VPN database is closed"));
+        }
+    }
+}
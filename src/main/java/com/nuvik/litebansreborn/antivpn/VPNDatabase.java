@@ -4,22 +4,83 @@ import com.nuvik.litebansreborn.LiteBansReborn;
 
 import java.io.File;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
  * SQLite database for storing VPN detections
  * Tracks IPs, VPN providers, and player associations
+ *
+ * The database runs in WAL mode: all writes go through one
+ * {@link SQLiteWriter} thread in batched transactions, while reads use a
+ * small pool of their own connections and never wait for the writer.
+ * Statistics are kept as counters updated by each committed detection.
  */
 public class VPNDatabase {
 
+    private static final int DEFAULT_READ_CONNECTIONS = 3;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    private static final long READ_WAIT_SECONDS = 5;
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    private static final String INSERT_DETECTION_SQL = """
+        INSERT OR REPLACE INTO vpn_detections
+        (ip, player_uuid, player_name, is_vpn, is_proxy, is_hosting, is_tor,
+         vpn_provider, isp, org, asn, country, country_code, city, real_ip,
+         risk_score, api_provider, action_taken, detected_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+    """;
+
+    private static final String REPLACED_DETECTION_SQL = """
+        SELECT is_vpn OR is_proxy, action_taken, date(detected_at) = date('now')
+        FROM vpn_detections WHERE ip = ? AND player_uuid = ?
+    """;
+
+    private static final String FLAGGED_IP_SQL =
+            "SELECT 1 FROM vpn_detections WHERE ip = ? AND (is_vpn = TRUE OR is_proxy = TRUE) LIMIT 1";
+
+    private static final String TRACK_IP_SQL = """
+        INSERT INTO ip_tracking (player_uuid, player_name, ip, is_vpn, first_seen, last_seen, login_count)
+        VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1)
+        ON CONFLICT(player_uuid, ip) DO UPDATE SET
+            player_name = excluded.player_name,
+            is_vpn = excluded.is_vpn,
+            last_seen = CURRENT_TIMESTAMP,
+            login_count = login_count + 1
+    """;
+
+    private static final String UPDATE_PROVIDER_SQL = """
+        INSERT INTO known_vpn_providers (provider_name, detection_count, first_detected, last_detected)
+        VALUES (?, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        ON CONFLICT(provider_name) DO UPDATE SET
+            detection_count = detection_count + 1,
+            last_detected = CURRENT_TIMESTAMP
+    """;
+
+    private static final String SAVE_VERDICT_SQL = """
+        INSERT OR REPLACE INTO vpn_verdicts
+        (ip, is_vpn, is_proxy, is_hosting, is_tor, vpn_provider, isp, org, asn,
+         country, country_code, city, real_ip, risk_score, api_provider, checked_at, expires_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
     private final LiteBansReborn plugin;
-    private Connection connection;
     private final File databaseFile;
-    private final Object dbLock = new Object(); // Lock for SQLite thread safety
+    private final DetectionCounters counters = new DetectionCounters();
+    private Connection writeConnection;
+    private SQLiteWriter writer;
+    private BlockingQueue<Connection> readers;
+    private volatile boolean open = false;
 
     public VPNDatabase(LiteBansReborn plugin) {
         this.plugin = plugin;
@@ -27,7 +88,7 @@ public class VPNDatabase {
     }
 
     /**
-     * Initialize the database connection and create tables
+     * Initialize the database connections and create tables
      */
     public void initialize() {
         try {
@@ -36,9 +97,33 @@ public class VPNDatabase {
             }
 
             Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            String url = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
+            writeConnection = DriverManager.getConnection(url);
+            try (Statement stmt = writeConnection.createStatement()) {
+                // WAL lets the readers run while the writer commits
+                stmt.execute("PRAGMA journal_mode=WAL");
+                stmt.execute("PRAGMA synchronous=NORMAL");
+                stmt.execute("PRAGMA busy_timeout=5000");
+            }
 
             createTables();
+            counters.load(writeConnection);
+
+            int readConnections = Math.max(1, plugin.getConfigManager().getInt(
+                    "anti-vpn.database.read-connections", DEFAULT_READ_CONNECTIONS));
+            readers = new ArrayBlockingQueue<>(readConnections);
+            for (int i = 0; i < readConnections; i++) {
+                Connection reader = DriverManager.getConnection(url);
+                try (Statement stmt = reader.createStatement()) {
+                    stmt.execute("PRAGMA busy_timeout=5000");
+                    stmt.execute("PRAGMA query_only=ON");
+                }
+                readers.add(reader);
+            }
+
+            writer = new SQLiteWriter(plugin, writeConnection, plugin.getConfigManager().getInt(
+                    "anti-vpn.database.max-batch-size", DEFAULT_MAX_BATCH_SIZE));
+            open = true;
             plugin.log(Level.INFO, "§aVPN Database initialized successfully!");
         } catch (Exception e) {
             plugin.log(Level.SEVERE, "Failed to initialize VPN database: " + e.getMessage());
@@ -50,7 +135,7 @@ public class VPNDatabase {
      * Create the necessary tables
      */
     private void createTables() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
+        try (Statement stmt = writeConnection.createStatement()) {
             // Main VPN detections table
             stmt.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS vpn_detections (
@@ -116,116 +201,194 @@ public class VPNDatabase {
                 )
             """);
 
+            // Last verdict per IP, the persistent tier of the VPN cache
+            stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS vpn_verdicts (
+                    ip VARCHAR(45) PRIMARY KEY,
+                    is_vpn BOOLEAN DEFAULT FALSE,
+                    is_proxy BOOLEAN DEFAULT FALSE,
+                    is_hosting BOOLEAN DEFAULT FALSE,
+                    is_tor BOOLEAN DEFAULT FALSE,
+                    vpn_provider VARCHAR(255),
+                    isp VARCHAR(255),
+                    org VARCHAR(255),
+                    asn VARCHAR(50),
+                    country VARCHAR(100),
+                    country_code VARCHAR(10),
+                    city VARCHAR(100),
+                    real_ip VARCHAR(45),
+                    risk_score DOUBLE DEFAULT 0.0,
+                    api_provider VARCHAR(50),
+                    checked_at BIGINT NOT NULL,
+                    expires_at BIGINT NOT NULL
+                )
+            """);
+
             // Create indexes for faster lookups
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_vpn_ip ON vpn_detections(ip)");
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_vpn_player ON vpn_detections(player_uuid)");
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_tracking_uuid ON ip_tracking(player_uuid)");
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_tracking_ip ON ip_tracking(ip)");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_verdicts_checked ON vpn_verdicts(checked_at)");
+        }
+    }
+
+    // ==================== WRITER / READERS ====================
+
+    @FunctionalInterface
+    private interface Query<T> {
+        T run(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Queue a write; the future completes once it is committed (failures are logged by the writer)
+     */
+    private CompletableFuture<Void> write(String action, SQLiteWriter.Task task) {
+        if (!open) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return writer.submit(action, task).handle((count, error) -> null);
+    }
+
+    /**
+     * Run a query on a pooled read connection (blocking)
+     */
+    private <T> T read(String action, T fallback, Query<T> query) {
+        if (!open) {
+            return fallback;
+        }
+        Connection reader = null;
+        try {
+            reader = readers.poll(READ_WAIT_SECONDS, TimeUnit.SECONDS);
+            if (reader == null) {
+                throw new SQLException("no read connection available");
+            }
+            return query.run(reader);
+        } catch (SQLException e) {
+            plugin.log(Level.WARNING, "Failed to " + action + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (reader != null) {
+                release(reader);
+            }
+        }
+        return fallback;
+    }
+
+    private void release(Connection reader) {
+        if (open) {
+            readers.offer(reader);
+            return;
+        }
+        // Closed while this query ran
+        try {
+            reader.close();
+        } catch (SQLException ignored) {
+            // Closing anyway
         }
     }
 
+    // ==================== DETECTIONS ====================
+
     /**
      * Log a VPN detection
      */
     public CompletableFuture<Void> logDetection(VPNResult result, UUID playerUUID, String playerName, String actionTaken) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT OR REPLACE INTO vpn_detections 
-                (ip, player_uuid, player_name, is_vpn, is_proxy, is_hosting, is_tor, 
-                 vpn_provider, isp, org, asn, country, country_code, city, real_ip, 
-                 risk_score, api_provider, action_taken, detected_at)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-            """;
-
-            synchronized (dbLock) {
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                    ps.setString(1, result.getIp());
-                    ps.setString(2, playerUUID != null ? playerUUID.toString() : null);
-                    ps.setString(3, playerName);
-                    ps.setBoolean(4, result.isVPN());
-                    ps.setBoolean(5, result.isProxy());
-                    ps.setBoolean(6, result.isHosting());
-                    ps.setBoolean(7, result.isTor());
-                    ps.setString(8, result.getVpnProvider());
-                    ps.setString(9, result.getIsp());
-                    ps.setString(10, result.getOrg());
-                    ps.setString(11, result.getAsn());
-                    ps.setString(12, result.getCountry());
-                    ps.setString(13, result.getCountryCode());
-                    ps.setString(14, result.getCity());
-                    ps.setString(15, result.getRealIP());
-                    ps.setDouble(16, result.getRiskScore());
-                    ps.setString(17, result.getApiProvider());
-                    ps.setString(18, actionTaken);
-                    ps.executeUpdate();
-                } catch (SQLException e) {
-                    plugin.log(Level.WARNING, "Failed to log VPN detection: " + e.getMessage());
+        if (!open) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String ip = result.getIp();
+        String uuid = playerUUID != null ? playerUUID.toString() : null;
+        boolean flagged = result.isVPN() || result.isProxy();
+        String provider = result.isDangerous() && result.getServiceName() != null && !result.getServiceName().isEmpty()
+                ? result.getServiceName() : null;
+        DetectionCounters.Delta delta = new DetectionCounters.Delta();
+
+        return writer.submit("log VPN detection", w -> {
+            delta.day = LocalDate.now(ZoneOffset.UTC);
+
+            // The row this one replaces no longer counts
+            if (uuid != null) {
+                PreparedStatement replaced = w.statement(REPLACED_DETECTION_SQL);
+                replaced.setString(1, ip);
+                replaced.setString(2, uuid);
+                try (ResultSet rs = replaced.executeQuery()) {
+                    if (rs.next()) {
+                        delta.count(rs.getBoolean(1), rs.getString(2), rs.getBoolean(3), -1);
+                    }
                 }
             }
+            boolean ipWasFlagged = isFlaggedIP(w, ip);
+
+            PreparedStatement ps = w.statement(INSERT_DETECTION_SQL);
+            ps.setString(1, ip);
+            ps.setString(2, uuid);
+            ps.setString(3, playerName);
+            ps.setBoolean(4, result.isVPN());
+            ps.setBoolean(5, result.isProxy());
+            ps.setBoolean(6, result.isHosting());
+            ps.setBoolean(7, result.isTor());
+            ps.setString(8, result.getVpnProvider());
+            ps.setString(9, result.getIsp());
+            ps.setString(10, result.getOrg());
+            ps.setString(11, result.getAsn());
+            ps.setString(12, result.getCountry());
+            ps.setString(13, result.getCountryCode());
+            ps.setString(14, result.getCity());
+            ps.setString(15, result.getRealIP());
+            ps.setDouble(16, result.getRiskScore());
+            ps.setString(17, result.getApiProvider());
+            ps.setString(18, actionTaken);
+            int updated = ps.executeUpdate();
+            delta.count(flagged, actionTaken, true, 1);
+
+            boolean ipFlagged = flagged || (ipWasFlagged && isFlaggedIP(w, ip));
+            delta.uniqueVPNIPs = Boolean.compare(ipFlagged, ipWasFlagged);
 
             // Update VPN provider tracking
-            if (result.isDangerous() && result.getServiceName() != null && !result.getServiceName().isEmpty()) {
-                updateVPNProvider(result.getServiceName());
+            if (provider != null) {
+                PreparedStatement providerStmt = w.statement(UPDATE_PROVIDER_SQL);
+                providerStmt.setString(1, provider);
+                providerStmt.executeUpdate();
+                delta.provider = provider;
             }
+            return updated;
+        }).handle((count, error) -> {
+            if (error == null) {
+                counters.apply(delta);
+            }
+            return null;
         });
     }
 
+    private boolean isFlaggedIP(SQLiteWriter w, String ip) throws SQLException {
+        PreparedStatement ps = w.statement(FLAGGED_IP_SQL);
+        ps.setString(1, ip);
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next();
+        }
+    }
+
     /**
      * Track player IP connection
      */
     public CompletableFuture<Void> trackIP(UUID playerUUID, String playerName, String ip, boolean isVPN) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO ip_tracking (player_uuid, player_name, ip, is_vpn, first_seen, last_seen, login_count)
-                VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1)
-                ON CONFLICT(player_uuid, ip) DO UPDATE SET
-                    player_name = excluded.player_name,
-                    is_vpn = excluded.is_vpn,
-                    last_seen = CURRENT_TIMESTAMP,
-                    login_count = login_count + 1
-            """;
-
-            synchronized (dbLock) {
-                try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                    ps.setString(1, playerUUID.toString());
-                    ps.setString(2, playerName);
-                    ps.setString(3, ip);
-                    ps.setBoolean(4, isVPN);
-                    ps.executeUpdate();
-                } catch (SQLException e) {
-                    plugin.log(Level.WARNING, "Failed to track IP: " + e.getMessage());
-                }
-            }
+        return write("track IP", w -> {
+            PreparedStatement ps = w.statement(TRACK_IP_SQL);
+            ps.setString(1, playerUUID.toString());
+            ps.setString(2, playerName);
+            ps.setString(3, ip);
+            ps.setBoolean(4, isVPN);
+            return ps.executeUpdate();
         });
     }
 
-    /**
-     * Update VPN provider statistics
-     */
-    private void updateVPNProvider(String providerName) {
-        String sql = """
-            INSERT INTO known_vpn_providers (provider_name, detection_count, first_detected, last_detected)
-            VALUES (?, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
-            ON CONFLICT(provider_name) DO UPDATE SET
-                detection_count = detection_count + 1,
-                last_detected = CURRENT_TIMESTAMP
-        """;
-
-        synchronized (dbLock) {
-            try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                ps.setString(1, providerName);
-                ps.executeUpdate();
-            } catch (SQLException e) {
-                plugin.log(Level.WARNING, "Failed to update VPN provider: " + e.getMessage());
-            }
-        }
-    }
-
     /**
      * Get player's likely real IP based on historical non-VPN connections
      */
     public CompletableFuture<String> getLikelyRealIP(UUID playerUUID) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> read("get likely real IP", null, connection -> {
             String sql = """
                 SELECT ip, login_count 
                 FROM ip_tracking 
@@ -240,18 +403,16 @@ public class VPNDatabase {
                 if (rs.next()) {
                     return rs.getString("ip");
                 }
-            } catch (SQLException e) {
-                plugin.log(Level.WARNING, "Failed to get likely real IP: " + e.getMessage());
             }
             return null;
-        });
+        }));
     }
 
     /**
      * Get all IPs used by a player
      */
     public CompletableFuture<List<TrackedIP>> getPlayerIPs(UUID playerUUID) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> read("get player IPs", new ArrayList<>(), connection -> {
             List<TrackedIP> ips = new ArrayList<>();
             String sql = """
                 SELECT ip, is_vpn, first_seen, last_seen, login_count 
@@ -272,78 +433,149 @@ public class VPNDatabase {
                             rs.getInt("login_count")
                     ));
                 }
-            } catch (SQLException e) {
-                plugin.log(Level.WARNING, "Failed to get player IPs: " + e.getMessage());
             }
             return ips;
-        });
+        }));
     }
 
     /**
      * Check if an IP is a known VPN IP
      */
     public CompletableFuture<Boolean> isKnownVPN(String ip) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> read("check known VPN", false, connection -> {
             String sql = "SELECT is_vpn FROM vpn_detections WHERE ip = ? AND is_vpn = TRUE LIMIT 1";
 
             try (PreparedStatement ps = connection.prepareStatement(sql)) {
                 ps.setString(1, ip);
                 ResultSet rs = ps.executeQuery();
                 return rs.next();
-            } catch (SQLException e) {
-                plugin.log(Level.WARNING, "Failed to check known VPN: " + e.getMessage());
             }
-            return false;
-        });
+        }));
     }
 
+    // ==================== VERDICT CACHE ====================
+
     /**
-     * Get VPN detection statistics
+     * Stored verdict for an IP, or null when there is none or it expired (blocking)
      */
-    public CompletableFuture<VPNStats> getStats() {
-        return CompletableFuture.supplyAsync(() -> {
-            VPNStats stats = new VPNStats();
+    public VPNResult getVerdict(String ip) {
+        return read("read VPN verdict", null, connection -> {
+            String sql = "SELECT * FROM vpn_verdicts WHERE ip = ? AND expires_at > ?";
 
-            try (Statement stmt = connection.createStatement()) {
-                // Total detections
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM vpn_detections WHERE is_vpn = TRUE OR is_proxy = TRUE");
-                if (rs.next()) stats.totalDetections = rs.getInt(1);
-
-                // Total unique IPs
-                rs = stmt.executeQuery("SELECT COUNT(DISTINCT ip) FROM vpn_detections WHERE is_vpn = TRUE OR is_proxy = TRUE");
-                if (rs.next()) stats.uniqueVPNIPs = rs.getInt(1);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setString(1, ip);
+                ps.setLong(2, System.currentTimeMillis());
+                ResultSet rs = ps.executeQuery();
+                if (rs.next()) {
+                    return readVerdict(rs);
+                }
+            }
+            return null;
+        });
+    }
 
-                // Total kicks
-                rs = stmt.executeQuery("SELECT COUNT(*) FROM vpn_detections WHERE action_taken = 'KICK'");
-                if (rs.next()) stats.totalKicks = rs.getInt(1);
+    /**
+     * Store the verdict for an IP, replacing the previous one
+     */
+    public CompletableFuture<Void> saveVerdict(VPNResult result, long expiresAt) {
+        return write("save VPN verdict", w -> {
+            PreparedStatement ps = w.statement(SAVE_VERDICT_SQL);
+            ps.setString(1, result.getIp());
+            ps.setBoolean(2, result.isVPN());
+            ps.setBoolean(3, result.isProxy());
+            ps.setBoolean(4, result.isHosting());
+            ps.setBoolean(5, result.isTor());
+            ps.setString(6, result.getVpnProvider());
+            ps.setString(7, result.getIsp());
+            ps.setString(8, result.getOrg());
+            ps.setString(9, result.getAsn());
+            ps.setString(10, result.getCountry());
+            ps.setString(11, result.getCountryCode());
+            ps.setString(12, result.getCity());
+            ps.setString(13, result.getRealIP());
+            ps.setDouble(14, result.getRiskScore());
+            ps.setString(15, result.getApiProvider());
+            ps.setLong(16, result.getCheckTime());
+            ps.setLong(17, expiresAt);
+            return ps.executeUpdate();
+        });
+    }
 
-                // Total warnings
-                rs = stmt.executeQuery("SELECT COUNT(*) FROM vpn_detections WHERE action_taken = 'WARN'");
-                if (rs.next()) stats.totalWarnings = rs.getInt(1);
+    /**
+     * Most recently checked verdicts that are still valid, newest first (blocking)
+     */
+    public List<VPNResult> loadRecentVerdicts(int limit) {
+        return read("load VPN verdicts", new ArrayList<>(), connection -> {
+            List<VPNResult> verdicts = new ArrayList<>();
+            String sql = "SELECT * FROM vpn_verdicts WHERE expires_at > ? ORDER BY checked_at DESC LIMIT ?";
 
-                // Top VPN providers
-                rs = stmt.executeQuery("SELECT provider_name, detection_count FROM known_vpn_providers ORDER BY detection_count DESC LIMIT 10");
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setLong(1, System.currentTimeMillis());
+                ps.setInt(2, limit);
+                ResultSet rs = ps.executeQuery();
                 while (rs.next()) {
-                    stats.topProviders.add(new ProviderStat(rs.getString("provider_name"), rs.getInt("detection_count")));
+                    verdicts.add(readVerdict(rs));
                 }
+            }
+            return verdicts;
+        });
+    }
 
-                // Detections today
-                rs = stmt.executeQuery("SELECT COUNT(*) FROM vpn_detections WHERE date(detected_at) = date('now')");
-                if (rs.next()) stats.detectionsToday = rs.getInt(1);
+    /**
+     * Delete expired verdicts (blocking until committed)
+     *
+     * @return number of rows removed
+     */
+    public int purgeExpiredVerdicts() {
+        if (!open) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        return writer.submit("purge VPN verdicts", w -> {
+            PreparedStatement ps = w.statement("DELETE FROM vpn_verdicts WHERE expires_at <= ?");
+            ps.setLong(1, now);
+            return ps.executeUpdate();
+        }).exceptionally(e -> 0).join();
+    }
 
-            } catch (SQLException e) {
-                plugin.log(Level.WARNING, "Failed to get VPN stats: " + e.getMessage());
-            }
+    /**
+     * Delete every stored verdict
+     */
+    public CompletableFuture<Void> clearVerdicts() {
+        return write("clear VPN verdicts", w -> w.statement("DELETE FROM vpn_verdicts").executeUpdate());
+    }
 
-            return stats;
-        });
+    private VPNResult readVerdict(ResultSet rs) throws SQLException {
+        return new VPNResult.Builder(rs.getString("ip"))
+                .isVPN(rs.getBoolean("is_vpn"))
+                .isProxy(rs.getBoolean("is_proxy"))
+                .isHosting(rs.getBoolean("is_hosting"))
+                .isTor(rs.getBoolean("is_tor"))
+                .vpnProvider(rs.getString("vpn_provider"))
+                .isp(rs.getString("isp"))
+                .org(rs.getString("org"))
+                .asn(rs.getString("asn"))
+                .country(rs.getString("country"))
+                .countryCode(rs.getString("country_code"))
+                .city(rs.getString("city"))
+                .realIP(rs.getString("real_ip"))
+                .riskScore(rs.getDouble("risk_score"))
+                .apiProvider(rs.getString("api_provider"))
+                .build();
+    }
+
+    /**
+     * Get VPN detection statistics (from the counters, no query)
+     */
+    public CompletableFuture<VPNStats> getStats() {
+        return CompletableFuture.completedFuture(counters.snapshot());
     }
 
     /**
      * Get recent VPN detections
      */
     public CompletableFuture<List<VPNDetectionRecord>> getRecentDetections(int limit) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> read("get recent detections", new ArrayList<>(), connection -> {
             List<VPNDetectionRecord> records = new ArrayList<>();
             String sql = """
                 SELECT * FROM vpn_detections 
@@ -366,23 +598,34 @@ public class VPNDatabase {
                             rs.getTimestamp("detected_at").getTime()
                     ));
                 }
-            } catch (SQLException e) {
-                plugin.log(Level.WARNING, "Failed to get recent detections: " + e.getMessage());
             }
             return records;
-        });
+        }));
     }
 
     /**
-     * Close the database connection
+     * Flush queued writes and close the database connections
      */
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+        open = false;
+        if (writer != null) {
+            writer.close(CLOSE_TIMEOUT_MILLIS);
+        } else if (writeConnection != null) {
+            try {
+                writeConnection.close();
+            } catch (SQLException e) {
+                plugin.log(Level.WARNING, "Failed to close VPN database: " + e.getMessage());
+            }
+        }
+        if (readers != null) {
+            Connection reader;
+            while ((reader = readers.poll()) != null) {
+                try {
+                    reader.close();
+                } catch (SQLException e) {
+                    plugin.log(Level.WARNING, "Failed to close VPN database reader: " + e.getMessage());
+                }
             }
-        } catch (SQLException e) {
-            plugin.log(Level.WARNING, "Failed to close VPN database: " + e.getMessage());
         }
     }
 
@@ -443,4 +686,106 @@ public class VPNDatabase {
             this.detectedAt = detectedAt;
         }
     }
+
+    /**
+     * Running totals behind {@link #getStats()}, loaded once and then moved by committed detections
+     */
+    private static final class DetectionCounters {
+
+        /**
+         * What one logged detection changed
+         */
+        static final class Delta {
+            LocalDate day;
+            int detections;
+            int uniqueVPNIPs;
+            int kicks;
+            int warnings;
+            int today;
+            String provider;
+
+            void count(boolean flagged, String action, boolean isToday, int sign) {
+                if (flagged) {
+                    detections += sign;
+                }
+                if ("KICK".equals(action)) {
+                    kicks += sign;
+                } else if ("WARN".equals(action)) {
+                    warnings += sign;
+                }
+                if (isToday) {
+                    today += sign;
+                }
+            }
+        }
+
+        private int totalDetections;
+        private int uniqueVPNIPs;
+        private int totalKicks;
+        private int totalWarnings;
+        private int detectionsToday;
+        private LocalDate day = LocalDate.now(ZoneOffset.UTC);
+        private final Map<String, Integer> providers = new HashMap<>();
+
+        synchronized void load(Connection connection) throws SQLException {
+            try (Statement stmt = connection.createStatement()) {
+                day = LocalDate.now(ZoneOffset.UTC);
+                totalDetections = count(stmt, "SELECT COUNT(*) FROM vpn_detections WHERE is_vpn = TRUE OR is_proxy = TRUE");
+                uniqueVPNIPs = count(stmt, "SELECT COUNT(DISTINCT ip) FROM vpn_detections WHERE is_vpn = TRUE OR is_proxy = TRUE");
+                totalKicks = count(stmt, "SELECT COUNT(*) FROM vpn_detections WHERE action_taken = 'KICK'");
+                totalWarnings = count(stmt, "SELECT COUNT(*) FROM vpn_detections WHERE action_taken = 'WARN'");
+                detectionsToday = count(stmt, "SELECT COUNT(*) FROM vpn_detections WHERE date(detected_at) = date('now')");
+
+                providers.clear();
+                try (ResultSet rs = stmt.executeQuery("SELECT provider_name, detection_count FROM known_vpn_providers")) {
+                    while (rs.next()) {
+                        providers.put(rs.getString(1), rs.getInt(2));
+                    }
+                }
+            }
+        }
+
+        private static int count(Statement stmt, String sql) throws SQLException {
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+
+        synchronized void apply(Delta delta) {
+            totalDetections += delta.detections;
+            uniqueVPNIPs += delta.uniqueVPNIPs;
+            totalKicks += delta.kicks;
+            totalWarnings += delta.warnings;
+            rollOver();
+            if (delta.day.equals(day)) {
+                detectionsToday += delta.today;
+            }
+            if (delta.provider != null) {
+                providers.merge(delta.provider, 1, Integer::sum);
+            }
+        }
+
+        synchronized VPNStats snapshot() {
+            rollOver();
+            VPNStats stats = new VPNStats();
+            stats.totalDetections = totalDetections;
+            stats.uniqueVPNIPs = uniqueVPNIPs;
+            stats.totalKicks = totalKicks;
+            stats.totalWarnings = totalWarnings;
+            stats.detectionsToday = detectionsToday;
+            providers.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(10)
+                    .forEach(entry -> stats.topProviders.add(new ProviderStat(entry.getKey(), entry.getValue())));
+            return stats;
+        }
+
+        private void rollOver() {
+            LocalDate now = LocalDate.now(ZoneOffset.UTC);
+            if (now.isAfter(day)) {
+                day = now;
+                detectionsToday = 0;
+            }
+        }
+    }
 }
@@ -1,21 +1,36 @@
 package com.nuvik.litebansreborn.antivpn;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.cache.SingleFlight;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 
+import java.io.IOException;
 import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 /**
  * VPN Manager - Handles VPN/Proxy detection using multiple API providers
  * Features: Rotational API system, Multiple providers, Caching with TTL, Circuit breaker
+ * 
+ * Verdicts are cached in two tiers: a bounded in-memory cache (size + TTL)
+ * in front of the vpn_verdicts table, which survives restarts and is used
+ * to warm the memory tier on startup.
+ * 
+ * Providers are ranked by a latency/error moving average and, with hedging
+ * enabled, raced: see {@link HedgedProviderQuery}. Before any of that, IPs
+ * are matched against the offline range lists ({@link IPRangeDatabase}).
  */
 public class VPNManager {
 
@@ -24,8 +39,14 @@ public class VPNManager {
     private static final int HTTP_READ_TIMEOUT = 10;
     private static final int HTTP_CALL_TIMEOUT = 12;
     private static final int DEFAULT_CACHE_MINUTES = 60;
+    private static final int DEFAULT_CACHE_MAX_SIZE = 10_000;
+    private static final int DEFAULT_PERSISTENT_CACHE_HOURS = 168;
+    private static final int DEFAULT_WARMUP_SIZE = 5_000;
     private static final int PROVIDER_COOLDOWN_SECONDS = 60;
     private static final int EXECUTOR_POOL_SIZE = 4;
+    private static final int DEFAULT_HEDGE_PARALLEL = 2;
+    private static final int DEFAULT_HEDGE_MIN_DELAY_MS = 50;
+    private static final int DEFAULT_HEDGE_MAX_DELAY_MS = 2000;
     private static final List<String> DEFAULT_PROVIDERS = List.of("proxycheck", "ip-api", "vpnapi", "iphub");
 
     // ==================== FIELDS ====================
@@ -33,9 +54,28 @@ public class VPNManager {
     private final OkHttpClient httpClient;
     private final VPNDatabase database;
     private final ExecutorService vpnExecutor;
+    private final ExecutorService providerExecutor;
+    private final HedgedProviderQuery hedgedQuery;
     
-    // Cache with expiration
-    private final Map<String, CachedResult> cache = new ConcurrentHashMap<>();
+    // Memory tier of the verdict cache (the persistent tier lives in VPNDatabase)
+    private final Cache<String, VPNResult> cache;
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder memoryMisses = new LongAdder();
+    private final LongAdder persistentHits = new LongAdder();
+    private final LongAdder persistentMisses = new LongAdder();
+    private final LongAdder providerLookups = new LongAdder();
+    private volatile int warmedUp = 0;
+    
+    // Bot floods: one lookup per IP at a time, VPN/hosting verdicts shared per /24 or /64
+    private final SingleFlight<String, VPNResult> lookups = new SingleFlight<>();
+    private final Cache<String, VPNResult> subnetCache;
+    private final Map<String, CompletableFuture<VPNResult>> subnetLeaders = new ConcurrentHashMap<>();
+    private final LongAdder subnetHits = new LongAdder();
+    
+    // Offline range lists (swapped as a whole on reload)
+    private volatile IPRangeDatabase ranges = IPRangeDatabase.empty();
+    private volatile String rangeFingerprint = "";
+    private final LongAdder rangeHits = new LongAdder();
     
     // Whitelists
     private final Set<String> whitelistedIPs = ConcurrentHashMap.newKeySet();
@@ -67,11 +107,32 @@ public class VPNManager {
         
         this.vpnExecutor = Executors.newFixedThreadPool(EXECUTOR_POOL_SIZE, 
             r -> new Thread(r, "LiteBansReborn-VPN-" + System.currentTimeMillis() % 1000));
+        // Each lookup thread can have up to max-parallel provider calls running
+        int hedgeParallel = Math.max(1, plugin.getConfigManager().getInt("anti-vpn.hedging.max-parallel", DEFAULT_HEDGE_PARALLEL));
+        this.providerExecutor = Executors.newFixedThreadPool(EXECUTOR_POOL_SIZE * hedgeParallel,
+            r -> new Thread(r, "LiteBansReborn-VPN-Provider-" + System.currentTimeMillis() % 1000));
+        
+        this.hedgedQuery = new HedgedProviderQuery(providerExecutor, hedgeParallel,
+                plugin.getConfigManager().getInt("anti-vpn.hedging.min-delay-ms", DEFAULT_HEDGE_MIN_DELAY_MS),
+                plugin.getConfigManager().getInt("anti-vpn.hedging.max-delay-ms", DEFAULT_HEDGE_MAX_DELAY_MS),
+                TimeUnit.SECONDS.toMillis(HTTP_CALL_TIMEOUT),
+                provider -> setCooldown(provider, PROVIDER_COOLDOWN_SECONDS));
+        
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(plugin.getConfigManager().getInt("anti-vpn.cache-max-size", DEFAULT_CACHE_MAX_SIZE))
+                .expireAfterWrite(plugin.getConfigManager().getInt("anti-vpn.cache-duration", DEFAULT_CACHE_MINUTES), TimeUnit.MINUTES)
+                .build();
+        this.subnetCache = Caffeine.newBuilder()
+                .maximumSize(plugin.getConfigManager().getInt("anti-vpn.cache-max-size", DEFAULT_CACHE_MAX_SIZE))
+                .expireAfterWrite(plugin.getConfigManager().getInt("anti-vpn.cache-duration", DEFAULT_CACHE_MINUTES), TimeUnit.MINUTES)
+                .build();
         
         this.database = new VPNDatabase(plugin);
         database.initialize();
         
         loadConfig();
+        vpnExecutor.execute(this::reloadRangesIfChanged);
+        vpnExecutor.execute(this::warmUpCache);
     }
 
     // ==================== CONFIGURATION ====================
@@ -150,14 +211,88 @@ public class VPNManager {
             return CompletableFuture.completedFuture(VPNResult.clean(ip, "whitelisted"));
         }
         
-        // Check cache
-        CachedResult cached = cache.get(ip);
-        if (cached != null && !cached.isExpired()) {
+        // Offline range lists, no network needed
+        VPNResult listed = checkRanges(ip);
+        if (listed != null) {
+            return CompletableFuture.completedFuture(listed);
+        }
+        
+        // Memory tier
+        VPNResult cached = cache.getIfPresent(ip);
+        if (cached != null) {
+            memoryHits.increment();
             plugin.debug("VPN cache hit for " + ip);
-            return CompletableFuture.completedFuture(cached.result);
+            return CompletableFuture.completedFuture(cached);
+        }
+        memoryMisses.increment();
+        
+        // Same subnet already known as VPN/hosting
+        String subnet = plugin.getConfigManager().getBoolean("anti-vpn.subnet-sharing", true)
+                ? IPRangeDatabase.subnetOf(ip) : null;
+        if (subnet != null) {
+            VPNResult shared = subnetCache.getIfPresent(subnet);
+            if (shared != null) {
+                subnetHits.increment();
+                return CompletableFuture.completedFuture(shared.forIp(ip));
+            }
         }
         
-        // Async check via database then providers
+        return lookups.run(ip, () -> lookupSubnet(ip, subnet));
+    }
+    
+    /**
+     * While another IP of the subnet is being looked up, wait for it and reuse
+     * a VPN/hosting verdict; a clean verdict says nothing about neighbours
+     */
+    private CompletableFuture<VPNResult> lookupSubnet(String ip, String subnet) {
+        if (subnet == null) {
+            return lookupUncached(ip);
+        }
+        
+        CompletableFuture<VPNResult> leader = subnetLeaders.get(subnet);
+        if (leader != null) {
+            return leader.handle((result, error) -> result).thenCompose(result -> {
+                if (isShareable(result)) {
+                    subnetHits.increment();
+                    return CompletableFuture.completedFuture(result.forIp(ip));
+                }
+                return lookupUncached(ip);
+            });
+        }
+        
+        CompletableFuture<VPNResult> own = lookupUncached(ip).thenApply(result -> {
+            if (isShareable(result)) {
+                subnetCache.put(subnet, result);
+            }
+            return result;
+        });
+        if (subnetLeaders.putIfAbsent(subnet, own) == null) {
+            own.whenComplete((result, error) -> subnetLeaders.remove(subnet, own));
+        }
+        return own;
+    }
+    
+    private static boolean isShareable(VPNResult result) {
+        return result != null && result.isDangerous();
+    }
+    
+    private CompletableFuture<VPNResult> lookupUncached(String ip) {
+        // Persistent tier, then the local VPN database and the providers
+        return CompletableFuture.supplyAsync(() -> isPersistentCacheEnabled() ? database.getVerdict(ip) : null, vpnExecutor)
+            .exceptionally(e -> null)
+            .thenCompose(stored -> {
+                if (stored != null) {
+                    persistentHits.increment();
+                    plugin.debug("VPN persistent cache hit for " + ip);
+                    cache.put(ip, stored);
+                    return CompletableFuture.completedFuture(stored);
+                }
+                persistentMisses.increment();
+                return lookup(ip);
+            });
+    }
+    
+    private CompletableFuture<VPNResult> lookup(String ip) {
         return database.isKnownVPN(ip)
             .exceptionally(e -> false)
             .thenApplyAsync(knownVPN -> {
@@ -165,6 +300,7 @@ public class VPNManager {
                     plugin.debug("IP " + ip + " found in local VPN database");
                 }
                 
+                providerLookups.increment();
                 VPNResult result = queryProviders(ip);
                 
                 // Apply country whitelist
@@ -174,19 +310,152 @@ public class VPNManager {
                     }
                 }
                 
-                // Cache result
+                // Cache result in both tiers
                 if (result != null) {
-                    long ttlMinutes = plugin.getConfigManager().getInt("anti-vpn.cache-duration", DEFAULT_CACHE_MINUTES);
-                    cache.put(ip, new CachedResult(result, System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutes)));
+                    cache.put(ip, result);
+                    if (isPersistentCacheEnabled()) {
+                        long hours = plugin.getConfigManager().getInt("anti-vpn.persistent-cache.duration-hours", DEFAULT_PERSISTENT_CACHE_HOURS);
+                        database.saveVerdict(result, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(hours));
+                    }
                 }
                 
                 return result != null ? result : VPNResult.unknown(ip);
             }, vpnExecutor);
     }
+    
+    // ==================== RANGE LISTS ====================
+    
+    private VPNResult checkRanges(String ip) {
+        IPRangeDatabase database = ranges;
+        int segment = database.find(ip);
+        if (segment < 0) {
+            return null;
+        }
+        rangeHits.increment();
+        int flags = database.flags(segment);
+        plugin.debug("IP " + ip + " matched range list " + database.source(segment));
+        return new VPNResult.Builder(ip)
+                .isVPN((flags & IPRangeDatabase.VPN) != 0)
+                .isProxy((flags & IPRangeDatabase.PROXY) != 0)
+                .isHosting((flags & IPRangeDatabase.HOSTING) != 0)
+                .isTor((flags & IPRangeDatabase.TOR) != 0)
+                .vpnProvider(database.source(segment))
+                .riskScore(100)
+                .apiProvider("ip-ranges")
+                .build();
+    }
+    
+    private Path getRangeFolder() {
+        return plugin.getDataFolder().toPath()
+                .resolve(plugin.getConfigManager().getString("anti-vpn.ip-ranges.folder", "ip-ranges"));
+    }
+    
+    /**
+     * (Re)load the range lists if any list file was added, removed or changed
+     */
+    public synchronized void reloadRangesIfChanged() {
+        if (!plugin.getConfigManager().getBoolean("anti-vpn.ip-ranges.enabled", true)) {
+            ranges = IPRangeDatabase.empty();
+            rangeFingerprint = "";
+            return;
+        }
+        Path folder = getRangeFolder();
+        try {
+            Files.createDirectories(folder);
+            String fingerprint = fingerprint(folder);
+            if (fingerprint.equals(rangeFingerprint)) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            IPRangeDatabase loaded = IPRangeDatabase.load(folder);
+            ranges = loaded;
+            rangeFingerprint = fingerprint;
+            if (loaded.getListCount() > 0) {
+                plugin.log(Level.INFO, "Loaded " + loaded.getRangeCount() + " IP ranges from " + loaded.getListCount()
+                        + " lists in " + (System.currentTimeMillis() - start) + "ms"
+                        + (loaded.getInvalidLines() > 0 ? " (" + loaded.getInvalidLines() + " invalid lines skipped)" : ""));
+            }
+        } catch (IOException e) {
+            plugin.log(Level.WARNING, "Failed to load IP range lists: " + e.getMessage());
+        }
+    }
+    
+    private static String fingerprint(Path folder) throws IOException {
+        StringBuilder fingerprint = new StringBuilder();
+        try (var files = Files.list(folder)) {
+            for (Path file : files.sorted().toList()) {
+                if (Files.isRegularFile(file) && IPRangeDatabase.isListFile(file.getFileName().toString())) {
+                    fingerprint.append(file.getFileName()).append(':')
+                            .append(Files.size(file)).append(':')
+                            .append(Files.getLastModifiedTime(file).toMillis()).append(';');
+                }
+            }
+        }
+        return fingerprint.toString();
+    }
+    
+    public IPRangeDatabase getRanges() { return ranges; }
+    public long getRangeHits() { return rangeHits.sum(); }
+    
+    // ==================== CACHE ====================
+    
+    private boolean isPersistentCacheEnabled() {
+        return plugin.getConfigManager().getBoolean("anti-vpn.persistent-cache.enabled", true);
+    }
+    
+    /**
+     * Drop expired stored verdicts and load the most recent ones into memory
+     */
+    private void warmUpCache() {
+        if (!isPersistentCacheEnabled()) {
+            return;
+        }
+        try {
+            int purged = database.purgeExpiredVerdicts();
+            int limit = plugin.getConfigManager().getInt("anti-vpn.persistent-cache.warmup-size", DEFAULT_WARMUP_SIZE);
+            List<VPNResult> verdicts = database.loadRecentVerdicts(limit);
+            for (VPNResult verdict : verdicts) {
+                cache.put(verdict.getIp(), verdict);
+            }
+            warmedUp = verdicts.size();
+            plugin.debug("VPN cache warmed with " + verdicts.size() + " stored verdicts (" + purged + " expired removed)");
+        } catch (Exception e) {
+            plugin.log(Level.WARNING, "Failed to warm VPN cache: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Hit/miss counters of both cache tiers since startup
+     */
+    public CacheStats getCacheStats() {
+        return new CacheStats(cache.estimatedSize(), warmedUp,
+            memoryHits.sum(), memoryMisses.sum(),
+            persistentHits.sum(), persistentMisses.sum(),
+            providerLookups.sum(), lookups.getSharedCount(), subnetHits.sum());
+    }
+    
+    public record CacheStats(long memorySize, int warmedUp, long memoryHits, long memoryMisses,
+                             long persistentHits, long persistentMisses, long providerLookups,
+                             long sharedLookups, long subnetHits) {
+        
+        public double memoryHitRate() {
+            long total = memoryHits + memoryMisses;
+            return total == 0 ? 0 : memoryHits / (double) total;
+        }
+        
+        public double persistentHitRate() {
+            long total = persistentHits + persistentMisses;
+            return total == 0 ? 0 : persistentHits / (double) total;
+        }
+    }
 
     // ==================== PROVIDER LOGIC ====================
     
     private VPNResult queryProviders(String ip) {
+        if (plugin.getConfigManager().getBoolean("anti-vpn.hedging.enabled", true)) {
+            return queryProvidersHedged(ip);
+        }
+        
         for (int attempts = 0; attempts < providers.size(); attempts++) {
             VPNAPIProvider provider;
             synchronized (providerLock) {
@@ -200,7 +469,7 @@ public class VPNManager {
             }
             
             try {
-                VPNResult result = provider.check(ip);
+                VPNResult result = hedgedQuery.attempt(provider, ip);
                 if (result != null) {
                     plugin.debug("VPN check via " + provider.getName() + " for " + ip);
                     return result;
@@ -217,6 +486,24 @@ public class VPNManager {
         return null;
     }
     
+    private VPNResult queryProvidersHedged(String ip) {
+        List<VPNAPIProvider> available = new ArrayList<>();
+        for (VPNAPIProvider provider : providers) {
+            if (!isOnCooldown(provider)) {
+                available.add(provider);
+            }
+        }
+        
+        VPNResult result = available.isEmpty() ? null : hedgedQuery.query(ip, available);
+        if (result != null) {
+            plugin.debug("VPN check via " + result.getApiProvider() + " for " + ip);
+            return result;
+        }
+        
+        plugin.log(Level.WARNING, "All VPN providers failed for IP: " + ip);
+        return null;
+    }
+    
     private void rotateProvider() {
         synchronized (providerLock) {
             currentProviderIndex = (currentProviderIndex + 1) % providers.size();
@@ -286,30 +573,38 @@ public class VPNManager {
     
     public void whitelistIP(String ip) {
         whitelistedIPs.add(ip);
-        cache.remove(ip);
+        cache.invalidate(ip);
     }
     
     public void unwhitelistIP(String ip) {
         whitelistedIPs.remove(ip);
     }
     
-    public void clearCache() { cache.clear(); }
+    public void clearCache() {
+        cache.invalidateAll();
+        subnetCache.invalidateAll();
+        database.clearVerdicts();
+    }
+    
     public Set<String> getWhitelistedIPs() { return Set.copyOf(whitelistedIPs); }
-    public int getCacheSize() { return cache.size(); }
+    public int getCacheSize() { return (int) cache.estimatedSize(); }
     public int getProviderCount() { return providers.size(); }
+    
+    /**
+     * Latency/error figures per provider, best ranked first
+     */
+    public List<ProviderStats.Snapshot> getProviderStats() { return hedgedQuery.snapshots(providers); }
+    public long getHedgeCount() { return hedgedQuery.getHedgeCount(); }
 
     // ==================== SHUTDOWN ====================
     
     public void shutdown() {
-        database.close();
-        cache.clear();
+        // Stored verdicts are kept for the next start
         vpnExecutor.shutdownNow();
-    }
-
-    // ==================== CACHE WRAPPER ====================
-    
-    private record CachedResult(VPNResult result, long expiresAt) {
-        boolean isExpired() { return System.currentTimeMillis() > expiresAt; }
+        providerExecutor.shutdownNow();
+        database.close();
+        cache.invalidateAll();
+        subnetCache.invalidateAll();
     }
 
     // ==================== JSON HELPERS ====================
@@ -333,10 +628,15 @@ public class VPNManager {
     private String getApiKey(String provider) {
         return plugin.getConfigManager().getString("anti-vpn.api-keys." + provider, "");
     }
+    
+    private Response execute(Request request) throws IOException {
+        // Tracked so a losing hedged attempt can cancel its call
+        return HedgedProviderQuery.track(httpClient.newCall(request)).execute();
+    }
 
     // ==================== PROVIDER INTERFACE ====================
     
-    private interface VPNAPIProvider {
+    interface VPNAPIProvider {
         String getName();
         VPNResult check(String ip) throws Exception;
     }
@@ -353,7 +653,7 @@ public class VPNManager {
             String url = "https://proxycheck.io/v2/" + ip + "?vpn=1&asn=1&risk=1&port=1" + 
                         (apiKey.isEmpty() ? "" : "&key=" + apiKey);
 
-            try (Response response = httpClient.newCall(new Request.Builder().url(url).build()).execute()) {
+            try (Response response = execute(new Request.Builder().url(url).build())) {
                 ResponseBody body = response.body();
                 if (!response.isSuccessful() || body == null) return null;
 
@@ -390,7 +690,7 @@ public class VPNManager {
         public VPNResult check(String ip) throws Exception {
             String url = "https://ip-api.com/json/" + ip + "?fields=status,message,country,countryCode,region,city,isp,org,as,proxy,hosting,query";
 
-            try (Response response = httpClient.newCall(new Request.Builder().url(url).build()).execute()) {
+            try (Response response = execute(new Request.Builder().url(url).build())) {
                 ResponseBody body = response.body();
                 if (!response.isSuccessful() || body == null) return null;
 
@@ -422,7 +722,7 @@ public class VPNManager {
             String apiKey = getApiKey("vpnapi");
             String url = "https://vpnapi.io/api/" + ip + (apiKey.isEmpty() ? "" : "?key=" + apiKey);
 
-            try (Response response = httpClient.newCall(new Request.Builder().url(url).build()).execute()) {
+            try (Response response = execute(new Request.Builder().url(url).build())) {
                 ResponseBody body = response.body();
                 if (!response.isSuccessful() || body == null) return null;
 
@@ -463,7 +763,7 @@ public class VPNManager {
                 .addHeader("X-Key", apiKey)
                 .build();
 
-            try (Response response = httpClient.newCall(request).execute()) {
+            try (Response response = execute(request)) {
                 ResponseBody body = response.body();
                 if (!response.isSuccessful() || body == null) return null;
 
@@ -497,7 +797,7 @@ public class VPNManager {
                 .addHeader("X-Key", apiKey)
                 .build();
 
-            try (Response response = httpClient.newCall(request).execute()) {
+            try (Response response = execute(request)) {
                 ResponseBody body = response.body();
                 if (!response.isSuccessful() || body == null) return null;
 
@@ -529,7 +829,7 @@ public class VPNManager {
 
             String url = "https://ipqualityscore.com/api/json/ip/" + apiKey + "/" + ip + "?strictness=0&allow_public_access_points=true";
 
-            try (Response response = httpClient.newCall(new Request.Builder().url(url).build()).execute()) {
+            try (Response response = execute(new Request.Builder().url(url).build())) {
                 ResponseBody body = response.body();
                 if (!response.isSuccessful() || body == null) return null;
 
@@ -0,0 +1,234 @@
+package com.nuvik.litebansreborn.antivpn;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * VPN Provider Benchmark - compares the sequential provider loop with
+ * hedged queries against a local stub HTTP server
+ *
+ * The stub serves three fake providers: one steady, one fast with a slow
+ * tail, and one that fails a quarter of its requests. No real provider is
+ * contacted, so it can run offline. Run from /lbr debug antivpn.
+ */
+public final class VPNProviderBenchmark {
+
+    private VPNProviderBenchmark() {
+    }
+
+    /**
+     * Latencies in milliseconds; calls counts requests the stub server received
+     */
+    public record Result(int lookups, Stats sequential, Stats hedged, long hedges) {
+    }
+
+    public record Stats(long mean, long p50, long p95, long p99, int calls, int failed) {
+    }
+
+    private record Profile(String name, int baseMs, int jitterMs, double tailChance, int tailMs,
+                           double errorChance) {
+    }
+
+    private static final List<Profile> PROFILES = List.of(
+            new Profile("fast-tail", 40, 20, 0.10, 1500, 0),
+            new Profile("steady", 150, 40, 0.01, 800, 0),
+            new Profile("flaky", 60, 20, 0, 0, 0.25)
+    );
+
+    public static Result run(int lookups, long seed) throws IOException {
+        StubServer server = new StubServer(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(4, r -> {
+            Thread thread = new Thread(r, "LiteBansReborn-VPN-Benchmark");
+            thread.setDaemon(true);
+            return thread;
+        });
+        OkHttpClient client = new OkHttpClient.Builder()
+                .connectTimeout(2, TimeUnit.SECONDS)
+                .readTimeout(5, TimeUnit.SECONDS)
+                .callTimeout(5, TimeUnit.SECONDS)
+                .build();
+        try {
+            List<VPNManager.VPNAPIProvider> providers = new ArrayList<>();
+            for (Profile profile : PROFILES) {
+                providers.add(new StubProvider(client, profile.name(), server.url(profile.name())));
+            }
+
+            // Sequential: configured order, next provider only after a failure
+            int before = server.calls.get();
+            Stats sequential = measure(lookups, ip -> {
+                for (VPNManager.VPNAPIProvider provider : providers) {
+                    try {
+                        VPNResult result = provider.check(ip);
+                        if (result != null) {
+                            return result;
+                        }
+                    } catch (Exception ignored) {
+                        // Try the next one, like VPNManager does
+                    }
+                }
+                return null;
+            }, server, before);
+
+            // Hedged: ranking learns from a warm-up round first
+            HedgedProviderQuery hedged = new HedgedProviderQuery(executor, 2, 20, 2000, 5000, provider -> {
+            });
+            for (int i = 0; i < Math.min(50, lookups); i++) {
+                hedged.query(ip(i), providers);
+            }
+            long hedgesBefore = hedged.getHedgeCount();
+            before = server.calls.get();
+            Stats hedgedStats = measure(lookups, ip -> hedged.query(ip, providers), server, before);
+
+            return new Result(lookups, sequential, hedgedStats, hedged.getHedgeCount() - hedgesBefore);
+        } finally {
+            executor.shutdownNow();
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+            server.stop();
+        }
+    }
+
+    private interface Lookup {
+        VPNResult check(String ip) throws Exception;
+    }
+
+    private static Stats measure(int lookups, Lookup lookup, StubServer server, int callsBefore) {
+        long[] millis = new long[lookups];
+        int failed = 0;
+        for (int i = 0; i < lookups; i++) {
+            long start = System.nanoTime();
+            VPNResult result;
+            try {
+                result = lookup.check(ip(i));
+            } catch (Exception e) {
+                result = null;
+            }
+            millis[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (result == null) {
+                failed++;
+            }
+        }
+        Arrays.sort(millis);
+        long total = 0;
+        for (long value : millis) {
+            total += value;
+        }
+        return new Stats(total / lookups, percentile(millis, 0.50), percentile(millis, 0.95),
+                percentile(millis, 0.99), server.calls.get() - callsBefore, failed);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static String ip(int i) {
+        return "10.0." + (i >> 8 & 0xFF) + "." + (i & 0xFF);
+    }
+
+    /**
+     * Fake provider calling the stub server
+     */
+    private static final class StubProvider implements VPNManager.VPNAPIProvider {
+
+        private final OkHttpClient client;
+        private final String name;
+        private final String url;
+
+        StubProvider(OkHttpClient client, String name, String url) {
+            this.client = client;
+            this.name = name;
+            this.url = url;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public VPNResult check(String ip) throws Exception {
+            Request request = new Request.Builder().url(url + "?ip=" + ip).build();
+            try (Response response = HedgedProviderQuery.track(client.newCall(request)).execute()) {
+                if (!response.isSuccessful()) {
+                    throw new IOException("HTTP " + response.code());
+                }
+                return VPNResult.clean(ip, name);
+            }
+        }
+    }
+
+    /**
+     * Local HTTP server answering with the latency and errors of each profile
+     */
+    private static final class StubServer {
+
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "LiteBansReborn-VPN-Stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubServer(long seed) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+            Random random = new Random(seed);
+            for (Profile profile : PROFILES) {
+                server.createContext("/" + profile.name(), exchange -> {
+                    calls.incrementAndGet();
+                    int delay;
+                    boolean error;
+                    synchronized (random) {
+                        delay = profile.baseMs() + random.nextInt(profile.jitterMs() + 1);
+                        if (random.nextDouble() < profile.tailChance()) {
+                            delay = profile.tailMs();
+                        }
+                        error = random.nextDouble() < profile.errorChance();
+                    }
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    byte[] body = "{\"proxy\":\"no\"}".getBytes(StandardCharsets.UTF_8);
+                    try {
+                        exchange.sendResponseHeaders(error ? 503 : 200, body.length);
+                        try (OutputStream out = exchange.getResponseBody()) {
+                            out.write(body);
+                        }
+                    } catch (IOException ignored) {
+                        // Client cancelled the call
+                    } finally {
+                        exchange.close();
+                    }
+                });
+            }
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String url(String name) {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + name;
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -143,6 +143,27 @@ public class VPNResult {
         }
     }
 
+    /**
+     * The same verdict for another IP (subnet-level sharing)
+     */
+    public VPNResult forIp(String ip) {
+        return new Builder(ip)
+                .isVPN(isVPN)
+                .isProxy(isProxy)
+                .isHosting(isHosting)
+                .isTor(isTor)
+                .vpnProvider(vpnProvider)
+                .isp(isp)
+                .country(country)
+                .countryCode(countryCode)
+                .city(city)
+                .asn(asn)
+                .org(org)
+                .riskScore(riskScore)
+                .apiProvider(apiProvider)
+                .build();
+    }
+
     /**
      * Create a result for when the check couldn't be performed
      */
@@ -1,6 +1,7 @@
 package com.nuvik.litebansreborn.api;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.models.Page;
 import com.nuvik.litebansreborn.models.Punishment;
 import com.nuvik.litebansreborn.models.PunishmentType;
 
@@ -34,8 +35,7 @@ public class LiteBansRebornAPI {
      * Check if a player is banned
      */
     public CompletableFuture<Boolean> isBanned(UUID uuid) {
-        return plugin.getBanManager().getActiveBan(uuid)
-                .thenApply(ban -> ban != null && ban.isActiveAndValid());
+        return plugin.getBanManager().isBanned(uuid);
     }
     
     /**
@@ -83,8 +83,7 @@ public class LiteBansRebornAPI {
      * Check if a player is muted
      */
     public CompletableFuture<Boolean> isMuted(UUID uuid) {
-        return plugin.getMuteManager().getActiveMute(uuid)
-                .thenApply(mute -> mute != null && mute.isActiveAndValid());
+        return plugin.getMuteManager().isMuted(uuid);
     }
     
     /**
@@ -165,12 +164,41 @@ public class LiteBansRebornAPI {
     // ==================== History Methods ====================
     
     /**
-     * Get the punishment history for a player
+     * Get the punishment history for a player (archived punishments are not included)
      */
     public CompletableFuture<List<Punishment>> getHistory(UUID uuid) {
         return plugin.getHistoryManager().getPlayerHistory(uuid);
     }
     
+    /**
+     * Get the complete punishment history for a player, including archived punishments
+     */
+    public CompletableFuture<List<Punishment>> getFullHistory(UUID uuid) {
+        return plugin.getHistoryManager().getPlayerHistory(uuid, true);
+    }
+    
+    /**
+     * Get one page of a player's punishment history, newest first.
+     * Pass null for the first page, then {@link Page#getNextCursor()} for the next.
+     */
+    public CompletableFuture<Page<Punishment>> getHistory(UUID uuid, String cursor, int limit) {
+        return plugin.getHistoryManager().getPlayerHistory(uuid, cursor, limit);
+    }
+    
+    /**
+     * Get one page of active bans, newest first (cursor as in {@link #getHistory(UUID, String, int)})
+     */
+    public CompletableFuture<Page<Punishment>> getActiveBans(String cursor, int limit) {
+        return plugin.getBanManager().getActiveBans(cursor, limit);
+    }
+    
+    /**
+     * Get one page of active mutes, newest first (cursor as in {@link #getHistory(UUID, String, int)})
+     */
+    public CompletableFuture<Page<Punishment>> getActiveMutes(String cursor, int limit) {
+        return plugin.getMuteManager().getActiveMutes(cursor, limit);
+    }
+    
     /**
      * Get a specific punishment by ID
      */
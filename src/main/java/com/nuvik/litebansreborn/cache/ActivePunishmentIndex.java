@@ -0,0 +1,301 @@
+package com.nuvik.litebansreborn.cache;
+
+import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.database.DatabaseManager;
+import com.nuvik.litebansreborn.database.PunishmentRowMapper;
+import com.nuvik.litebansreborn.database.PunishmentRowMapper.Projection;
+import com.nuvik.litebansreborn.models.Punishment;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Active Punishment Index - authoritative in-memory set of every active ban,
+ * IP ban and mute.
+ *
+ * Loaded once at startup by streaming the punishments table, then kept current
+ * by polling two watermarks:
+ * - new rows with an id above the highest id seen
+ * - rows whose removed_at is newer than the latest removal seen
+ *
+ * While loaded, a missing entry means "not punished" and callers never need
+ * to touch the database.
+ */
+public class ActivePunishmentIndex {
+
+    private static final String TYPES = "('ban', 'tempban', 'ipban', 'mute', 'tempmute', 'ipmute')";
+
+    // Re-read a few ids behind the watermark: auto-increment ids can commit out of order
+    private static final long ID_OVERLAP = 50;
+
+    // Re-read removals slightly behind the watermark to tolerate clock skew between servers
+    private static final long REMOVAL_OVERLAP_MILLIS = 5000;
+
+    private final LiteBansReborn plugin;
+    private final int fetchSize;
+
+    // Source of truth (id -> punishment)
+    private final Map<Long, Punishment> byId = new ConcurrentHashMap<>();
+
+    // Lookup views (latest active punishment per key)
+    private final Map<UUID, Punishment> bans = new ConcurrentHashMap<>();
+    private final Map<String, Punishment> ipBans = new ConcurrentHashMap<>();
+    private final Map<UUID, Punishment> mutes = new ConcurrentHashMap<>();
+    private final Map<String, Punishment> ipMutes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+    private volatile boolean loaded = false;
+    private volatile long idWatermark = 0;
+    private volatile Instant removalWatermark = Instant.EPOCH;
+
+    public ActivePunishmentIndex(LiteBansReborn plugin, int fetchSize) {
+        this.plugin = plugin;
+        this.fetchSize = fetchSize;
+    }
+
+    // ==================== Loading ====================
+
+    /**
+     * Stream every active punishment into memory (blocking, called at startup)
+     */
+    public boolean load() {
+        long start = System.currentTimeMillis();
+        DatabaseManager db = plugin.getDatabaseManager();
+
+        String sql = PunishmentRowMapper.select(Projection.FULL, db.getTable("punishments")) +
+                " WHERE type IN " + TYPES + " AND active = TRUE " +
+                "AND (expires_at IS NULL OR expires_at > ?)";
+
+        try (Connection conn = db.getConnection()) {
+            Timestamp now = Timestamp.from(Instant.now());
+            PunishmentRowMapper.stream(conn, db.getDatabaseType(), sql, fetchSize,
+                    stmt -> stmt.setTimestamp(1, now), PunishmentRowMapper::mapFull, this::add);
+
+            initWatermarks(conn);
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to load active punishment index: " + e.getMessage());
+            clear();
+            return false;
+        }
+
+        loaded = true;
+        plugin.log(Level.INFO, "Loaded " + byId.size() + " active punishments into memory in " +
+                (System.currentTimeMillis() - start) + "ms");
+        return true;
+    }
+
+    private void initWatermarks(Connection conn) throws SQLException {
+        String sql = "SELECT MAX(id), MAX(removed_at) FROM " + plugin.getDatabaseManager().getTable("punishments");
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                idWatermark = rs.getLong(1);
+                Timestamp removed = rs.getTimestamp(2);
+                removalWatermark = removed != null ? removed.toInstant() : Instant.now();
+            }
+        }
+    }
+
+    // ==================== Incremental Refresh ====================
+
+    /**
+     * Poll new and removed punishments since the last watermarks.
+     * A call made while a poll is running makes that poll run once more
+     * instead of starting a second one.
+     */
+    public void refresh() {
+        if (!loaded) {
+            return;
+        }
+
+        pending.set(true);
+        while (pending.get() && refreshing.compareAndSet(false, true)) {
+            pending.set(false);
+            try (Connection conn = plugin.getDatabaseManager().getConnection()) {
+                pollInserts(conn);
+                pollRemovals(conn);
+            } catch (SQLException e) {
+                plugin.log(Level.WARNING, "Active punishment index refresh failed: " + e.getMessage());
+                return;
+            } finally {
+                refreshing.set(false);
+            }
+        }
+    }
+
+    private void pollInserts(Connection conn) throws SQLException {
+        String sql = PunishmentRowMapper.select(Projection.FULL, plugin.getDatabaseManager().getTable("punishments")) +
+                " WHERE id > ? AND type IN " + TYPES + " ORDER BY id";
+
+        long maxId = idWatermark;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, Math.max(0, idWatermark - ID_OVERLAP));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Punishment punishment = Punishment.fromResultSet(rs);
+                    maxId = Math.max(maxId, punishment.getId());
+                    if (punishment.isActiveAndValid()) {
+                        add(punishment);
+                    } else {
+                        remove(punishment.getId());
+                    }
+                }
+            }
+        }
+        idWatermark = maxId;
+    }
+
+    private void pollRemovals(Connection conn) throws SQLException {
+        String sql = "SELECT id, removed_at FROM " + plugin.getDatabaseManager().getTable("punishments") +
+                " WHERE removed_at > ? AND type IN " + TYPES;
+
+        Instant maxRemoved = removalWatermark;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.from(removalWatermark.minusMillis(REMOVAL_OVERLAP_MILLIS)));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    remove(rs.getLong("id"));
+                    Timestamp removedAt = rs.getTimestamp("removed_at");
+                    if (removedAt != null && removedAt.toInstant().isAfter(maxRemoved)) {
+                        maxRemoved = removedAt.toInstant();
+                    }
+                }
+            }
+        }
+        removalWatermark = maxRemoved;
+    }
+
+    // ==================== Mutation ====================
+
+    /**
+     * Add (or replace) an active punishment
+     */
+    public void add(Punishment punishment) {
+        if (punishment.getId() > 0) {
+            byId.put(punishment.getId(), punishment);
+        }
+
+        if (punishment.getType().isBanType()) {
+            putLatest(bans, ipBans, punishment);
+        } else if (punishment.getType().isMuteType()) {
+            putLatest(mutes, ipMutes, punishment);
+        }
+    }
+
+    /**
+     * Remove a punishment by id, falling back to any other active one for the same key
+     */
+    public void remove(long id) {
+        Punishment removed = byId.remove(id);
+        if (removed == null) {
+            return;
+        }
+
+        if (removed.getType().isBanType()) {
+            evict(bans, ipBans, removed);
+        } else if (removed.getType().isMuteType()) {
+            evict(mutes, ipMutes, removed);
+        }
+    }
+
+    private void putLatest(Map<UUID, Punishment> byUuid, Map<String, Punishment> byIp, Punishment punishment) {
+        if (punishment.getTargetUUID() != null) {
+            byUuid.merge(punishment.getTargetUUID(), punishment, ActivePunishmentIndex::newer);
+        }
+        if (punishment.isIpBased() && punishment.getTargetIP() != null) {
+            byIp.merge(punishment.getTargetIP(), punishment, ActivePunishmentIndex::newer);
+        }
+    }
+
+    private void evict(Map<UUID, Punishment> byUuid, Map<String, Punishment> byIp, Punishment removed) {
+        if (removed.getTargetUUID() != null) {
+            byUuid.computeIfPresent(removed.getTargetUUID(), (uuid, current) -> current.getId() == removed.getId()
+                    ? findReplacement(removed, p -> uuid.equals(p.getTargetUUID()))
+                    : current);
+        }
+        if (removed.isIpBased() && removed.getTargetIP() != null) {
+            byIp.computeIfPresent(removed.getTargetIP(), (ip, current) -> current.getId() == removed.getId()
+                    ? findReplacement(removed, p -> p.isIpBased() && ip.equals(p.getTargetIP()))
+                    : current);
+        }
+    }
+
+    /**
+     * Find another active punishment of the same category for a key (removals are rare, a scan is fine)
+     */
+    private Punishment findReplacement(Punishment removed, Predicate<Punishment> sameKey) {
+        boolean ban = removed.getType().isBanType();
+        Punishment best = null;
+        for (Punishment candidate : byId.values()) {
+            if (candidate.getType().isBanType() == ban && candidate.isActiveAndValid() && sameKey.test(candidate)) {
+                best = best == null ? candidate : newer(best, candidate);
+            }
+        }
+        return best;
+    }
+
+    private static Punishment newer(Punishment a, Punishment b) {
+        if (!a.isActiveAndValid()) return b;
+        if (!b.isActiveAndValid()) return a;
+        return b.getId() >= a.getId() ? b : a;
+    }
+
+    /**
+     * Drop expired temporary punishments
+     */
+    public void purgeExpired() {
+        for (Punishment punishment : byId.values()) {
+            if (!punishment.isActiveAndValid()) {
+                remove(punishment.getId());
+            }
+        }
+    }
+
+    public void clear() {
+        loaded = false;
+        byId.clear();
+        bans.clear();
+        ipBans.clear();
+        mutes.clear();
+        ipMutes.clear();
+    }
+
+    // ==================== Lookups ====================
+
+    public Punishment getBan(UUID uuid) {
+        return valid(bans.get(uuid));
+    }
+
+    public Punishment getIPBan(String ip) {
+        return valid(ipBans.get(ip));
+    }
+
+    public Punishment getMute(UUID uuid) {
+        return valid(mutes.get(uuid));
+    }
+
+    public Punishment getIPMute(String ip) {
+        return valid(ipMutes.get(ip));
+    }
+
+    private Punishment valid(Punishment punishment) {
+        return punishment != null && punishment.isActiveAndValid() ? punishment : null;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+}
@@ -5,10 +5,13 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.nuvik.litebansreborn.LiteBansReborn;
 import com.nuvik.litebansreborn.models.PlayerData;
 import com.nuvik.litebansreborn.models.Punishment;
+import org.bukkit.Bukkit;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +36,18 @@ public class CacheManager {
     // IP mutes cache (IP -> Punishment)
     private final Cache<String, Punishment> ipMutesCache;
     
+    // Known-clean markers (key -> no active punishment in DB)
+    private final Cache<UUID, Boolean> cleanBansCache;
+    private final Cache<UUID, Boolean> cleanMutesCache;
+    private final Cache<String, Boolean> cleanIPBansCache;
+    private final Cache<String, Boolean> cleanIPMutesCache;
+    
+    // Bumped on every punishment write so an in-flight "clean" lookup can't hide a newer punishment
+    private final AtomicLong punishmentEpoch = new AtomicLong();
+    
+    // Authoritative mode: every active ban/mute held in memory (null in lazy mode)
+    private final ActivePunishmentIndex activeIndex;
+    
     // Frozen players (UUID -> reason)
     private final Map<UUID, String> frozenPlayers;
     
@@ -71,6 +86,42 @@ public class CacheManager {
                 .expireAfterWrite(10, TimeUnit.MINUTES)
                 .build();
         
+        long negativeTtl = plugin.getConfigManager().getInt("cache.negative-ttl", 300);
+        int negativeSize = plugin.getConfigManager().getInt("cache.negative-max-size", 20000);
+        
+        this.cleanBansCache = Caffeine.newBuilder()
+                .maximumSize(negativeSize)
+                .expireAfterWrite(negativeTtl, TimeUnit.SECONDS)
+                .build();
+        
+        this.cleanMutesCache = Caffeine.newBuilder()
+                .maximumSize(negativeSize)
+                .expireAfterWrite(negativeTtl, TimeUnit.SECONDS)
+                .build();
+        
+        this.cleanIPBansCache = Caffeine.newBuilder()
+                .maximumSize(negativeSize)
+                .expireAfterWrite(negativeTtl, TimeUnit.SECONDS)
+                .build();
+        
+        this.cleanIPMutesCache = Caffeine.newBuilder()
+                .maximumSize(negativeSize)
+                .expireAfterWrite(negativeTtl, TimeUnit.SECONDS)
+                .build();
+        
+        boolean authoritative = plugin.getConfigManager().getString("cache.mode", "lazy").equalsIgnoreCase("authoritative");
+        // The index streams from the SQL punishments table, which MongoDB setups don't use
+        if (authoritative && plugin.getDatabaseManager().isMongo()) {
+            plugin.log(Level.WARNING, "cache.mode 'authoritative' is not supported with MongoDB, using 'lazy'");
+            authoritative = false;
+        }
+        if (authoritative) {
+            this.activeIndex = new ActivePunishmentIndex(plugin,
+                    plugin.getConfigManager().getInt("cache.authoritative.fetch-size", 1000));
+        } else {
+            this.activeIndex = null;
+        }
+        
         this.frozenPlayers = new ConcurrentHashMap<>();
         this.staffChatEnabled = ConcurrentHashMap.newKeySet();
         
@@ -97,15 +148,24 @@ public class CacheManager {
     // ==================== Ban Cache ====================
     
     public void cacheBan(Punishment ban) {
+        punishmentEpoch.incrementAndGet();
+        if (isAuthoritative()) {
+            activeIndex.add(ban);
+        }
         if (ban.getTargetUUID() != null) {
+            cleanBansCache.invalidate(ban.getTargetUUID());
             activeBansCache.put(ban.getTargetUUID(), ban);
         }
         if (ban.isIpBased() && ban.getTargetIP() != null) {
+            cleanIPBansCache.invalidate(ban.getTargetIP());
             ipBansCache.put(ban.getTargetIP(), ban);
         }
     }
     
     public Punishment getBan(UUID uuid) {
+        if (isAuthoritative()) {
+            return activeIndex.getBan(uuid);
+        }
         Punishment ban = activeBansCache.getIfPresent(uuid);
         if (ban != null && ban.isActiveAndValid()) {
             return ban;
@@ -114,6 +174,9 @@ public class CacheManager {
     }
     
     public Punishment getIPBan(String ip) {
+        if (isAuthoritative()) {
+            return activeIndex.getIPBan(ip);
+        }
         Punishment ban = ipBansCache.getIfPresent(ip);
         if (ban != null && ban.isActiveAndValid()) {
             return ban;
@@ -122,25 +185,40 @@ public class CacheManager {
     }
     
     public void invalidateBan(UUID uuid) {
+        punishmentEpoch.incrementAndGet();
+        requestIndexRefresh();
         activeBansCache.invalidate(uuid);
+        cleanBansCache.invalidate(uuid);
     }
     
     public void invalidateIPBan(String ip) {
+        punishmentEpoch.incrementAndGet();
+        requestIndexRefresh();
         ipBansCache.invalidate(ip);
+        cleanIPBansCache.invalidate(ip);
     }
     
     // ==================== Mute Cache ====================
     
     public void cacheMute(Punishment mute) {
+        punishmentEpoch.incrementAndGet();
+        if (isAuthoritative()) {
+            activeIndex.add(mute);
+        }
         if (mute.getTargetUUID() != null) {
+            cleanMutesCache.invalidate(mute.getTargetUUID());
             activeMutesCache.put(mute.getTargetUUID(), mute);
         }
         if (mute.isIpBased() && mute.getTargetIP() != null) {
+            cleanIPMutesCache.invalidate(mute.getTargetIP());
             ipMutesCache.put(mute.getTargetIP(), mute);
         }
     }
     
     public Punishment getMute(UUID uuid) {
+        if (isAuthoritative()) {
+            return activeIndex.getMute(uuid);
+        }
         Punishment mute = activeMutesCache.getIfPresent(uuid);
         if (mute != null && mute.isActiveAndValid()) {
             return mute;
@@ -149,6 +227,9 @@ public class CacheManager {
     }
     
     public Punishment getIPMute(String ip) {
+        if (isAuthoritative()) {
+            return activeIndex.getIPMute(ip);
+        }
         Punishment mute = ipMutesCache.getIfPresent(ip);
         if (mute != null && mute.isActiveAndValid()) {
             return mute;
@@ -157,11 +238,123 @@ public class CacheManager {
     }
     
     public void invalidateMute(UUID uuid) {
+        punishmentEpoch.incrementAndGet();
+        requestIndexRefresh();
         activeMutesCache.invalidate(uuid);
+        cleanMutesCache.invalidate(uuid);
     }
     
     public void invalidateIPMute(String ip) {
+        punishmentEpoch.incrementAndGet();
+        requestIndexRefresh();
         ipMutesCache.invalidate(ip);
+        cleanIPMutesCache.invalidate(ip);
+    }
+    
+    // ==================== Authoritative Index ====================
+    
+    /**
+     * Load the active punishment index (blocking). Falls back to lazy caching if it fails.
+     */
+    public void loadActiveIndex() {
+        if (activeIndex != null && !activeIndex.load()) {
+            plugin.log(Level.WARNING, "Falling back to lazy punishment caching");
+        }
+    }
+    
+    /**
+     * Pull new and removed punishments into the index (call from an async task)
+     */
+    public void refreshActiveIndex() {
+        if (isAuthoritative()) {
+            activeIndex.refresh();
+        }
+    }
+    
+    /**
+     * True when every active ban/mute is held in memory and a miss means "not punished"
+     */
+    public boolean isAuthoritative() {
+        return activeIndex != null && activeIndex.isLoaded();
+    }
+    
+    /**
+     * Invalidations in authoritative mode can't simply drop entries (a cross-server
+     * ban would become invisible), so they trigger an immediate watermark poll instead.
+     */
+    private void requestIndexRefresh() {
+        if (isAuthoritative() && plugin.isEnabled()) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, activeIndex::refresh);
+        }
+    }
+    
+    // ==================== Negative Cache ====================
+    
+    /**
+     * Current punishment write epoch. Capture this before a DB lookup and pass it
+     * to the matching mark*Clean method once the lookup finds nothing.
+     */
+    public long getPunishmentEpoch() {
+        return punishmentEpoch.get();
+    }
+    
+    public void markBanClean(UUID uuid, long epoch) {
+        markClean(cleanBansCache, uuid, epoch);
+    }
+    
+    public void markIPBanClean(String ip, long epoch) {
+        markClean(cleanIPBansCache, ip, epoch);
+    }
+    
+    public void markMuteClean(UUID uuid, long epoch) {
+        markClean(cleanMutesCache, uuid, epoch);
+    }
+    
+    public void markIPMuteClean(String ip, long epoch) {
+        markClean(cleanIPMutesCache, ip, epoch);
+    }
+    
+    public boolean isBanClean(UUID uuid) {
+        if (isAuthoritative()) {
+            return activeIndex.getBan(uuid) == null;
+        }
+        return cleanBansCache.getIfPresent(uuid) != null;
+    }
+    
+    public boolean isIPBanClean(String ip) {
+        if (isAuthoritative()) {
+            return activeIndex.getIPBan(ip) == null;
+        }
+        return cleanIPBansCache.getIfPresent(ip) != null;
+    }
+    
+    public boolean isMuteClean(UUID uuid) {
+        if (isAuthoritative()) {
+            return activeIndex.getMute(uuid) == null;
+        }
+        return cleanMutesCache.getIfPresent(uuid) != null;
+    }
+    
+    public boolean isIPMuteClean(String ip) {
+        if (isAuthoritative()) {
+            return activeIndex.getIPMute(ip) == null;
+        }
+        return cleanIPMutesCache.getIfPresent(ip) != null;
+    }
+    
+    /**
+     * Store a clean marker unless a punishment was written since the lookup started.
+     * The marker is put first and re-checked afterwards, so a concurrent write either
+     * sees the marker (and invalidates it) or bumps the epoch before our re-check.
+     */
+    private <K> void markClean(Cache<K, Boolean> cache, K key, long epoch) {
+        if (key == null || punishmentEpoch.get() != epoch) {
+            return;
+        }
+        cache.put(key, Boolean.TRUE);
+        if (punishmentEpoch.get() != epoch) {
+            cache.invalidate(key);
+        }
     }
     
     // ==================== Freeze Cache ====================
@@ -259,6 +452,10 @@ public class CacheManager {
         ipMutesCache.asMap().entrySet().removeIf(entry -> 
             !entry.getValue().isActiveAndValid());
         
+        if (isAuthoritative()) {
+            activeIndex.purgeExpired();
+        }
+        
         plugin.debug("Cache cleanup completed");
     }
     
@@ -271,6 +468,12 @@ public class CacheManager {
         activeMutesCache.invalidateAll();
         ipBansCache.invalidateAll();
         ipMutesCache.invalidateAll();
+        cleanBansCache.invalidateAll();
+        cleanMutesCache.invalidateAll();
+        cleanIPBansCache.invalidateAll();
+        cleanIPMutesCache.invalidateAll();
+        punishmentEpoch.incrementAndGet();
+        // The authoritative index is kept: it is the source of truth, not a cache of it
         frozenPlayers.clear();
         // Don't clear staff chat toggles
         cooldowns.invalidateAll();
@@ -297,6 +500,9 @@ public class CacheManager {
         stats.put("mutes", activeMutesCache.estimatedSize());
         stats.put("ipBans", ipBansCache.estimatedSize());
         stats.put("ipMutes", ipMutesCache.estimatedSize());
+        stats.put("clean", cleanBansCache.estimatedSize() + cleanMutesCache.estimatedSize()
+                + cleanIPBansCache.estimatedSize() + cleanIPMutesCache.estimatedSize());
+        stats.put("indexed", activeIndex != null ? (long) activeIndex.size() : 0L);
         stats.put("frozen", (long) frozenPlayers.size());
         stats.put("staffChat", (long) staffChatEnabled.size());
         return stats;
@@ -0,0 +1,63 @@
+package com.nuvik.litebansreborn.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single Flight - collapses concurrent lookups for the same key into one
+ *
+ * The first caller for a key starts the lookup; everyone asking for that key
+ * before it completes gets the same future. The key is released as soon as
+ * the lookup completes, so results are not cached here (that is the
+ * caller's cache's job). Callers must not complete the returned future.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder shared = new LongAdder();
+
+    public CompletableFuture<V> run(K key, Supplier<CompletableFuture<V>> lookup) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            shared.increment();
+            return existing;
+        }
+
+        try {
+            lookup.get().whenComplete((value, error) -> {
+                inFlight.remove(key, created);
+                if (error != null) {
+                    created.completeExceptionally(error);
+                } else {
+                    created.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * The running lookup for a key, if any
+     */
+    public CompletableFuture<V> get(K key) {
+        return inFlight.get(key);
+    }
+
+    /**
+     * Callers that joined an existing lookup instead of starting one
+     */
+    public long getSharedCount() {
+        return shared.sum();
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+}
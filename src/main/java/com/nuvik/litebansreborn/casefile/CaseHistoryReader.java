@@ -0,0 +1,263 @@
+package com.nuvik.litebansreborn.casefile;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Case History Reader - streaming decoder for {@link CaseHistoryWriter} data
+ *
+ * Entries are handed to a {@link Visitor} one at a time as they are decoded,
+ * so nothing but the current section's string dictionary is kept in memory.
+ * A visitor can skip whole sections without decoding them. Every decoded
+ * length is checked against the bytes left in its section, so a corrupt row
+ * fails with an IOException instead of a huge allocation.
+ */
+public final class CaseHistoryReader {
+
+    public enum Section {
+        CHAT, COMMANDS, MOVEMENT
+    }
+
+    /**
+     * Receives decoded entries in stored order (oldest first per section)
+     */
+    public interface Visitor {
+
+        /**
+         * A section starts
+         *
+         * @return false to skip its entries
+         */
+        default boolean section(Section section, int count) {
+            return true;
+        }
+
+        default void chat(long time, String message) {
+        }
+
+        default void command(long time, String command) {
+        }
+
+        default void movement(long time, String world, double x, double y, double z,
+                              boolean flying, boolean sprinting) {
+        }
+    }
+
+    private CaseHistoryReader() {
+    }
+
+    /**
+     * Whether the bytes start with the case history header
+     */
+    public static boolean isCaseHistory(byte[] data) {
+        if (data == null || data.length < CaseHistoryWriter.MAGIC.length + 2) {
+            return false;
+        }
+        for (int i = 0; i < CaseHistoryWriter.MAGIC.length; i++) {
+            if (data[i] != CaseHistoryWriter.MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decode the stream into the visitor (the stream is not closed)
+     */
+    public static void read(InputStream stream, Visitor visitor) throws IOException {
+        byte[] header = stream.readNBytes(CaseHistoryWriter.MAGIC.length + 2);
+        if (!isCaseHistory(header)) {
+            throw new IOException("Not a case history");
+        }
+        int version = header[CaseHistoryWriter.MAGIC.length];
+        if (version != CaseHistoryWriter.VERSION) {
+            throw new IOException("Unsupported case history version " + version);
+        }
+        int flags = header[CaseHistoryWriter.MAGIC.length + 1];
+        Input in = new Input((flags & CaseHistoryWriter.FLAG_GZIP) != 0 ? new GZIPInputStream(stream) : stream);
+
+        int tag;
+        while ((tag = readByte(in)) != CaseHistoryWriter.SECTION_END) {
+            int count = (int) readVarint(in);
+            long length = readVarint(in);
+            Section section = switch (tag) {
+                case CaseHistoryWriter.SECTION_CHAT -> Section.CHAT;
+                case CaseHistoryWriter.SECTION_COMMANDS -> Section.COMMANDS;
+                case CaseHistoryWriter.SECTION_MOVEMENT -> Section.MOVEMENT;
+                default -> null;
+            };
+            // Unknown sections (newer writers) are skipped like unwanted ones
+            if (section == null || !visitor.section(section, count)) {
+                skipFully(in, length);
+                continue;
+            }
+            long end = in.consumed() + length;
+            if (section == Section.MOVEMENT) {
+                readMovement(in, count, end, visitor);
+            } else {
+                readText(in, count, end, section, visitor);
+            }
+            if (in.consumed() != end) {
+                throw new IOException("Corrupt case history (section length mismatch)");
+            }
+        }
+    }
+
+    private static void readText(Input in, int count, long end, Section section, Visitor visitor) throws IOException {
+        List<String> dictionary = new ArrayList<>();
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            time += readSigned(in);
+            String text = readString(in, dictionary, end);
+            checkBounds(in, end);
+            if (section == Section.CHAT) {
+                visitor.chat(time, text);
+            } else {
+                visitor.command(time, text);
+            }
+        }
+    }
+
+    private static void readMovement(Input in, int count, long end, Visitor visitor) throws IOException {
+        List<String> dictionary = new ArrayList<>();
+        long time = 0;
+        long x = 0;
+        long y = 0;
+        long z = 0;
+        for (int i = 0; i < count; i++) {
+            time += readSigned(in);
+            x += readSigned(in);
+            y += readSigned(in);
+            z += readSigned(in);
+            String world = readString(in, dictionary, end);
+            int flags = readByte(in);
+            checkBounds(in, end);
+            visitor.movement(time, world,
+                    x / CaseHistoryWriter.COORDINATE_SCALE,
+                    y / CaseHistoryWriter.COORDINATE_SCALE,
+                    z / CaseHistoryWriter.COORDINATE_SCALE,
+                    (flags & CaseHistoryWriter.MOVE_FLYING) != 0,
+                    (flags & CaseHistoryWriter.MOVE_SPRINTING) != 0);
+        }
+    }
+
+    private static String readString(Input in, List<String> dictionary, long end) throws IOException {
+        long reference = readVarint(in);
+        if (reference > 0) {
+            if (reference > dictionary.size()) {
+                throw new IOException("Corrupt case history (bad string reference)");
+            }
+            return dictionary.get((int) reference - 1);
+        }
+        long length = readVarint(in);
+        if (length < 0 || length > end - in.consumed()) {
+            throw new IOException("Corrupt case history (string too long)");
+        }
+        String value = in.readString((int) length);
+        dictionary.add(value);
+        return value;
+    }
+
+    private static void checkBounds(Input in, long end) throws IOException {
+        if (in.consumed() > end) {
+            throw new IOException("Corrupt case history (entry past section end)");
+        }
+    }
+
+    private static int readByte(Input in) throws IOException {
+        return in.read();
+    }
+
+    private static long readVarint(Input in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt case history (varint too long)");
+    }
+
+    private static long readSigned(Input in) throws IOException {
+        long value = readVarint(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void skipFully(Input in, long length) throws IOException {
+        while (length > 0) {
+            length -= in.skip(length);
+        }
+    }
+
+    /**
+     * Unsynchronized read buffer (BufferedInputStream locks on every read)
+     */
+    private static final class Input {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[4096];
+        private int position = 0;
+        private int limit = 0;
+        // Bytes consumed before the current buffer contents
+        private long base = 0;
+
+        Input(InputStream in) {
+            this.in = in;
+        }
+
+        int read() throws IOException {
+            if (position == limit) {
+                fill();
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        String readString(int length) throws IOException {
+            if (length <= limit - position) {
+                String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+                position += length;
+                return value;
+            }
+            byte[] bytes = new byte[length];
+            int copied = limit - position;
+            System.arraycopy(buffer, position, bytes, 0, copied);
+            position = limit;
+            int read = in.readNBytes(bytes, copied, length - copied);
+            if (read < length - copied) {
+                throw new EOFException("Truncated case history");
+            }
+            base += read;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        long skip(long length) throws IOException {
+            if (position == limit) {
+                fill();
+            }
+            int skipped = (int) Math.min(length, limit - position);
+            position += skipped;
+            return skipped;
+        }
+
+        long consumed() {
+            return base + position;
+        }
+
+        private void fill() throws IOException {
+            int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                throw new EOFException("Truncated case history");
+            }
+            base += limit;
+            position = 0;
+            limit = read;
+        }
+    }
+}
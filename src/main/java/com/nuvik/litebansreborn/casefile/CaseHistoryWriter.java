@@ -0,0 +1,166 @@
+package com.nuvik.litebansreborn.casefile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Case History Writer - compact binary encoding of a case file's chat, command and movement history
+ *
+ * Layout:
+ * <pre>
+ *   "LBCH", version byte, flags byte (1 = body is gzipped)
+ *   body: sections, then a 0 byte
+ *   section: tag byte (1 chat, 2 commands, 3 movement), varint count,
+ *            varint byte length, entries
+ * </pre>
+ * Inside a section:
+ * - times are zig-zag varint deltas from the previous entry (the first
+ *   from 0)
+ * - strings go through a per-section dictionary: varint 0 plus
+ *   (varint length, UTF-8) adds a new string, n &gt; 0 repeats entry n-1, so
+ *   repeated commands, lines and world names cost one or two bytes
+ * - movement coordinates are stored in hundredths of a block as zig-zag
+ *   varint deltas, followed by the world string and a flags byte
+ *
+ * Each section carries its byte length, so a reader can skip it without
+ * decoding it.
+ */
+public final class CaseHistoryWriter {
+
+    static final byte[] MAGIC = {'L', 'B', 'C', 'H'};
+    static final int VERSION = 1;
+    static final int FLAG_GZIP = 1;
+
+    static final int SECTION_END = 0;
+    static final int SECTION_CHAT = 1;
+    static final int SECTION_COMMANDS = 2;
+    static final int SECTION_MOVEMENT = 3;
+
+    static final int MOVE_FLYING = 1;
+    static final int MOVE_SPRINTING = 2;
+
+    static final double COORDINATE_SCALE = 100.0;
+
+    private CaseHistoryWriter() {
+    }
+
+    /**
+     * Encode the given histories (any of them may be null or empty)
+     */
+    public static byte[] encode(TextRing chat, TextRing commands, MovementRing movements, boolean gzip) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(gzip ? FLAG_GZIP : 0);
+
+            OutputStream body = gzip ? new GZIPOutputStream(out) : out;
+            if (chat != null && chat.size() > 0) {
+                writeSection(body, SECTION_CHAT, chat.size(), encodeText(chat));
+            }
+            if (commands != null && commands.size() > 0) {
+                writeSection(body, SECTION_COMMANDS, commands.size(), encodeText(commands));
+            }
+            if (movements != null && movements.size() > 0) {
+                writeSection(body, SECTION_MOVEMENT, movements.size(), encodeMovement(movements));
+            }
+            body.write(SECTION_END);
+            body.close();
+            return out.toByteArray();
+        } catch (IOException e) {
+            // Only in-memory streams are involved
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeSection(OutputStream out, int tag, int count, Encoder section) throws IOException {
+        out.write(tag);
+        writeVarint(out, count);
+        writeVarint(out, section.size());
+        section.writeTo(out);
+    }
+
+    private static Encoder encodeText(TextRing ring) {
+        Encoder encoder = new Encoder();
+        long previous = 0;
+        for (int i = 0; i < ring.size(); i++) {
+            long time = ring.time(i);
+            encoder.signed(time - previous);
+            previous = time;
+            encoder.string(ring.text(i));
+        }
+        return encoder;
+    }
+
+    private static Encoder encodeMovement(MovementRing ring) {
+        Encoder encoder = new Encoder();
+        long previousTime = 0;
+        long px = 0;
+        long py = 0;
+        long pz = 0;
+        for (int i = 0; i < ring.size(); i++) {
+            long time = ring.time(i);
+            long x = Math.round(ring.x(i) * COORDINATE_SCALE);
+            long y = Math.round(ring.y(i) * COORDINATE_SCALE);
+            long z = Math.round(ring.z(i) * COORDINATE_SCALE);
+            encoder.signed(time - previousTime);
+            encoder.signed(x - px);
+            encoder.signed(y - py);
+            encoder.signed(z - pz);
+            encoder.string(MovementRing.worldName(ring.world(i)));
+            encoder.write((ring.flying(i) ? MOVE_FLYING : 0) | (ring.sprinting(i) ? MOVE_SPRINTING : 0));
+            previousTime = time;
+            px = x;
+            py = y;
+            pz = z;
+        }
+        return encoder;
+    }
+
+    static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Section buffer with its own string dictionary
+     */
+    private static final class Encoder extends ByteArrayOutputStream {
+
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        void unsigned(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void signed(long value) {
+            unsigned((value << 1) ^ (value >> 63));
+        }
+
+        void string(String value) {
+            Integer index = dictionary.get(value);
+            if (index != null) {
+                unsigned(index + 1);
+                return;
+            }
+            dictionary.put(value, dictionary.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            unsigned(0);
+            unsigned(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+}
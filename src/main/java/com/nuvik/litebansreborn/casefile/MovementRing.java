@@ -0,0 +1,161 @@
+package com.nuvik.litebansreborn.casefile;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Movement Ring - fixed-capacity columnar history of one player's positions
+ *
+ * Samples live in parallel primitive arrays (time, x, y, z and one int
+ * packing the world index with the flying/sprinting bits), so recording a
+ * sample writes into preallocated slots and creates no objects. World names
+ * are interned once into a shared table.
+ *
+ * Writers and {@link #copy()} synchronize on the ring; a copy is unwrapped
+ * (index 0 = oldest) and can be read without locking.
+ */
+public final class MovementRing {
+
+    private static final int FLYING = 1;
+    private static final int SPRINTING = 2;
+    private static final int WORLD_SHIFT = 2;
+
+    private static final Map<String, Integer> WORLD_INDEX = new ConcurrentHashMap<>();
+    private static final List<String> WORLD_NAMES = new CopyOnWriteArrayList<>();
+
+    private final long[] times;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final int[] meta;
+    private int head = 0;
+    private int size = 0;
+
+    public MovementRing(int capacity) {
+        this.times = new long[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.zs = new double[capacity];
+        this.meta = new int[capacity];
+    }
+
+    /**
+     * Interned index of a world name
+     */
+    public static int worldIndex(String world) {
+        Integer index = WORLD_INDEX.get(world);
+        if (index != null) {
+            return index;
+        }
+        synchronized (WORLD_NAMES) {
+            return WORLD_INDEX.computeIfAbsent(world, w -> {
+                WORLD_NAMES.add(w);
+                return WORLD_NAMES.size() - 1;
+            });
+        }
+    }
+
+    public static String worldName(int index) {
+        return WORLD_NAMES.get(index);
+    }
+
+    public synchronized void add(long time, int world, double x, double y, double z, boolean flying, boolean sprinting) {
+        int slot = (head + size) % times.length;
+        if (size == times.length) {
+            head = (head + 1) % times.length;
+        } else {
+            size++;
+        }
+        times[slot] = time;
+        xs[slot] = x;
+        ys[slot] = y;
+        zs[slot] = z;
+        meta[slot] = world << WORLD_SHIFT | (flying ? FLYING : 0) | (sprinting ? SPRINTING : 0);
+    }
+
+    /**
+     * Decide whether a new sample is worth recording
+     *
+     * Nothing is recorded while the player stands still (moved less than
+     * minMove blocks with the same world and flags). A moving player is
+     * sampled every baseInterval ms, a fast one (faster than fastSpeed
+     * blocks/s) every fastInterval ms; a world or flag change is always
+     * recorded.
+     */
+    public synchronized boolean shouldSample(long now, int world, double x, double y, double z,
+                                             boolean flying, boolean sprinting, double minMove,
+                                             long baseInterval, double fastSpeed, long fastInterval) {
+        if (size == 0) {
+            return true;
+        }
+        int last = (head + size - 1) % times.length;
+        int flags = world << WORLD_SHIFT | (flying ? FLYING : 0) | (sprinting ? SPRINTING : 0);
+        if (meta[last] != flags) {
+            return true;
+        }
+        double dx = x - xs[last];
+        double dy = y - ys[last];
+        double dz = z - zs[last];
+        double distanceSquared = dx * dx + dy * dy + dz * dz;
+        if (distanceSquared < minMove * minMove) {
+            return false;
+        }
+        long elapsed = now - times[last];
+        double seconds = elapsed / 1000.0;
+        boolean fast = distanceSquared > fastSpeed * fastSpeed * seconds * seconds;
+        return elapsed >= (fast ? fastInterval : baseInterval);
+    }
+
+    /**
+     * Unwrapped copy of the current samples (oldest first)
+     */
+    public synchronized MovementRing copy() {
+        MovementRing copy = new MovementRing(Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % times.length;
+            copy.times[i] = times[slot];
+            copy.xs[i] = xs[slot];
+            copy.ys[i] = ys[slot];
+            copy.zs[i] = zs[slot];
+            copy.meta[i] = meta[slot];
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Indexed access, 0 = oldest (meant for copies)
+
+    public long time(int i) {
+        return times[(head + i) % times.length];
+    }
+
+    public double x(int i) {
+        return xs[(head + i) % times.length];
+    }
+
+    public double y(int i) {
+        return ys[(head + i) % times.length];
+    }
+
+    public double z(int i) {
+        return zs[(head + i) % times.length];
+    }
+
+    public int world(int i) {
+        return meta[(head + i) % times.length] >>> WORLD_SHIFT;
+    }
+
+    public boolean flying(int i) {
+        return (meta[(head + i) % times.length] & FLYING) != 0;
+    }
+
+    public boolean sprinting(int i) {
+        return (meta[(head + i) % times.length] & SPRINTING) != 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.nuvik.litebansreborn.casefile;
+
+/**
+ * Text Ring - fixed-capacity history of timestamped lines (chat or commands)
+ *
+ * Times are kept in a long[] next to the String[] of lines, so a record is
+ * two array writes instead of an entry object and a list node. Writers and
+ * {@link #copy()} synchronize on the ring.
+ */
+public final class TextRing {
+
+    private final long[] times;
+    private final String[] texts;
+    private int head = 0;
+    private int size = 0;
+
+    public TextRing(int capacity) {
+        this.times = new long[capacity];
+        this.texts = new String[capacity];
+    }
+
+    public synchronized void add(long time, String text) {
+        int slot = (head + size) % times.length;
+        if (size == times.length) {
+            head = (head + 1) % times.length;
+        } else {
+            size++;
+        }
+        times[slot] = time;
+        texts[slot] = text;
+    }
+
+    /**
+     * Unwrapped copy of the current lines (oldest first)
+     */
+    public synchronized TextRing copy() {
+        TextRing copy = new TextRing(Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % times.length;
+            copy.times[i] = times[slot];
+            copy.texts[i] = texts[slot];
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Indexed access, 0 = oldest (meant for copies)
+
+    public long time(int i) {
+        return times[(head + i) % times.length];
+    }
+
+    public String text(int i) {
+        return texts[(head + i) % times.length];
+    }
+}
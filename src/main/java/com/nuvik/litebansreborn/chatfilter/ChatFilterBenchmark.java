@@ -0,0 +1,114 @@
+package com.nuvik.litebansreborn.chatfilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Chat Filter Benchmark - compares the compiled word matcher with the old
+ * per-word contains/replaceAll loop on synthetic chat
+ *
+ * Run from /lbr debug chatfilter, which uses the configured word list.
+ */
+public final class ChatFilterBenchmark {
+
+    private static final String[] FILLER = {
+            "hello", "anyone", "want", "to", "trade", "diamonds", "for", "iron", "lol", "gg",
+            "where", "is", "spawn", "come", "to", "my", "base", "nice", "build", "thanks"
+    };
+
+    private ChatFilterBenchmark() {
+    }
+
+    /**
+     * Benchmark outcome (messages per second for each implementation)
+     *
+     * differingOutputs counts messages censored differently; the old loop misses
+     * a word once an overlapping word has already been starred out.
+     */
+    public record Result(int words, int messages, long legacyPerSecond, long compiledPerSecond,
+                         long buildMicros, int differingOutputs) {
+
+        public double speedup() {
+            return legacyPerSecond == 0 ? 0 : compiledPerSecond / (double) legacyPerSecond;
+        }
+    }
+
+    public static Result run(List<String> words, int messages, long seed) {
+        List<String> corpus = generateMessages(words, messages, seed);
+
+        long buildStart = System.nanoTime();
+        WordMatcher matcher = WordMatcher.compile(words);
+        long buildMicros = (System.nanoTime() - buildStart) / 1000;
+
+        // Warm up both paths (and compare their output) before timing
+        int differing = 0;
+        for (String message : corpus) {
+            if (!legacyCensor(words, message).equals(matcher.censor(message, '*'))) {
+                differing++;
+            }
+        }
+
+        long legacyNanos = time(() -> {
+            for (String message : corpus) {
+                legacyCensor(words, message);
+            }
+        });
+        long compiledNanos = time(() -> {
+            for (String message : corpus) {
+                matcher.censor(message, '*');
+            }
+        });
+
+        return new Result(words.size(), corpus.size(), perSecond(corpus.size(), legacyNanos),
+                perSecond(corpus.size(), compiledNanos), buildMicros, differing);
+    }
+
+    /**
+     * The pre-automaton implementation, kept for comparison
+     */
+    static String legacyCensor(List<String> words, String message) {
+        String lowerMessage = message.toLowerCase();
+        String filtered = message;
+        for (String word : words) {
+            if (lowerMessage.contains(word.toLowerCase())) {
+                filtered = filtered.replaceAll("(?i)" + Pattern.quote(word), "*".repeat(word.length()));
+            }
+        }
+        return filtered;
+    }
+
+    private static List<String> generateMessages(List<String> words, int count, long seed) {
+        Random random = new Random(seed);
+        List<String> messages = new ArrayList<>(count);
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            message.setLength(0);
+            int length = 4 + random.nextInt(12);
+            for (int w = 0; w < length; w++) {
+                if (w > 0) {
+                    message.append(' ');
+                }
+                // About one word in a hundred is blocked
+                if (!words.isEmpty() && random.nextInt(100) < 1) {
+                    message.append(words.get(random.nextInt(words.size())));
+                } else {
+                    message.append(FILLER[random.nextInt(FILLER.length)]);
+                }
+            }
+            messages.add(message.toString());
+        }
+        return messages;
+    }
+
+    private static long time(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        return Math.max(1, System.nanoTime() - start);
+    }
+
+    private static long perSecond(int operations, long nanos) {
+        return (long) (operations * 1_000_000_000.0 / nanos);
+    }
+}
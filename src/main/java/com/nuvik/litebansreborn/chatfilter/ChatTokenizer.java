@@ -0,0 +1,211 @@
+package com.nuvik.litebansreborn.chatfilter;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Chat Tokenizer - finds IP addresses, domains and URLs in one pass
+ *
+ * The message is walked once; every run of dot-separated labels that starts
+ * on a word boundary is classified as it is read, following the same rules
+ * the old IP/domain/URL regexes did:
+ * - four consecutive numeric labels of 1-3 digits: IP address
+ * - labels ending in a known TLD: domain (unless whitelisted)
+ * - a run after "http://" / "https://" or starting with "www.": link (unless
+ *   its host is whitelisted)
+ *
+ * Whitelisted hosts are checked against a {@link DomainTrie}, so the cost is
+ * linear in message length however many domains are whitelisted. Results are
+ * returned as a bit set; nothing is allocated per message.
+ */
+public final class ChatTokenizer {
+
+    public static final int IP = 1;
+    public static final int DOMAIN = 1 << 1;
+    public static final int LINK = 1 << 2;
+
+    /**
+     * TLDs that make a dotted run count as a domain (same list the regex used)
+     */
+    private static final String[] TLDS = {
+            "com", "net", "org", "gg", "me", "io", "co", "tv", "xyz", "info", "biz", "us", "uk", "eu",
+            "de", "fr", "es", "it", "nl", "ru", "br", "jp", "kr", "cn", "au", "ca", "in"
+    };
+
+    // TLDs packed into longs (16 bits per char, max 4 chars), sorted for binary search
+    private static final long[] TLD_KEYS;
+
+    static {
+        TLD_KEYS = new long[TLDS.length];
+        for (int i = 0; i < TLDS.length; i++) {
+            TLD_KEYS[i] = pack(TLDS[i], 0, TLDS[i].length());
+        }
+        Arrays.sort(TLD_KEYS);
+    }
+
+    private final DomainTrie whitelist;
+
+    public ChatTokenizer(Collection<String> whitelistDomains) {
+        this.whitelist = DomainTrie.of(whitelistDomains);
+    }
+
+    /**
+     * Classify a message
+     *
+     * @return bit set of {@link #IP}, {@link #DOMAIN} and {@link #LINK}
+     */
+    public int scan(CharSequence text) {
+        int flags = 0;
+        int n = text.length();
+        int i = 0;
+
+        while (i < n) {
+            if (!isAlnum(text.charAt(i)) || (i > 0 && isWordChar(text.charAt(i - 1)))) {
+                i++;
+                continue;
+            }
+
+            boolean link = false;
+            int schemeLength = schemeLength(text, i);
+            if (schemeLength > 0) {
+                link = true;
+                i += schemeLength;
+                if (i >= n || !isAlnum(text.charAt(i))) {
+                    // Scheme without a host still counts as a link
+                    flags |= LINK;
+                    continue;
+                }
+            } else if (regionMatches(text, i, "www.")) {
+                link = true;
+            }
+
+            // Read one run of labels; each label is alphanumeric pieces joined by hyphens
+            int runStart = i;
+            int end = i;
+            int numericStreak = 0;
+            int labels = 0;
+            boolean labelStart = true;
+            int domainEnd = -1;
+            while (true) {
+                int pieceStart = end;
+                while (end < n && isAlnum(text.charAt(end))) {
+                    end++;
+                }
+
+                // Hyphens and dots are word boundaries, underscores are not
+                boolean boundary = end >= n || text.charAt(end) != '_';
+                if (boundary && end - pieceStart <= 3 && isNumeric(text, pieceStart, end)) {
+                    if (++numericStreak >= 4) {
+                        flags |= IP;
+                    }
+                } else {
+                    numericStreak = 0;
+                }
+                if (boundary && labelStart && labels > 0 && isTld(text, pieceStart, end)) {
+                    domainEnd = end;
+                }
+
+                if (end < n && text.charAt(end) == '-') {
+                    int next = end;
+                    while (next < n && text.charAt(next) == '-') {
+                        next++;
+                    }
+                    if (next >= n || !isAlnum(text.charAt(next))) {
+                        // A label can't end with a hyphen, so the run stops here
+                        break;
+                    }
+                    end = next;
+                    numericStreak = 0;
+                    labelStart = false;
+                } else if (end + 1 < n && text.charAt(end) == '.' && isAlnum(text.charAt(end + 1))) {
+                    end++;
+                    labels++;
+                    labelStart = true;
+                } else {
+                    break;
+                }
+            }
+
+            if (domainEnd > 0 && !whitelist.contains(text, runStart, domainEnd)) {
+                flags |= DOMAIN;
+            }
+            if (link && !whitelist.contains(text, hostStart(text, runStart, end), end)) {
+                flags |= LINK;
+            }
+            if (flags == (IP | DOMAIN | LINK)) {
+                return flags;
+            }
+            i = end;
+        }
+        return flags;
+    }
+
+    public int getWhitelistSize() {
+        return whitelist.size();
+    }
+
+    // ==================== Helpers ====================
+
+    private static int schemeLength(CharSequence text, int i) {
+        if (regionMatches(text, i, "https://")) {
+            return 8;
+        }
+        if (regionMatches(text, i, "http://")) {
+            return 7;
+        }
+        return 0;
+    }
+
+    /**
+     * Skip a leading "www." so it doesn't hide a whitelisted host
+     */
+    private static int hostStart(CharSequence text, int start, int end) {
+        return end - start > 4 && regionMatches(text, start, "www.") ? start + 4 : start;
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String lowerPrefix) {
+        if (offset + lowerPrefix.length() > text.length()) {
+            return false;
+        }
+        for (int k = 0; k < lowerPrefix.length(); k++) {
+            if (Character.toLowerCase(text.charAt(offset + k)) != lowerPrefix.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTld(CharSequence text, int start, int end) {
+        int length = end - start;
+        return length >= 2 && length <= 4 && Arrays.binarySearch(TLD_KEYS, pack(text, start, end)) >= 0;
+    }
+
+    private static long pack(CharSequence text, int start, int end) {
+        long key = 0;
+        for (int k = start; k < end; k++) {
+            key = (key << 16) | Character.toLowerCase(text.charAt(k));
+        }
+        return key;
+    }
+
+    private static boolean isNumeric(CharSequence text, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int k = start; k < end; k++) {
+            char c = text.charAt(k);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAlnum(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isWordChar(char c) {
+        return isAlnum(c) || c == '_';
+    }
+}
@@ -0,0 +1,121 @@
+package com.nuvik.litebansreborn.chatfilter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Domain Trie - whitelist lookup keyed on reversed domain labels
+ *
+ * Entries are stored back to front ("example.com" as "moc.elpmaxe"), so a
+ * host is checked by walking it from its last character towards the first.
+ * A host matches when an entry ends exactly on a label boundary: the entry
+ * itself or any subdomain of it ("play.example.com"), but not a lookalike
+ * such as "notexample.com". Lookups cost O(host length) whatever the number
+ * of entries and allocate nothing.
+ */
+public final class DomainTrie {
+
+    private final Node root = new Node();
+    private final int size;
+
+    private DomainTrie(Collection<String> domains) {
+        int count = 0;
+        for (String domain : domains) {
+            String host = normalize(domain);
+            if (host.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            for (int i = host.length() - 1; i >= 0; i--) {
+                node = node.childOrCreate(host.charAt(i));
+            }
+            node.terminal = true;
+            count++;
+        }
+        this.size = count;
+    }
+
+    public static DomainTrie of(Collection<String> domains) {
+        return new DomainTrie(domains);
+    }
+
+    /**
+     * Whether text[start, end) is a whitelisted domain or a subdomain of one
+     */
+    public boolean contains(CharSequence text, int start, int end) {
+        Node node = root;
+        for (int i = end - 1; i >= start; i--) {
+            node = node.child(Character.toLowerCase(text.charAt(i)));
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal && (i == start || text.charAt(i - 1) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reduce a configured entry to a bare host: no scheme, "www."/"*." prefix, port or path
+     */
+    static String normalize(String domain) {
+        String host = domain.trim().toLowerCase(Locale.ROOT);
+        int scheme = host.indexOf("://");
+        if (scheme >= 0) {
+            host = host.substring(scheme + 3);
+        }
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c == '/' || c == ':' || c == '?' || c == '#') {
+                host = host.substring(0, i);
+                break;
+            }
+        }
+        if (host.startsWith("*.")) {
+            host = host.substring(2);
+        }
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        while (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        return host;
+    }
+
+    private static final class Node {
+        // Few children per node in practice, so parallel arrays with a linear scan
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean terminal;
+
+        Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node();
+            int n = keys.length;
+            keys = java.util.Arrays.copyOf(keys, n + 1);
+            children = java.util.Arrays.copyOf(children, n + 1);
+            keys[n] = c;
+            children[n] = created;
+            return created;
+        }
+    }
+}
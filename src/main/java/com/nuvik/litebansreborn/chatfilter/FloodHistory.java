@@ -0,0 +1,213 @@
+package com.nuvik.litebansreborn.chatfilter;
+
+import java.util.Arrays;
+
+/**
+ * Flood History - fixed-size ring of a player's recent messages for flood checks
+ *
+ * Similarity keeps the old definition, (1 - levenshtein / maxLength) * 100,
+ * but is only computed as far as it has to be. Each message is stored with a
+ * compact fingerprint: its length and a 16-bucket character histogram packed
+ * into two longs. Both give lower bounds on the edit distance. The threshold
+ * becomes a maximum distance k, and most recent messages are rejected on
+ * those bounds without touching the text. Anything left goes through a
+ * Levenshtein restricted to the diagonal band of width 2k+1 that stops as
+ * soon as a row exceeds k. It uses two per-thread scratch rows, so nothing is
+ * allocated per comparison.
+ *
+ * Not thread-safe; chat for a single player is handled one message at a time.
+ */
+public final class FloodHistory {
+
+    private static final int BUCKETS = 16;
+
+    private static final ThreadLocal<int[][]> SCRATCH = ThreadLocal.withInitial(() -> new int[2][64]);
+
+    private final String[] messages;
+    private final long[] histogramLow;
+    private final long[] histogramHigh;
+    private int next;
+    private int size;
+
+    public FloodHistory(int capacity) {
+        this.messages = new String[capacity];
+        this.histogramLow = new long[capacity];
+        this.histogramHigh = new long[capacity];
+    }
+
+    /**
+     * Remember a message, replacing the oldest one once the ring is full
+     */
+    public void add(String message) {
+        if (messages.length == 0) {
+            return;
+        }
+        String lower = message.toLowerCase();
+        messages[next] = lower;
+        histogramLow[next] = histogram(lower, 0);
+        histogramHigh[next] = histogram(lower, 8);
+        next = (next + 1) % messages.length;
+        if (size < messages.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Whether the message is at least thresholdPercent similar to any remembered message
+     */
+    public boolean isFlood(String message, int thresholdPercent) {
+        if (size == 0) {
+            return false;
+        }
+        String lower = message.toLowerCase();
+        long low = histogram(lower, 0);
+        long high = histogram(lower, 8);
+
+        for (int i = 0; i < size; i++) {
+            String recent = messages[i];
+            if (recent.equals(lower)) {
+                return 100 >= thresholdPercent;
+            }
+
+            int maxLength = Math.max(lower.length(), recent.length());
+            int k = maxDistance(maxLength, thresholdPercent);
+            if (k < 0 || Math.abs(lower.length() - recent.length()) > k) {
+                continue;
+            }
+            // Every edit changes the histogram by at most 2
+            if ((histogramDistance(low, histogramLow[i]) + histogramDistance(high, histogramHigh[i]) + 1) / 2 > k) {
+                continue;
+            }
+            if (boundedDistance(lower, recent, k) <= k) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(messages, null);
+        next = 0;
+        size = 0;
+    }
+
+    // ==================== Distance ====================
+
+    /**
+     * Similarity as a percentage, same formula as the original filter
+     */
+    static int similarity(int distance, int maxLength) {
+        return (int) ((1 - (distance / (double) maxLength)) * 100);
+    }
+
+    /**
+     * Largest edit distance that still reaches the threshold, or -1 if none does
+     */
+    static int maxDistance(int maxLength, int thresholdPercent) {
+        if (maxLength == 0) {
+            return 100 >= thresholdPercent ? 0 : -1;
+        }
+        int d = Math.max(0, Math.min(maxLength, (int) ((long) maxLength * (100 - thresholdPercent) / 100)));
+        // Nudge around the estimate so rounding matches the float formula exactly
+        while (d < maxLength && similarity(d + 1, maxLength) >= thresholdPercent) {
+            d++;
+        }
+        while (d >= 0 && similarity(d, maxLength) < thresholdPercent) {
+            d--;
+        }
+        return d;
+    }
+
+    /**
+     * Levenshtein distance if it is at most k, otherwise some value greater than k
+     */
+    static int boundedDistance(CharSequence a, CharSequence b, int k) {
+        CharSequence s = a.length() <= b.length() ? a : b;
+        CharSequence t = s == a ? b : a;
+        int n = s.length();
+        int m = t.length();
+        if (m - n > k) {
+            return k + 1;
+        }
+        if (n == 0) {
+            return m;
+        }
+
+        int[][] scratch = SCRATCH.get();
+        if (scratch[0].length < m + 1) {
+            scratch[0] = new int[m + 1];
+            scratch[1] = new int[m + 1];
+        }
+        int[] prev = scratch[0];
+        int[] cur = scratch[1];
+        int over = k + 1;
+
+        for (int j = 0; j <= Math.min(m, k + 1); j++) {
+            prev[j] = Math.min(j, over);
+        }
+
+        for (int i = 1; i <= n; i++) {
+            char c = s.charAt(i - 1);
+            int lo = Math.max(1, i - k);
+            int hi = Math.min(m, i + k);
+            int rowMin;
+            if (lo == 1) {
+                cur[0] = Math.min(i, over);
+                rowMin = cur[0];
+            } else {
+                cur[lo - 1] = over;
+                rowMin = over;
+            }
+            for (int j = lo; j <= hi; j++) {
+                int cost = c == t.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(prev[j - 1] + cost, Math.min(prev[j], cur[j - 1]) + 1);
+                if (value > over) {
+                    value = over;
+                }
+                cur[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+            if (hi < m) {
+                cur[hi + 1] = over;
+            }
+            if (rowMin > k) {
+                return over;
+            }
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return prev[m];
+    }
+
+    /**
+     * Eight 8-bit saturating counters (buckets offset..offset+7) packed into a long
+     */
+    private static long histogram(String text, int offset) {
+        long packed = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int bucket = (text.charAt(i) & (BUCKETS - 1)) - offset;
+            if (bucket >= 0 && bucket < 8) {
+                int shift = bucket * 8;
+                if (((packed >>> shift) & 0xFF) != 0xFF) {
+                    packed += 1L << shift;
+                }
+            }
+        }
+        return packed;
+    }
+
+    private static int histogramDistance(long a, long b) {
+        int total = 0;
+        for (int shift = 0; shift < 64; shift += 8) {
+            total += Math.abs((int) ((a >>> shift) & 0xFF) - (int) ((b >>> shift) & 0xFF));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,58 @@
+package com.nuvik.litebansreborn.chatfilter;
+
+/**
+ * Normalized Text - folded view of a chat message with a map back to the original
+ *
+ * offsets[i] is the index in the original message of normalized char i.
+ * Normalization only maps or drops characters, so the view is never longer
+ * than the original and offsets are strictly increasing.
+ */
+public final class NormalizedText implements CharSequence {
+
+    private final String original;
+    private final char[] chars;
+    private final int[] offsets;
+    private final int length;
+    private String string;
+
+    NormalizedText(String original, char[] chars, int[] offsets, int length) {
+        this.original = original;
+        this.chars = chars;
+        this.offsets = offsets;
+        this.length = length;
+    }
+
+    public String getOriginal() {
+        return original;
+    }
+
+    /**
+     * Index in the original message of the given normalized index
+     */
+    public int originalIndex(int index) {
+        return offsets[index];
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        if (string == null) {
+            string = new String(chars, 0, length);
+        }
+        return string;
+    }
+}
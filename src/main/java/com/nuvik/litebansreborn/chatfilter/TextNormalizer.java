@@ -0,0 +1,141 @@
+package com.nuvik.litebansreborn.chatfilter;
+
+import java.text.Normalizer;
+
+/**
+ * Text Normalizer - folds chat text before it is matched against blocked words
+ *
+ * Every char goes through one precomputed 64K lookup table built from:
+ * - lower-casing
+ * - diacritics stripped from Latin letters (é -> e, ł -> l)
+ * - confusables: Cyrillic/Greek look-alikes, small caps, fullwidth and
+ *   circled letters (а -> a, ᴀ -> a, ａ -> a, ⓐ -> a)
+ * - leetspeak digits and symbols (optional: 4 -> a, 3 -> e, $ -> s)
+ * - zero-width characters, bidi controls, soft hyphens and combining marks
+ *   are dropped
+ *
+ * Normalization is one pass per message and never changes the length of a
+ * kept character, so {@link NormalizedText} can map every normalized index
+ * back to the original text for censoring. Characters outside the BMP pass
+ * through unchanged.
+ */
+public final class TextNormalizer {
+
+    /** Table value for characters that are removed */
+    private static final char STRIP = '\uFFFF';
+
+    private static final String CONFUSABLES =
+            // Cyrillic
+            "аaвbеeёeкkмmнhоoрpсcтtуyхxѕsіiїiјjԁdӏlһhԛqԝwѵv"
+            // Greek
+            + "αaβbεeηnιiκkνvοoρpτtυuχxϲc"
+            // Latin letters without a decomposition
+            + "øođdłlħhıiſsƀbɡg"
+            // Small caps
+            + "ᴀaʙbᴄcᴅdᴇeꜰfɢgʜhɪiᴊjᴋkʟlᴍmɴnᴏoᴘpʀrꜱsᴛtᴜuᴠvᴡwʏyᴢz";
+
+    private static final String LEETSPEAK = "0o1i3e4a5s7t8b9g@a$s";
+
+    private static final String INVISIBLE =
+            // Soft hyphen, combining grapheme joiner, Arabic letter mark, Hangul fillers, Khmer vowels, Mongolian separator
+            "\u00AD\u034F\u061C\u115F\u1160\u17B4\u17B5\u180E"
+            // Zero-width space/joiners, direction marks and embeddings, word joiner, invisible operators
+            + "\u200B\u200C\u200D\u200E\u200F\u202A\u202B\u202C\u202D\u202E\u2060\u2061\u2062\u2063\u2064"
+            // Hangul filler, BOM / zero-width no-break space, halfwidth Hangul filler
+            + "\u3164\uFEFF\uFFA0";
+
+    private final char[] table = new char[Character.MAX_VALUE + 1];
+
+    /**
+     * @param foldUnicode strip accents, invisible characters and map look-alikes
+     * @param leetspeak   map digits and symbols to the letters they stand in for
+     */
+    public TextNormalizer(boolean foldUnicode, boolean leetspeak) {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            table[c] = Character.toLowerCase((char) c);
+        }
+
+        if (foldUnicode) {
+            // Latin-1 Supplement, Extended-A/B and Extended Additional: base letter of the decomposition
+            foldDiacritics(0x00C0, 0x024F);
+            foldDiacritics(0x1E00, 0x1EFF);
+
+            // Fullwidth ASCII
+            for (int c = 0xFF01; c <= 0xFF5E; c++) {
+                table[c] = Character.toLowerCase((char) (c - 0xFEE0));
+            }
+            // Circled letters (upper and lower case)
+            for (int i = 0; i < 26; i++) {
+                table[0x24B6 + i] = (char) ('a' + i);
+                table[0x24D0 + i] = (char) ('a' + i);
+            }
+            for (int i = 0; i < CONFUSABLES.length(); i += 2) {
+                mapFolded(CONFUSABLES.charAt(i), CONFUSABLES.charAt(i + 1));
+            }
+
+            for (int c = 0x0300; c <= 0x036F; c++) {
+                table[c] = STRIP;
+            }
+            for (int i = 0; i < INVISIBLE.length(); i++) {
+                table[INVISIBLE.charAt(i)] = STRIP;
+            }
+        }
+
+        if (leetspeak) {
+            for (int i = 0; i < LEETSPEAK.length(); i += 2) {
+                char from = LEETSPEAK.charAt(i);
+                char to = LEETSPEAK.charAt(i + 1);
+                // Fullwidth digits fold to ASCII first, so follow them too
+                for (int c = 0; c <= Character.MAX_VALUE; c++) {
+                    if (table[c] == from) {
+                        table[c] = to;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Normalize a message in one pass
+     */
+    public NormalizedText normalize(String text) {
+        int n = text.length();
+        char[] chars = new char[n];
+        int[] offsets = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            char mapped = table[text.charAt(i)];
+            if (mapped != STRIP) {
+                chars[length] = mapped;
+                offsets[length++] = i;
+            }
+        }
+        return new NormalizedText(text, chars, offsets, length);
+    }
+
+    /**
+     * Normalize a configured word the same way messages are
+     */
+    public String normalizeWord(String word) {
+        return normalize(word).toString();
+    }
+
+    private void foldDiacritics(int from, int to) {
+        for (int c = from; c <= to; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf((char) c), Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+            if (base < 0x80 && Character.isLetter(base)) {
+                table[c] = Character.toLowerCase(base);
+            }
+        }
+    }
+
+    // Maps the look-alike and its upper-case form
+    private void mapFolded(char lookalike, char letter) {
+        table[lookalike] = letter;
+        char upper = Character.toUpperCase(lookalike);
+        if (upper != lookalike && Character.toLowerCase(upper) == lookalike) {
+            table[upper] = letter;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.nuvik.litebansreborn.chatfilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Word Matcher - compiled Aho-Corasick automaton for the blocked word list
+ *
+ * All words are matched case-insensitively in a single left-to-right pass,
+ * one table lookup per character, regardless of how many words are loaded.
+ * The automaton is immutable; rebuild it when the word list changes.
+ *
+ * Layout:
+ * - characters that occur in any word are mapped to a dense alphabet index,
+ *   everything else shares class 0 (which always leads back to the root)
+ * - transitions are a flat int[state * alphabet + class] table (a full DFA,
+ *   failure links are resolved at build time)
+ * - matchLength[state] is the longest word ending in that state, so
+ *   censoring only needs to mask that many characters backwards
+ */
+public final class WordMatcher {
+
+    private static final WordMatcher EMPTY = new WordMatcher(new char[0], new int[1], new int[1], 1, 0);
+
+    // Lower-cased char -> alphabet class (0 = not in any word)
+    private final char[] classes;
+    private final int[] transitions;
+    private final int[] matchLength;
+    private final int alphabetSize;
+    private final int wordCount;
+
+    private WordMatcher(char[] classes, int[] transitions, int[] matchLength, int alphabetSize, int wordCount) {
+        this.classes = classes;
+        this.transitions = transitions;
+        this.matchLength = matchLength;
+        this.alphabetSize = alphabetSize;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * Compile a matcher for the given words (blank entries are ignored)
+     */
+    public static WordMatcher compile(Collection<String> words) {
+        List<String> normalized = new ArrayList<>(words.size());
+        for (String word : words) {
+            if (word != null && !word.isBlank()) {
+                normalized.add(lower(word));
+            }
+        }
+        if (normalized.isEmpty()) {
+            return EMPTY;
+        }
+
+        // Dense alphabet over the characters actually used
+        char[] classes = new char[Character.MAX_VALUE + 1];
+        int alphabetSize = 1;
+        for (String word : normalized) {
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (classes[c] == 0) {
+                    classes[c] = (char) alphabetSize++;
+                }
+            }
+        }
+
+        // Trie (0 = no edge; the root is state 0 so it is never a child)
+        int maxStates = 1;
+        for (String word : normalized) {
+            maxStates += word.length();
+        }
+        int[] trie = new int[maxStates * alphabetSize];
+        int[] length = new int[maxStates];
+        int states = 1;
+        for (String word : normalized) {
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int slot = state * alphabetSize + classes[word.charAt(i)];
+                if (trie[slot] == 0) {
+                    trie[slot] = states++;
+                }
+                state = trie[slot];
+            }
+            length[state] = Math.max(length[state], word.length());
+        }
+
+        // Breadth-first: resolve failure links into direct transitions
+        int[] fail = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int c = 1; c < alphabetSize; c++) {
+            int child = trie[c];
+            if (child != 0) {
+                fail[child] = 0;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            length[state] = Math.max(length[state], length[fail[state]]);
+            for (int c = 1; c < alphabetSize; c++) {
+                int slot = state * alphabetSize + c;
+                int child = trie[slot];
+                if (child != 0) {
+                    fail[child] = trie[fail[state] * alphabetSize + c];
+                    queue[tail++] = child;
+                } else {
+                    trie[slot] = trie[fail[state] * alphabetSize + c];
+                }
+            }
+        }
+
+        return new WordMatcher(classes, Arrays.copyOf(trie, states * alphabetSize),
+                Arrays.copyOf(length, states), alphabetSize, normalized.size());
+    }
+
+    /**
+     * Whether the text contains any blocked word
+     */
+    public boolean matches(CharSequence text) {
+        if (wordCount == 0) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * alphabetSize + classes[Character.toLowerCase(text.charAt(i))]];
+            if (matchLength[state] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replace every character covered by a blocked word with the mask character
+     *
+     * @return the censored text, or the same instance when nothing matched
+     */
+    public String censor(String text, char mask) {
+        if (wordCount == 0) {
+            return text;
+        }
+        char[] out = null;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * alphabetSize + classes[Character.toLowerCase(text.charAt(i))]];
+            int len = matchLength[state];
+            if (len > 0) {
+                if (out == null) {
+                    out = text.toCharArray();
+                }
+                Arrays.fill(out, i - len + 1, i + 1, mask);
+            }
+        }
+        return out != null ? new String(out) : text;
+    }
+
+    /**
+     * Match against a normalized view and mask the corresponding span of the original
+     *
+     * Characters dropped during normalization inside or right after a match are masked too.
+     *
+     * @return the censored original, or the original instance when nothing matched
+     */
+    public String censor(NormalizedText text, char mask) {
+        String original = text.getOriginal();
+        if (wordCount == 0) {
+            return original;
+        }
+        char[] out = null;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * alphabetSize + classes[text.charAt(i)]];
+            int len = matchLength[state];
+            if (len > 0) {
+                if (out == null) {
+                    out = original.toCharArray();
+                }
+                // Run up to the next kept char so trailing combining marks go too
+                int end = i + 1 < text.length() ? text.originalIndex(i + 1) : original.length();
+                Arrays.fill(out, text.originalIndex(i - len + 1), end, mask);
+            }
+        }
+        return out != null ? new String(out) : original;
+    }
+
+    /**
+     * Number of words compiled into the automaton
+     */
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * Number of automaton states
+     */
+    public int stateCount() {
+        return matchLength.length;
+    }
+
+    private static String lower(String word) {
+        // Per-char lowering keeps word length equal to the matched text length
+        char[] chars = word.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+}
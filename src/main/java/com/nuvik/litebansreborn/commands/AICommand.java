@@ -1,6 +1,7 @@
 package com.nuvik.litebansreborn.commands;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.ai.ToxicityPipeline;
 import com.nuvik.litebansreborn.managers.AIManager;
 import com.nuvik.litebansreborn.utils.ColorUtil;
 import org.bukkit.Bukkit;
@@ -62,12 +63,27 @@ public class AICommand implements CommandExecutor, TabCompleter {
 
     private void handleStatus(CommandSender sender) {
         AIManager ai = plugin.getAIManager();
+        ToxicityPipeline.Stats stats = ai.getToxicityStats();
+        long[] local = ai.getLocalModelStats();
         
         List<String> statusMsg = plugin.getMessagesManager().getList("ai.status.info", 
              com.nuvik.litebansreborn.config.MessagesManager.placeholders(
                  "enabled", ai.isEnabled() ? "&aEnabled" : "&cDisabled",
                  "provider", ai.getProvider(),
-                 "model", ai.getModel()
+                 "model", ai.getModel(),
+                 "hit_rate", String.format("%.1f", stats.hitRate() * 100),
+                 "hits", String.valueOf(stats.hits() + stats.coalesced()),
+                 "misses", String.valueOf(stats.misses()),
+                 "cached", String.valueOf(stats.cached()),
+                 "calls", String.valueOf(stats.remoteCalls()),
+                 "sent", String.valueOf(stats.messagesSent()),
+                 "latency", String.format("%.0f", stats.avgLatencyMillis()),
+                 "max_latency", String.valueOf(stats.maxLatencyMillis()),
+                 "failures", String.valueOf(stats.failures() + stats.rejected()),
+                 "local", ai.hasLocalModel() ? "&aLoaded" : "&7Not trained",
+                 "local_clean", String.valueOf(local[0]),
+                 "local_toxic", String.valueOf(local[1]),
+                 "local_escalated", String.valueOf(local[2])
              ));
         
         if (statusMsg == null || statusMsg.isEmpty()) {
@@ -78,6 +94,8 @@ public class AICommand implements CommandExecutor, TabCompleter {
              sender.sendMessage(ColorUtil.translate("  &7Status: " + (ai.isEnabled() ? "&aEnabled" : "&cDisabled")));
              sender.sendMessage(ColorUtil.translate("  &7Provider: &f" + ai.getProvider()));
              sender.sendMessage(ColorUtil.translate("  &7Model: &f" + ai.getModel()));
+             sender.sendMessage(ColorUtil.translate("  &7Toxicity cache: &f" + String.format("%.1f", stats.hitRate() * 100)
+                 + "% &7hit rate, &f" + stats.remoteCalls() + " &7calls, &f" + String.format("%.0f", stats.avgLatencyMillis()) + "ms &7avg"));
              sender.sendMessage(ColorUtil.translate("&8&m----------------------------------------"));
         } else {
              for (String line : statusMsg) {
@@ -117,7 +117,7 @@ public class CaseCommand implements CommandExecutor, TabCompleter {
         String caseId = args[1].toUpperCase();
         String filterType = args.length >= 3 ? args[2].toUpperCase() : null;
         
-        plugin.getCaseFileManager().getCaseEvidence(caseId).thenAccept(evidence -> {
+        plugin.getCaseFileManager().getCaseEvidence(caseId, 10).thenAccept(evidence -> {
             Bukkit.getScheduler().runTask(plugin, () -> {
                 if (evidence.isEmpty()) {
                     sender.sendMessage(ColorUtil.translate("&cNo evidence found for case: " + caseId));
@@ -133,15 +133,8 @@ public class CaseCommand implements CommandExecutor, TabCompleter {
                     
                     sender.sendMessage(ColorUtil.translate("&e▸ " + entry.getKey() + ":"));
                     
-                    // Truncate long content
-                    String content = entry.getValue();
-                    String[] lines = content.split("\n");
-                    int shown = 0;
-                    for (String line : lines) {
-                        if (shown++ >= 10) {
-                            sender.sendMessage(ColorUtil.translate("  &8... (" + (lines.length - 10) + " more lines)"));
-                            break;
-                        }
+                    // Already cut to 10 lines per type by the manager
+                    for (String line : entry.getValue().split("\n")) {
                         sender.sendMessage(ColorUtil.translate("  &7" + line));
                     }
                     sender.sendMessage("");
@@ -19,7 +19,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
- * History command - /history <player>
+ * History command - /history <player> [page] [-all]
  */
 public class HistoryCommand implements CommandExecutor, TabCompleter {
 
@@ -43,10 +43,15 @@ public class HistoryCommand implements CommandExecutor, TabCompleter {
         
         String targetName = args[0];
         int page = 1;
+        boolean includeArchived = false;
         
-        if (args.length > 1) {
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("-all")) {
+                includeArchived = true;
+                continue;
+            }
             try {
-                page = Integer.parseInt(args[1]);
+                page = Integer.parseInt(args[i]);
             } catch (NumberFormatException ignored) {}
         }
         
@@ -60,7 +65,7 @@ public class HistoryCommand implements CommandExecutor, TabCompleter {
         String finalTargetName = target.getName() != null ? target.getName() : targetName;
         int finalPage = page;
         
-        plugin.getHistoryManager().getPlayerHistory(targetUUID).thenAccept(history -> {
+        plugin.getHistoryManager().getPlayerHistory(targetUUID, includeArchived).thenAccept(history -> {
             if (history.isEmpty()) {
                 plugin.getMessagesManager().send(sender, "history.no-history", "player", finalTargetName);
                 return;
@@ -120,6 +125,9 @@ public class HistoryCommand implements CommandExecutor, TabCompleter {
                     .filter(name -> name.toLowerCase().startsWith(args[0].toLowerCase()))
                     .collect(Collectors.toList());
         }
+        if (args.length >= 2 && "-all".startsWith(args[args.length - 1].toLowerCase())) {
+            return List.of("-all");
+        }
         return new ArrayList<>();
     }
 }
@@ -1,9 +1,13 @@
 package com.nuvik.litebansreborn.commands;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.ai.ToxicityPipelineBenchmark;
+import com.nuvik.litebansreborn.antivpn.VPNProviderBenchmark;
+import com.nuvik.litebansreborn.chatfilter.ChatFilterBenchmark;
 import com.nuvik.litebansreborn.config.MessagesManager;
 import com.nuvik.litebansreborn.managers.HistoryManager;
 import com.nuvik.litebansreborn.utils.ColorUtil;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -12,6 +16,7 @@ import org.bukkit.command.TabCompleter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 /**
@@ -88,7 +93,27 @@ public class MainCommand implements CommandExecutor, TabCompleter {
                     plugin.getMessagesManager().send(sender, "general.no-permission");
                     return true;
                 }
-                handleDebug(sender);
+                if (args.length > 1 && args[1].equalsIgnoreCase("chatfilter")) {
+                    runChatFilterBenchmark(sender);
+                } else if (args.length > 1 && args[1].equalsIgnoreCase("antivpn")) {
+                    runVPNProviderBenchmark(sender);
+                } else if (args.length > 1 && args[1].equalsIgnoreCase("ai")) {
+                    runToxicityPipelineBenchmark(sender);
+                } else {
+                    handleDebug(sender);
+                }
+                break;
+                
+            case "ai":
+                if (!sender.hasPermission("litebansreborn.admin")) {
+                    plugin.getMessagesManager().send(sender, "general.no-permission");
+                    return true;
+                }
+                if (args.length > 1 && args[1].equalsIgnoreCase("train")) {
+                    trainLocalToxicityModel(sender);
+                } else {
+                    plugin.getMessagesManager().send(sender, "main-command.ai.usage");
+                }
                 break;
                 
             case "help":
@@ -138,7 +163,7 @@ public class MainCommand implements CommandExecutor, TabCompleter {
             
             // Admin-only subcommands
             if (sender.hasPermission("litebansreborn.admin")) {
-                subcommands.addAll(Arrays.asList("reload", "stats", "import", "export", "antivpn", "debug"));
+                subcommands.addAll(Arrays.asList("reload", "stats", "import", "export", "antivpn", "debug", "ai"));
             }
             
             // Page numbers
@@ -167,6 +192,16 @@ public class MainCommand implements CommandExecutor, TabCompleter {
                     .filter(s -> s.startsWith(args[1]))
                     .collect(Collectors.toList());
                     
+            } else if (subcommand.equals("debug") && sender.hasPermission("litebansreborn.admin")) {
+                completions = Arrays.asList("chatfilter", "antivpn", "ai").stream()
+                    .filter(s -> s.startsWith(args[1].toLowerCase()))
+                    .collect(Collectors.toList());
+                    
+            } else if (subcommand.equals("ai") && sender.hasPermission("litebansreborn.admin")) {
+                completions = Arrays.asList("train").stream()
+                    .filter(s -> s.startsWith(args[1].toLowerCase()))
+                    .collect(Collectors.toList());
+                    
             } else if (subcommand.equals("web")) {
                 completions = Arrays.asList("on", "off", "view", "url").stream()
                     .filter(s -> s.startsWith(args[1].toLowerCase()))
@@ -198,6 +233,108 @@ public class MainCommand implements CommandExecutor, TabCompleter {
         return completions;
     }
     
+    /**
+     * Benchmark the blocked-word matcher against the old per-word loop using the configured words
+     */
+    private void runChatFilterBenchmark(CommandSender sender) {
+        if (plugin.getChatFilterManager() == null) {
+            plugin.getMessagesManager().send(sender, "main-command.debug.chatfilter-disabled");
+            return;
+        }
+        
+        List<String> words = plugin.getChatFilterManager().getBlockedWords();
+        plugin.getMessagesManager().send(sender, "main-command.debug.chatfilter-running",
+            "words", String.valueOf(words.size()));
+        
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            var result = ChatFilterBenchmark.run(words, 20000, System.nanoTime());
+            plugin.getMessagesManager().send(sender, "main-command.debug.chatfilter-result",
+                "messages", String.valueOf(result.messages()),
+                "legacy", String.valueOf(result.legacyPerSecond()),
+                "compiled", String.valueOf(result.compiledPerSecond()),
+                "speedup", String.format("%.1f", result.speedup()),
+                "build", String.valueOf(result.buildMicros() / 1000),
+                "differing", String.valueOf(result.differingOutputs()));
+        });
+    }
+    
+    private void runVPNProviderBenchmark(CommandSender sender) {
+        int lookups = 100;
+        plugin.getMessagesManager().send(sender, "main-command.debug.antivpn-running",
+            "lookups", String.valueOf(lookups));
+        
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                var result = VPNProviderBenchmark.run(lookups, System.nanoTime());
+                plugin.getMessagesManager().send(sender, "main-command.debug.antivpn-result",
+                    "seq_p50", String.valueOf(result.sequential().p50()),
+                    "seq_p95", String.valueOf(result.sequential().p95()),
+                    "seq_calls", String.valueOf(result.sequential().calls()),
+                    "hedged_p50", String.valueOf(result.hedged().p50()),
+                    "hedged_p95", String.valueOf(result.hedged().p95()),
+                    "hedged_calls", String.valueOf(result.hedged().calls()),
+                    "hedges", String.valueOf(result.hedges()));
+            } catch (Exception e) {
+                plugin.getMessagesManager().send(sender, "main-command.debug.antivpn-failed",
+                    "error", String.valueOf(e.getMessage()));
+            }
+        });
+    }
+    
+    private void runToxicityPipelineBenchmark(CommandSender sender) {
+        int messages = 300;
+        plugin.getMessagesManager().send(sender, "main-command.debug.ai-running",
+            "messages", String.valueOf(messages));
+        
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                var result = ToxicityPipelineBenchmark.run(messages, System.nanoTime());
+                plugin.getMessagesManager().send(sender, "main-command.debug.ai-result",
+                    "single_p50", String.valueOf(result.unbatched().p50()),
+                    "single_p95", String.valueOf(result.unbatched().p95()),
+                    "single_calls", String.valueOf(result.unbatched().calls()),
+                    "batched_p50", String.valueOf(result.batched().p50()),
+                    "batched_p95", String.valueOf(result.batched().p95()),
+                    "batched_calls", String.valueOf(result.batched().calls()),
+                    "failed", String.valueOf(result.batched().failed()),
+                    "hit_rate", String.format("%.0f", result.batched().hitRate() * 100));
+            } catch (Exception e) {
+                plugin.getMessagesManager().send(sender, "main-command.debug.ai-failed",
+                    "error", String.valueOf(e.getMessage()));
+            }
+        });
+    }
+    
+    /**
+     * Train the local toxicity pre-classifier from snapshots and staff labels
+     */
+    private void trainLocalToxicityModel(CommandSender sender) {
+        if (plugin.getAIManager() == null) {
+            plugin.getMessagesManager().send(sender, "main-command.ai.train-failed", "error", "AI manager not loaded");
+            return;
+        }
+        
+        plugin.getMessagesManager().send(sender, "main-command.ai.training");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long start = System.currentTimeMillis();
+            try {
+                var result = plugin.getAIManager().trainLocalModel();
+                plugin.getMessagesManager().send(sender, "main-command.ai.trained",
+                    "toxic", String.valueOf(result.toxic()),
+                    "clean", String.valueOf(result.clean()),
+                    "snapshots", String.valueOf(result.snapshots()),
+                    "accuracy", String.format("%.1f", result.accuracy() * 100),
+                    "confident", String.format("%.1f", result.confidentShare() * 100),
+                    "time", String.valueOf(System.currentTimeMillis() - start));
+            } catch (IllegalStateException e) {
+                plugin.getMessagesManager().send(sender, "main-command.ai.train-failed", "error", e.getMessage());
+            } catch (Exception e) {
+                plugin.log(Level.WARNING, "Local toxicity model training failed: " + e.getMessage());
+                plugin.getMessagesManager().send(sender, "main-command.ai.train-failed", "error", e.getMessage());
+            }
+        });
+    }
+    
     private void handleDebug(CommandSender sender) {
         boolean debugEnabled = plugin.getConfigManager().isDebugEnabled();
         
@@ -211,6 +348,37 @@ public class MainCommand implements CommandExecutor, TabCompleter {
             "bans", String.valueOf(plugin.getCacheManager().getStats().get("bans")),
             "mutes", String.valueOf(plugin.getCacheManager().getStats().get("mutes"))));
         
+        var executorStats = plugin.getDatabaseManager().getExecutorStats();
+        if (!executorStats.isEmpty()) {
+            sender.sendMessage(plugin.getMessagesManager().get("main-command.debug.db-executor",
+                "mode", plugin.getDatabaseManager().getExecutor().getMode().name(),
+                "queued", String.valueOf(executorStats.get("queued")),
+                "active", String.valueOf(executorStats.get("active")),
+                "avg", String.valueOf(executorStats.get("avgWaitMicros")),
+                "max", String.valueOf(executorStats.get("maxWaitMicros"))));
+        }
+        
+        var writeQueue = plugin.getDatabaseManager().getWriteQueue();
+        if (writeQueue != null) {
+            var writeStats = writeQueue.getStats();
+            sender.sendMessage(plugin.getMessagesManager().get("main-command.debug.write-queue",
+                "pending", String.valueOf(writeStats.get("pending")),
+                "flushes", String.valueOf(writeStats.get("flushes")),
+                "batch", String.valueOf(writeStats.get("lastBatchSize")),
+                "avg", String.valueOf(writeStats.get("avgFlushMillis")),
+                "max", String.valueOf(writeStats.get("maxFlushMillis"))));
+        }
+        
+        var archiver = plugin.getDatabaseManager().getArchiver();
+        if (archiver != null) {
+            var archiveStats = archiver.getStats();
+            sender.sendMessage(plugin.getMessagesManager().get("main-command.debug.archive",
+                "runs", String.valueOf(archiveStats.get("runs")),
+                "archived", String.valueOf(archiveStats.get("archived")),
+                "last", String.valueOf(archiveStats.get("lastRunRows")),
+                "time", String.valueOf(archiveStats.get("lastRunMillis"))));
+        }
+        
         // Check managers status
         sender.sendMessage(plugin.getMessagesManager().get("main-command.debug.managers-header"));
         
@@ -310,6 +478,15 @@ public class MainCommand implements CommandExecutor, TabCompleter {
             case "providers" -> {
                 plugin.getMessagesManager().send(sender, "main-command.antivpn.providers",
                     "count", String.valueOf(vpnManager.getProviderCount()));
+                int rank = 1;
+                for (var stats : vpnManager.getProviderStats()) {
+                    sender.sendMessage(plugin.getMessagesManager().get("main-command.antivpn.provider-entry",
+                        "rank", String.valueOf(rank++),
+                        "name", stats.name(),
+                        "average", String.valueOf(stats.averageMillis()),
+                        "p95", stats.p95Millis() < 0 ? "-" : stats.p95Millis() + "ms",
+                        "errors", String.format("%.0f", stats.errorRate() * 100)));
+                }
             }
             default -> sendAntiVPNHelp(sender);
         }
@@ -318,6 +495,7 @@ public class MainCommand implements CommandExecutor, TabCompleter {
     private void sendAntiVPNStatus(CommandSender sender) {
         var vpnManager = plugin.getVPNManager();
         boolean enabled = vpnManager != null && vpnManager.isRuntimeEnabled();
+        var cacheStats = vpnManager != null ? vpnManager.getCacheStats() : null;
         
         for (String line : plugin.getMessagesManager().getList("main-command.antivpn.status")) {
             String formatted = line
@@ -325,7 +503,15 @@ public class MainCommand implements CommandExecutor, TabCompleter {
                 .replace("%alerts%", vpnManager != null && vpnManager.areAlertsEnabled() ? "&aON" : "&cOFF")
                 .replace("%action%", vpnManager != null ? vpnManager.getEffectiveAction().name() : "N/A")
                 .replace("%providers%", vpnManager != null ? String.valueOf(vpnManager.getProviderCount()) : "0")
+                .replace("%ranges%", vpnManager != null ? String.valueOf(vpnManager.getRanges().getRangeCount()) : "0")
+                .replace("%range_lists%", vpnManager != null ? String.valueOf(vpnManager.getRanges().getListCount()) : "0")
+                .replace("%range_hits%", vpnManager != null ? String.valueOf(vpnManager.getRangeHits()) : "0")
                 .replace("%cache_size%", vpnManager != null ? String.valueOf(vpnManager.getCacheSize()) : "0")
+                .replace("%memory_hit_rate%", cacheStats != null ? String.format("%.1f%%", cacheStats.memoryHitRate() * 100) : "N/A")
+                .replace("%disk_hit_rate%", cacheStats != null ? String.format("%.1f%%", cacheStats.persistentHitRate() * 100) : "N/A")
+                .replace("%provider_lookups%", cacheStats != null ? String.valueOf(cacheStats.providerLookups()) : "0")
+                .replace("%shared_lookups%", cacheStats != null ? String.valueOf(cacheStats.sharedLookups()) : "0")
+                .replace("%subnet_hits%", cacheStats != null ? String.valueOf(cacheStats.subnetHits()) : "0")
                 .replace("%whitelisted%", vpnManager != null ? String.valueOf(vpnManager.getWhitelistedIPs().size()) : "0");
             sender.sendMessage(ColorUtil.translate(formatted));
         }
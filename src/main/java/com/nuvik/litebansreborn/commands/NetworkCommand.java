@@ -71,7 +71,7 @@ public class NetworkCommand implements CommandExecutor, TabCompleter {
                 } else {
                     for (UUID altUuid : alts) {
                         OfflinePlayer alt = Bukkit.getOfflinePlayer(altUuid);
-                        boolean isBanned = plugin.getBanManager().getActiveBan(altUuid).join() != null;
+                        boolean isBanned = plugin.getBanManager().isBanned(altUuid).join();
                         String status = isBanned ? "&c[BANNED]" : "&a[OK]";
                         sender.sendMessage(ColorUtil.translate("  &7- &f" + alt.getName() + " " + status));
                     }
@@ -0,0 +1,179 @@
+package com.nuvik.litebansreborn.database;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Database Executor - dedicated, bounded execution layer for blocking JDBC work
+ *
+ * Keeps database calls off the JVM-wide common ForkJoinPool (shared with other
+ * plugins and parallel streams). Two modes:
+ * - VIRTUAL: one virtual thread per task, concurrency capped by a semaphore sized
+ *   to the connection pool so tasks wait here instead of inside Hikari
+ * - PLATFORM: fixed pool of platform threads with a bounded queue; when the queue
+ *   is full the task is rejected (the caller gets a failed future, never runs
+ *   JDBC on its own thread)
+ *
+ * A task submitted from inside a running database task runs inline on that
+ * thread, so a task that join()s another database future cannot deadlock the
+ * pool by holding every thread or permit while its child waits for one.
+ *
+ * Tracks queue depth, active tasks and how long tasks waited before running.
+ */
+public class DatabaseExecutor implements Executor {
+
+    public enum Mode { VIRTUAL, PLATFORM }
+
+    private final Mode mode;
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private static final ThreadLocal<Boolean> IN_TASK = new ThreadLocal<>();
+
+    // Metrics
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder inline = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public DatabaseExecutor(Mode mode, int concurrency, int queueCapacity) {
+        this.mode = mode;
+        int threads = Math.max(1, concurrency);
+
+        if (mode == Mode.VIRTUAL) {
+            this.permits = new Semaphore(threads, true);
+            this.delegate = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("LiteBansReborn-DB-", 0).factory());
+        } else {
+            this.permits = null;
+            AtomicInteger counter = new AtomicInteger();
+            this.delegate = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                    r -> {
+                        Thread thread = new Thread(r, "LiteBansReborn-DB-" + counter.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (IN_TASK.get() != null) {
+            // Nested submit: already holding a thread (and permit), queueing could deadlock
+            inline.increment();
+            runTask(task);
+            return;
+        }
+
+        long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+
+        try {
+            delegate.execute(() -> run(task, submittedAt));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task, long submittedAt) {
+        boolean acquired = false;
+        try {
+            if (permits != null) {
+                permits.acquire();
+                acquired = true;
+            }
+        } catch (InterruptedException e) {
+            queued.decrementAndGet();
+            failed.increment();
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        queued.decrementAndGet();
+        recordWait(System.nanoTime() - submittedAt);
+        IN_TASK.set(Boolean.TRUE);
+        try {
+            runTask(task);
+        } finally {
+            IN_TASK.remove();
+            if (acquired) {
+                permits.release();
+            }
+        }
+    }
+
+    private void runTask(Runnable task) {
+        active.incrementAndGet();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            failed.increment();
+            throw e;
+        } finally {
+            active.decrementAndGet();
+            completed.increment();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Stop accepting work and wait for in-flight tasks to finish
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(timeout, unit)) {
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Metrics ====================
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Tasks submitted but not yet running (waiting for a thread or a connection permit)
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public Map<String, Long> getStats() {
+        long done = completed.sum();
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("queued", (long) queued.get());
+        stats.put("active", (long) active.get());
+        stats.put("completed", done);
+        stats.put("failed", failed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("inline", inline.sum());
+        stats.put("avgWaitMicros", done == 0 ? 0 : totalWaitNanos.sum() / done / 1000);
+        stats.put("maxWaitMicros", maxWaitNanos.get() / 1000);
+        return stats;
+    }
+}
@@ -1,6 +1,13 @@
 package com.nuvik.litebansreborn.database;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.storage.PlayerStore;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
+import com.nuvik.litebansreborn.storage.jdbc.JdbcPlayerStore;
+import com.nuvik.litebansreborn.storage.jdbc.JdbcPunishmentStore;
+import com.nuvik.litebansreborn.storage.mongo.MongoPlayerStore;
+import com.nuvik.litebansreborn.storage.mongo.MongoPunishmentStore;
+import com.nuvik.litebansreborn.storage.mongo.MongoStorage;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
@@ -9,17 +16,30 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 /**
  * Database Manager - Handles all database connections and operations
  * Supports: MySQL, MariaDB, PostgreSQL, SQLite, H2
+ * With MongoDB, punishments and players live in Mongo and the remaining
+ * tables use a local H2 database.
  */
 public class DatabaseManager {
 
     private final LiteBansReborn plugin;
     private HikariDataSource dataSource;
+    private DatabaseExecutor executor;
+    private PlayerDataWriteQueue writeQueue;
+    private PunishmentArchiver archiver;
+    private MongoStorage mongoStorage;
+    private PunishmentStore punishmentStore;
+    private PlayerStore playerStore;
     private DatabaseType databaseType;
     private String tablePrefix;
     
@@ -32,7 +52,9 @@ public class DatabaseManager {
      */
     public void connect() throws Exception {
         String type = plugin.getConfigManager().getString("database.type").toUpperCase();
-        this.databaseType = DatabaseType.valueOf(type);
+        boolean mongo = type.equals("MONGODB");
+        // Features without a Mongo store (reports, appeals, allow list, ...) keep using a local H2 file
+        this.databaseType = mongo ? DatabaseType.H2 : DatabaseType.valueOf(type);
         this.tablePrefix = plugin.getConfigManager().getString("database.table-prefix");
         
         HikariConfig config = new HikariConfig();
@@ -70,6 +92,45 @@ public class DatabaseManager {
         
         dataSource = new HikariDataSource(config);
         
+        // Dedicated executor for async DB work, sized to the pool (never the common ForkJoinPool)
+        String executorType = plugin.getConfigManager().getString("database.executor.type", "virtual").toUpperCase();
+        DatabaseExecutor.Mode mode;
+        try {
+            mode = DatabaseExecutor.Mode.valueOf(executorType);
+        } catch (IllegalArgumentException e) {
+            plugin.log(Level.WARNING, "Unknown database.executor.type '" + executorType + "', using VIRTUAL");
+            mode = DatabaseExecutor.Mode.VIRTUAL;
+        }
+        executor = new DatabaseExecutor(mode, dataSource.getMaximumPoolSize(),
+                plugin.getConfigManager().getInt("database.executor.queue-size", 1000));
+        
+        // Write-behind queue for join-time player/name/IP upserts (the SQL player store only)
+        if (!mongo && plugin.getConfigManager().getBoolean("database.write-behind.enabled", true)) {
+            writeQueue = new PlayerDataWriteQueue(plugin, this,
+                    plugin.getConfigManager().getInt("database.write-behind.batch-size", 200));
+        }
+        
+        // Moves old, no longer effective punishments to punishments_archive (MongoDB has no archive)
+        if (!mongo && plugin.getConfigManager().getBoolean("database.archive.enabled", false)) {
+            archiver = new PunishmentArchiver(plugin, this,
+                    Duration.ofDays(Math.max(1, plugin.getConfigManager().getInt("database.archive.after-days", 180))),
+                    plugin.getConfigManager().getInt("database.archive.batch-size", 500),
+                    plugin.getConfigManager().getInt("database.archive.max-batches-per-run", 20));
+        }
+        
+        if (mongo) {
+            mongoStorage = new MongoStorage(
+                    plugin.getConfigManager().getString("database.mongodb.uri"),
+                    plugin.getConfigManager().getString("database.mongodb.database"));
+            mongoStorage.createIndexes();
+            punishmentStore = new MongoPunishmentStore(mongoStorage);
+            playerStore = new MongoPlayerStore(mongoStorage);
+            plugin.log(Level.INFO, "Connected to MongoDB database successfully!");
+        } else {
+            punishmentStore = new JdbcPunishmentStore(this);
+            playerStore = new JdbcPlayerStore(this);
+        }
+        
         plugin.log(Level.INFO, "Connected to " + databaseType.name() + " database successfully!");
     }
     
@@ -95,6 +156,8 @@ public class DatabaseManager {
         config.addDataSourceProperty("cachePrepStmts", "true");
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        // Send JDBC batches as multi-row statements instead of one round trip per row
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
     }
     
     private void configurePostgreSQL(HikariConfig config) {
@@ -136,177 +199,175 @@ public class DatabaseManager {
     }
     
     /**
-     * Create all required database tables
+     * Create all required database tables, or bring them up to the current schema version
      */
     public void createTables() throws SQLException {
         try (Connection conn = getConnection()) {
-            // Punishments table
-            execute(conn, """
-                CREATE TABLE IF NOT EXISTS %spunishments (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    type VARCHAR(32) NOT NULL,
-                    target_uuid VARCHAR(36) NOT NULL,
-                    target_name VARCHAR(32) NOT NULL,
-                    target_ip VARCHAR(45),
-                    executor_uuid VARCHAR(36) NOT NULL,
-                    executor_name VARCHAR(32) NOT NULL,
-                    reason TEXT,
-                    server VARCHAR(64),
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    expires_at TIMESTAMP NULL,
-                    active BOOLEAN DEFAULT TRUE,
-                    removed_at TIMESTAMP NULL,
-                    removed_by_uuid VARCHAR(36),
-                    removed_by_name VARCHAR(32),
-                    remove_reason TEXT,
-                    silent BOOLEAN DEFAULT FALSE,
-                    ip_based BOOLEAN DEFAULT FALSE,
-                    INDEX idx_target_uuid (target_uuid),
-                    INDEX idx_target_ip (target_ip),
-                    INDEX idx_executor_uuid (executor_uuid),
-                    INDEX idx_type (type),
-                    INDEX idx_active (active)
-                )
-                """.formatted(tablePrefix));
-            
-            // Players table
-            execute(conn, """
-                CREATE TABLE IF NOT EXISTS %splayers (
-                    uuid VARCHAR(36) PRIMARY KEY,
-                    last_known_name VARCHAR(32) NOT NULL,
-                    last_known_ip VARCHAR(45),
-                    country VARCHAR(64),
-                    first_join TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    last_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    punishment_points DOUBLE DEFAULT 0,
-                    ip_ban_exempt BOOLEAN DEFAULT FALSE,
-                    INDEX idx_last_known_name (last_known_name),
-                    INDEX idx_last_known_ip (last_known_ip),
-                    INDEX idx_country (country)
-                )
-                """.formatted(tablePrefix));
-            
-            // Try to add country column if table already exists (migration)
-            try {
-                execute(conn, "ALTER TABLE %splayers ADD COLUMN country VARCHAR(64)".formatted(tablePrefix));
-            } catch (Exception ignored) {
-                // Column already exists
-            }
-            
-            // Player IPs table (for alt detection)
-            execute(conn, """
-                CREATE TABLE IF NOT EXISTS %splayer_ips (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    uuid VARCHAR(36) NOT NULL,
-                    ip VARCHAR(45) NOT NULL,
-                    first_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    last_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    UNIQUE KEY unique_uuid_ip (uuid, ip),
-                    INDEX idx_ip (ip)
-                )
-                """.formatted(tablePrefix));
-            
-            // Player names table (for name history)
-            execute(conn, """
-                CREATE TABLE IF NOT EXISTS %splayer_names (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    uuid VARCHAR(36) NOT NULL,
-                    name VARCHAR(32) NOT NULL,
-                    first_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    last_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    UNIQUE KEY unique_uuid_name (uuid, name),
-                    INDEX idx_name (name)
-                )
-                """.formatted(tablePrefix));
-            
-            // Reports table
-            execute(conn, """
-                CREATE TABLE IF NOT EXISTS %sreports (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    reporter_uuid VARCHAR(36) NOT NULL,
-                    reporter_name VARCHAR(32) NOT NULL,
-                    reported_uuid VARCHAR(36) NOT NULL,
-                    reported_name VARCHAR(32) NOT NULL,
-                    reason TEXT NOT NULL,
-                    category VARCHAR(32),
-                    server VARCHAR(64),
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    status VARCHAR(16) DEFAULT 'pending',
-                    handled_at TIMESTAMP NULL,
-                    handled_by_uuid VARCHAR(36),
-                    handled_by_name VARCHAR(32),
-                    resolution TEXT,
-                    INDEX idx_reported_uuid (reported_uuid),
-                    INDEX idx_status (status)
-                )
-                """.formatted(tablePrefix));
-            
-            // Appeals table
-            execute(conn, """
-                CREATE TABLE IF NOT EXISTS %sappeals (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    punishment_id BIGINT NOT NULL,
-                    punishment_type VARCHAR(32) NOT NULL,
-                    player_uuid VARCHAR(36) NOT NULL,
-                    player_name VARCHAR(32) NOT NULL,
-                    message TEXT NOT NULL,
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    status VARCHAR(16) DEFAULT 'pending',
-                    handled_at TIMESTAMP NULL,
-                    handled_by_uuid VARCHAR(36),
-                    handled_by_name VARCHAR(32),
-                    response TEXT,
-                    INDEX idx_punishment_id (punishment_id),
-                    INDEX idx_player_uuid (player_uuid),
-                    INDEX idx_status (status)
-                )
-                """.formatted(tablePrefix));
-            
-            // Notes table
-            execute(conn, """
-                CREATE TABLE IF NOT EXISTS %snotes (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    target_uuid VARCHAR(36) NOT NULL,
-                    target_name VARCHAR(32) NOT NULL,
-                    author_uuid VARCHAR(36) NOT NULL,
-                    author_name VARCHAR(32) NOT NULL,
-                    content TEXT NOT NULL,
-                    server VARCHAR(64),
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    INDEX idx_target_uuid (target_uuid)
-                )
-                """.formatted(tablePrefix));
-            
-            // Template offense counts (for punishment ladders)
-            execute(conn, """
-                CREATE TABLE IF NOT EXISTS %stemplate_offenses (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    player_uuid VARCHAR(36) NOT NULL,
-                    template_id VARCHAR(64) NOT NULL,
-                    offense_count INT DEFAULT 0,
-                    last_offense TIMESTAMP,
-                    UNIQUE KEY unique_player_template (player_uuid, template_id)
-                )
-                """.formatted(tablePrefix));
-            
-            // Allowed players (IP ban bypass)
-            execute(conn, """
-                CREATE TABLE IF NOT EXISTS %sallowed_players (
-                    uuid VARCHAR(36) PRIMARY KEY,
-                    added_by_uuid VARCHAR(36) NOT NULL,
-                    added_by_name VARCHAR(32) NOT NULL,
-                    added_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-                )
-                """.formatted(tablePrefix));
-            
-            plugin.log(Level.INFO, "Database tables created successfully!");
+            new SchemaMigrator(plugin, this).migrate(conn);
         }
     }
     
+    /**
+     * Baseline schema (migration 1)
+     */
+    void createBaseTables(Connection conn) throws SQLException {
+        // Punishments table
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS %spunishments (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                type VARCHAR(32) NOT NULL,
+                target_uuid VARCHAR(36) NOT NULL,
+                target_name VARCHAR(32) NOT NULL,
+                target_ip VARCHAR(45),
+                executor_uuid VARCHAR(36) NOT NULL,
+                executor_name VARCHAR(32) NOT NULL,
+                reason TEXT,
+                server VARCHAR(64),
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                expires_at TIMESTAMP NULL,
+                active BOOLEAN DEFAULT TRUE,
+                removed_at TIMESTAMP NULL,
+                removed_by_uuid VARCHAR(36),
+                removed_by_name VARCHAR(32),
+                remove_reason TEXT,
+                silent BOOLEAN DEFAULT FALSE,
+                ip_based BOOLEAN DEFAULT FALSE,
+                INDEX idx_target_uuid (target_uuid),
+                INDEX idx_target_ip (target_ip),
+                INDEX idx_executor_uuid (executor_uuid),
+                INDEX idx_type (type),
+                INDEX idx_active (active)
+            )
+            """.formatted(tablePrefix));
+        
+        // Players table
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS %splayers (
+                uuid VARCHAR(36) PRIMARY KEY,
+                last_known_name VARCHAR(32) NOT NULL,
+                last_known_ip VARCHAR(45),
+                country VARCHAR(64),
+                first_join TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                last_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                punishment_points DOUBLE DEFAULT 0,
+                ip_ban_exempt BOOLEAN DEFAULT FALSE,
+                INDEX idx_last_known_name (last_known_name),
+                INDEX idx_last_known_ip (last_known_ip),
+                INDEX idx_country (country)
+            )
+            """.formatted(tablePrefix));
+        
+        // Player IPs table (for alt detection)
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS %splayer_ips (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                uuid VARCHAR(36) NOT NULL,
+                ip VARCHAR(45) NOT NULL,
+                first_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                last_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                UNIQUE KEY unique_uuid_ip (uuid, ip),
+                INDEX idx_ip (ip)
+            )
+            """.formatted(tablePrefix));
+        
+        // Player names table (for name history)
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS %splayer_names (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                uuid VARCHAR(36) NOT NULL,
+                name VARCHAR(32) NOT NULL,
+                first_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                last_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                UNIQUE KEY unique_uuid_name (uuid, name),
+                INDEX idx_name (name)
+            )
+            """.formatted(tablePrefix));
+        
+        // Reports table
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS %sreports (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                reporter_uuid VARCHAR(36) NOT NULL,
+                reporter_name VARCHAR(32) NOT NULL,
+                reported_uuid VARCHAR(36) NOT NULL,
+                reported_name VARCHAR(32) NOT NULL,
+                reason TEXT NOT NULL,
+                category VARCHAR(32),
+                server VARCHAR(64),
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                status VARCHAR(16) DEFAULT 'pending',
+                handled_at TIMESTAMP NULL,
+                handled_by_uuid VARCHAR(36),
+                handled_by_name VARCHAR(32),
+                resolution TEXT,
+                INDEX idx_reported_uuid (reported_uuid),
+                INDEX idx_status (status)
+            )
+            """.formatted(tablePrefix));
+        
+        // Appeals table
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS %sappeals (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                punishment_id BIGINT NOT NULL,
+                punishment_type VARCHAR(32) NOT NULL,
+                player_uuid VARCHAR(36) NOT NULL,
+                player_name VARCHAR(32) NOT NULL,
+                message TEXT NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                status VARCHAR(16) DEFAULT 'pending',
+                handled_at TIMESTAMP NULL,
+                handled_by_uuid VARCHAR(36),
+                handled_by_name VARCHAR(32),
+                response TEXT,
+                INDEX idx_punishment_id (punishment_id),
+                INDEX idx_player_uuid (player_uuid),
+                INDEX idx_status (status)
+            )
+            """.formatted(tablePrefix));
+        
+        // Notes table
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS %snotes (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                target_uuid VARCHAR(36) NOT NULL,
+                target_name VARCHAR(32) NOT NULL,
+                author_uuid VARCHAR(36) NOT NULL,
+                author_name VARCHAR(32) NOT NULL,
+                content TEXT NOT NULL,
+                server VARCHAR(64),
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                INDEX idx_target_uuid (target_uuid)
+            )
+            """.formatted(tablePrefix));
+        
+        // Template offense counts (for punishment ladders)
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS %stemplate_offenses (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                player_uuid VARCHAR(36) NOT NULL,
+                template_id VARCHAR(64) NOT NULL,
+                offense_count INT DEFAULT 0,
+                last_offense TIMESTAMP,
+                UNIQUE KEY unique_player_template (player_uuid, template_id)
+            )
+            """.formatted(tablePrefix));
+        
+        // Allowed players (IP ban bypass)
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS %sallowed_players (
+                uuid VARCHAR(36) PRIMARY KEY,
+                added_by_uuid VARCHAR(36) NOT NULL,
+                added_by_name VARCHAR(32) NOT NULL,
+                added_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """.formatted(tablePrefix));
+    }
+    
     /**
      * Execute a SQL statement
      */
-    private void execute(Connection conn, String sql) throws SQLException {
+    void execute(Connection conn, String sql) throws SQLException {
         // Adapt SQL for different database types
         sql = adaptSQL(sql);
         
@@ -321,7 +382,8 @@ public class DatabaseManager {
     private String adaptSQL(String sql) {
         switch (databaseType) {
             case SQLITE:
-                // SQLite doesn't support AUTO_INCREMENT, uses AUTOINCREMENT
+                // SQLite doesn't support AUTO_INCREMENT, uses AUTOINCREMENT (never reuses ids)
+                sql = sql.replace("BIGINT AUTO_INCREMENT PRIMARY KEY", "INTEGER PRIMARY KEY AUTOINCREMENT");
                 sql = sql.replace("AUTO_INCREMENT", "");
                 sql = sql.replace("BIGINT", "INTEGER");
                 sql = sql.replace("TIMESTAMP DEFAULT CURRENT_TIMESTAMP", "TEXT DEFAULT (datetime('now'))");
@@ -366,7 +428,7 @@ public class DatabaseManager {
      * Execute an async query
      */
     public <T> CompletableFuture<T> queryAsync(DatabaseCallback<T> callback) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyAsync(() -> {
             try (Connection conn = getConnection()) {
                 return callback.execute(conn);
             } catch (SQLException e) {
@@ -380,7 +442,7 @@ public class DatabaseManager {
      * Execute an async update
      */
     public CompletableFuture<Void> executeAsync(DatabaseRunnable runnable) {
-        return CompletableFuture.runAsync(() -> {
+        return runAsync(() -> {
             try (Connection conn = getConnection()) {
                 runnable.execute(conn);
             } catch (SQLException e) {
@@ -390,14 +452,50 @@ public class DatabaseManager {
         });
     }
     
+    /**
+     * Run blocking work (that manages its own connection) on the database executor
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            // Queue full: fail fast instead of running JDBC on the caller (often the main thread)
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Run blocking work (that manages its own connection) on the database executor
+     */
+    public CompletableFuture<Void> runAsync(Runnable runnable) {
+        try {
+            return CompletableFuture.runAsync(runnable, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
     /**
      * Close the connection pool
      */
     public void close() {
+        // Flush buffered player data, then let queued writes finish before the pool goes away
+        if (writeQueue != null) {
+            writeQueue.flush();
+        }
+        
+        if (executor != null) {
+            executor.shutdown(10, TimeUnit.SECONDS);
+        }
+        
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             plugin.log(Level.INFO, "Database connection pool closed.");
         }
+        
+        if (mongoStorage != null) {
+            mongoStorage.close();
+        }
     }
     
     // Getters
@@ -405,6 +503,43 @@ public class DatabaseManager {
         return databaseType;
     }
     
+    public DatabaseExecutor getExecutor() {
+        return executor;
+    }
+    
+    public Map<String, Long> getExecutorStats() {
+        return executor != null ? executor.getStats() : Map.of();
+    }
+    
+    /**
+     * Write-behind queue for player data, or null if write-behind is disabled
+     */
+    public PlayerDataWriteQueue getWriteQueue() {
+        return writeQueue;
+    }
+    
+    /**
+     * Punishment archiver, or null if archiving is disabled
+     */
+    public PunishmentArchiver getArchiver() {
+        return archiver;
+    }
+    
+    public PunishmentStore getPunishmentStore() {
+        return punishmentStore;
+    }
+    
+    public PlayerStore getPlayerStore() {
+        return playerStore;
+    }
+    
+    /**
+     * Whether punishments are stored in MongoDB rather than the SQL database
+     */
+    public boolean isMongo() {
+        return mongoStorage != null;
+    }
+    
     public String getTablePrefix() {
         return tablePrefix;
     }
@@ -0,0 +1,82 @@
+package com.nuvik.litebansreborn.database;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor on (created_at, id)
+ *
+ * Listings order by created_at DESC, id DESC and continue strictly after the
+ * last row of the previous page, so deep pages cost the same as the first one
+ * (no OFFSET scan). The token is opaque to callers.
+ */
+public class PageCursor {
+
+    /**
+     * Condition selecting rows after the cursor (bind with {@link #bind})
+     */
+    public static final String CONDITION = "(created_at < ? OR (created_at = ? AND id < ?))";
+
+    public static final String ORDER = " ORDER BY created_at DESC, id DESC";
+
+    private final Instant createdAt;
+    private final long id;
+
+    public PageCursor(Instant createdAt, long id) {
+        this.createdAt = createdAt != null ? createdAt : Instant.EPOCH;
+        this.id = id;
+    }
+
+    /**
+     * Decode a cursor token, null/blank meaning "first page"
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new PageCursor(createdAt, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        // Keep full precision: PostgreSQL timestamps carry microseconds
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Bind the {@link #CONDITION} parameters starting at index, returning the next free index
+     */
+    public int bind(PreparedStatement stmt, int index) throws SQLException {
+        Timestamp timestamp = Timestamp.from(createdAt);
+        stmt.setTimestamp(index++, timestamp);
+        stmt.setTimestamp(index++, timestamp);
+        stmt.setLong(index++, id);
+        return index;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
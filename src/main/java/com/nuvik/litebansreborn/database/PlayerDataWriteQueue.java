@@ -0,0 +1,305 @@
+package com.nuvik.litebansreborn.database;
+
+import com.nuvik.litebansreborn.LiteBansReborn;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Player Data Write Queue - write-behind pipeline for per-join player writes
+ *
+ * Joins used to fire several single-row upserts each (players, player_names,
+ * player_ips, plus the GeoIP country update). These are now coalesced per UUID
+ * in memory and flushed as JDBC batches in one transaction, either on a timer
+ * or as soon as the queue reaches the configured batch size.
+ *
+ * Pending writes are flushed synchronously on shutdown and re-queued if a
+ * flush fails.
+ */
+public class PlayerDataWriteQueue {
+
+    private final LiteBansReborn plugin;
+    private final DatabaseManager database;
+    private final int batchSize;
+
+    // Coalesced pending writes
+    private final Map<UUID, PendingPlayer> pendingPlayers = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    // Metrics
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder rowsFlushed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+    private final LongAdder totalFlushMillis = new LongAdder();
+
+    public PlayerDataWriteQueue(LiteBansReborn plugin, DatabaseManager database, int batchSize) {
+        this.plugin = plugin;
+        this.database = database;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    // ==================== Enqueue ====================
+
+    /**
+     * Queue a join: players row, name history and IP history
+     */
+    public void recordJoin(UUID uuid, String name, String ip) {
+        Instant now = Instant.now();
+        pendingPlayers.compute(uuid, (key, pending) -> {
+            if (pending == null) {
+                pending = new PendingPlayer();
+            }
+            pending.name = name;
+            pending.ip = ip;
+            pending.seenAt = now;
+            pending.names.add(name);
+            if (ip != null) {
+                pending.ips.add(ip);
+            }
+            return pending;
+        });
+        flushIfFull();
+    }
+
+    /**
+     * Queue a GeoIP country update for a player
+     */
+    public void recordCountry(UUID uuid, String country) {
+        pendingPlayers.compute(uuid, (key, pending) -> {
+            if (pending == null) {
+                pending = new PendingPlayer();
+            }
+            pending.country = country;
+            return pending;
+        });
+        flushIfFull();
+    }
+
+    private void flushIfFull() {
+        if (pendingPlayers.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            database.runAsync(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    // ==================== Flush ====================
+
+    /**
+     * Write everything pending in one transaction (blocking)
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            if (pendingPlayers.isEmpty()) {
+                return;
+            }
+
+            Map<UUID, PendingPlayer> players = drain(pendingPlayers);
+            int rows = players.size();
+            long start = System.currentTimeMillis();
+
+            try (Connection conn = database.getConnection()) {
+                boolean autoCommit = conn.getAutoCommit();
+                conn.setAutoCommit(false);
+                try {
+                    writePlayers(conn, players);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                failures.increment();
+                requeue(players);
+                plugin.log(Level.WARNING, "Player data flush failed (" + rows + " players re-queued): " + e.getMessage());
+                return;
+            }
+
+            long elapsed = System.currentTimeMillis() - start;
+            flushes.increment();
+            rowsFlushed.add(rows);
+            lastBatchSize.set(rows);
+            maxBatchSize.accumulateAndGet(rows, Math::max);
+            lastFlushMillis.set(elapsed);
+            maxFlushMillis.accumulateAndGet(elapsed, Math::max);
+            totalFlushMillis.add(elapsed);
+            plugin.debug("Flushed " + rows + " queued players in " + elapsed + "ms");
+        }
+    }
+
+    private void writePlayers(Connection conn, Map<UUID, PendingPlayer> players) throws SQLException {
+        if (players.isEmpty()) {
+            return;
+        }
+
+        String playerSql = database.getUpsertSQL("players",
+                new String[]{"uuid", "last_known_name", "last_known_ip", "first_join", "last_seen"},
+                new String[]{"last_known_name", "last_known_ip", "last_seen"},
+                new String[]{"uuid"});
+        String nameSql = database.getUpsertSQL("player_names",
+                new String[]{"uuid", "name", "first_seen", "last_seen"},
+                new String[]{"last_seen"},
+                new String[]{"uuid", "name"});
+        String ipSql = database.getUpsertSQL("player_ips",
+                new String[]{"uuid", "ip", "first_seen", "last_seen"},
+                new String[]{"last_seen"},
+                new String[]{"uuid", "ip"});
+        String countrySql = "UPDATE " + database.getTable("players") + " SET country = ? WHERE uuid = ?";
+
+        // For MySQL/MariaDB, ON DUPLICATE KEY UPDATE needs the update parameters too
+        boolean mysqlStyle = playerSql.contains("ON DUPLICATE KEY UPDATE");
+
+        try (PreparedStatement playerStmt = conn.prepareStatement(playerSql);
+             PreparedStatement nameStmt = conn.prepareStatement(nameSql);
+             PreparedStatement ipStmt = conn.prepareStatement(ipSql);
+             PreparedStatement countryStmt = conn.prepareStatement(countrySql)) {
+
+            boolean hasJoins = false;
+            boolean hasCountries = false;
+
+            for (Map.Entry<UUID, PendingPlayer> entry : players.entrySet()) {
+                String uuid = entry.getKey().toString();
+                PendingPlayer pending = entry.getValue();
+
+                if (pending.name != null) {
+                    hasJoins = true;
+                    Timestamp seen = Timestamp.from(pending.seenAt);
+
+                    playerStmt.setString(1, uuid);
+                    playerStmt.setString(2, pending.name);
+                    playerStmt.setString(3, pending.ip);
+                    playerStmt.setTimestamp(4, seen);
+                    playerStmt.setTimestamp(5, seen);
+                    if (mysqlStyle) {
+                        playerStmt.setString(6, pending.name);
+                        playerStmt.setString(7, pending.ip);
+                        playerStmt.setTimestamp(8, seen);
+                    }
+                    playerStmt.addBatch();
+
+                    for (String name : pending.names) {
+                        nameStmt.setString(1, uuid);
+                        nameStmt.setString(2, name);
+                        nameStmt.setTimestamp(3, seen);
+                        nameStmt.setTimestamp(4, seen);
+                        if (mysqlStyle) {
+                            nameStmt.setTimestamp(5, seen);
+                        }
+                        nameStmt.addBatch();
+                    }
+
+                    for (String ip : pending.ips) {
+                        ipStmt.setString(1, uuid);
+                        ipStmt.setString(2, ip);
+                        ipStmt.setTimestamp(3, seen);
+                        ipStmt.setTimestamp(4, seen);
+                        if (mysqlStyle) {
+                            ipStmt.setTimestamp(5, seen);
+                        }
+                        ipStmt.addBatch();
+                    }
+                }
+
+                if (pending.country != null) {
+                    hasCountries = true;
+                    countryStmt.setString(1, pending.country);
+                    countryStmt.setString(2, uuid);
+                    countryStmt.addBatch();
+                }
+            }
+
+            if (hasJoins) {
+                playerStmt.executeBatch();
+                nameStmt.executeBatch();
+                ipStmt.executeBatch();
+            }
+            // After the upserts, so a brand-new player's row already exists
+            if (hasCountries) {
+                countryStmt.executeBatch();
+            }
+        }
+    }
+
+    private static <K, V> Map<K, V> drain(Map<K, V> source) {
+        Map<K, V> drained = new HashMap<>();
+        for (K key : new ArrayList<>(source.keySet())) {
+            V value = source.remove(key);
+            if (value != null) {
+                drained.put(key, value);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Put failed writes back without overwriting newer data queued meanwhile
+     */
+    private void requeue(Map<UUID, PendingPlayer> players) {
+        players.forEach((uuid, failed) -> pendingPlayers.merge(uuid, failed, (newer, old) -> {
+            newer.names.addAll(old.names);
+            newer.ips.addAll(old.ips);
+            if (newer.name == null) {
+                newer.name = old.name;
+                newer.ip = old.ip;
+                newer.seenAt = old.seenAt;
+            }
+            if (newer.country == null) {
+                newer.country = old.country;
+            }
+            return newer;
+        }));
+    }
+
+    // ==================== Metrics ====================
+
+    public int getPendingCount() {
+        return pendingPlayers.size();
+    }
+
+    public Map<String, Long> getStats() {
+        long count = flushes.sum();
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("pending", (long) getPendingCount());
+        stats.put("flushes", count);
+        stats.put("rows", rowsFlushed.sum());
+        stats.put("failures", failures.sum());
+        stats.put("lastBatchSize", lastBatchSize.get());
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("lastFlushMillis", lastFlushMillis.get());
+        stats.put("maxFlushMillis", maxFlushMillis.get());
+        stats.put("avgFlushMillis", count == 0 ? 0 : totalFlushMillis.sum() / count);
+        return stats;
+    }
+
+    // ==================== Data Classes ====================
+
+    /**
+     * Latest state for one player since the last flush
+     */
+    private static class PendingPlayer {
+        String name;
+        String ip;
+        Instant seenAt;
+        String country;
+        final Set<String> names = new LinkedHashSet<>();
+        final Set<String> ips = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,180 @@
+package com.nuvik.litebansreborn.database;
+
+import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.database.PunishmentRowMapper.Projection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Punishment Archiver - moves dead history out of the hot punishments table
+ *
+ * Punishments that are no longer in effect (removed, expired, kicks, expired
+ * warnings) and older than the configured age are copied to
+ * punishments_archive and deleted from punishments, one bounded batch per
+ * transaction so a run never holds long locks. Archived rows keep their ids
+ * and are only read back when full history is requested.
+ *
+ * The row with the highest id is never archived. SQLite tables without
+ * AUTOINCREMENT and InnoDB before MySQL 8.0 (after a restart) hand out
+ * MAX(id) + 1, so deleting the newest row would let an archived id be
+ * issued again and collide in the archive.
+ */
+public class PunishmentArchiver {
+
+    private static final String ELIGIBLE =
+            "created_at < ? AND (active = FALSE OR (expires_at IS NOT NULL AND expires_at < ?))";
+
+    private final LiteBansReborn plugin;
+    private final DatabaseManager database;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Metrics
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder rowsArchived = new LongAdder();
+    private final AtomicLong lastRunRows = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+
+    public PunishmentArchiver(LiteBansReborn plugin, DatabaseManager database,
+                              Duration minAge, int batchSize, int maxBatches) {
+        this.plugin = plugin;
+        this.database = database;
+        this.minAge = minAge;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+    }
+
+    /**
+     * Archive eligible punishments, at most max-batches * batch-size rows per run
+     *
+     * @return rows moved to the archive
+     */
+    public int run() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        Instant now = Instant.now();
+        Timestamp cutoff = Timestamp.from(now.minus(minAge));
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int moved = moveBatch(cutoff, Timestamp.from(now));
+                total += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.WARNING, "Punishment archiving failed after " + total + " rows: " + e.getMessage());
+        } finally {
+            runs.increment();
+            rowsArchived.add(total);
+            lastRunRows.set(total);
+            lastRunMillis.set(System.currentTimeMillis() - start);
+            running.set(false);
+        }
+
+        if (total > 0) {
+            plugin.log(Level.INFO, "Archived " + total + " old punishments in " + lastRunMillis.get() + "ms");
+        }
+        return total;
+    }
+
+    private int moveBatch(Timestamp cutoff, Timestamp now) throws SQLException {
+        String hot = database.getTable("punishments");
+        String archive = database.getTable("punishments_archive");
+
+        try (Connection conn = database.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                long maxId;
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT MAX(id) FROM " + hot);
+                     ResultSet rs = stmt.executeQuery()) {
+                    maxId = rs.next() ? rs.getLong(1) : 0;
+                }
+
+                List<Long> ids = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT id FROM " + hot + " WHERE " + ELIGIBLE + " AND id < ? ORDER BY id LIMIT ?")) {
+                    stmt.setTimestamp(1, cutoff);
+                    stmt.setTimestamp(2, now);
+                    stmt.setLong(3, maxId);
+                    stmt.setInt(4, batchSize);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getLong(1));
+                        }
+                    }
+                }
+
+                if (ids.isEmpty()) {
+                    conn.commit();
+                    return 0;
+                }
+
+                String in = " WHERE id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+                String columns = PunishmentRowMapper.columns(Projection.FULL, null);
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO " + archive + " (" + columns + ", archived_at) " +
+                                "SELECT " + columns + ", ? FROM " + hot + in)) {
+                    stmt.setTimestamp(1, now);
+                    bindIds(stmt, 2, ids);
+                    stmt.executeUpdate();
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + hot + in)) {
+                    bindIds(stmt, 1, ids);
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                return ids.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static void bindIds(PreparedStatement stmt, int index, List<Long> ids) throws SQLException {
+        for (long id : ids) {
+            stmt.setLong(index++, id);
+        }
+    }
+
+    /**
+     * Archiving counters for /lbr debug
+     */
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("runs", runs.sum());
+        stats.put("archived", rowsArchived.sum());
+        stats.put("lastRunRows", lastRunRows.get());
+        stats.put("lastRunMillis", lastRunMillis.get());
+        return stats;
+    }
+}
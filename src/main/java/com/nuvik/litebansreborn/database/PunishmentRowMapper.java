@@ -0,0 +1,174 @@
+package com.nuvik.litebansreborn.database;
+
+import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.models.PunishmentSummary;
+import com.nuvik.litebansreborn.models.PunishmentType;
+import com.nuvik.litebansreborn.utils.PlayerUtil;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Punishment Row Mapper - column-projected reads of the punishments table
+ *
+ * Every query names the columns it needs instead of SELECT *:
+ * - EXISTENCE: SELECT 1 ... LIMIT 1, answerable from the lookup indexes alone
+ * - SUMMARY: list columns with a truncated reason, no removal details
+ * - FULL: every column, mapped to {@link Punishment}
+ *
+ * Large result sets can be streamed row by row instead of materialized.
+ */
+public final class PunishmentRowMapper {
+
+    public enum Projection { EXISTENCE, SUMMARY, FULL }
+
+    /**
+     * Reason characters kept in summaries
+     */
+    public static final int SUMMARY_REASON_LENGTH = 128;
+
+    private static final String[] FULL_COLUMNS = {
+            "id", "type", "target_uuid", "target_name", "target_ip", "executor_uuid", "executor_name",
+            "reason", "server", "created_at", "expires_at", "active", "removed_at", "removed_by_uuid",
+            "removed_by_name", "remove_reason", "silent", "ip_based"
+    };
+
+    private static final String[] SUMMARY_COLUMNS = {
+            "id", "type", "target_uuid", "target_name", "executor_uuid", "executor_name",
+            "reason", "created_at", "expires_at", "active", "ip_based"
+    };
+
+    private PunishmentRowMapper() {
+    }
+
+    // ==================== SQL ====================
+
+    /**
+     * "SELECT <columns> FROM <table>" for a projection
+     */
+    public static String select(Projection projection, String table) {
+        return "SELECT " + columns(projection, null) + " FROM " + table;
+    }
+
+    /**
+     * Column list for a projection, optionally qualified with a table alias
+     */
+    public static String columns(Projection projection, String alias) {
+        String prefix = alias != null ? alias + "." : "";
+        return switch (projection) {
+            case EXISTENCE -> "1";
+            case FULL -> qualify(FULL_COLUMNS, prefix, false);
+            case SUMMARY -> qualify(SUMMARY_COLUMNS, prefix, true);
+        };
+    }
+
+    private static String qualify(String[] columns, String prefix, boolean truncateReason) {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) sql.append(", ");
+            if (truncateReason && columns[i].equals("reason")) {
+                sql.append("SUBSTR(").append(prefix).append("reason, 1, ").append(SUMMARY_REASON_LENGTH).append(") AS reason");
+            } else {
+                sql.append(prefix).append(columns[i]);
+            }
+        }
+        return sql.toString();
+    }
+
+    // ==================== Mapping ====================
+
+    public static Punishment mapFull(ResultSet rs) throws SQLException {
+        return Punishment.fromResultSet(rs);
+    }
+
+    public static PunishmentSummary mapSummary(ResultSet rs) throws SQLException {
+        String targetUuid = rs.getString("target_uuid");
+        String executorUuid = rs.getString("executor_uuid");
+        PunishmentType type = PunishmentType.fromId(rs.getString("type"));
+
+        return new PunishmentSummary(
+                rs.getLong("id"),
+                type != null ? type : PunishmentType.BAN,
+                targetUuid != null ? UUID.fromString(targetUuid) : null,
+                rs.getString("target_name"),
+                executorUuid != null ? UUID.fromString(executorUuid) : PlayerUtil.CONSOLE_UUID,
+                rs.getString("executor_name"),
+                rs.getString("reason"),
+                toInstant(rs.getTimestamp("created_at")),
+                toInstant(rs.getTimestamp("expires_at")),
+                rs.getBoolean("active"),
+                rs.getBoolean("ip_based"));
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    // ==================== Queries ====================
+
+    /**
+     * Whether any row matches (SELECT 1 ... LIMIT 1, no row data transferred)
+     */
+    public static boolean exists(Connection conn, String table, String where, Binder binder) throws SQLException {
+        String sql = select(Projection.EXISTENCE, table) + " WHERE " + where + " LIMIT 1";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Stream rows one at a time without holding the whole result in memory.
+     * The handler must not use the same connection while streaming.
+     *
+     * @return number of rows handled
+     */
+    public static <T> int stream(Connection conn, DatabaseManager.DatabaseType databaseType, String sql, int fetchSize,
+                                 Binder binder, RowMapper<T> mapper, RowHandler<T> handler) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        // PostgreSQL only honours the fetch size inside a transaction
+        if (databaseType == DatabaseManager.DatabaseType.POSTGRESQL) {
+            conn.setAutoCommit(false);
+        }
+
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // MySQL Connector/J only streams rows with the special Integer.MIN_VALUE fetch size
+            stmt.setFetchSize(databaseType == DatabaseManager.DatabaseType.MYSQL ? Integer.MIN_VALUE : fetchSize);
+            binder.bind(stmt);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapper.map(rs));
+                    rows++;
+                }
+            }
+        } finally {
+            if (conn.getAutoCommit() != autoCommit) {
+                conn.commit();
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        return rows;
+    }
+
+    // ==================== Types ====================
+
+    @FunctionalInterface
+    public interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface RowHandler<T> {
+        void accept(T row) throws SQLException;
+    }
+}
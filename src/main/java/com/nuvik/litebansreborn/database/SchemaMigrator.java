@@ -0,0 +1,224 @@
+package com.nuvik.litebansreborn.database;
+
+import com.nuvik.litebansreborn.LiteBansReborn;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Schema Migrator - versioned, ordered schema migrations
+ *
+ * The applied version is stored in a schema_version table. On boot only the
+ * migrations above that version run; when the schema is already current no
+ * DDL is executed at all.
+ *
+ * Migrations are append-only: never edit or reorder an existing one, add a
+ * new version instead.
+ */
+public class SchemaMigrator {
+
+    private final LiteBansReborn plugin;
+    private final DatabaseManager database;
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(LiteBansReborn plugin, DatabaseManager database) {
+        this.plugin = plugin;
+        this.database = database;
+        this.migrations = List.of(
+                new Migration(1, "Baseline tables", database::createBaseTables),
+                new Migration(2, "Add players.country", this::addCountryColumn),
+                new Migration(3, "Composite punishment lookup indexes", this::addPunishmentIndexes),
+                new Migration(4, "Punishment archive table", this::createArchiveTable)
+        );
+    }
+
+    /**
+     * Latest schema version known to this build
+     */
+    public int getLatestVersion() {
+        return migrations.get(migrations.size() - 1).version();
+    }
+
+    /**
+     * Apply every pending migration in order
+     */
+    public void migrate(Connection conn) throws SQLException {
+        int current = getCurrentVersion(conn);
+        int latest = getLatestVersion();
+
+        if (current >= latest) {
+            plugin.debug("Database schema is current (version " + current + ")");
+            return;
+        }
+
+        if (current == 0) {
+            createVersionTable(conn);
+        }
+
+        for (Migration migration : migrations) {
+            if (migration.version() <= current) {
+                continue;
+            }
+
+            plugin.log(Level.INFO, "Applying database migration " + migration.version() + ": " + migration.description());
+            try {
+                migration.step().apply(conn);
+            } catch (SQLException e) {
+                throw new SQLException("Migration " + migration.version() + " (" + migration.description() +
+                        ") failed: " + e.getMessage(), e);
+            }
+            recordVersion(conn, migration);
+        }
+
+        plugin.log(Level.INFO, "Database schema migrated from version " + current + " to " + latest);
+    }
+
+    // ==================== Version Table ====================
+
+    /**
+     * Read the applied version (0 when the version table does not exist yet)
+     */
+    private int getCurrentVersion(Connection conn) {
+        String sql = "SELECT MAX(version) FROM " + database.getTable("schema_version");
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    private void createVersionTable(Connection conn) throws SQLException {
+        database.execute(conn, """
+            CREATE TABLE IF NOT EXISTS %sschema_version (
+                version INT PRIMARY KEY,
+                description VARCHAR(128) NOT NULL,
+                applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """.formatted(database.getTablePrefix()));
+    }
+
+    private void recordVersion(Connection conn, Migration migration) throws SQLException {
+        String sql = "INSERT INTO " + database.getTable("schema_version") +
+                " (version, description, applied_at) VALUES (?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, migration.version());
+            stmt.setString(2, migration.description());
+            stmt.setTimestamp(3, Timestamp.from(Instant.now()));
+            stmt.executeUpdate();
+        }
+    }
+
+    // ==================== Migrations ====================
+
+    /**
+     * Installs from before the country column existed (the baseline only creates it for new tables)
+     */
+    private void addCountryColumn(Connection conn) throws SQLException {
+        String players = database.getTable("players");
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT country FROM " + players + " WHERE 1 = 0")) {
+            stmt.executeQuery().close();
+            return;
+        } catch (SQLException e) {
+            // Column missing
+        }
+        database.execute(conn, "ALTER TABLE " + players + " ADD COLUMN country VARCHAR(64)");
+    }
+
+    /**
+     * Indexes for the hot punishment lookups:
+     * - target_uuid + type + active (ban/mute checks, expires_at included for the validity filter)
+     * - target_ip + ip_based + active (IP ban/mute checks)
+     * - created_at DESC, id DESC (newest-first listings)
+     */
+    private void addPunishmentIndexes(Connection conn) throws SQLException {
+        String table = database.getTable("punishments");
+        String prefix = database.getTablePrefix();
+
+        createIndex(conn, prefix + "idx_punish_uuid_type_active", table, "target_uuid, type, active, expires_at");
+        createIndex(conn, prefix + "idx_punish_ip_active", table, "target_ip, ip_based, active, type");
+        createIndex(conn, prefix + "idx_punish_created", table, "created_at DESC, id DESC");
+        createIndex(conn, prefix + "idx_punish_active_created", table, "active, created_at DESC, id DESC");
+
+        // Inline INDEX clauses are stripped from the baseline on these databases
+        if (database.getDatabaseType() != DatabaseManager.DatabaseType.MYSQL
+                && database.getDatabaseType() != DatabaseManager.DatabaseType.MARIADB) {
+            createIndex(conn, prefix + "idx_punish_executor", table, "executor_uuid");
+        }
+    }
+
+    /**
+     * Cold storage for punishments that are no longer in effect (same columns, ids preserved)
+     */
+    private void createArchiveTable(Connection conn) throws SQLException {
+        String prefix = database.getTablePrefix();
+        database.execute(conn, """
+            CREATE TABLE IF NOT EXISTS %spunishments_archive (
+                id BIGINT PRIMARY KEY,
+                type VARCHAR(32) NOT NULL,
+                target_uuid VARCHAR(36) NOT NULL,
+                target_name VARCHAR(32) NOT NULL,
+                target_ip VARCHAR(45),
+                executor_uuid VARCHAR(36) NOT NULL,
+                executor_name VARCHAR(32) NOT NULL,
+                reason TEXT,
+                server VARCHAR(64),
+                created_at TIMESTAMP NULL,
+                expires_at TIMESTAMP NULL,
+                active BOOLEAN DEFAULT FALSE,
+                removed_at TIMESTAMP NULL,
+                removed_by_uuid VARCHAR(36),
+                removed_by_name VARCHAR(32),
+                remove_reason TEXT,
+                silent BOOLEAN DEFAULT FALSE,
+                ip_based BOOLEAN DEFAULT FALSE,
+                archived_at TIMESTAMP NULL
+            )
+            """.formatted(prefix));
+
+        createIndex(conn, prefix + "idx_archive_uuid_created", database.getTable("punishments_archive"),
+                "target_uuid, created_at DESC, id DESC");
+    }
+
+    private void createIndex(Connection conn, String name, String table, String columns) throws SQLException {
+        switch (database.getDatabaseType()) {
+            case MYSQL, MARIADB -> {
+                // No CREATE INDEX IF NOT EXISTS here; DDL also commits implicitly, so a
+                // migration that failed halfway left some indexes behind. Skip those.
+                if (indexExists(conn, name, table)) {
+                    plugin.debug("Index " + name + " already exists, skipping");
+                    return;
+                }
+                database.execute(conn, "CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+            }
+            default -> database.execute(conn, "CREATE INDEX IF NOT EXISTS " + name + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    private boolean indexExists(Connection conn, String name, String table) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // ==================== Types ====================
+
+    @FunctionalInterface
+    interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    record Migration(int version, String description, MigrationStep step) {}
+}
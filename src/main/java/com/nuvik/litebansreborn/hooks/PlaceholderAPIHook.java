@@ -51,8 +51,8 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
                 
                 // Ban placeholders
                 case "is_banned":
-                    return String.valueOf(plugin.getBanManager().getActiveBan(player.getUniqueId())
-                            .get(1, TimeUnit.SECONDS) != null);
+                    return String.valueOf(plugin.getBanManager().isBanned(player.getUniqueId())
+                            .get(1, TimeUnit.SECONDS));
                 
                 case "ban_reason":
                     Punishment ban = plugin.getBanManager().getActiveBan(player.getUniqueId())
@@ -72,8 +72,8 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
                 
                 // Mute placeholders
                 case "is_muted":
-                    return String.valueOf(plugin.getMuteManager().getActiveMute(player.getUniqueId())
-                            .get(1, TimeUnit.SECONDS) != null);
+                    return String.valueOf(plugin.getMuteManager().isMuted(player.getUniqueId())
+                            .get(1, TimeUnit.SECONDS));
                 
                 case "mute_reason":
                     Punishment mute = plugin.getMuteManager().getActiveMute(player.getUniqueId())
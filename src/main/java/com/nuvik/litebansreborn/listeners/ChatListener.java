@@ -110,7 +110,8 @@ public class ChatListener implements Listener {
         }
         
         // Check database async if not in cache (for future messages)
-        // Can't cancel current event safely from async callback, but helps sync cache
+        // Can't cancel current event safely from async callback, but helps sync cache.
+        // Players already known to be clean are answered from the negative cache without a query.
         plugin.getMuteManager().getActiveMute(uuid).thenAccept(dbMute -> {
             if (dbMute != null && dbMute.isActiveAndValid()) {
                 // Sync back to main thread for thread safety when modifying cache
@@ -6,6 +6,7 @@ import com.nuvik.litebansreborn.antivpn.VPNResult;
 import com.nuvik.litebansreborn.config.MessagesManager;
 import com.nuvik.litebansreborn.managers.AltManager;
 import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.services.LoginCheckService.LoginVerdict;
 import com.nuvik.litebansreborn.utils.PlayerUtil;
 import com.nuvik.litebansreborn.utils.TimeUtil;
 import org.bukkit.Bukkit;
@@ -50,20 +51,10 @@ public class PlayerJoinListener implements Listener {
         String ip = event.getAddress().getHostAddress();
         
         try {
-            // Check UUID ban
-            Punishment ban = awaitFuture(plugin.getBanManager().getActiveBan(uuid), "uuid-ban", name);
-            if (isActiveBan(ban)) {
-                disallowLogin(event, ban);
-                return;
-            }
-            
-            // Check IP ban
-            Punishment ipBan = awaitFuture(plugin.getBanManager().getActiveIPBan(ip), "ip-ban", name);
-            if (isActiveBan(ipBan)) {
-                boolean allowed = awaitFuture(plugin.getAltManager().isAllowed(uuid), "alt-allowed", name);
-                if (!allowed) {
-                    disallowLogin(event, ipBan);
-                }
+            // UUID ban, IP ban and allow list in one query (no query at all when the cache knows)
+            LoginVerdict verdict = awaitFuture(plugin.getLoginCheckService().check(uuid, ip), "login-check", name);
+            if (verdict.isDenied()) {
+                disallowLogin(event, verdict.getDenyingPunishment());
             }
         } catch (TimeoutException e) {
             plugin.log(Level.WARNING, "Database timeout for " + name + " - allowing join. CHECK IF BANNED!");
@@ -139,13 +130,6 @@ public class PlayerJoinListener implements Listener {
         }
     }
     
-    /**
-     * Check if a punishment is an active ban
-     */
-    private boolean isActiveBan(Punishment ban) {
-        return ban != null && ban.isActiveAndValid();
-    }
-    
     /**
      * Disallow login with formatted ban screen
      */
@@ -225,15 +209,10 @@ public class PlayerJoinListener implements Listener {
             String country = result.getCountry();
             plugin.debug("GeoIP: Resolved " + ip + " -> " + country);
             
-            plugin.getDatabaseManager().executeAsync(conn -> {
-                String sql = "UPDATE " + plugin.getDatabaseManager().getTable("players") + 
-                            " SET country = ? WHERE uuid = ?";
-                try (var stmt = conn.prepareStatement(sql)) {
-                    stmt.setString(1, country);
-                    stmt.setString(2, uuid.toString());
-                    int updated = stmt.executeUpdate();
-                    plugin.debug("GeoIP: " + (updated > 0 ? "Updated" : "No rows for") + " " + name + " -> " + country);
-                }
+            // Batched with the rest of the join writes when write-behind is enabled
+            plugin.getDatabaseManager().runAsync(() -> {
+                plugin.getDatabaseManager().getPlayerStore().setCountry(uuid, country);
+                plugin.debug("GeoIP: Updated " + name + " -> " + country);
             });
         }).exceptionally(ex -> {
             plugin.debug("GeoIP: Failed for " + ip + ": " + ex.getMessage());
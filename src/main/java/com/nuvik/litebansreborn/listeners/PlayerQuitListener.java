@@ -30,6 +30,11 @@ public class PlayerQuitListener implements Listener {
         // Clear staff chat if enabled
         plugin.getCacheManager().disableStaffChat(player.getUniqueId());
         
+        // Drop chat filter state
+        if (plugin.getChatFilterManager() != null) {
+            plugin.getChatFilterManager().handleQuit(player.getUniqueId());
+        }
+        
         // Invalidate player cache
         plugin.getCacheManager().invalidatePlayer(player.getUniqueId());
     }
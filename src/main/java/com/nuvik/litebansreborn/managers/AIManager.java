@@ -1,10 +1,15 @@
 package com.nuvik.litebansreborn.managers;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.ai.LocalToxicityModel;
+import com.nuvik.litebansreborn.ai.ToxicityModelTrainer;
+import com.nuvik.litebansreborn.ai.ToxicityPipeline;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -12,6 +17,7 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 /**
@@ -20,7 +26,8 @@ import java.util.logging.Level;
  * 
  * Features:
  * - Player behavior analysis
- * - Chat toxicity detection
+ * - Chat toxicity detection (cached, deduplicated and batched, see {@link ToxicityPipeline})
+ * - Local pre-classifier that settles clear-cut messages before any API call
  * - Appeal review assistance
  * - No local resources used - all API calls
  */
@@ -35,6 +42,16 @@ public class AIManager {
     private String apiKey = "";
     private String model = "";
     private String baseUrl = "";
+    private ToxicityPipeline<ToxicityResult> toxicityPipeline;
+    
+    // Local pre-classifier (null = no trained model)
+    private volatile LocalToxicityModel localModel;
+    private boolean localModelEnabled = true;
+    private double localCleanBelow = 0.05;
+    private double localToxicAbove = 0.97;
+    private final LongAdder localClean = new LongAdder();
+    private final LongAdder localToxic = new LongAdder();
+    private final LongAdder localEscalated = new LongAdder();
 
     // Provider URLs
     private static final Map<String, String> PROVIDER_URLS = Map.of(
@@ -45,6 +62,11 @@ public class AIManager {
         "claude", "https://api.anthropic.com/v1/messages"
     );
 
+    // Punishment reasons whose snapshot lines are treated as toxic examples
+    private static final List<String> DEFAULT_TOXIC_REASONS = List.of(
+        "toxic", "insult", "harass", "hate", "racis", "slur", "swear", "profan", "abuse", "chat", "language", "threat"
+    );
+
     public AIManager(LiteBansReborn plugin) {
         this.plugin = plugin;
         this.httpClient = HttpClient.newBuilder()
@@ -59,8 +81,24 @@ public class AIManager {
         apiKey = plugin.getConfigManager().getString("ai.api-key", "");
         model = plugin.getConfigManager().getString("ai.model", "deepseek/deepseek-chat");
         
-        // Get base URL for provider
-        baseUrl = PROVIDER_URLS.getOrDefault(provider.toLowerCase(), PROVIDER_URLS.get("openrouter"));
+        // Get base URL for provider (ai.base-url overrides it, e.g. for a proxy or a local stub server)
+        baseUrl = plugin.getConfigManager().getString("ai.base-url", "");
+        if (baseUrl.isEmpty()) {
+            baseUrl = PROVIDER_URLS.getOrDefault(provider.toLowerCase(), PROVIDER_URLS.get("openrouter"));
+        }
+        
+        toxicityPipeline = new ToxicityPipeline<>(
+            ToxicityPipeline.Settings.fromConfig(plugin.getConfigManager()),
+            this::analyzeToxicityBatch,
+            reason -> new ToxicityResult(false, 0, reason)
+        );
+        
+        localModelEnabled = plugin.getConfigManager().getBoolean("ai.local-model.enabled", true);
+        localCleanBelow = plugin.getConfigManager().getDouble("ai.local-model.clean-below", 0.05);
+        localToxicAbove = plugin.getConfigManager().getDouble("ai.local-model.toxic-above", 0.97);
+        if (localModelEnabled) {
+            loadLocalModel();
+        }
         
         if (enabled && !apiKey.isEmpty() && !apiKey.equals("YOUR_API_KEY_HERE")) {
             plugin.log(Level.INFO, "§aAI Manager initialized with " + provider);
@@ -76,31 +114,67 @@ public class AIManager {
      * Analyze chat message for toxicity
      */
     public CompletableFuture<ToxicityResult> analyzeToxicity(String message, String playerName) {
+        LocalToxicityModel local = localModelEnabled ? localModel : null;
+        if (local != null) {
+            double probability = local.probability(message);
+            int score = (int) Math.round(probability * 100);
+            if (probability < localCleanBelow) {
+                localClean.increment();
+                return CompletableFuture.completedFuture(new ToxicityResult(false, score, "Clean (local model)"));
+            }
+            if (probability > localToxicAbove) {
+                localToxic.increment();
+                return CompletableFuture.completedFuture(new ToxicityResult(true, score, "Toxic (local model)"));
+            }
+            localEscalated.increment();
+        }
         if (!enabled) {
             return CompletableFuture.completedFuture(new ToxicityResult(false, 0, "AI disabled"));
         }
+        return toxicityPipeline.analyze(message, playerName);
+    }
 
-        String prompt = """
-            Analyze this Minecraft chat message for toxicity. Respond with JSON only.
-            Player: %s
-            Message: "%s"
-            
-            Respond in this exact JSON format:
-            {"toxic": true/false, "score": 0-100, "reason": "brief reason", "category": "spam/harassment/hate/profanity/clean"}
-            """.formatted(playerName, message);
+    /**
+     * One remote call for a batch of messages (null entries = could not be parsed)
+     */
+    private CompletableFuture<List<ToxicityResult>> analyzeToxicityBatch(List<ToxicityPipeline.Request> batch) {
+        if (batch.size() == 1) {
+            ToxicityPipeline.Request request = batch.get(0);
+            String prompt = """
+                Analyze this Minecraft chat message for toxicity. Respond with JSON only.
+                Player: %s
+                Message: "%s"
+                
+                Respond in this exact JSON format:
+                {"toxic": true/false, "score": 0-100, "reason": "brief reason", "category": "spam/harassment/hate/profanity/clean"}
+                """.formatted(request.playerName(), request.message());
+
+            return sendRequest(prompt, 500).thenApply(response -> {
+                try {
+                    return Collections.singletonList(parseToxicity(gson.fromJson(response, JsonObject.class)));
+                } catch (Exception e) {
+                    return Collections.singletonList(null);
+                }
+            });
+        }
 
-        return sendRequest(prompt).thenApply(response -> {
-            try {
-                JsonObject json = gson.fromJson(response, JsonObject.class);
-                return new ToxicityResult(
-                    json.get("toxic").getAsBoolean(),
-                    json.get("score").getAsInt(),
-                    json.get("reason").getAsString()
-                );
-            } catch (Exception e) {
-                return new ToxicityResult(false, 0, "Parse error");
-            }
-        });
+        String prompt = ToxicityPipeline.batchPrompt(batch,
+            "\"toxic\": true/false, \"score\": 0-100, \"reason\": \"brief reason\", \"category\": \"spam/harassment/hate/profanity/clean\"");
+
+        return sendRequest(prompt, ToxicityPipeline.batchMaxTokens(batch.size()))
+            .thenApply(response -> ToxicityPipeline.parseBatch(response, batch.size(), this::parseToxicity));
+    }
+
+    private ToxicityResult parseToxicity(JsonObject json) {
+        try {
+            return new ToxicityResult(
+                json.get("toxic").getAsBoolean(),
+                json.get("score").getAsInt(),
+                json.get("reason").getAsString()
+            );
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     /**
@@ -177,6 +251,10 @@ public class AIManager {
     // ==================== API CALLS ====================
 
     private CompletableFuture<String> sendRequest(String prompt) {
+        return sendRequest(prompt, 500);
+    }
+
+    private CompletableFuture<String> sendRequest(String prompt, int maxTokens) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 JsonObject requestBody = new JsonObject();
@@ -195,7 +273,7 @@ public class AIManager {
                 
                 requestBody.add("messages", messages);
                 requestBody.addProperty("model", model);
-                requestBody.addProperty("max_tokens", 500);
+                requestBody.addProperty("max_tokens", maxTokens);
                 requestBody.addProperty("temperature", 0.3);
 
                 HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
@@ -254,6 +332,70 @@ public class AIManager {
     public record BehaviorAnalysis(String riskLevel, int riskScore, String summary) {}
     public record AppealReview(String recommendation, int confidence, String reasoning) {}
 
+    // ==================== LOCAL MODEL ====================
+
+    private File getLocalModelFile() {
+        return new File(plugin.getDataFolder(), "ai/toxicity-model.bin");
+    }
+
+    private void loadLocalModel() {
+        File file = getLocalModelFile();
+        if (!file.exists()) {
+            localModel = null;
+            return;
+        }
+        try {
+            localModel = LocalToxicityModel.load(file.toPath());
+            plugin.debug("Loaded local toxicity model (" + localModel.getToxicExamples() + " toxic, "
+                    + localModel.getCleanExamples() + " clean examples)");
+        } catch (IOException e) {
+            localModel = null;
+            plugin.log(Level.WARNING, "Could not load local toxicity model: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Train the local model from punishment snapshots and ai/labelled.txt, save and activate it
+     *
+     * Blocking - call it off the main thread.
+     *
+     * @throws IllegalStateException when there is not enough data
+     */
+    public ToxicityModelTrainer.Result trainLocalModel() throws IOException {
+        List<String> toxicReasons = plugin.getConfigManager().getStringList("ai.local-model.toxic-reasons");
+        if (toxicReasons.isEmpty()) {
+            toxicReasons = DEFAULT_TOXIC_REASONS;
+        }
+        int bucketBits = plugin.getConfigManager().getInt("ai.local-model.bucket-bits", LocalToxicityModel.DEFAULT_BUCKET_BITS);
+        if (bucketBits < LocalToxicityModel.MIN_BUCKET_BITS || bucketBits > LocalToxicityModel.MAX_BUCKET_BITS) {
+            int clamped = Math.max(LocalToxicityModel.MIN_BUCKET_BITS, Math.min(LocalToxicityModel.MAX_BUCKET_BITS, bucketBits));
+            plugin.log(Level.WARNING, "ai.local-model.bucket-bits must be between " + LocalToxicityModel.MIN_BUCKET_BITS
+                    + " and " + LocalToxicityModel.MAX_BUCKET_BITS + ", using " + clamped);
+            bucketBits = clamped;
+        }
+        ToxicityModelTrainer trainer = new ToxicityModelTrainer(bucketBits, toxicReasons);
+        trainer.addSnapshots(new File(plugin.getDataFolder(), "snapshots").toPath());
+        trainer.addLabelled(new File(plugin.getDataFolder(), "ai/labelled.txt").toPath());
+
+        ToxicityModelTrainer.Result result = trainer.train(
+                plugin.getConfigManager().getInt("ai.local-model.min-examples", 50),
+                localCleanBelow, localToxicAbove);
+        result.model().save(getLocalModelFile().toPath());
+        localModel = result.model();
+        return result;
+    }
+
+    public boolean hasLocalModel() {
+        return localModelEnabled && localModel != null;
+    }
+
+    /**
+     * Local decisions so far: clean, toxic, escalated to the AI provider
+     */
+    public long[] getLocalModelStats() {
+        return new long[] {localClean.sum(), localToxic.sum(), localEscalated.sum()};
+    }
+
     // ==================== GETTERS ====================
 
     public boolean isEnabled() {
@@ -267,4 +409,12 @@ public class AIManager {
     public String getModel() {
         return model;
     }
+
+    public ToxicityPipeline.Stats getToxicityStats() {
+        return toxicityPipeline.getStats();
+    }
+
+    public void shutdown() {
+        toxicityPipeline.shutdown();
+    }
 }
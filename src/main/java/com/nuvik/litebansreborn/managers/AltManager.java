@@ -3,6 +3,8 @@ package com.nuvik.litebansreborn.managers;
 import com.nuvik.litebansreborn.LiteBansReborn;
 import com.nuvik.litebansreborn.models.PlayerData;
 import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.storage.PlayerStore;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
 
 import java.sql.*;
 import java.time.Instant;
@@ -10,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 /**
  * Alt Manager - Handles alt account detection and related operations
@@ -30,102 +33,18 @@ public class AltManager {
             return CompletableFuture.completedFuture(new ArrayList<>());
         }
         
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            // Get all UUIDs that have used this IP
-            String sql = "SELECT DISTINCT p.uuid, p.last_known_name, p.last_seen " +
-                    "FROM " + plugin.getDatabaseManager().getTable("players") + " p " +
-                    "JOIN " + plugin.getDatabaseManager().getTable("player_ips") + " pi ON p.uuid = pi.uuid " +
-                    "WHERE pi.ip = ? AND p.uuid != ?";
-            
-            List<AltAccount> alts = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, ip);
-                stmt.setString(2, uuid.toString());
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        AltAccount alt = new AltAccount(
-                            UUID.fromString(rs.getString("uuid")),
-                            rs.getString("last_known_name"),
-                            rs.getTimestamp("last_seen") != null ? 
-                                rs.getTimestamp("last_seen").toInstant() : null
-                        );
-                        
-                        // Check if alt is banned
-                        alt.setBanned(isPlayerBanned(conn, alt.getUuid()));
-                        
-                        alts.add(alt);
-                    }
-                }
-            }
-            
-            return alts;
-        });
+        // Get all UUIDs that have used this IP
+        return plugin.getDatabaseManager().supplyAsync(() -> toAlts(List.of(ip), uuid));
     }
     
     /**
      * Get all alt accounts for a player
      */
     public CompletableFuture<List<AltAccount>> getAlts(UUID uuid) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            // First get all IPs used by this player
-            String ipSql = "SELECT DISTINCT ip FROM " + 
-                    plugin.getDatabaseManager().getTable("player_ips") +
-                    " WHERE uuid = ?";
-            
-            List<String> ips = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(ipSql)) {
-                stmt.setString(1, uuid.toString());
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        ips.add(rs.getString("ip"));
-                    }
-                }
-            }
-            
-            if (ips.isEmpty()) {
-                return new ArrayList<>();
-            }
-            
-            // Now find all players who used any of these IPs
-            StringBuilder placeholders = new StringBuilder();
-            for (int i = 0; i < ips.size(); i++) {
-                placeholders.append(i == 0 ? "?" : ", ?");
-            }
-            
-            String sql = "SELECT DISTINCT p.uuid, p.last_known_name, p.last_seen " +
-                    "FROM " + plugin.getDatabaseManager().getTable("players") + " p " +
-                    "JOIN " + plugin.getDatabaseManager().getTable("player_ips") + " pi ON p.uuid = pi.uuid " +
-                    "WHERE pi.ip IN (" + placeholders + ") AND p.uuid != ?";
-            
-            List<AltAccount> alts = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                int index = 1;
-                for (String ip : ips) {
-                    stmt.setString(index++, ip);
-                }
-                stmt.setString(index, uuid.toString());
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        AltAccount alt = new AltAccount(
-                            UUID.fromString(rs.getString("uuid")),
-                            rs.getString("last_known_name"),
-                            rs.getTimestamp("last_seen") != null ? 
-                                rs.getTimestamp("last_seen").toInstant() : null
-                        );
-                        
-                        alt.setBanned(isPlayerBanned(conn, alt.getUuid()));
-                        alts.add(alt);
-                    }
-                }
-            }
-            
-            return alts;
+        return plugin.getDatabaseManager().supplyAsync(() -> {
+            // First get all IPs used by this player, then everyone else who used any of them
+            List<String> ips = plugin.getDatabaseManager().getPlayerStore().getIps(uuid);
+            return toAlts(ips, uuid);
         });
     }
     
@@ -133,120 +52,37 @@ public class AltManager {
      * Get all players with a specific IP
      */
     public CompletableFuture<List<AltAccount>> getPlayersWithIP(String ip) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT DISTINCT p.uuid, p.last_known_name, p.last_seen " +
-                    "FROM " + plugin.getDatabaseManager().getTable("players") + " p " +
-                    "JOIN " + plugin.getDatabaseManager().getTable("player_ips") + " pi ON p.uuid = pi.uuid " +
-                    "WHERE pi.ip = ?";
-            
-            List<AltAccount> players = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, ip);
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        AltAccount alt = new AltAccount(
-                            UUID.fromString(rs.getString("uuid")),
-                            rs.getString("last_known_name"),
-                            rs.getTimestamp("last_seen") != null ? 
-                                rs.getTimestamp("last_seen").toInstant() : null
-                        );
-                        
-                        alt.setBanned(isPlayerBanned(conn, alt.getUuid()));
-                        players.add(alt);
-                    }
-                }
-            }
-            
-            return players;
-        });
+        return plugin.getDatabaseManager().supplyAsync(() -> toAlts(List.of(ip), null));
     }
     
     /**
-     * Record player IP for alt detection
+     * Players seen on any of the IPs, except the given player, with their ban status
      */
-    public void recordPlayerIP(UUID uuid, String ip) {
-        plugin.getDatabaseManager().executeAsync(conn -> {
-            String sql = plugin.getDatabaseManager().getUpsertSQL(
-                "player_ips",
-                new String[]{"uuid", "ip", "first_seen", "last_seen"},
-                new String[]{"last_seen"},
-                new String[]{"uuid", "ip"}
-            );
-            
-            Timestamp now = Timestamp.from(Instant.now());
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, uuid.toString());
-                stmt.setString(2, ip);
-                stmt.setTimestamp(3, now);
-                stmt.setTimestamp(4, now);
-                // For MySQL/MariaDB, we need the update parameter
-                if (sql.contains("ON DUPLICATE KEY UPDATE")) {
-                    stmt.setTimestamp(5, now);
-                }
-                
-                stmt.executeUpdate();
+    private List<AltAccount> toAlts(List<String> ips, UUID exclude) {
+        List<AltAccount> alts = new ArrayList<>();
+        for (PlayerStore.KnownPlayer player : plugin.getDatabaseManager().getPlayerStore().findByIp(ips)) {
+            if (player.uuid().equals(exclude)) {
+                continue;
             }
-        });
+            AltAccount alt = new AltAccount(player.uuid(), player.name(), player.lastSeen());
+            alt.setBanned(plugin.getDatabaseManager().getPunishmentStore().hasActive(player.uuid(), PunishmentStore.BANS));
+            alts.add(alt);
+        }
+        return alts;
     }
     
     /**
-     * Update player data on join
+     * Update player data on join (player record, name history and IP history for alt detection)
      */
     public void updatePlayerData(UUID uuid, String name, String ip) {
-        plugin.getDatabaseManager().executeAsync(conn -> {
-            // Update or insert player data
-            String sql = plugin.getDatabaseManager().getUpsertSQL(
-                "players",
-                new String[]{"uuid", "last_known_name", "last_known_ip", "first_join", "last_seen"},
-                new String[]{"last_known_name", "last_known_ip", "last_seen"},
-                new String[]{"uuid"}
-            );
-            
-            Timestamp now = Timestamp.from(Instant.now());
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, uuid.toString());
-                stmt.setString(2, name);
-                stmt.setString(3, ip);
-                stmt.setTimestamp(4, now);
-                stmt.setTimestamp(5, now);
-                // For MySQL/MariaDB, we need the update parameters
-                if (sql.contains("ON DUPLICATE KEY UPDATE")) {
-                    stmt.setString(6, name);
-                    stmt.setString(7, ip);
-                    stmt.setTimestamp(8, now);
-                }
-                
-                stmt.executeUpdate();
-            }
-            
-            // Record name history
-            String nameSql = plugin.getDatabaseManager().getUpsertSQL(
-                "player_names",
-                new String[]{"uuid", "name", "first_seen", "last_seen"},
-                new String[]{"last_seen"},
-                new String[]{"uuid", "name"}
-            );
-            
-            try (PreparedStatement stmt = conn.prepareStatement(nameSql)) {
-                stmt.setString(1, uuid.toString());
-                stmt.setString(2, name);
-                stmt.setTimestamp(3, now);
-                stmt.setTimestamp(4, now);
-                // For MySQL/MariaDB, we need the update parameter
-                if (nameSql.contains("ON DUPLICATE KEY UPDATE")) {
-                    stmt.setTimestamp(5, now);
-                }
-                
-                stmt.executeUpdate();
-            }
+        Instant joinedAt = Instant.now();
+        // Coalesced and flushed in batches by the SQL store when write-behind is enabled
+        plugin.getDatabaseManager().runAsync(() ->
+                plugin.getDatabaseManager().getPlayerStore().recordJoin(uuid, name, ip, joinedAt)
+        ).exceptionally(ex -> {
+            plugin.log(Level.SEVERE, "Failed to record join of " + name + ": " + ex.getMessage());
+            return null;
         });
-        
-        // Record IP
-        recordPlayerIP(uuid, ip);
     }
     
     /**
@@ -289,24 +125,6 @@ public class AltManager {
         });
     }
     
-    /**
-     * Check if player is banned (helper method)
-     */
-    private boolean isPlayerBanned(Connection conn, UUID uuid) throws SQLException {
-        String sql = "SELECT id FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                " WHERE target_uuid = ? AND type IN ('ban', 'tempban') AND active = TRUE " +
-                "AND (expires_at IS NULL OR expires_at > ?) LIMIT 1";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, uuid.toString());
-            stmt.setTimestamp(2, Timestamp.from(Instant.now()));
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next();
-            }
-        }
-    }
-    
     /**
      * Alt account data class
      */
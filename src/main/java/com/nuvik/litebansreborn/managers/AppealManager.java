@@ -1,6 +1,8 @@
 package com.nuvik.litebansreborn.managers;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.database.PageCursor;
+import com.nuvik.litebansreborn.models.Page;
 import com.nuvik.litebansreborn.models.Appeal;
 import com.nuvik.litebansreborn.models.Appeal.AppealStatus;
 import com.nuvik.litebansreborn.models.PunishmentType;
@@ -101,6 +103,45 @@ public class AppealManager {
             return appeals;
         });
     }
+    
+    /**
+     * Get appeals with a status filter, newest first, continuing after a cursor (null for the first page)
+     */
+    public CompletableFuture<Page<Appeal>> getAllAppeals(String status, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        boolean filtered = status != null && !status.equals("all");
+        return plugin.getDatabaseManager().queryAsync(conn -> {
+            List<String> conditions = new ArrayList<>();
+            if (filtered) {
+                conditions.add("status = ?");
+            }
+            if (after != null) {
+                conditions.add(PageCursor.CONDITION);
+            }
+            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("appeals") +
+                    (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) +
+                    PageCursor.ORDER + " LIMIT ?";
+            
+            List<Appeal> appeals = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                if (filtered) {
+                    stmt.setString(index++, status);
+                }
+                if (after != null) {
+                    index = after.bind(stmt, index);
+                }
+                stmt.setInt(index, limit + 1);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        appeals.add(parseAppeal(rs));
+                    }
+                }
+            }
+            return Page.of(appeals, limit, Appeal::getCreatedAt, Appeal::getId);
+        });
+    }
 
     public CompletableFuture<Integer> getTotalAppealsCount(String status) {
         return plugin.getDatabaseManager().queryAsync(conn -> {
@@ -1,17 +1,20 @@
 package com.nuvik.litebansreborn.managers;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.cache.SingleFlight;
 import com.nuvik.litebansreborn.config.MessagesManager;
+import com.nuvik.litebansreborn.database.PageCursor;
+import com.nuvik.litebansreborn.models.Page;
 import com.nuvik.litebansreborn.models.Punishment;
 import com.nuvik.litebansreborn.models.PunishmentType;
+import com.nuvik.litebansreborn.storage.PunishmentFilter;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
 import com.nuvik.litebansreborn.utils.PlayerUtil;
 import com.nuvik.litebansreborn.utils.TimeUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.sql.*;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.io.File;
 import java.util.UUID;
@@ -23,7 +26,13 @@ import java.util.logging.Level;
  */
 public class BanManager {
 
+    private static final PunishmentFilter ACTIVE_BANS = new PunishmentFilter.Builder()
+            .types(PunishmentStore.ALL_BANS)
+            .effective()
+            .build();
+
     private final LiteBansReborn plugin;
+    private final SingleFlight<String, Punishment> ipBanLookups = new SingleFlight<>();
     
     public BanManager(LiteBansReborn plugin) {
         this.plugin = plugin;
@@ -64,42 +73,14 @@ public class BanManager {
         
         String finalReason = reason;
         
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            // Insert into database
-            String sql = "INSERT INTO " + plugin.getDatabaseManager().getTable("punishments") +
-                    " (type, target_uuid, target_name, target_ip, executor_uuid, executor_name, " +
-                    "reason, server, created_at, expires_at, active, silent, ip_based) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                stmt.setString(1, punishment.getType().getId());
-                stmt.setString(2, targetUUID != null ? targetUUID.toString() : null);
-                stmt.setString(3, targetName);
-                stmt.setString(4, targetIP);
-                stmt.setString(5, executorUUID.toString());
-                stmt.setString(6, executorName);
-                stmt.setString(7, finalReason);
-                stmt.setString(8, punishment.getServer());
-                stmt.setTimestamp(9, Timestamp.from(punishment.getCreatedAt()));
-                stmt.setTimestamp(10, expiresAt != null ? Timestamp.from(expiresAt) : null);
-                stmt.setBoolean(11, true);
-                stmt.setBoolean(12, silent);
-                stmt.setBoolean(13, ipBased);
-                
-                stmt.executeUpdate();
-                
-                // Get generated ID
-                try (ResultSet rs = stmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        punishment.setId(rs.getLong(1));
-                    }
-                }
-            }
-            
-            return punishment;
-        }).thenApply(ban -> {
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().insert(punishment)
+        ).thenApply(ban -> {
             // Cache the ban
             plugin.getCacheManager().cacheBan(ban);
+            if (plugin.getCrossServerManager() != null) {
+                plugin.getCrossServerManager().broadcastPunishment(ban);
+            }
             
             // Kick the player if online
             if (plugin.getConfigManager().getBoolean("punishments.ban.kick-on-ban")) {
@@ -168,25 +149,15 @@ public class BanManager {
      * Unban a player
      */
     public CompletableFuture<Boolean> unban(UUID targetUUID, UUID executorUUID, String executorName, String reason) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "UPDATE " + plugin.getDatabaseManager().getTable("punishments") +
-                    " SET active = FALSE, removed_at = ?, removed_by_uuid = ?, " +
-                    "removed_by_name = ?, remove_reason = ? " +
-                    "WHERE target_uuid = ? AND type IN ('ban', 'tempban') AND active = TRUE";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setString(2, executorUUID.toString());
-                stmt.setString(3, executorName);
-                stmt.setString(4, reason);
-                stmt.setString(5, targetUUID.toString());
-                
-                int affected = stmt.executeUpdate();
-                return affected > 0;
-            }
-        }).thenApply(success -> {
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().deactivate(
+                        targetUUID, PunishmentStore.BANS, executorUUID, executorName, reason) > 0
+        ).thenApply(success -> {
             if (success) {
                 plugin.getCacheManager().invalidateBan(targetUUID);
+                if (plugin.getCrossServerManager() != null) {
+                    plugin.getCrossServerManager().broadcastInvalidate("ban", targetUUID.toString());
+                }
             }
             return success;
         });
@@ -196,25 +167,15 @@ public class BanManager {
      * Unban an IP
      */
     public CompletableFuture<Boolean> unbanIP(String ip, UUID executorUUID, String executorName, String reason) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "UPDATE " + plugin.getDatabaseManager().getTable("punishments") +
-                    " SET active = FALSE, removed_at = ?, removed_by_uuid = ?, " +
-                    "removed_by_name = ?, remove_reason = ? " +
-                    "WHERE target_ip = ? AND type = 'ipban' AND active = TRUE";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setString(2, executorUUID.toString());
-                stmt.setString(3, executorName);
-                stmt.setString(4, reason);
-                stmt.setString(5, ip);
-                
-                int affected = stmt.executeUpdate();
-                return affected > 0;
-            }
-        }).thenApply(success -> {
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().deactivateByIp(
+                        ip, PunishmentStore.IP_BANS, executorUUID, executorName, reason) > 0
+        ).thenApply(success -> {
             if (success) {
                 plugin.getCacheManager().invalidateIPBan(ip);
+                if (plugin.getCrossServerManager() != null) {
+                    plugin.getCrossServerManager().broadcastInvalidate("ipban", ip);
+                }
             }
             return success;
         });
@@ -230,30 +191,46 @@ public class BanManager {
             return CompletableFuture.completedFuture(cached);
         }
         
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE target_uuid = ? AND type IN ('ban', 'tempban') AND active = TRUE " +
-                    "AND (expires_at IS NULL OR expires_at > ?) ORDER BY created_at DESC LIMIT 1";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, uuid.toString());
-                stmt.setTimestamp(2, Timestamp.from(Instant.now()));
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return parsePunishment(rs);
-                    }
-                }
-            }
-            return null;
-        }).thenApply(ban -> {
+        // Known clean - skip the database entirely
+        if (plugin.getCacheManager().isBanClean(uuid)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long epoch = plugin.getCacheManager().getPunishmentEpoch();
+        
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().findActive(uuid, PunishmentStore.BANS)
+        ).thenApply(ban -> {
             if (ban != null) {
                 plugin.getCacheManager().cacheBan(ban);
+            } else {
+                plugin.getCacheManager().markBanClean(uuid, epoch);
             }
             return ban;
         });
     }
     
+    /**
+     * Check if a player is banned without loading the punishment (index-only existence check)
+     */
+    public CompletableFuture<Boolean> isBanned(UUID uuid) {
+        if (plugin.getCacheManager().getBan(uuid) != null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        if (plugin.getCacheManager().isBanClean(uuid)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        long epoch = plugin.getCacheManager().getPunishmentEpoch();
+        
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().hasActive(uuid, PunishmentStore.BANS)
+        ).thenApply(banned -> {
+            if (!banned) {
+                plugin.getCacheManager().markBanClean(uuid, epoch);
+            }
+            return banned;
+        });
+    }
+    
     /**
      * Check if an IP is banned
      */
@@ -264,77 +241,50 @@ public class BanManager {
             return CompletableFuture.completedFuture(cached);
         }
         
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE target_ip = ? AND type = 'ipban' AND active = TRUE " +
-                    "AND (expires_at IS NULL OR expires_at > ?) ORDER BY created_at DESC LIMIT 1";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, ip);
-                stmt.setTimestamp(2, Timestamp.from(Instant.now()));
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return parsePunishment(rs);
-                    }
-                }
-            }
-            return null;
-        }).thenApply(ban -> {
+        // Known clean - skip the database entirely
+        if (plugin.getCacheManager().isIPBanClean(ip)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long epoch = plugin.getCacheManager().getPunishmentEpoch();
+        
+        // Concurrent joins from one IP share a query; the epoch is part of the key
+        // so nobody joins a query that started before a newer punishment
+        return ipBanLookups.run(ip + "#" + epoch, () -> plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().findActiveByIp(ip, PunishmentStore.IP_BANS)
+        ).thenApply(ban -> {
             if (ban != null) {
                 plugin.getCacheManager().cacheBan(ban);
+            } else {
+                plugin.getCacheManager().markIPBanClean(ip, epoch);
             }
             return ban;
-        });
+        }));
     }
     
     /**
      * Get all active bans
      */
     public CompletableFuture<List<Punishment>> getActiveBans(int page, int perPage) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE type IN ('ban', 'tempban', 'ipban') AND active = TRUE " +
-                    "AND (expires_at IS NULL OR expires_at > ?) " +
-                    "ORDER BY created_at DESC LIMIT ? OFFSET ?";
-            
-            List<Punishment> bans = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setInt(2, perPage);
-                stmt.setInt(3, (page - 1) * perPage);
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        bans.add(parsePunishment(rs));
-                    }
-                }
-            }
-            return bans;
-        });
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().find(ACTIVE_BANS, (page - 1) * perPage, perPage));
+    }
+    
+    /**
+     * Get active bans, newest first, continuing after a cursor (null for the first page)
+     */
+    public CompletableFuture<Page<Punishment>> getActiveBans(String cursor, int limit) {
+        // Decode up front so a bad cursor fails the caller instead of the executor
+        PageCursor.decode(cursor);
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().findPage(ACTIVE_BANS, cursor, limit));
     }
     
     /**
      * Get total active bans count
      */
     public CompletableFuture<Integer> getActiveBansCount() {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT COUNT(*) FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE type IN ('ban', 'tempban', 'ipban') AND active = TRUE " +
-                    "AND (expires_at IS NULL OR expires_at > ?)";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getInt(1);
-                    }
-                }
-            }
-            return 0;
-        });
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().count(ACTIVE_BANS));
     }
     
     /**
@@ -401,12 +351,6 @@ public class BanManager {
         }
     }
     
-    /**
-     * Parse a Punishment from ResultSet using centralized method
-     */
-    private Punishment parsePunishment(ResultSet rs) throws SQLException {
-        return Punishment.fromResultSet(rs);
-    }
     
     /**
      * Wipe player data (Inventory, EC, etc) and run cleanup commands
@@ -1,11 +1,20 @@
 package com.nuvik.litebansreborn.managers;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.casefile.CaseHistoryReader;
+import com.nuvik.litebansreborn.casefile.CaseHistoryWriter;
+import com.nuvik.litebansreborn.casefile.MovementRing;
+import com.nuvik.litebansreborn.casefile.TextRing;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -28,15 +37,25 @@ public class CaseFileManager {
 
     private final LiteBansReborn plugin;
     
-    // Rolling buffers for each player
-    private final Map<UUID, LinkedList<ChatEntry>> chatHistory = new ConcurrentHashMap<>();
-    private final Map<UUID, LinkedList<CommandEntry>> commandHistory = new ConcurrentHashMap<>();
-    private final Map<UUID, LinkedList<MovementEntry>> movementHistory = new ConcurrentHashMap<>();
+    // Rolling buffers for each player (preallocated primitive rings)
+    private final Map<UUID, TextRing> chatHistory = new ConcurrentHashMap<>();
+    private final Map<UUID, TextRing> commandHistory = new ConcurrentHashMap<>();
+    private final Map<UUID, MovementRing> movementHistory = new ConcurrentHashMap<>();
     
     private static final int MAX_CHAT_HISTORY = 200;
     private static final int MAX_COMMAND_HISTORY = 50;
     private static final int MAX_MOVEMENT_HISTORY = 100;
     
+    // Adaptive movement sampling: checked every 10 ticks, stationary players are skipped
+    private static final long MOVEMENT_CHECK_TICKS = 10L;
+    private static final double MIN_MOVE_BLOCKS = 0.1;
+    private static final long MOVEMENT_INTERVAL_MS = 2000;
+    private static final double FAST_MOVE_BLOCKS_PER_SECOND = 10.0;
+    private static final long FAST_MOVEMENT_INTERVAL_MS = 500;
+    
+    // Reused by the tracker, which only runs on the main thread
+    private final Location scratchLocation = new Location(null, 0, 0, 0);
+    
     public CaseFileManager(LiteBansReborn plugin) {
         this.plugin = plugin;
         createTables();
@@ -77,6 +96,21 @@ public class CaseFileManager {
                 """;
             stmt.execute(caseEvidenceSQL.trim());
             
+            // Chat/command/movement history, binary (see CaseHistoryWriter)
+            String blobType = switch (plugin.getDatabaseManager().getDatabaseType()) {
+                case POSTGRESQL -> "BYTEA";
+                case MYSQL, MARIADB -> "MEDIUMBLOB";
+                default -> "BLOB";
+            };
+            String caseHistorySQL = """
+                CREATE TABLE IF NOT EXISTS case_history (
+                    case_id VARCHAR(36) PRIMARY KEY,
+                    data %s NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """.formatted(blobType);
+            stmt.execute(caseHistorySQL.trim());
+            
         } catch (SQLException e) {
             plugin.log(Level.SEVERE, "Failed to create case file tables: " + e.getMessage());
         }
@@ -88,68 +122,47 @@ public class CaseFileManager {
      * Record a chat message
      */
     public void recordChat(Player player, String message) {
-        UUID uuid = player.getUniqueId();
-        chatHistory.computeIfAbsent(uuid, k -> new LinkedList<>());
-        
-        LinkedList<ChatEntry> history = chatHistory.get(uuid);
-        synchronized (history) {
-            history.addLast(new ChatEntry(System.currentTimeMillis(), message));
-            while (history.size() > MAX_CHAT_HISTORY) {
-                history.removeFirst();
-            }
-        }
+        chatHistory.computeIfAbsent(player.getUniqueId(), k -> new TextRing(MAX_CHAT_HISTORY))
+            .add(System.currentTimeMillis(), message);
     }
     
     /**
      * Record a command
      */
     public void recordCommand(Player player, String command) {
-        UUID uuid = player.getUniqueId();
-        commandHistory.computeIfAbsent(uuid, k -> new LinkedList<>());
-        
-        LinkedList<CommandEntry> history = commandHistory.get(uuid);
-        synchronized (history) {
-            history.addLast(new CommandEntry(System.currentTimeMillis(), command));
-            while (history.size() > MAX_COMMAND_HISTORY) {
-                history.removeFirst();
-            }
-        }
+        commandHistory.computeIfAbsent(player.getUniqueId(), k -> new TextRing(MAX_COMMAND_HISTORY))
+            .add(System.currentTimeMillis(), command);
     }
     
     /**
-     * Start movement tracking (every 2 seconds for online players)
+     * Start movement tracking (every 2 seconds while moving, faster for fast movers, never while idle)
      */
     private void startMovementTracker() {
         Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            long now = System.currentTimeMillis();
             for (Player player : Bukkit.getOnlinePlayers()) {
-                recordMovement(player);
+                recordMovement(player, now);
             }
-        }, 40L, 40L); // Every 2 seconds
+        }, 40L, MOVEMENT_CHECK_TICKS);
     }
     
-    private void recordMovement(Player player) {
-        UUID uuid = player.getUniqueId();
-        Location loc = player.getLocation();
+    private void recordMovement(Player player, long now) {
+        Location loc = player.getLocation(scratchLocation);
         
         // Null check for world to prevent NPE
         if (loc.getWorld() == null) {
             return;
         }
         
-        movementHistory.computeIfAbsent(uuid, k -> new LinkedList<>());
+        MovementRing history = movementHistory.computeIfAbsent(player.getUniqueId(),
+            k -> new MovementRing(MAX_MOVEMENT_HISTORY));
+        int world = MovementRing.worldIndex(loc.getWorld().getName());
+        boolean flying = player.isFlying();
+        boolean sprinting = player.isSprinting();
         
-        LinkedList<MovementEntry> history = movementHistory.get(uuid);
-        synchronized (history) {
-            history.addLast(new MovementEntry(
-                System.currentTimeMillis(),
-                loc.getWorld().getName(),
-                loc.getX(), loc.getY(), loc.getZ(),
-                player.isFlying(),
-                player.isSprinting()
-            ));
-            while (history.size() > MAX_MOVEMENT_HISTORY) {
-                history.removeFirst();
-            }
+        if (history.shouldSample(now, world, loc.getX(), loc.getY(), loc.getZ(), flying, sprinting,
+                MIN_MOVE_BLOCKS, MOVEMENT_INTERVAL_MS, FAST_MOVE_BLOCKS_PER_SECOND, FAST_MOVEMENT_INTERVAL_MS)) {
+            history.add(now, world, loc.getX(), loc.getY(), loc.getZ(), flying, sprinting);
         }
     }
     
@@ -159,7 +172,7 @@ public class CaseFileManager {
      * Create a case file for a player (called when /freeze is used)
      */
     public CompletableFuture<CaseFile> createCaseFile(Player target, Player creator) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             String caseId = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
             
             CaseFile caseFile = new CaseFile(
@@ -205,47 +218,17 @@ public class CaseFileManager {
     private void collectEvidence(CaseFile caseFile, Player target) {
         UUID uuid = target.getUniqueId();
         
-        // Collect chat history
-        LinkedList<ChatEntry> chat = chatHistory.get(uuid);
-        if (chat != null && !chat.isEmpty()) {
-            StringBuilder chatLog = new StringBuilder();
-            synchronized (chat) {
-                for (ChatEntry entry : chat) {
-                    chatLog.append("[").append(formatTime(entry.timestamp())).append("] ")
-                           .append(entry.message()).append("\n");
-                }
-            }
-            saveEvidence(caseFile.caseId(), "CHAT_HISTORY", chatLog.toString());
-        }
-        
-        // Collect command history
-        LinkedList<CommandEntry> commands = commandHistory.get(uuid);
-        if (commands != null && !commands.isEmpty()) {
-            StringBuilder cmdLog = new StringBuilder();
-            synchronized (commands) {
-                for (CommandEntry entry : commands) {
-                    cmdLog.append("[").append(formatTime(entry.timestamp())).append("] /")
-                          .append(entry.command()).append("\n");
-                }
-            }
-            saveEvidence(caseFile.caseId(), "COMMAND_HISTORY", cmdLog.toString());
-        }
-        
-        // Collect movement history
-        LinkedList<MovementEntry> movements = movementHistory.get(uuid);
-        if (movements != null && !movements.isEmpty()) {
-            StringBuilder moveLog = new StringBuilder();
-            synchronized (movements) {
-                for (MovementEntry entry : movements) {
-                    moveLog.append("[").append(formatTime(entry.timestamp())).append("] ")
-                           .append(entry.world()).append(" ")
-                           .append(String.format("%.1f, %.1f, %.1f", entry.x(), entry.y(), entry.z()))
-                           .append(entry.flying() ? " [FLYING]" : "")
-                           .append(entry.sprinting() ? " [SPRINT]" : "")
-                           .append("\n");
-                }
-            }
-            saveEvidence(caseFile.caseId(), "MOVEMENT_HISTORY", moveLog.toString());
+        // Chat, command and movement history go into one compact binary row
+        TextRing chat = chatHistory.get(uuid);
+        TextRing commands = commandHistory.get(uuid);
+        MovementRing movements = movementHistory.get(uuid);
+        chat = chat != null ? chat.copy() : null;
+        commands = commands != null ? commands.copy() : null;
+        movements = movements != null ? movements.copy() : null;
+        if ((chat != null && chat.size() > 0) || (commands != null && commands.size() > 0)
+                || (movements != null && movements.size() > 0)) {
+            saveHistory(caseFile.caseId(), CaseHistoryWriter.encode(chat, commands, movements,
+                plugin.getConfigManager().getBoolean("case-files.compress-history", true)));
         }
         
         // Collect connection info
@@ -275,6 +258,19 @@ public class CaseFileManager {
         }
     }
     
+    private void saveHistory(String caseId, byte[] data) {
+        String sql = "INSERT INTO case_history (case_id, data) VALUES (?, ?)";
+        
+        try (Connection conn = plugin.getDatabaseManager().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, caseId);
+            pstmt.setBytes(2, data);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            plugin.log(Level.WARNING, "Failed to save case history: " + e.getMessage());
+        }
+    }
+    
     private void saveEvidence(String caseId, String type, String content) {
         String sql = "INSERT INTO case_evidence (case_id, evidence_type, content) VALUES (?, ?, ?)";
         
@@ -295,7 +291,7 @@ public class CaseFileManager {
      * Get a case file by ID
      */
     public CompletableFuture<CaseFile> getCaseFile(String caseId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             String sql = "SELECT * FROM case_files WHERE case_id = ?";
             
             try (Connection conn = plugin.getDatabaseManager().getConnection();
@@ -324,17 +320,42 @@ public class CaseFileManager {
      * Get all evidence for a case
      */
     public CompletableFuture<Map<String, String>> getCaseEvidence(String caseId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return getCaseEvidence(caseId, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Get evidence for a case as text, at most maxLines lines per type
+     * 
+     * Longer entries end with a "... (N more lines)" line. History entries
+     * are streamed, so lines past the limit are never formatted.
+     */
+    public CompletableFuture<Map<String, String>> getCaseEvidence(String caseId, int maxLines) {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             Map<String, String> evidence = new LinkedHashMap<>();
-            String sql = "SELECT evidence_type, content FROM case_evidence WHERE case_id = ? ORDER BY created_at";
             
-            try (Connection conn = plugin.getDatabaseManager().getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, caseId);
-                ResultSet rs = pstmt.executeQuery();
+            try (Connection conn = plugin.getDatabaseManager().getConnection()) {
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT data FROM case_history WHERE case_id = ?")) {
+                    pstmt.setString(1, caseId);
+                    ResultSet rs = pstmt.executeQuery();
+                    if (rs.next()) {
+                        try (InputStream in = rs.getBinaryStream("data")) {
+                            HistoryRenderer renderer = new HistoryRenderer(maxLines, evidence);
+                            CaseHistoryReader.read(in, renderer);
+                            renderer.finish();
+                        } catch (IOException e) {
+                            plugin.log(Level.WARNING, "Failed to read case history " + caseId + ": " + e.getMessage());
+                        }
+                    }
+                }
                 
-                while (rs.next()) {
-                    evidence.put(rs.getString("evidence_type"), rs.getString("content"));
+                String sql = "SELECT evidence_type, content FROM case_evidence WHERE case_id = ? ORDER BY created_at";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, caseId);
+                    ResultSet rs = pstmt.executeQuery();
+                    
+                    while (rs.next()) {
+                        evidence.put(rs.getString("evidence_type"), limitLines(rs.getString("content"), maxLines));
+                    }
                 }
             } catch (SQLException e) {
                 plugin.log(Level.WARNING, "Failed to get case evidence: " + e.getMessage());
@@ -347,7 +368,7 @@ public class CaseFileManager {
      * Get cases for a player
      */
     public CompletableFuture<List<CaseFile>> getCasesForPlayer(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             List<CaseFile> cases = new ArrayList<>();
             String sql = "SELECT * FROM case_files WHERE target_uuid = ? ORDER BY created_at DESC";
             
@@ -375,8 +396,98 @@ public class CaseFileManager {
     
     // ==================== UTILITIES ====================
     
-    private String formatTime(long timestamp) {
-        return new java.text.SimpleDateFormat("HH:mm:ss").format(new java.util.Date(timestamp));
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+    
+    private static String formatTime(long timestamp) {
+        return TIME_FORMATTER.format(Instant.ofEpochMilli(timestamp));
+    }
+    
+    private static String moreLines(int count) {
+        return "&8... (" + count + " more lines)";
+    }
+    
+    private static String limitLines(String content, int maxLines) {
+        if (maxLines == Integer.MAX_VALUE || content == null) {
+            return content;
+        }
+        String[] lines = content.split("\n");
+        if (lines.length <= maxLines) {
+            return content;
+        }
+        return String.join("\n", Arrays.copyOf(lines, maxLines)) + "\n" + moreLines(lines.length - maxLines);
+    }
+    
+    /**
+     * Formats streamed history into the same text the evidence rows used to hold
+     */
+    private static final class HistoryRenderer implements CaseHistoryReader.Visitor {
+        
+        private final int maxLines;
+        private final Map<String, String> evidence;
+        private String type;
+        private StringBuilder text;
+        private int count;
+        private int lines;
+        
+        HistoryRenderer(int maxLines, Map<String, String> evidence) {
+            this.maxLines = maxLines;
+            this.evidence = evidence;
+        }
+        
+        @Override
+        public boolean section(CaseHistoryReader.Section section, int count) {
+            finish();
+            this.type = switch (section) {
+                case CHAT -> "CHAT_HISTORY";
+                case COMMANDS -> "COMMAND_HISTORY";
+                case MOVEMENT -> "MOVEMENT_HISTORY";
+            };
+            this.text = new StringBuilder();
+            this.count = count;
+            this.lines = 0;
+            return true;
+        }
+        
+        private boolean room() {
+            return lines++ < maxLines;
+        }
+        
+        @Override
+        public void chat(long time, String message) {
+            if (room()) {
+                text.append("[").append(formatTime(time)).append("] ").append(message).append("\n");
+            }
+        }
+        
+        @Override
+        public void command(long time, String command) {
+            if (room()) {
+                text.append("[").append(formatTime(time)).append("] /").append(command).append("\n");
+            }
+        }
+        
+        @Override
+        public void movement(long time, String world, double x, double y, double z, boolean flying, boolean sprinting) {
+            if (room()) {
+                text.append("[").append(formatTime(time)).append("] ")
+                    .append(world).append(" ")
+                    .append(String.format("%.1f, %.1f, %.1f", x, y, z))
+                    .append(flying ? " [FLYING]" : "")
+                    .append(sprinting ? " [SPRINT]" : "")
+                    .append("\n");
+            }
+        }
+        
+        void finish() {
+            if (type == null) {
+                return;
+            }
+            if (count > maxLines) {
+                text.append(moreLines(count - maxLines)).append("\n");
+            }
+            evidence.put(type, text.toString());
+            type = null;
+        }
     }
     
     /**
@@ -397,9 +508,4 @@ public class CaseFileManager {
     
     public record CaseFile(String caseId, UUID targetUuid, String targetName, 
                            UUID creatorUuid, String creatorName, long createdAt) {}
-    
-    private record ChatEntry(long timestamp, String message) {}
-    private record CommandEntry(long timestamp, String command) {}
-    private record MovementEntry(long timestamp, String world, double x, double y, double z, 
-                                  boolean flying, boolean sprinting) {}
 }
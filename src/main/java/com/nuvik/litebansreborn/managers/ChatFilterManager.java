@@ -1,11 +1,18 @@
 package com.nuvik.litebansreborn.managers;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.chatfilter.ChatTokenizer;
+import com.nuvik.litebansreborn.chatfilter.FloodHistory;
+import com.nuvik.litebansreborn.chatfilter.NormalizedText;
+import com.nuvik.litebansreborn.chatfilter.TextNormalizer;
+import com.nuvik.litebansreborn.chatfilter.WordMatcher;
 import com.nuvik.litebansreborn.utils.ColorUtil;
 import org.bukkit.entity.Player;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.logging.Level;
@@ -30,8 +37,8 @@ public class ChatFilterManager {
     
     // ==================== CONSTANTS ====================
     
-    /** Maximum time (ms) to keep message history for anti-spam detection */
-    private static final long MESSAGE_HISTORY_RETENTION_MS = 60000; // 1 minute
+    /** How long chat state is kept for a player who stopped chatting (pending warnings survive a quick rejoin) */
+    private static final long CHAT_DATA_EXPIRY_MINUTES = 10;
     
     /** Maximum number of recent messages to keep per player */
     private static final int MAX_RECENT_MESSAGES = 10;
@@ -59,10 +66,17 @@ public class ChatFilterManager {
     // Blocked patterns
     private final List<Pattern> blockedPatterns = new ArrayList<>();
     private final List<String> blockedWords = new ArrayList<>();
-    private final List<Pattern> whitelistDomains = new ArrayList<>();
+    // Compiled from blockedWords; swapped as a whole whenever the list changes
+    private volatile WordMatcher wordMatcher = WordMatcher.compile(List.of());
+    // Folding table applied to messages and blocked words alike
+    private volatile TextNormalizer normalizer = new TextNormalizer(true, true);
+    // IP/domain/link scanner holding the whitelisted domain trie
+    private volatile ChatTokenizer tokenizer = new ChatTokenizer(List.of());
     
     // Player tracking for anti-spam
-    private final Map<UUID, PlayerChatData> playerChatData = new ConcurrentHashMap<>();
+    private final Cache<UUID, PlayerChatData> playerChatData = Caffeine.newBuilder()
+            .expireAfterAccess(CHAT_DATA_EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build();
     
     // Configuration flags
     private boolean enabled = true;
@@ -146,29 +160,60 @@ public class ChatFilterManager {
 
     /**
      * Player chat tracking data
+     *
+     * Timestamps are a long[] ring holding the last spamMessageLimit messages,
+     * so the spam check only looks at the oldest of them.
      */
     private static class PlayerChatData {
-        final List<Long> messageTimes = new ArrayList<>();
-        final List<String> recentMessages = new ArrayList<>();
+        long[] messageTimes;
+        int nextTime = 0;
+        int timeCount = 0;
+        final FloodHistory recentMessages = new FloodHistory(MAX_RECENT_MESSAGES);
         long lastMessageTime = 0;
         int warnCount = 0;
 
-        void addMessage(String message) {
+        PlayerChatData(int spamMessageLimit) {
+            messageTimes = new long[Math.max(1, spamMessageLimit)];
+        }
+
+        void addMessage(String message, int spamMessageLimit) {
             long now = System.currentTimeMillis();
-            messageTimes.add(now);
-            recentMessages.add(message.toLowerCase());
+            if (messageTimes.length != Math.max(1, spamMessageLimit)) {
+                resize(Math.max(1, spamMessageLimit));
+            }
+            messageTimes[nextTime] = now;
+            nextTime = (nextTime + 1) % messageTimes.length;
+            if (timeCount < messageTimes.length) {
+                timeCount++;
+            }
+            recentMessages.add(message);
             lastMessageTime = now;
+        }
 
-            // Keep only recent entries using defined constants
-            messageTimes.removeIf(t -> now - t > MESSAGE_HISTORY_RETENTION_MS);
-            while (recentMessages.size() > MAX_RECENT_MESSAGES) {
-                recentMessages.remove(0);
+        /**
+         * Whether at least limit messages were sent within the window
+         */
+        boolean reachedLimit(int limit, int windowMs) {
+            if (limit <= 0) {
+                return true;
+            }
+            if (limit > timeCount) {
+                return false;
             }
+            int index = Math.floorMod(nextTime - limit, messageTimes.length);
+            return messageTimes[index] >= System.currentTimeMillis() - windowMs;
         }
 
-        int getMessageCount(int windowMs) {
-            long threshold = System.currentTimeMillis() - windowMs;
-            return (int) messageTimes.stream().filter(t -> t >= threshold).count();
+        // Keeps the most recent timestamps when the configured limit changes
+        private void resize(int capacity) {
+            long[] resized = new long[capacity];
+            int kept = Math.min(timeCount, capacity);
+            for (int i = 0; i < kept; i++) {
+                resized[kept - 1 - i] = messageTimes[Math.floorMod(nextTime - 1 - i, messageTimes.length)];
+            }
+            messageTimes = resized;
+            timeCount = kept;
+            nextTime = kept % capacity;
         }
     }
 
@@ -177,10 +222,19 @@ public class ChatFilterManager {
     private void loadConfig() {
         enabled = plugin.getConfigManager().getBoolean("chat-filter.enabled", true);
         
+        // Normalization has to be set up before the word list is compiled
+        normalizer = new TextNormalizer(
+            plugin.getConfigManager().getBoolean("chat-filter.normalize-unicode", true),
+            plugin.getConfigManager().getBoolean("chat-filter.normalize-leetspeak", true)
+        );
+        
         // Load blocked words
-        blockedWords.clear();
         List<String> words = plugin.getConfigManager().getStringList("chat-filter.blocked-words");
-        blockedWords.addAll(words);
+        synchronized (this) {
+            blockedWords.clear();
+            blockedWords.addAll(words);
+            rebuildWordMatcher();
+        }
 
         // Load blocked patterns (regex)
         blockedPatterns.clear();
@@ -194,11 +248,7 @@ public class ChatFilterManager {
         }
 
         // Load whitelist domains
-        whitelistDomains.clear();
-        List<String> domains = plugin.getConfigManager().getStringList("chat-filter.whitelist-domains");
-        for (String domain : domains) {
-            whitelistDomains.add(Pattern.compile(Pattern.quote(domain), Pattern.CASE_INSENSITIVE));
-        }
+        tokenizer = new ChatTokenizer(plugin.getConfigManager().getStringList("chat-filter.whitelist-domains"));
 
         // Load settings
         blockAds = plugin.getConfigManager().getBoolean("chat-filter.block-ads", true);
@@ -215,7 +265,7 @@ public class ChatFilterManager {
         floodSimilarityThreshold = plugin.getConfigManager().getInt("chat-filter.flood-similarity", 80);
         charSpamThreshold = plugin.getConfigManager().getInt("chat-filter.char-spam-threshold", 4);
 
-        plugin.log(Level.INFO, "Loaded chat filter with " + blockedWords.size() + " words and " + 
+        plugin.log(Level.INFO, "Loaded chat filter with " + words.size() + " words and " + 
             blockedPatterns.size() + " patterns.");
     }
 
@@ -238,8 +288,11 @@ public class ChatFilterManager {
             return FilterResult.allow(message);
         }
 
+        // Fold case, accents, look-alikes and leetspeak once for all checks below
+        NormalizedText normalized = normalizer.normalize(message);
+
         // Get or create player data
-        PlayerChatData data = playerChatData.computeIfAbsent(player.getUniqueId(), k -> new PlayerChatData());
+        PlayerChatData data = playerChatData.get(player.getUniqueId(), k -> new PlayerChatData(spamMessageLimit));
 
         // Check spam (message rate)
         if (blockSpam && isSpamming(data)) {
@@ -247,7 +300,7 @@ public class ChatFilterManager {
         }
 
         // Check flood (repeated messages)
-        if (blockFlood && isFlooding(data, message)) {
+        if (blockFlood && isFlooding(data, normalized.toString())) {
             return FilterResult.block(FilterReason.FLOOD, message);
         }
 
@@ -263,7 +316,7 @@ public class ChatFilterManager {
         }
 
         // Check blocked words
-        FilterResult wordResult = checkBlockedWords(message);
+        FilterResult wordResult = checkBlockedWords(normalized);
         if (wordResult.isBlocked()) {
             return wordResult;
         }
@@ -275,18 +328,19 @@ public class ChatFilterManager {
             return patternResult;
         }
 
-        // Check advertisements (IPs, domains)
-        if (blockAds && containsAdvertisement(message)) {
+        // Check advertisements (IPs, domains) and links in a single scan
+        int tokens = blockAds || blockLinks ? tokenizer.scan(message) : 0;
+        if (blockAds && (tokens & (ChatTokenizer.IP | ChatTokenizer.DOMAIN)) != 0) {
             return FilterResult.block(FilterReason.ADVERTISEMENT, message);
         }
 
         // Check links
-        if (blockLinks && containsLink(message)) {
+        if (blockLinks && (tokens & ChatTokenizer.LINK) != 0) {
             return FilterResult.block(FilterReason.LINK, message);
         }
 
         // Record message
-        data.addMessage(message);
+        data.addMessage(normalized.toString(), spamMessageLimit);
 
         return FilterResult.allow(message);
     }
@@ -294,19 +348,11 @@ public class ChatFilterManager {
     // ==================== CHECKS ====================
 
     private boolean isSpamming(PlayerChatData data) {
-        return data.getMessageCount(spamTimeWindow) >= spamMessageLimit;
+        return data.reachedLimit(spamMessageLimit, spamTimeWindow);
     }
 
     private boolean isFlooding(PlayerChatData data, String message) {
-        String lowerMessage = message.toLowerCase();
-        
-        for (String recent : data.recentMessages) {
-            if (similarity(lowerMessage, recent) >= floodSimilarityThreshold) {
-                return true;
-            }
-        }
-        
-        return false;
+        return data.recentMessages.isFlood(message, floodSimilarityThreshold);
     }
 
     private boolean hasCharacterSpam(String message) {
@@ -351,22 +397,12 @@ public class ChatFilterManager {
         return capsPercent >= capsPercentThreshold;
     }
 
-    private FilterResult checkBlockedWords(String message) {
-        String lowerMessage = message.toLowerCase();
-        String filteredMessage = message;
-        boolean found = false;
-
-        for (String word : blockedWords) {
-            String lowerWord = word.toLowerCase();
-            if (lowerMessage.contains(lowerWord)) {
-                found = true;
-                // Censor the word
-                String censor = "*".repeat(word.length());
-                filteredMessage = filteredMessage.replaceAll("(?i)" + Pattern.quote(word), censor);
-            }
-        }
+    private FilterResult checkBlockedWords(NormalizedText normalized) {
+        // One pass over the normalized view; matches are masked in the original, same instance back means no match
+        String message = normalized.getOriginal();
+        String filteredMessage = wordMatcher.censor(normalized, '*');
 
-        if (found) {
+        if (filteredMessage != message) {
             return FilterResult.filter(message, filteredMessage);
         }
         
@@ -384,119 +420,35 @@ public class ChatFilterManager {
         return FilterResult.allow(message);
     }
 
-    private boolean containsAdvertisement(String message) {
-        // IP pattern
-        Pattern ipPattern = Pattern.compile(
-            "\\b(?:\\d{1,3}\\.){3}\\d{1,3}(?::\\d{1,5})?\\b"
-        );
-        
-        if (ipPattern.matcher(message).find()) {
-            return true;
-        }
-
-        // Domain pattern (excluding whitelisted)
-        Pattern domainPattern = Pattern.compile(
-            "(?i)\\b(?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?\\.)+(?:com|net|org|gg|me|io|co|tv|xyz|info|biz|us|uk|eu|de|fr|es|it|nl|ru|br|jp|kr|cn|au|ca|in)\\b"
-        );
-        
-        Matcher matcher = domainPattern.matcher(message);
-        while (matcher.find()) {
-            String domain = matcher.group();
-            boolean whitelisted = false;
-            
-            for (Pattern whitelist : whitelistDomains) {
-                if (whitelist.matcher(domain).find()) {
-                    whitelisted = true;
-                    break;
-                }
-            }
-            
-            if (!whitelisted) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    private boolean containsLink(String message) {
-        Pattern urlPattern = Pattern.compile(
-            "(?i)\\b(?:https?://|www\\.)[a-z0-9+&@#/%?=~_|!:,.;-]*[a-z0-9+&@#/%=~_|]"
-        );
-        
-        Matcher matcher = urlPattern.matcher(message);
-        while (matcher.find()) {
-            String url = matcher.group();
-            boolean whitelisted = false;
-            
-            for (Pattern whitelist : whitelistDomains) {
-                if (whitelist.matcher(url).find()) {
-                    whitelisted = true;
-                    break;
-                }
-            }
-            
-            if (!whitelisted) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    // ==================== UTILITY ====================
-
-    /**
-     * Calculate similarity between two strings (Levenshtein-based)
-     */
-    private int similarity(String s1, String s2) {
-        if (s1.equals(s2)) return 100;
-        if (s1.isEmpty() || s2.isEmpty()) return 0;
-
-        int maxLen = Math.max(s1.length(), s2.length());
-        int distance = levenshteinDistance(s1, s2);
-        
-        return (int) ((1 - (distance / (double) maxLen)) * 100);
-    }
-
-    private int levenshteinDistance(String s1, String s2) {
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-
-        for (int i = 0; i <= s1.length(); i++) {
-            for (int j = 0; j <= s2.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    int cost = (s1.charAt(i - 1) == s2.charAt(j - 1)) ? 0 : 1;
-                    dp[i][j] = Math.min(
-                        Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1),
-                        dp[i - 1][j - 1] + cost
-                    );
-                }
-            }
-        }
-
-        return dp[s1.length()][s2.length()];
-    }
-
     // ==================== MANAGEMENT ====================
 
     /**
      * Add a blocked word at runtime
      */
-    public void addBlockedWord(String word) {
+    public synchronized void addBlockedWord(String word) {
         if (!blockedWords.contains(word.toLowerCase())) {
             blockedWords.add(word.toLowerCase());
+            rebuildWordMatcher();
         }
     }
 
     /**
      * Remove a blocked word
      */
-    public void removeBlockedWord(String word) {
-        blockedWords.remove(word.toLowerCase());
+    public synchronized void removeBlockedWord(String word) {
+        if (blockedWords.remove(word.toLowerCase())) {
+            rebuildWordMatcher();
+        }
+    }
+
+    // Callers hold the lock on this manager, which also guards blockedWords
+    private synchronized void rebuildWordMatcher() {
+        TextNormalizer current = normalizer;
+        List<String> normalizedWords = new ArrayList<>(blockedWords.size());
+        for (String word : blockedWords) {
+            normalizedWords.add(current.normalizeWord(word));
+        }
+        wordMatcher = WordMatcher.compile(normalizedWords);
     }
 
     /**
@@ -514,7 +466,7 @@ public class ChatFilterManager {
      * Handle filter violation
      */
     public void handleViolation(Player player, FilterReason reason) {
-        PlayerChatData data = playerChatData.get(player.getUniqueId());
+        PlayerChatData data = playerChatData.getIfPresent(player.getUniqueId());
         if (data != null) {
             data.warnCount++;
 
@@ -531,11 +483,18 @@ public class ChatFilterManager {
         }
     }
 
+    /**
+     * Drop a player's chat state on quit (state with pending warnings is left to expire)
+     */
+    public void handleQuit(UUID uuid) {
+        playerChatData.asMap().computeIfPresent(uuid, (k, data) -> data.warnCount > 0 ? data : null);
+    }
+
     // ==================== GETTERS ====================
 
     public boolean isEnabled() { return enabled; }
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
     
-    public List<String> getBlockedWords() { return new ArrayList<>(blockedWords); }
+    public synchronized List<String> getBlockedWords() { return new ArrayList<>(blockedWords); }
     public int getBlockedPatternCount() { return blockedPatterns.size(); }
 }
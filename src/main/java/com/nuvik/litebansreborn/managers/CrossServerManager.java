@@ -4,6 +4,7 @@ import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.models.Punishment;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.messaging.PluginMessageListener;
@@ -119,6 +120,7 @@ public class CrossServerManager implements PluginMessageListener {
                 case "ALERT" -> handleAlertSync(in, sourceServer);
                 case "HEARTBEAT" -> handleHeartbeat(sourceServer);
                 case "PLAYER_JOIN" -> handlePlayerJoinSync(in, sourceServer);
+                case "INVALIDATE" -> handleInvalidateSync(in);
             }
         } catch (Exception e) {
             plugin.log(Level.WARNING, "Failed to process sync message: " + e.getMessage());
@@ -142,6 +144,9 @@ public class CrossServerManager implements PluginMessageListener {
         String executor = in.readUTF();
         long duration = in.readLong();
         
+        // Drop any cached "clean" verdict so the next lookup sees the new ban
+        plugin.getCacheManager().invalidateBan(UUID.fromString(playerUuid));
+        
         plugin.log(Level.INFO, "§e[CrossServer] Ban synced from " + sourceServer + 
                    ": " + playerName + " by " + executor);
         
@@ -163,6 +168,8 @@ public class CrossServerManager implements PluginMessageListener {
         String playerName = in.readUTF();
         String executor = in.readUTF();
         
+        plugin.getCacheManager().invalidateBan(UUID.fromString(playerUuid));
+        
         plugin.log(Level.INFO, "§a[CrossServer] Unban synced from " + sourceServer + ": " + playerName);
         
         alertStaff("§a[§e" + sourceServer + "§a] §f" + playerName + " §7was unbanned by §f" + executor);
@@ -175,6 +182,20 @@ public class CrossServerManager implements PluginMessageListener {
         alertStaff("§b[§e" + sourceServer + "§b] " + message);
     }
     
+    private void handleInvalidateSync(ByteArrayDataInput in) {
+        String scope = in.readUTF();
+        String key = in.readUTF();
+        
+        switch (scope) {
+            case "ban" -> plugin.getCacheManager().invalidateBan(UUID.fromString(key));
+            case "ipban" -> plugin.getCacheManager().invalidateIPBan(key);
+            case "mute" -> plugin.getCacheManager().invalidateMute(UUID.fromString(key));
+            case "ipmute" -> plugin.getCacheManager().invalidateIPMute(key);
+        }
+        
+        plugin.debug("[CrossServer] Invalidated " + scope + " cache for " + key);
+    }
+    
     private void handleHeartbeat(String sourceServer) {
         knownServers.add(sourceServer);
         serverLastSeen.put(sourceServer, System.currentTimeMillis());
@@ -235,6 +256,33 @@ public class CrossServerManager implements PluginMessageListener {
         }));
     }
     
+    /**
+     * Broadcast a punishment cache invalidation (scope: ban, ipban, mute, ipmute)
+     */
+    public void broadcastInvalidate(String scope, String key) {
+        if (!enabled || key == null) return;
+        
+        syncQueue.offer(new SyncMessage("INVALIDATE", writer -> {
+            writer.writeUTF(scope);
+            writer.writeUTF(key);
+        }));
+    }
+    
+    /**
+     * Broadcast invalidations for every cache entry a new punishment affects
+     */
+    public void broadcastPunishment(Punishment punishment) {
+        String prefix = punishment.getType().isBanType() ? "ban" : punishment.getType().isMuteType() ? "mute" : null;
+        if (prefix == null) return;
+        
+        if (punishment.getTargetUUID() != null) {
+            broadcastInvalidate(prefix, punishment.getTargetUUID().toString());
+        }
+        if (punishment.isIpBased()) {
+            broadcastInvalidate("ip" + prefix, punishment.getTargetIP());
+        }
+    }
+    
     /**
      * Broadcast player join with risk score
      */
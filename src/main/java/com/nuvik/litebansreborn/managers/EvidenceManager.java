@@ -97,7 +97,7 @@ public class EvidenceManager {
      * Add evidence to a punishment
      */
     public CompletableFuture<Boolean> addEvidence(long punishmentId, Evidence evidence) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try {
                 List<Evidence> list = evidenceCache.computeIfAbsent(punishmentId, k -> new ArrayList<>());
                 list.add(evidence);
@@ -118,7 +118,7 @@ public class EvidenceManager {
      * Get all evidence for a punishment
      */
     public CompletableFuture<List<Evidence>> getEvidence(long punishmentId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             // Check cache first
             if (evidenceCache.containsKey(punishmentId)) {
                 return new ArrayList<>(evidenceCache.get(punishmentId));
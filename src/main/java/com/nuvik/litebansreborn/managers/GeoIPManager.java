@@ -3,6 +3,7 @@ package com.nuvik.litebansreborn.managers;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.cache.SingleFlight;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -21,6 +22,8 @@ public class GeoIPManager {
     private final LiteBansReborn plugin;
     private final OkHttpClient httpClient;
     private final Map<String, GeoIPResult> cache = new ConcurrentHashMap<>();
+    // Joins going through at once from one IP share a single request
+    private final SingleFlight<String, GeoIPResult> inFlight = new SingleFlight<>();
     
     public GeoIPManager(LiteBansReborn plugin) {
         this.plugin = plugin;
@@ -44,7 +47,7 @@ public class GeoIPManager {
             return CompletableFuture.completedFuture(cached);
         }
         
-        return CompletableFuture.supplyAsync(() -> {
+        return inFlight.run(ip, () -> CompletableFuture.supplyAsync(() -> {
             try {
                 String provider = plugin.getConfigManager().getString("geoip.provider", "ip-api");
                 GeoIPResult result = null;
@@ -78,7 +81,7 @@ public class GeoIPManager {
                 plugin.debug("GeoIP lookup failed for " + ip + ": " + e.getMessage());
                 return null;
             }
-        });
+        }));
     }
     
     /**
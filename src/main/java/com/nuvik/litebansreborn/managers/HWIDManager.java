@@ -35,14 +35,12 @@ import java.util.logging.Level;
 public class HWIDManager {
 
     // ==================== CONSTANTS ====================
-    private static final int EXECUTOR_POOL_SIZE = 2;
     private static final int MAX_CACHE_SIZE = 1000;
     private static final long SAVE_DEBOUNCE_TICKS = 20L * 10; // 10 seconds
     private static final String DATA_FILE_NAME = "hwid_fingerprints.json";
     
     // ==================== FIELDS ====================
     private final LiteBansReborn plugin;
-    private final ExecutorService hwidExecutor;
     private final Gson gson;
     private final File dataFile;
     
@@ -60,9 +58,6 @@ public class HWIDManager {
     public HWIDManager(LiteBansReborn plugin) {
         this.plugin = plugin;
         
-        this.hwidExecutor = Executors.newFixedThreadPool(EXECUTOR_POOL_SIZE,
-            r -> new Thread(r, "LiteBansReborn-HWID-" + System.currentTimeMillis() % 1000));
-        
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.dataFile = new File(plugin.getDataFolder(), DATA_FILE_NAME);
         
@@ -247,7 +242,7 @@ public class HWIDManager {
      * Check if player's HWID is banned (async, non-blocking)
      */
     public CompletableFuture<HWIDBan> checkBanned(UUID playerUUID) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             String hwid = hwidCache.get(playerUUID);
             if (hwid == null) {
                 hwid = loadHWID(playerUUID);
@@ -260,14 +255,14 @@ public class HWIDManager {
             if (hwid == null) return null;
             
             return getHWIDBan(hwid);
-        }, hwidExecutor);
+        });
     }
 
     /**
      * Ban by HWID (with proper connection handling)
      */
     public CompletableFuture<Boolean> banHWID(String hwid, String reason, UUID bannedBy, String bannedByName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             String sql = "INSERT INTO " + plugin.getDatabaseManager().getTable("hwid_bans") +
                 " (hwid, reason, banned_by_uuid, banned_by_name, timestamp) VALUES (?, ?, ?, ?, ?)";
             
@@ -287,14 +282,14 @@ public class HWIDManager {
                 plugin.log(Level.SEVERE, "Failed to ban HWID: " + e.getMessage());
                 return false;
             }
-        }, hwidExecutor);
+        });
     }
 
     /**
      * Unban HWID (with proper connection handling)
      */
     public CompletableFuture<Boolean> unbanHWID(String hwid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             String sql = "DELETE FROM " + plugin.getDatabaseManager().getTable("hwid_bans") + " WHERE hwid = ?";
             
             try (Connection conn = plugin.getDatabaseManager().getConnection();
@@ -311,14 +306,14 @@ public class HWIDManager {
                 plugin.log(Level.WARNING, "Failed to unban HWID: " + e.getMessage());
                 return false;
             }
-        }, hwidExecutor);
+        });
     }
 
     /**
      * Find accounts linked to same HWID (queries database for completeness)
      */
     public CompletableFuture<List<UUID>> findLinkedAccounts(UUID playerUUID) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             String hwid = hwidCache.get(playerUUID);
             if (hwid == null) {
                 hwid = loadHWID(playerUUID);
@@ -336,7 +331,7 @@ public class HWIDManager {
             
             // Query database for complete results
             return findLinkedAccountsFromDB(hwid, playerUUID);
-        }, hwidExecutor);
+        });
     }
     
     private List<UUID> findLinkedAccountsFromDB(String hwid, UUID excludeUUID) {
@@ -365,7 +360,7 @@ public class HWIDManager {
      * Find similar fingerprints (potential alts)
      */
     public CompletableFuture<List<Map.Entry<UUID, Integer>>> findSimilarFingerprints(UUID playerUUID, int minScore) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             List<Map.Entry<UUID, Integer>> results = new ArrayList<>();
             
             PlayerFingerprint target = fingerprintCache.get(playerUUID);
@@ -382,7 +377,7 @@ public class HWIDManager {
             
             results.sort((a, b) -> b.getValue().compareTo(a.getValue()));
             return results;
-        }, hwidExecutor);
+        });
     }
 
     public PlayerFingerprint getFingerprint(UUID playerUUID) {
@@ -437,7 +432,7 @@ public class HWIDManager {
     }
 
     private void saveHWID(UUID playerUUID, String hwid) {
-        hwidExecutor.execute(() -> {
+        plugin.getDatabaseManager().runAsync(() -> {
             String table = plugin.getDatabaseManager().getTable("hwid_data");
             long now = System.currentTimeMillis();
             
@@ -611,11 +606,5 @@ public class HWIDManager {
     
     public void shutdown() {
         saveData();
-        hwidExecutor.shutdownNow();
-        try {
-            hwidExecutor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException ignored) {
-            Thread.currentThread().interrupt();
-        }
     }
 }
@@ -1,12 +1,14 @@
 package com.nuvik.litebansreborn.managers;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.database.PageCursor;
+import com.nuvik.litebansreborn.models.Page;
 import com.nuvik.litebansreborn.models.Punishment;
-import com.nuvik.litebansreborn.models.PunishmentType;
+import com.nuvik.litebansreborn.models.PunishmentSummary;
+import com.nuvik.litebansreborn.storage.PunishmentFilter;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
 
-import java.sql.*;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -23,157 +25,83 @@ public class HistoryManager {
     }
     
     /**
-     * Get all punishments for a player
+     * Get all punishments for a player (live table only, see {@link #getPlayerHistory(UUID, boolean)})
      */
     public CompletableFuture<List<Punishment>> getPlayerHistory(UUID uuid) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE target_uuid = ? ORDER BY created_at DESC";
-            
-            List<Punishment> history = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, uuid.toString());
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        history.add(parsePunishment(rs));
-                    }
-                }
-            }
-            return history;
-        });
+        return getPlayerHistory(uuid, false);
+    }
+    
+    /**
+     * Get all punishments for a player, optionally including archived ones
+     */
+    public CompletableFuture<List<Punishment>> getPlayerHistory(UUID uuid, boolean includeArchived) {
+        PunishmentFilter filter = new PunishmentFilter.Builder()
+                .targetUUID(uuid)
+                .includeArchived(includeArchived)
+                .build();
+        return plugin.getDatabaseManager().supplyAsync(() -> store().find(filter, 0, 0));
     }
     
     /**
      * Get player history with pagination
      */
     public CompletableFuture<List<Punishment>> getPlayerHistory(UUID uuid, int page, int perPage) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE target_uuid = ? ORDER BY created_at DESC LIMIT ? OFFSET ?";
-            
-            List<Punishment> history = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, uuid.toString());
-                stmt.setInt(2, perPage);
-                stmt.setInt(3, (page - 1) * perPage);
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        history.add(parsePunishment(rs));
-                    }
-                }
-            }
-            return history;
-        });
+        PunishmentFilter filter = new PunishmentFilter.Builder().targetUUID(uuid).build();
+        return plugin.getDatabaseManager().supplyAsync(() -> store().find(filter, (page - 1) * perPage, perPage));
+    }
+    
+    /**
+     * Get player history, newest first, continuing after a cursor (null for the first page)
+     */
+    public CompletableFuture<Page<Punishment>> getPlayerHistory(UUID uuid, String cursor, int limit) {
+        return getPlayerHistory(uuid, cursor, limit, false);
+    }
+    
+    /**
+     * Cursor-paginated player history, optionally including archived punishments
+     */
+    public CompletableFuture<Page<Punishment>> getPlayerHistory(UUID uuid, String cursor, int limit, boolean includeArchived) {
+        // Decode up front so a bad cursor fails the caller instead of the executor
+        PageCursor.decode(cursor);
+        PunishmentFilter filter = new PunishmentFilter.Builder()
+                .targetUUID(uuid)
+                .includeArchived(includeArchived)
+                .build();
+        return plugin.getDatabaseManager().supplyAsync(() -> store().findPage(filter, cursor, limit));
     }
     
     /**
      * Get total history count for a player
      */
     public CompletableFuture<Integer> getPlayerHistoryCount(UUID uuid) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT COUNT(*) FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE target_uuid = ?";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, uuid.toString());
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getInt(1);
-                    }
-                }
-            }
-            return 0;
-        });
+        PunishmentFilter filter = new PunishmentFilter.Builder().targetUUID(uuid).build();
+        return plugin.getDatabaseManager().supplyAsync(() -> store().count(filter));
     }
     
     /**
      * Get all punishments issued by a staff member
      */
     public CompletableFuture<List<Punishment>> getStaffHistory(UUID staffUUID) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE executor_uuid = ? ORDER BY created_at DESC";
-            
-            List<Punishment> history = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, staffUUID.toString());
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        history.add(parsePunishment(rs));
-                    }
-                }
-            }
-            return history;
-        });
+        PunishmentFilter filter = new PunishmentFilter.Builder().executorUUID(staffUUID).build();
+        return plugin.getDatabaseManager().supplyAsync(() -> store().find(filter, 0, 0));
     }
     
     /**
      * Get staff history with pagination
      */
     public CompletableFuture<List<Punishment>> getStaffHistory(UUID staffUUID, int page, int perPage) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE executor_uuid = ? ORDER BY created_at DESC LIMIT ? OFFSET ?";
-            
-            List<Punishment> history = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, staffUUID.toString());
-                stmt.setInt(2, perPage);
-                stmt.setInt(3, (page - 1) * perPage);
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        history.add(parsePunishment(rs));
-                    }
-                }
-            }
-            return history;
-        });
+        PunishmentFilter filter = new PunishmentFilter.Builder().executorUUID(staffUUID).build();
+        return plugin.getDatabaseManager().supplyAsync(() -> store().find(filter, (page - 1) * perPage, perPage));
     }
     
     /**
      * Rollback all punishments by a staff member
      */
     public CompletableFuture<Integer> rollbackStaff(UUID staffUUID, UUID removedByUUID, String removedByName, Long sinceMillis) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql;
-            PreparedStatement stmt;
-            
-            if (sinceMillis != null && sinceMillis > 0) {
-                sql = "UPDATE " + plugin.getDatabaseManager().getTable("punishments") +
-                        " SET active = FALSE, removed_at = ?, removed_by_uuid = ?, removed_by_name = ?, " +
-                        "remove_reason = 'Staff rollback' " +
-                        "WHERE executor_uuid = ? AND active = TRUE AND created_at > ?";
-                stmt = conn.prepareStatement(sql);
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setString(2, removedByUUID.toString());
-                stmt.setString(3, removedByName);
-                stmt.setString(4, staffUUID.toString());
-                stmt.setTimestamp(5, Timestamp.from(Instant.now().minusMillis(sinceMillis)));
-            } else {
-                sql = "UPDATE " + plugin.getDatabaseManager().getTable("punishments") +
-                        " SET active = FALSE, removed_at = ?, removed_by_uuid = ?, removed_by_name = ?, " +
-                        "remove_reason = 'Staff rollback' " +
-                        "WHERE executor_uuid = ? AND active = TRUE";
-                stmt = conn.prepareStatement(sql);
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setString(2, removedByUUID.toString());
-                stmt.setString(3, removedByName);
-                stmt.setString(4, staffUUID.toString());
-            }
-            
-            int affected = stmt.executeUpdate();
-            stmt.close();
-            return affected;
-        }).thenApply(count -> {
+        PunishmentFilter filter = rollbackFilter(staffUUID, sinceMillis);
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                store().deactivate(filter, removedByUUID, removedByName, "Staff rollback")
+        ).thenApply(count -> {
             // Clear caches since punishments were removed
             plugin.getCacheManager().clearAll();
             return count;
@@ -184,166 +112,83 @@ public class HistoryManager {
      * Get count of rollback candidates
      */
     public CompletableFuture<Integer> getRollbackCount(UUID staffUUID, Long sinceMillis) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql;
-            PreparedStatement stmt;
-            
-            if (sinceMillis != null && sinceMillis > 0) {
-                sql = "SELECT COUNT(*) FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE executor_uuid = ? AND active = TRUE AND created_at > ?";
-                stmt = conn.prepareStatement(sql);
-                stmt.setString(1, staffUUID.toString());
-                stmt.setTimestamp(2, Timestamp.from(Instant.now().minusMillis(sinceMillis)));
-            } else {
-                sql = "SELECT COUNT(*) FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE executor_uuid = ? AND active = TRUE";
-                stmt = conn.prepareStatement(sql);
-                stmt.setString(1, staffUUID.toString());
-            }
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    int count = rs.getInt(1);
-                    stmt.close();
-                    return count;
-                }
-            }
-            stmt.close();
-            return 0;
-        });
+        PunishmentFilter filter = rollbackFilter(staffUUID, sinceMillis);
+        return plugin.getDatabaseManager().supplyAsync(() -> store().count(filter));
+    }
+    
+    private PunishmentFilter rollbackFilter(UUID staffUUID, Long sinceMillis) {
+        PunishmentFilter.Builder builder = new PunishmentFilter.Builder()
+                .executorUUID(staffUUID)
+                .active(true);
+        if (sinceMillis != null && sinceMillis > 0) {
+            builder.createdAfter(Instant.now().minusMillis(sinceMillis));
+        }
+        return builder.build();
     }
     
     /**
-     * Get a specific punishment by ID
+     * Get a specific punishment by ID (falls back to the archive)
      */
     public CompletableFuture<Punishment> getPunishment(long id) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE id = ?";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, id);
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return parsePunishment(rs);
-                    }
-                }
-            }
-            return null;
-        });
+        return plugin.getDatabaseManager().supplyAsync(() -> store().findById(id));
     }
     
     /**
      * Get punishment statistics
      */
     public CompletableFuture<PunishmentStats> getStats() {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
+        PunishmentFilter effective = new PunishmentFilter.Builder().effective().build();
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             PunishmentStats stats = new PunishmentStats();
-            
-            String sql = "SELECT type, COUNT(*) as count FROM " + 
-                    plugin.getDatabaseManager().getTable("punishments") +
-                    " GROUP BY type";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql);
-                 ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    String type = rs.getString("type");
-                    int count = rs.getInt("count");
-                    stats.setCounts(type, count);
-                }
-            }
-            
-            // Get active counts
-            sql = "SELECT type, COUNT(*) as count FROM " + 
-                    plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE active = TRUE AND (expires_at IS NULL OR expires_at > ?) GROUP BY type";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        String type = rs.getString("type");
-                        int count = rs.getInt("count");
-                        stats.setActiveCounts(type, count);
-                    }
-                }
-            }
-            
+            store().countByType(PunishmentFilter.ALL).forEach(stats::setCounts);
+            store().countByType(effective).forEach(stats::setActiveCounts);
             return stats;
         });
     }
     
     /**
-     * Parse a Punishment from ResultSet using centralized method
+     * Get all punishments with pagination and type filter
      */
-    private Punishment parsePunishment(ResultSet rs) throws SQLException {
-        return Punishment.fromResultSet(rs);
+    public CompletableFuture<List<Punishment>> getAllPunishments(String type, int page, int perPage) {
+        PunishmentFilter filter = typeFilter(type);
+        return plugin.getDatabaseManager().supplyAsync(() -> store().find(filter, (page - 1) * perPage, perPage));
     }
     
     /**
-     * Get all punishments with pagination and type filter
+     * Get all punishments with a type filter, newest first, continuing after a cursor (null for the first page)
      */
-    public CompletableFuture<List<Punishment>> getAllPunishments(String type, int page, int perPage) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql;
-            if (type == null || type.equals("all")) {
-                sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " ORDER BY created_at DESC LIMIT ? OFFSET ?";
-            } else {
-                sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE type LIKE ? ORDER BY created_at DESC LIMIT ? OFFSET ?";
-            }
-            
-            List<Punishment> history = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                if (type == null || type.equals("all")) {
-                    stmt.setInt(1, perPage);
-                    stmt.setInt(2, (page - 1) * perPage);
-                } else {
-                    stmt.setString(1, "%" + type + "%");
-                    stmt.setInt(2, perPage);
-                    stmt.setInt(3, (page - 1) * perPage);
-                }
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        history.add(parsePunishment(rs));
-                    }
-                }
-            }
-            return history;
-        });
+    public CompletableFuture<Page<Punishment>> getAllPunishments(String type, String cursor, int limit) {
+        PageCursor.decode(cursor);
+        PunishmentFilter filter = typeFilter(type);
+        return plugin.getDatabaseManager().supplyAsync(() -> store().findPage(filter, cursor, limit));
+    }
+    
+    /**
+     * Same listing as {@link #getAllPunishments(String, String, int)} using the lightweight summary projection
+     */
+    public CompletableFuture<Page<PunishmentSummary>> getPunishmentSummaries(String type, String cursor, int limit) {
+        PageCursor.decode(cursor);
+        PunishmentFilter filter = typeFilter(type);
+        return plugin.getDatabaseManager().supplyAsync(() -> store().findSummaries(filter, cursor, limit));
     }
     
     /**
      * Get total punishment count for pagination
      */
     public CompletableFuture<Integer> getTotalPunishmentCount(String type) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql;
-            if (type == null || type.equals("all")) {
-                sql = "SELECT COUNT(*) FROM " + plugin.getDatabaseManager().getTable("punishments");
-            } else {
-                sql = "SELECT COUNT(*) FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE type LIKE ?";
-            }
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                if (type != null && !type.equals("all")) {
-                    stmt.setString(1, "%" + type + "%");
-                }
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getInt(1);
-                    }
-                }
-            }
-            return 0;
-        });
+        PunishmentFilter filter = typeFilter(type);
+        return plugin.getDatabaseManager().supplyAsync(() -> store().count(filter));
+    }
+    
+    /**
+     * Type filter of the listings: "ban" matches every ban type, "all" or null everything
+     */
+    private static PunishmentFilter typeFilter(String type) {
+        return new PunishmentFilter.Builder().types(PunishmentFilter.typesMatching(type)).build();
+    }
+    
+    private PunishmentStore store() {
+        return plugin.getDatabaseManager().getPunishmentStore();
     }
     
     /**
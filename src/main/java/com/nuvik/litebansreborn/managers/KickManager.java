@@ -7,7 +7,6 @@ import com.nuvik.litebansreborn.models.PunishmentType;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.sql.*;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -54,37 +53,13 @@ public class KickManager {
         );
         target.kickPlayer(String.join("\n", kickScreen));
         
+        // Kicks are instant, no "active" state
+        punishment.setActive(false);
+        
         // Log to database async
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "INSERT INTO " + plugin.getDatabaseManager().getTable("punishments") +
-                    " (type, target_uuid, target_name, executor_uuid, executor_name, " +
-                    "reason, server, created_at, active, silent, ip_based) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                stmt.setString(1, PunishmentType.KICK.getId());
-                stmt.setString(2, targetUUID.toString());
-                stmt.setString(3, targetName);
-                stmt.setString(4, executorUUID.toString());
-                stmt.setString(5, executorName);
-                stmt.setString(6, finalReason);
-                stmt.setString(7, punishment.getServer());
-                stmt.setTimestamp(8, Timestamp.from(punishment.getCreatedAt()));
-                stmt.setBoolean(9, false); // Kicks are instant, no "active" state
-                stmt.setBoolean(10, silent);
-                stmt.setBoolean(11, false);
-                
-                stmt.executeUpdate();
-                
-                try (ResultSet rs = stmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        punishment.setId(rs.getLong(1));
-                    }
-                }
-            }
-            
-            return punishment;
-        }).thenApply(kick -> {
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().insert(punishment)
+        ).thenApply(kick -> {
             // Add punishment points
             if (plugin.getConfigManager().getBoolean("points.enabled")) {
                 plugin.getPointManager().addPoints(targetUUID,
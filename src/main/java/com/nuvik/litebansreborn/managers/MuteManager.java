@@ -2,15 +2,17 @@ package com.nuvik.litebansreborn.managers;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
 import com.nuvik.litebansreborn.config.MessagesManager;
+import com.nuvik.litebansreborn.database.PageCursor;
+import com.nuvik.litebansreborn.models.Page;
 import com.nuvik.litebansreborn.models.Punishment;
 import com.nuvik.litebansreborn.models.PunishmentType;
+import com.nuvik.litebansreborn.storage.PunishmentFilter;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
 import com.nuvik.litebansreborn.utils.TimeUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.sql.*;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -20,6 +22,11 @@ import java.util.concurrent.CompletableFuture;
  */
 public class MuteManager {
 
+    private static final PunishmentFilter ACTIVE_MUTES = new PunishmentFilter.Builder()
+            .types(PunishmentStore.ALL_MUTES)
+            .effective()
+            .build();
+
     private final LiteBansReborn plugin;
     
     public MuteManager(LiteBansReborn plugin) {
@@ -55,42 +62,14 @@ public class MuteManager {
                 expiresAt, silent, ipBased
         );
         
-        String finalReason = reason;
-        
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "INSERT INTO " + plugin.getDatabaseManager().getTable("punishments") +
-                    " (type, target_uuid, target_name, target_ip, executor_uuid, executor_name, " +
-                    "reason, server, created_at, expires_at, active, silent, ip_based) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                stmt.setString(1, punishment.getType().getId());
-                stmt.setString(2, targetUUID != null ? targetUUID.toString() : null);
-                stmt.setString(3, targetName);
-                stmt.setString(4, targetIP);
-                stmt.setString(5, executorUUID.toString());
-                stmt.setString(6, executorName);
-                stmt.setString(7, finalReason);
-                stmt.setString(8, punishment.getServer());
-                stmt.setTimestamp(9, Timestamp.from(punishment.getCreatedAt()));
-                stmt.setTimestamp(10, expiresAt != null ? Timestamp.from(expiresAt) : null);
-                stmt.setBoolean(11, true);
-                stmt.setBoolean(12, silent);
-                stmt.setBoolean(13, ipBased);
-                
-                stmt.executeUpdate();
-                
-                try (ResultSet rs = stmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        punishment.setId(rs.getLong(1));
-                    }
-                }
-            }
-            
-            return punishment;
-        }).thenApply(mute -> {
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().insert(punishment)
+        ).thenApply(mute -> {
             // Cache the mute
             plugin.getCacheManager().cacheMute(mute);
+            if (plugin.getCrossServerManager() != null) {
+                plugin.getCrossServerManager().broadcastPunishment(mute);
+            }
             
             // Notify the player if online
             Bukkit.getScheduler().runTask(plugin, () -> {
@@ -119,25 +98,15 @@ public class MuteManager {
      * Unmute a player
      */
     public CompletableFuture<Boolean> unmute(UUID targetUUID, UUID executorUUID, String executorName, String reason) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "UPDATE " + plugin.getDatabaseManager().getTable("punishments") +
-                    " SET active = FALSE, removed_at = ?, removed_by_uuid = ?, " +
-                    "removed_by_name = ?, remove_reason = ? " +
-                    "WHERE target_uuid = ? AND type IN ('mute', 'tempmute') AND active = TRUE";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setString(2, executorUUID.toString());
-                stmt.setString(3, executorName);
-                stmt.setString(4, reason);
-                stmt.setString(5, targetUUID.toString());
-                
-                int affected = stmt.executeUpdate();
-                return affected > 0;
-            }
-        }).thenApply(success -> {
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().deactivate(
+                        targetUUID, PunishmentStore.MUTES, executorUUID, executorName, reason) > 0
+        ).thenApply(success -> {
             if (success) {
                 plugin.getCacheManager().invalidateMute(targetUUID);
+                if (plugin.getCrossServerManager() != null) {
+                    plugin.getCrossServerManager().broadcastInvalidate("mute", targetUUID.toString());
+                }
                 
                 // Notify player with executor placeholder
                 Bukkit.getScheduler().runTask(plugin, () -> {
@@ -158,25 +127,15 @@ public class MuteManager {
      * Unmute an IP
      */
     public CompletableFuture<Boolean> unmuteIP(String ip, UUID executorUUID, String executorName, String reason) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "UPDATE " + plugin.getDatabaseManager().getTable("punishments") +
-                    " SET active = FALSE, removed_at = ?, removed_by_uuid = ?, " +
-                    "removed_by_name = ?, remove_reason = ? " +
-                    "WHERE target_ip = ? AND type = 'ipmute' AND active = TRUE";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setString(2, executorUUID.toString());
-                stmt.setString(3, executorName);
-                stmt.setString(4, reason);
-                stmt.setString(5, ip);
-                
-                int affected = stmt.executeUpdate();
-                return affected > 0;
-            }
-        }).thenApply(success -> {
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().deactivateByIp(
+                        ip, PunishmentStore.IP_MUTES, executorUUID, executorName, reason) > 0
+        ).thenApply(success -> {
             if (success) {
                 plugin.getCacheManager().invalidateIPMute(ip);
+                if (plugin.getCrossServerManager() != null) {
+                    plugin.getCrossServerManager().broadcastInvalidate("ipmute", ip);
+                }
             }
             return success;
         });
@@ -191,30 +150,46 @@ public class MuteManager {
             return CompletableFuture.completedFuture(cached);
         }
         
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE target_uuid = ? AND type IN ('mute', 'tempmute') AND active = TRUE " +
-                    "AND (expires_at IS NULL OR expires_at > ?) ORDER BY created_at DESC LIMIT 1";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, uuid.toString());
-                stmt.setTimestamp(2, Timestamp.from(Instant.now()));
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return parsePunishment(rs);
-                    }
-                }
-            }
-            return null;
-        }).thenApply(mute -> {
+        // Known clean - skip the database entirely
+        if (plugin.getCacheManager().isMuteClean(uuid)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long epoch = plugin.getCacheManager().getPunishmentEpoch();
+        
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().findActive(uuid, PunishmentStore.MUTES)
+        ).thenApply(mute -> {
             if (mute != null) {
                 plugin.getCacheManager().cacheMute(mute);
+            } else {
+                plugin.getCacheManager().markMuteClean(uuid, epoch);
             }
             return mute;
         });
     }
     
+    /**
+     * Check if a player is muted without loading the punishment (index-only existence check)
+     */
+    public CompletableFuture<Boolean> isMuted(UUID uuid) {
+        if (plugin.getCacheManager().getMute(uuid) != null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        if (plugin.getCacheManager().isMuteClean(uuid)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        long epoch = plugin.getCacheManager().getPunishmentEpoch();
+        
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().hasActive(uuid, PunishmentStore.MUTES)
+        ).thenApply(muted -> {
+            if (!muted) {
+                plugin.getCacheManager().markMuteClean(uuid, epoch);
+            }
+            return muted;
+        });
+    }
+    
     /**
      * Check if an IP is muted
      */
@@ -224,25 +199,19 @@ public class MuteManager {
             return CompletableFuture.completedFuture(cached);
         }
         
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE target_ip = ? AND type = 'ipmute' AND active = TRUE " +
-                    "AND (expires_at IS NULL OR expires_at > ?) ORDER BY created_at DESC LIMIT 1";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, ip);
-                stmt.setTimestamp(2, Timestamp.from(Instant.now()));
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return parsePunishment(rs);
-                    }
-                }
-            }
-            return null;
-        }).thenApply(mute -> {
+        // Known clean - skip the database entirely
+        if (plugin.getCacheManager().isIPMuteClean(ip)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long epoch = plugin.getCacheManager().getPunishmentEpoch();
+        
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().findActiveByIp(ip, PunishmentStore.IP_MUTES)
+        ).thenApply(mute -> {
             if (mute != null) {
                 plugin.getCacheManager().cacheMute(mute);
+            } else {
+                plugin.getCacheManager().markIPMuteClean(ip, epoch);
             }
             return mute;
         });
@@ -275,27 +244,18 @@ public class MuteManager {
      * Get all active mutes
      */
     public CompletableFuture<List<Punishment>> getActiveMutes(int page, int perPage) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE type IN ('mute', 'tempmute', 'ipmute') AND active = TRUE " +
-                    "AND (expires_at IS NULL OR expires_at > ?) " +
-                    "ORDER BY created_at DESC LIMIT ? OFFSET ?";
-            
-            List<Punishment> mutes = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setInt(2, perPage);
-                stmt.setInt(3, (page - 1) * perPage);
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        mutes.add(parsePunishment(rs));
-                    }
-                }
-            }
-            return mutes;
-        });
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().find(ACTIVE_MUTES, (page - 1) * perPage, perPage));
+    }
+    
+    /**
+     * Get active mutes, newest first, continuing after a cursor (null for the first page)
+     */
+    public CompletableFuture<Page<Punishment>> getActiveMutes(String cursor, int limit) {
+        // Decode up front so a bad cursor fails the caller instead of the executor
+        PageCursor.decode(cursor);
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().findPage(ACTIVE_MUTES, cursor, limit));
     }
     
     /**
@@ -365,10 +325,4 @@ public class MuteManager {
         }
     }
     
-    /**
-     * Parse a Punishment from ResultSet using centralized method
-     */
-    private Punishment parsePunishment(ResultSet rs) throws SQLException {
-        return Punishment.fromResultSet(rs);
-    }
 }
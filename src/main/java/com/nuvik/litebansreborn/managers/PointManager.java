@@ -2,10 +2,9 @@ package com.nuvik.litebansreborn.managers;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
 
-import java.sql.*;
-import java.time.Instant;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 /**
  * Point Manager - Handles punishment point system
@@ -22,23 +21,9 @@ public class PointManager {
      * Add points to a player
      */
     public CompletableFuture<Double> addPoints(UUID uuid, double points) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            // First get current points
-            double current = getPointsSync(conn, uuid);
-            double newTotal = current + points;
-            
-            // Update points
-            String sql = "UPDATE " + plugin.getDatabaseManager().getTable("players") +
-                    " SET punishment_points = ? WHERE uuid = ?";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setDouble(1, newTotal);
-                stmt.setString(2, uuid.toString());
-                stmt.executeUpdate();
-            }
-            
-            return newTotal;
-        }).thenCompose(total -> {
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPlayerStore().addPoints(uuid, points)
+        ).thenCompose(total -> {
             // Check thresholds
             checkThresholds(uuid, total);
             return CompletableFuture.completedFuture(total);
@@ -49,64 +34,24 @@ public class PointManager {
      * Remove points from a player
      */
     public CompletableFuture<Double> removePoints(UUID uuid, double points) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            double current = getPointsSync(conn, uuid);
-            double newTotal = Math.max(0, current - points);
-            
-            String sql = "UPDATE " + plugin.getDatabaseManager().getTable("players") +
-                    " SET punishment_points = ? WHERE uuid = ?";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setDouble(1, newTotal);
-                stmt.setString(2, uuid.toString());
-                stmt.executeUpdate();
-            }
-            
-            return newTotal;
-        });
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPlayerStore().addPoints(uuid, -points));
     }
     
     /**
      * Get points for a player
      */
     public CompletableFuture<Double> getPoints(UUID uuid) {
-        return plugin.getDatabaseManager().queryAsync(conn -> getPointsSync(conn, uuid));
-    }
-    
-    /**
-     * Get points synchronously (with connection)
-     */
-    private double getPointsSync(Connection conn, UUID uuid) throws SQLException {
-        String sql = "SELECT punishment_points FROM " + plugin.getDatabaseManager().getTable("players") +
-                " WHERE uuid = ?";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, uuid.toString());
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getDouble("punishment_points");
-                }
-            }
-        }
-        
-        return 0;
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPlayerStore().getPoints(uuid));
     }
     
     /**
      * Set points for a player
      */
     public CompletableFuture<Void> setPoints(UUID uuid, double points) {
-        return plugin.getDatabaseManager().executeAsync(conn -> {
-            String sql = "UPDATE " + plugin.getDatabaseManager().getTable("players") +
-                    " SET punishment_points = ? WHERE uuid = ?";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setDouble(1, Math.max(0, points));
-                stmt.setString(2, uuid.toString());
-                stmt.executeUpdate();
-            }
-        });
+        return plugin.getDatabaseManager().runAsync(() ->
+                plugin.getDatabaseManager().getPlayerStore().setPoints(uuid, points));
     }
     
     /**
@@ -116,24 +61,17 @@ public class PointManager {
         double decayPerDay = plugin.getConfigManager().getDouble("points.decay-per-day", 0.5);
         if (decayPerDay <= 0) return;
         
-        plugin.getDatabaseManager().executeAsync(conn -> {
-            // Calculate hourly decay (since this runs hourly)
-            double hourlyDecay = decayPerDay / 24.0;
-            
-            // Use CASE WHEN for cross-database compatibility instead of GREATEST/MAX
-            String sql = "UPDATE " + plugin.getDatabaseManager().getTable("players") +
-                    " SET punishment_points = CASE WHEN punishment_points - ? < 0 THEN 0 ELSE punishment_points - ? END " +
-                    "WHERE punishment_points > 0";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setDouble(1, hourlyDecay);
-                stmt.setDouble(2, hourlyDecay);
-                int affected = stmt.executeUpdate();
-                
-                if (affected > 0) {
-                    plugin.debug("Decayed points for " + affected + " players");
-                }
+        // Calculate hourly decay (since this runs hourly)
+        double hourlyDecay = decayPerDay / 24.0;
+        
+        plugin.getDatabaseManager().runAsync(() -> {
+            int affected = plugin.getDatabaseManager().getPlayerStore().decayPoints(hourlyDecay);
+            if (affected > 0) {
+                plugin.debug("Decayed points for " + affected + " players");
             }
+        }).exceptionally(ex -> {
+            plugin.log(Level.SEVERE, "Failed to decay points: " + ex.getMessage());
+            return null;
         });
     }
     
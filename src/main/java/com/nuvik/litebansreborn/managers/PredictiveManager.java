@@ -163,7 +163,7 @@ public class PredictiveManager {
      * Analyze a player and calculate risk score
      */
     public CompletableFuture<PlayerRiskProfile> analyzePlayer(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             PlayerRiskProfile profile = riskProfiles.computeIfAbsent(uuid, 
                 k -> loadOrCreateProfile(uuid));
             
@@ -1,6 +1,8 @@
 package com.nuvik.litebansreborn.managers;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.database.PageCursor;
+import com.nuvik.litebansreborn.models.Page;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
@@ -88,6 +90,45 @@ public class ReportManager {
             return reports;
         });
     }
+    
+    /**
+     * Get reports with a status filter, newest first, continuing after a cursor (null for the first page)
+     */
+    public CompletableFuture<Page<Report>> getAllReports(String status, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        boolean filtered = status != null && !status.equals("all");
+        return plugin.getDatabaseManager().queryAsync(conn -> {
+            List<String> conditions = new ArrayList<>();
+            if (filtered) {
+                conditions.add("status = ?");
+            }
+            if (after != null) {
+                conditions.add(PageCursor.CONDITION);
+            }
+            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("reports") +
+                    (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) +
+                    PageCursor.ORDER + " LIMIT ?";
+            
+            List<Report> reports = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                if (filtered) {
+                    stmt.setString(index++, status);
+                }
+                if (after != null) {
+                    index = after.bind(stmt, index);
+                }
+                stmt.setInt(index, limit + 1);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        reports.add(mapReport(rs));
+                    }
+                }
+            }
+            return Page.of(reports, limit, Report::getCreatedAt, Report::getId);
+        });
+    }
 
     /**
      * Get pending reports
@@ -85,7 +85,7 @@ public class RoleSyncManager {
             return CompletableFuture.completedFuture(false);
         }
 
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try {
                 // Get linked Discord ID
                 Long discordId = plugin.getVerificationManager().getDiscordId(minecraftUUID);
@@ -150,7 +150,7 @@ public class RoleSyncManager {
             return CompletableFuture.completedFuture(false);
         }
 
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try {
                 // Get linked Discord ID
                 Long discordId = plugin.getVerificationManager().getDiscordId(minecraftUUID);
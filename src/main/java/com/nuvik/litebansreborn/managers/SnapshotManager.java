@@ -1,74 +1,97 @@
 package com.nuvik.litebansreborn.managers;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.snapshot.ChatRing;
 import org.bukkit.entity.Player;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Snapshot Manager - keeps recent chat in memory and dumps it when a player is punished
+ *
+ * Chat goes into preallocated lock-free rings ({@link ChatRing}); lines are
+ * only formatted when a snapshot is written. With snapshots.per-world-buffers
+ * every world gets its own ring, so a busy world can't push another world's
+ * evidence out, and a snapshot covers the worlds the target spoke in.
+ */
 public class SnapshotManager {
 
+    private static final String GLOBAL_CHANNEL = "global";
+
     private final LiteBansReborn plugin;
-    private final ConcurrentLinkedDeque<String> globalChatBuffer;
+    private final Map<String, ChatRing> channels = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
     private final int bufferSize;
+    private final boolean perWorld;
     // Thread-safe formatters
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
     private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
 
     public SnapshotManager(LiteBansReborn plugin) {
         this.plugin = plugin;
         this.bufferSize = plugin.getConfigManager().getInt("snapshots.buffer-size", 100);
-        this.globalChatBuffer = new ConcurrentLinkedDeque<>();
+        this.perWorld = plugin.getConfigManager().getBoolean("snapshots.per-world-buffers", true);
     }
 
     public void addMessage(Player player, String message) {
-        if (!plugin.getConfigManager().getBoolean("snapshots.enabled", true)) return;
+        addMessage(perWorld ? player.getWorld().getName() : GLOBAL_CHANNEL,
+            player.getUniqueId(), player.getName(), message);
+    }
 
-        String entry = String.format("[%s] %s: %s", 
-            LocalDateTime.now().format(TIME_FORMATTER),
-            player.getName(), 
-            message
-        );
-        
-        globalChatBuffer.add(entry);
+    /**
+     * Record a chat line in a channel (e.g. a world or a chat plugin channel)
+     */
+    public void addMessage(String channel, UUID uuid, String name, String message) {
+        if (!plugin.getConfigManager().getBoolean("snapshots.enabled", true)) return;
         
-        // Trim buffer
-        while (globalChatBuffer.size() > bufferSize) {
-            globalChatBuffer.pollFirst(); // Remove oldest
-        }
+        channels.computeIfAbsent(channel, c -> new ChatRing(bufferSize))
+            .add(sequence.getAndIncrement(), System.currentTimeMillis(), uuid, name, message);
     }
 
     public void saveSnapshot(String targetName, String reason, String type) {
         if (!plugin.getConfigManager().getBoolean("snapshots.enabled", true)) return;
-
+        
+        // Capture now (just references), format off the main thread
+        List<String> sources = new ArrayList<>();
+        List<ChatRing.Line> lines = collectLines(targetName, sources);
+        Instant capturedAt = Instant.now();
+        
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
             try {
                 File folder = new File(plugin.getDataFolder(), "snapshots");
                 if (!folder.exists()) folder.mkdirs();
-
-                String timestamp = LocalDateTime.now().format(FILE_DATE_FORMATTER);
+                
+                String timestamp = LocalDateTime.ofInstant(capturedAt, ZoneId.systemDefault()).format(FILE_DATE_FORMATTER);
                 String filename = String.format("%s_%s_%s.txt", timestamp, targetName, type);
                 File file = new File(folder, filename);
-
+                
                 try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
                     writer.println("=== Punishment Snapshot ===");
                     writer.println("Target: " + targetName);
                     writer.println("Type: " + type);
                     writer.println("Reason: " + reason);
-                    writer.println("Time: " + new Date());
-                    writer.println("=== Chat Context (Last " + globalChatBuffer.size() + " messages) ===");
+                    writer.println("Time: " + Date.from(capturedAt));
+                    writer.println("=== Chat Context (Last " + lines.size() + " messages) ===");
                     writer.println("");
                     
-                    for (String line : globalChatBuffer) {
-                        writer.println(line);
+                    for (ChatRing.Line line : lines) {
+                        writer.println("[" + TIME_FORMATTER.format(Instant.ofEpochMilli(line.time())) + "] "
+                            + line.name() + ": " + line.message());
                     }
                     
                     writer.println("");
@@ -76,10 +99,34 @@ public class SnapshotManager {
                 }
                 
                 plugin.log(java.util.logging.Level.INFO, "Saved chat snapshot to " + filename);
-                
+            
             } catch (IOException e) {
                 plugin.log(java.util.logging.Level.SEVERE, "Failed to save chat snapshot: " + e.getMessage());
             }
         });
     }
+
+    /**
+     * Lines from every channel the target spoke in (all channels if none), oldest first
+     */
+    private List<ChatRing.Line> collectLines(String targetName, List<String> sources) {
+        for (Map.Entry<String, ChatRing> entry : channels.entrySet()) {
+            if (entry.getValue().containsPlayer(targetName)) {
+                sources.add(entry.getKey());
+            }
+        }
+        if (sources.isEmpty()) {
+            sources.addAll(channels.keySet());
+        }
+        sources.sort(Comparator.naturalOrder());
+        
+        List<ChatRing.Line> lines = new ArrayList<>();
+        for (String channel : sources) {
+            lines.addAll(channels.get(channel).lines());
+        }
+        if (sources.size() > 1) {
+            lines.sort(Comparator.comparingLong(ChatRing.Line::seq));
+        }
+        return lines;
+    }
 }
@@ -158,7 +158,7 @@ public class SocialNetworkManager {
     }
     
     private void recordIP(UUID uuid, String ip) {
-        CompletableFuture.runAsync(() -> {
+        plugin.getDatabaseManager().runAsync(() -> {
             // Check if exists first
             String checkSql = "SELECT times_seen FROM player_ips WHERE uuid = ? AND ip_address = ?";
             String insertSql = "INSERT INTO player_ips (uuid, ip_address, times_seen) VALUES (?, ?, 1)";
@@ -192,7 +192,7 @@ public class SocialNetworkManager {
     }
     
     private void checkForAlts(UUID uuid, String ip) {
-        CompletableFuture.runAsync(() -> {
+        plugin.getDatabaseManager().runAsync(() -> {
             String sql = "SELECT uuid FROM player_ips WHERE ip_address = ? AND uuid != ?";
             
             try (Connection conn = plugin.getDatabaseManager().getConnection();
@@ -227,7 +227,7 @@ public class SocialNetworkManager {
         UUID first = player1.compareTo(player2) < 0 ? player1 : player2;
         UUID second = player1.compareTo(player2) < 0 ? player2 : player1;
         
-        CompletableFuture.runAsync(() -> {
+        plugin.getDatabaseManager().runAsync(() -> {
             // Check if exists first
             String checkSql = "SELECT strength FROM player_relationships WHERE player1_uuid = ? AND player2_uuid = ? AND relation_type = ?";
             String insertSql = "INSERT INTO player_relationships (player1_uuid, player2_uuid, relation_type, strength) VALUES (?, ?, ?, 1)";
@@ -267,7 +267,7 @@ public class SocialNetworkManager {
      * Get all relationships for a player
      */
     public CompletableFuture<List<PlayerRelation>> getRelationships(UUID player) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             List<PlayerRelation> relations = new ArrayList<>();
             
             String sql = """
@@ -323,7 +323,7 @@ public class SocialNetworkManager {
             
             for (PlayerRelation relation : relations) {
                 // Check if the related player is banned
-                if (plugin.getBanManager().getActiveBan(relation.player()).join() != null) {
+                if (plugin.getBanManager().isBanned(relation.player()).join()) {
                     bannedAssociates.add(new PlayerRelation(
                         relation.player(),
                         RelationType.BANNED_ASSOCIATE,
@@ -192,7 +192,7 @@ public class TicketManager {
      * Create a new ticket
      */
     public CompletableFuture<Ticket> createTicket(UUID playerUUID, String playerName, TicketCategory category, String subject) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try {
                 Ticket ticket = new Ticket();
                 ticket.setPlayerUUID(playerUUID);
@@ -243,7 +243,7 @@ public class TicketManager {
      * Add message to ticket
      */
     public CompletableFuture<Boolean> addMessage(int ticketId, UUID authorUUID, String authorName, String message, boolean isStaff) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try {
                 TicketMessage msg = new TicketMessage();
                 msg.setTicketId(ticketId);
@@ -298,7 +298,7 @@ public class TicketManager {
      * Claim a ticket
      */
     public CompletableFuture<Boolean> claimTicket(int ticketId, UUID staffUUID, String staffName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try (Connection conn = plugin.getDatabaseManager().getConnection()) {
                 String sql = "UPDATE " + plugin.getDatabaseManager().getTable("tickets") +
                     " SET claimed_by_uuid = ?, claimed_by_name = ?, status = ?, updated_at = ? WHERE id = ?";
@@ -331,7 +331,7 @@ public class TicketManager {
      * Close a ticket
      */
     public CompletableFuture<Boolean> closeTicket(int ticketId, TicketStatus status) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try (Connection conn = plugin.getDatabaseManager().getConnection()) {
                 String sql = "UPDATE " + plugin.getDatabaseManager().getTable("tickets") +
                     " SET status = ?, closed_at = ?, updated_at = ? WHERE id = ?";
@@ -386,7 +386,7 @@ public class TicketManager {
      * Get open tickets
      */
     public CompletableFuture<List<Ticket>> getOpenTickets() {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             List<Ticket> tickets = new ArrayList<>();
             try (Connection conn = plugin.getDatabaseManager().getConnection()) {
                 String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("tickets") +
@@ -409,7 +409,7 @@ public class TicketManager {
      * Get player tickets
      */
     public CompletableFuture<List<Ticket>> getPlayerTickets(UUID playerUUID) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             List<Ticket> tickets = new ArrayList<>();
             try (Connection conn = plugin.getDatabaseManager().getConnection()) {
                 String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("tickets") +
@@ -439,7 +439,7 @@ public class TicketManager {
             return CompletableFuture.completedFuture(cached);
         }
 
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try (Connection conn = plugin.getDatabaseManager().getConnection()) {
                 String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("tickets") +
                     " WHERE id = ?";
@@ -195,7 +195,7 @@ public class VerificationManager {
      * Link Minecraft and Discord accounts
      */
     public CompletableFuture<Boolean> linkAccounts(UUID minecraftUUID, long discordId, String minecraftName, String discordName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try {
                 Connection conn = plugin.getDatabaseManager().getConnection();
                 
@@ -252,7 +252,7 @@ public class VerificationManager {
      * Unlink accounts
      */
     public CompletableFuture<Boolean> unlinkAccounts(UUID minecraftUUID) {
-        return CompletableFuture.supplyAsync(() -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             try {
                 Connection conn = plugin.getDatabaseManager().getConnection();
                 String sql = "DELETE FROM " + plugin.getDatabaseManager().getTable("verified_players") +
@@ -349,7 +349,7 @@ public class VerificationManager {
             vp.setMinecraftName(newName);
             
             // Update database
-            CompletableFuture.runAsync(() -> {
+            plugin.getDatabaseManager().runAsync(() -> {
                 try {
                     Connection conn = plugin.getDatabaseManager().getConnection();
                     String sql = "UPDATE " + plugin.getDatabaseManager().getTable("verified_players") +
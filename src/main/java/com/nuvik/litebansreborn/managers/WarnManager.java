@@ -4,16 +4,17 @@ import com.nuvik.litebansreborn.LiteBansReborn;
 import com.nuvik.litebansreborn.config.MessagesManager;
 import com.nuvik.litebansreborn.models.Punishment;
 import com.nuvik.litebansreborn.models.PunishmentType;
+import com.nuvik.litebansreborn.storage.PunishmentFilter;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
 import com.nuvik.litebansreborn.utils.TimeUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.sql.*;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 /**
  * Warn Manager - Handles all warning-related operations
@@ -44,38 +45,9 @@ public class WarnManager {
                 null, silent, false
         );
         
-        String finalReason = reason;
-        
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "INSERT INTO " + plugin.getDatabaseManager().getTable("punishments") +
-                    " (type, target_uuid, target_name, executor_uuid, executor_name, " +
-                    "reason, server, created_at, active, silent, ip_based) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                stmt.setString(1, PunishmentType.WARN.getId());
-                stmt.setString(2, targetUUID.toString());
-                stmt.setString(3, targetName);
-                stmt.setString(4, executorUUID.toString());
-                stmt.setString(5, executorName);
-                stmt.setString(6, finalReason);
-                stmt.setString(7, punishment.getServer());
-                stmt.setTimestamp(8, Timestamp.from(punishment.getCreatedAt()));
-                stmt.setBoolean(9, true);
-                stmt.setBoolean(10, silent);
-                stmt.setBoolean(11, false);
-                
-                stmt.executeUpdate();
-                
-                try (ResultSet rs = stmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        punishment.setId(rs.getLong(1));
-                    }
-                }
-            }
-            
-            return punishment;
-        }).thenCompose(warn -> {
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().insert(punishment)
+        ).thenCompose(warn -> {
             // Get warning count for auto-action check
             return getActiveWarningCount(targetUUID).thenApply(count -> {
                 // Store count for later use
@@ -123,38 +95,22 @@ public class WarnManager {
      */
     public CompletableFuture<Boolean> unwarn(UUID targetUUID, long warningId, 
                                               UUID executorUUID, String executorName) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql;
-            PreparedStatement stmt;
+        return plugin.getDatabaseManager().supplyAsync(() -> {
+            PunishmentStore store = plugin.getDatabaseManager().getPunishmentStore();
+            PunishmentFilter active = activeWarnings(targetUUID).build();
+            long id = warningId;
             
-            if (warningId > 0) {
-                // Remove specific warning
-                sql = "UPDATE " + plugin.getDatabaseManager().getTable("punishments") +
-                        " SET active = FALSE, removed_at = ?, removed_by_uuid = ?, removed_by_name = ? " +
-                        "WHERE id = ? AND target_uuid = ? AND type = 'warn' AND active = TRUE";
-                stmt = conn.prepareStatement(sql);
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setString(2, executorUUID.toString());
-                stmt.setString(3, executorName);
-                stmt.setLong(4, warningId);
-                stmt.setString(5, targetUUID.toString());
-            } else {
+            if (id <= 0) {
                 // Remove most recent warning
-                sql = "UPDATE " + plugin.getDatabaseManager().getTable("punishments") +
-                        " SET active = FALSE, removed_at = ?, removed_by_uuid = ?, removed_by_name = ? " +
-                        "WHERE id = (SELECT id FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE target_uuid = ? AND type = 'warn' AND active = TRUE " +
-                        "ORDER BY created_at DESC LIMIT 1)";
-                stmt = conn.prepareStatement(sql);
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                stmt.setString(2, executorUUID.toString());
-                stmt.setString(3, executorName);
-                stmt.setString(4, targetUUID.toString());
+                List<Punishment> newest = store.find(active, 0, 1);
+                if (newest.isEmpty()) {
+                    return false;
+                }
+                id = newest.get(0).getId();
             }
             
-            int affected = stmt.executeUpdate();
-            stmt.close();
-            return affected > 0;
+            PunishmentFilter filter = activeWarnings(targetUUID).id(id).build();
+            return store.deactivate(filter, executorUUID, executorName, null) > 0;
         });
     }
     
@@ -162,57 +118,23 @@ public class WarnManager {
      * Get active warning count for a player
      */
     public CompletableFuture<Integer> getActiveWarningCount(UUID uuid) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            int expiryDays = plugin.getConfigManager().getWarnExpiry();
-            String sql;
-            
-            if (expiryDays > 0) {
-                sql = "SELECT COUNT(*) FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE target_uuid = ? AND type = 'warn' AND active = TRUE " +
-                        "AND created_at > ?";
-            } else {
-                sql = "SELECT COUNT(*) FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE target_uuid = ? AND type = 'warn' AND active = TRUE";
-            }
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, uuid.toString());
-                if (expiryDays > 0) {
-                    stmt.setTimestamp(2, Timestamp.from(Instant.now().minusSeconds(expiryDays * 24L * 60L * 60L)));
-                }
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getInt(1);
-                    }
-                }
-            }
-            return 0;
-        });
+        int expiryDays = plugin.getConfigManager().getWarnExpiry();
+        PunishmentFilter.Builder builder = activeWarnings(uuid);
+        if (expiryDays > 0) {
+            builder.createdAfter(Instant.now().minusSeconds(expiryDays * 24L * 60L * 60L));
+        }
+        PunishmentFilter filter = builder.build();
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().count(filter));
     }
     
     /**
      * Get all warnings for a player
      */
     public CompletableFuture<List<Punishment>> getWarnings(UUID uuid) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
-            String sql = "SELECT * FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                    " WHERE target_uuid = ? AND type = 'warn' AND active = TRUE " +
-                    "ORDER BY created_at DESC";
-            
-            List<Punishment> warnings = new ArrayList<>();
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, uuid.toString());
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        warnings.add(parsePunishment(rs));
-                    }
-                }
-            }
-            return warnings;
-        });
+        PunishmentFilter filter = activeWarnings(uuid).build();
+        return plugin.getDatabaseManager().supplyAsync(() ->
+                plugin.getDatabaseManager().getPunishmentStore().find(filter, 0, 0));
     }
     
     /**
@@ -222,22 +144,29 @@ public class WarnManager {
         int expiryDays = plugin.getConfigManager().getWarnExpiry();
         if (expiryDays <= 0) return;
         
-        plugin.getDatabaseManager().executeAsync(conn -> {
-            String sql = "UPDATE " + plugin.getDatabaseManager().getTable("punishments") +
-                    " SET active = FALSE " +
-                    "WHERE type = 'warn' AND active = TRUE AND created_at < ?";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now().minusSeconds(expiryDays * 24L * 60L * 60L)));
-                int expired = stmt.executeUpdate();
-                
-                if (expired > 0) {
-                    plugin.debug("Expired " + expired + " old warnings");
-                }
+        PunishmentFilter filter = new PunishmentFilter.Builder()
+                .type(PunishmentType.WARN)
+                .active(true)
+                .createdBefore(Instant.now().minusSeconds(expiryDays * 24L * 60L * 60L))
+                .build();
+        plugin.getDatabaseManager().runAsync(() -> {
+            int expired = plugin.getDatabaseManager().getPunishmentStore().expire(filter);
+            if (expired > 0) {
+                plugin.debug("Expired " + expired + " old warnings");
             }
+        }).exceptionally(ex -> {
+            plugin.log(Level.SEVERE, "Failed to expire old warnings: " + ex.getMessage());
+            return null;
         });
     }
     
+    private static PunishmentFilter.Builder activeWarnings(UUID uuid) {
+        return new PunishmentFilter.Builder()
+                .targetUUID(uuid)
+                .type(PunishmentType.WARN)
+                .active(true);
+    }
+    
     /**
      * Check and execute auto-action
      */
@@ -312,11 +241,4 @@ public class WarnManager {
             plugin.getDiscordNotifier().sendWarnNotification(warn);
         }
     }
-    
-    /**
-     * Parse a Punishment from ResultSet using centralized method
-     */
-    private Punishment parsePunishment(ResultSet rs) throws SQLException {
-        return Punishment.fromResultSet(rs);
-    }
 }
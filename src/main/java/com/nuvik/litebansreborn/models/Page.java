@@ -0,0 +1,54 @@
+package com.nuvik.litebansreborn.models;
+
+import com.nuvik.litebansreborn.database.PageCursor;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a keyset-paginated listing (newest first)
+ *
+ * Pass {@link #getNextCursor()} back to the same listing method to fetch the
+ * following page; it is null on the last page.
+ */
+public class Page<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Build a page from rows fetched with LIMIT (limit + 1); the extra row only signals that more exist
+     */
+    public static <T> Page<T> of(List<T> rows, int limit, Function<T, Instant> createdAt, ToLongFunction<T> id) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be at least 1: " + limit);
+        }
+        if (rows.size() <= limit) {
+            return new Page<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        return new Page<>(items, new PageCursor(createdAt.apply(last), id.applyAsLong(last)).encode());
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.nuvik.litebansreborn.models;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lightweight punishment row for list views
+ *
+ * Carries only what listings display; the reason is truncated and the
+ * removal details are left out. Load the full {@link Punishment} by id when
+ * a single entry is opened.
+ */
+public class PunishmentSummary {
+
+    private final long id;
+    private final PunishmentType type;
+    private final UUID targetUUID;
+    private final String targetName;
+    private final UUID executorUUID;
+    private final String executorName;
+    private final String reason;
+    private final Instant createdAt;
+    private final Instant expiresAt;
+    private final boolean active;
+    private final boolean ipBased;
+
+    public PunishmentSummary(long id, PunishmentType type, UUID targetUUID, String targetName,
+                             UUID executorUUID, String executorName, String reason,
+                             Instant createdAt, Instant expiresAt, boolean active, boolean ipBased) {
+        this.id = id;
+        this.type = type;
+        this.targetUUID = targetUUID;
+        this.targetName = targetName;
+        this.executorUUID = executorUUID;
+        this.executorName = executorName;
+        this.reason = reason;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.active = active;
+        this.ipBased = ipBased;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public PunishmentType getType() {
+        return type;
+    }
+
+    public UUID getTargetUUID() {
+        return targetUUID;
+    }
+
+    public String getTargetName() {
+        return targetName;
+    }
+
+    public UUID getExecutorUUID() {
+        return executorUUID;
+    }
+
+    public String getExecutorName() {
+        return executorName;
+    }
+
+    /**
+     * Reason, truncated for display
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public boolean isIpBased() {
+        return ipBased;
+    }
+
+    public boolean isPermanent() {
+        return expiresAt == null;
+    }
+}
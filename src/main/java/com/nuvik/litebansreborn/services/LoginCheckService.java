@@ -0,0 +1,197 @@
+package com.nuvik.litebansreborn.services;
+
+import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.cache.CacheManager;
+import com.nuvik.litebansreborn.database.DatabaseManager;
+import com.nuvik.litebansreborn.database.PunishmentRowMapper;
+import com.nuvik.litebansreborn.database.PunishmentRowMapper.Projection;
+import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Login Check Service - resolves everything pre-login needs in one round trip
+ *
+ * UUID ban, IP ban and the IP-ban allow list are read with a single UNION
+ * query on one connection instead of three sequential lookups. Results are
+ * written back to the ban caches (including known-clean markers), and the
+ * database is skipped entirely when the caches can already answer.
+ */
+public class LoginCheckService {
+
+    private final LiteBansReborn plugin;
+
+    public LoginCheckService(LiteBansReborn plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Check whether a player may join
+     */
+    public CompletableFuture<LoginVerdict> check(UUID uuid, String ip) {
+        CacheManager cache = plugin.getCacheManager();
+
+        // A cached UUID ban decides the login on its own
+        Punishment cachedBan = cache.getBan(uuid);
+        if (cachedBan != null) {
+            return CompletableFuture.completedFuture(new LoginVerdict(cachedBan, null, false));
+        }
+
+        // Both keys known clean - nothing to ask the database
+        if (cache.isBanClean(uuid) && cache.isIPBanClean(ip)) {
+            return CompletableFuture.completedFuture(LoginVerdict.CLEAR);
+        }
+
+        long epoch = cache.getPunishmentEpoch();
+        if (plugin.getDatabaseManager().isMongo()) {
+            return checkStore(uuid, ip).thenApply(verdict -> {
+                populateCache(uuid, ip, verdict, epoch);
+                return verdict;
+            });
+        }
+
+        return plugin.getDatabaseManager().queryAsync(conn -> {
+            DatabaseManager db = plugin.getDatabaseManager();
+            String punishments = db.getTable("punishments");
+
+            // Allow-list status only matters next to an IP ban, so it rides along on that branch
+            String columns = PunishmentRowMapper.columns(Projection.FULL, "p");
+            String sql = "SELECT " + columns + ", 'uuid' AS match_kind, 0 AS allowed FROM " + punishments + " p" +
+                    " WHERE p.target_uuid = ? AND p.type IN ('ban', 'tempban') AND p.active = TRUE" +
+                    " AND (p.expires_at IS NULL OR p.expires_at > ?)" +
+                    " UNION ALL " +
+                    "SELECT " + columns + ", 'ip' AS match_kind," +
+                    " (SELECT COUNT(*) FROM " + db.getTable("allowed_players") + " a WHERE a.uuid = ?) AS allowed" +
+                    " FROM " + punishments + " p" +
+                    " WHERE p.target_ip = ? AND p.type = 'ipban' AND p.active = TRUE" +
+                    " AND (p.expires_at IS NULL OR p.expires_at > ?)" +
+                    " ORDER BY created_at DESC";
+
+            Timestamp now = Timestamp.from(Instant.now());
+            Punishment ban = null;
+            Punishment ipBan = null;
+            boolean allowed = false;
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, uuid.toString());
+                stmt.setTimestamp(2, now);
+                stmt.setString(3, uuid.toString());
+                stmt.setString(4, ip);
+                stmt.setTimestamp(5, now);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // Rows are newest first, keep the first match of each kind
+                    while (rs.next() && (ban == null || ipBan == null)) {
+                        if ("uuid".equals(rs.getString("match_kind"))) {
+                            if (ban == null) {
+                                ban = Punishment.fromResultSet(rs);
+                            }
+                        } else if (ipBan == null) {
+                            ipBan = Punishment.fromResultSet(rs);
+                            allowed = rs.getInt("allowed") > 0;
+                        }
+                    }
+                }
+            }
+            return new LoginVerdict(ban, ipBan, allowed);
+        }).thenApply(verdict -> {
+            populateCache(uuid, ip, verdict, epoch);
+            return verdict;
+        });
+    }
+
+    /**
+     * Store-backed check for non-SQL backends: two keyed reads, allow list only when IP banned
+     */
+    private CompletableFuture<LoginVerdict> checkStore(UUID uuid, String ip) {
+        DatabaseManager db = plugin.getDatabaseManager();
+        return db.supplyAsync(() -> {
+            PunishmentStore store = db.getPunishmentStore();
+            Punishment ban = store.findActive(uuid, PunishmentStore.BANS);
+            Punishment ipBan = store.findActiveByIp(ip, PunishmentStore.IP_BANS);
+            return new LoginVerdict(ban, ipBan, false);
+        }).thenCompose(verdict -> verdict.getIpBan() == null
+                ? CompletableFuture.completedFuture(verdict)
+                : plugin.getAltManager().isAllowed(uuid)
+                        .thenApply(allowed -> new LoginVerdict(verdict.getBan(), verdict.getIpBan(), allowed)));
+    }
+
+    private void populateCache(UUID uuid, String ip, LoginVerdict verdict, long epoch) {
+        CacheManager cache = plugin.getCacheManager();
+
+        if (verdict.getBan() != null) {
+            cache.cacheBan(verdict.getBan());
+        } else {
+            cache.markBanClean(uuid, epoch);
+        }
+
+        if (verdict.getIpBan() != null) {
+            cache.cacheBan(verdict.getIpBan());
+        } else {
+            cache.markIPBanClean(ip, epoch);
+        }
+    }
+
+    /**
+     * Result of a pre-login check
+     */
+    public static class LoginVerdict {
+
+        static final LoginVerdict CLEAR = new LoginVerdict(null, null, false);
+
+        private final Punishment ban;
+        private final Punishment ipBan;
+        private final boolean allowed;
+
+        LoginVerdict(Punishment ban, Punishment ipBan, boolean allowed) {
+            this.ban = ban;
+            this.ipBan = ipBan;
+            this.allowed = allowed;
+        }
+
+        /**
+         * Active ban on the player's UUID, or null
+         */
+        public Punishment getBan() {
+            return ban;
+        }
+
+        /**
+         * Active ban on the connecting IP, or null
+         */
+        public Punishment getIpBan() {
+            return ipBan;
+        }
+
+        /**
+         * Whether the player is on the IP-ban allow list (only resolved when an IP ban exists)
+         */
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * The punishment that blocks this login, or null if the player may join
+         */
+        public Punishment getDenyingPunishment() {
+            if (ban != null && ban.isActiveAndValid()) {
+                return ban;
+            }
+            if (ipBan != null && ipBan.isActiveAndValid() && !allowed) {
+                return ipBan;
+            }
+            return null;
+        }
+
+        public boolean isDenied() {
+            return getDenyingPunishment() != null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.nuvik.litebansreborn.snapshot;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Chat Ring - fixed-capacity, lock-free buffer of the most recent chat lines
+ *
+ * Lines are stored field by field in preallocated parallel arrays, so adding
+ * a message allocates nothing, never trims and never formats anything.
+ * Writers claim the next slot with one atomic increment; each slot carries a
+ * stamp (the line's sequence number) that is swapped to WRITING while the
+ * fields are stored, and readers retry a slot whose stamp changed under them.
+ * If two writers race for the same slot after a wrap-around, the line with
+ * the higher sequence number wins. {@link Line} objects are only built when
+ * a snapshot is saved.
+ */
+public final class ChatRing {
+
+    /**
+     * One chat line; seq orders lines across all rings of a manager
+     */
+    public record Line(long seq, long time, UUID uuid, String name, String message) {}
+
+    private static final long EMPTY = -1;
+    private static final long WRITING = -2;
+
+    private final AtomicLongArray stamps;
+    private final long[] times;
+    private final UUID[] uuids;
+    private final String[] names;
+    private final String[] messages;
+    private final AtomicLong next = new AtomicLong();
+
+    public ChatRing(int capacity) {
+        int size = Math.max(1, capacity);
+        this.stamps = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            stamps.set(i, EMPTY);
+        }
+        this.times = new long[size];
+        this.uuids = new UUID[size];
+        this.names = new String[size];
+        this.messages = new String[size];
+    }
+
+    public void add(long seq, long time, UUID uuid, String name, String message) {
+        int slot = (int) (next.getAndIncrement() % stamps.length());
+        while (true) {
+            long current = stamps.get(slot);
+            if (current == WRITING) {
+                // Another writer is storing four fields; that takes nanoseconds
+                Thread.onSpinWait();
+                continue;
+            }
+            if (current > seq) {
+                return;
+            }
+            if (stamps.compareAndSet(slot, current, WRITING)) {
+                break;
+            }
+        }
+        times[slot] = time;
+        uuids[slot] = uuid;
+        names[slot] = name;
+        messages[slot] = message;
+        stamps.set(slot, seq);
+    }
+
+    /**
+     * Lines currently held, oldest first
+     */
+    public List<Line> lines() {
+        List<Line> lines = new ArrayList<>(stamps.length());
+        for (int i = 0; i < stamps.length(); i++) {
+            Line line = read(i);
+            if (line != null) {
+                lines.add(line);
+            }
+        }
+        lines.sort(Comparator.comparingLong(Line::seq));
+        return lines;
+    }
+
+    /**
+     * Whether any held line was written by the given player
+     */
+    public boolean containsPlayer(String name) {
+        for (int i = 0; i < stamps.length(); i++) {
+            String held = nameAt(i);
+            if (held != null && held.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int capacity() {
+        return stamps.length();
+    }
+
+    /**
+     * Consistent copy of one slot, or null when it is empty
+     */
+    private Line read(int slot) {
+        while (true) {
+            long stamp = stamps.get(slot);
+            if (stamp == EMPTY) {
+                return null;
+            }
+            if (stamp == WRITING) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long time = times[slot];
+            UUID uuid = uuids[slot];
+            String name = names[slot];
+            String message = messages[slot];
+            VarHandle.acquireFence();
+            if (stamps.get(slot) == stamp) {
+                return new Line(stamp, time, uuid, name, message);
+            }
+        }
+    }
+
+    /**
+     * Name held in one slot, or null when it is empty
+     */
+    private String nameAt(int slot) {
+        while (true) {
+            long stamp = stamps.get(slot);
+            if (stamp == EMPTY) {
+                return null;
+            }
+            if (stamp == WRITING) {
+                Thread.onSpinWait();
+                continue;
+            }
+            String name = names[slot];
+            VarHandle.acquireFence();
+            if (stamps.get(slot) == stamp) {
+                return name;
+            }
+        }
+    }
+}
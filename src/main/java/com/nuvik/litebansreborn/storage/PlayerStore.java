@@ -0,0 +1,66 @@
+package com.nuvik.litebansreborn.storage;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Player Store - backend-neutral access to player records (names, IPs, country, points)
+ *
+ * All methods block; call them from the database executor.
+ * Failures surface as {@link StorageException}.
+ */
+public interface PlayerStore {
+
+    /**
+     * A player seen on the server
+     */
+    record KnownPlayer(UUID uuid, String name, Instant lastSeen) {}
+
+    /**
+     * Record a join: last name/IP, name history and IP history
+     */
+    void recordJoin(UUID uuid, String name, String ip, Instant joinedAt);
+
+    void setCountry(UUID uuid, String country);
+
+    /**
+     * IPs the player has joined from
+     */
+    List<String> getIps(UUID uuid);
+
+    /**
+     * Players that have joined from any of the IPs
+     */
+    List<KnownPlayer> findByIp(Collection<String> ips);
+
+    /**
+     * Country of a player last seen on the IP, or null
+     */
+    String findCountryByIp(String ip);
+
+    /**
+     * Players per known country
+     */
+    Map<String, Integer> countByCountry();
+
+    double getPoints(UUID uuid);
+
+    /**
+     * Add (or with a negative delta remove) punishment points, never going below zero
+     *
+     * @return the new total
+     */
+    double addPoints(UUID uuid, double delta);
+
+    void setPoints(UUID uuid, double points);
+
+    /**
+     * Take the amount off every player with points, never going below zero
+     *
+     * @return number of players updated
+     */
+    int decayPoints(double amount);
+}
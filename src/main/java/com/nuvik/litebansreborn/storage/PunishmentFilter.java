@@ -0,0 +1,219 @@
+package com.nuvik.litebansreborn.storage;
+
+import com.nuvik.litebansreborn.models.PunishmentType;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Punishment Filter - backend-neutral criteria for {@link PunishmentStore} queries
+ *
+ * Unset criteria match everything; set ones are combined with AND.
+ * Use the {@link Builder} to create one.
+ */
+public final class PunishmentFilter {
+
+    /**
+     * Matches every punishment
+     */
+    public static final PunishmentFilter ALL = new Builder().build();
+
+    private final Long id;
+    private final UUID targetUUID;
+    private final String targetName;
+    private final String targetIP;
+    private final UUID executorUUID;
+    private final Set<PunishmentType> types;
+    private final Boolean active;
+    private final boolean unexpired;
+    private final Boolean ipBased;
+    private final Instant createdAfter;
+    private final Instant createdBefore;
+    private final boolean includeArchived;
+
+    private PunishmentFilter(Builder builder) {
+        this.id = builder.id;
+        this.targetUUID = builder.targetUUID;
+        this.targetName = builder.targetName;
+        this.targetIP = builder.targetIP;
+        this.executorUUID = builder.executorUUID;
+        this.types = builder.types == null ? null
+                : builder.types.isEmpty() ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(builder.types));
+        this.active = builder.active;
+        this.unexpired = builder.unexpired;
+        this.ipBased = builder.ipBased;
+        this.createdAfter = builder.createdAfter;
+        this.createdBefore = builder.createdBefore;
+        this.includeArchived = builder.includeArchived;
+    }
+
+    /**
+     * Types whose id contains the given text, as the listings' type filter does
+     * ("ban" matches ban, tempban and ipban); null for "all" or no filter
+     */
+    public static Set<PunishmentType> typesMatching(String filter) {
+        if (filter == null || filter.equals("all")) {
+            return null;
+        }
+        Set<PunishmentType> types = EnumSet.noneOf(PunishmentType.class);
+        for (PunishmentType type : PunishmentType.values()) {
+            if (type.getId().contains(filter.toLowerCase())) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getTargetUUID() {
+        return targetUUID;
+    }
+
+    public String getTargetName() {
+        return targetName;
+    }
+
+    public String getTargetIP() {
+        return targetIP;
+    }
+
+    public UUID getExecutorUUID() {
+        return executorUUID;
+    }
+
+    /**
+     * Allowed types, null for any (an empty set matches nothing)
+     */
+    public Set<PunishmentType> getTypes() {
+        return types;
+    }
+
+    /**
+     * Required value of the active flag, null for either
+     */
+    public Boolean getActive() {
+        return active;
+    }
+
+    /**
+     * Whether only permanent or not yet expired punishments match
+     */
+    public boolean isUnexpired() {
+        return unexpired;
+    }
+
+    public Boolean getIpBased() {
+        return ipBased;
+    }
+
+    public Instant getCreatedAfter() {
+        return createdAfter;
+    }
+
+    public Instant getCreatedBefore() {
+        return createdBefore;
+    }
+
+    /**
+     * Also read punishments moved to the archive, where the backend has one
+     */
+    public boolean isIncludeArchived() {
+        return includeArchived;
+    }
+
+    public static class Builder {
+
+        private Long id;
+        private UUID targetUUID;
+        private String targetName;
+        private String targetIP;
+        private UUID executorUUID;
+        private Set<PunishmentType> types;
+        private Boolean active;
+        private boolean unexpired = false;
+        private Boolean ipBased;
+        private Instant createdAfter;
+        private Instant createdBefore;
+        private boolean includeArchived = false;
+
+        public Builder id(long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder targetUUID(UUID uuid) {
+            this.targetUUID = uuid;
+            return this;
+        }
+
+        public Builder targetName(String name) {
+            this.targetName = name;
+            return this;
+        }
+
+        public Builder targetIP(String ip) {
+            this.targetIP = ip;
+            return this;
+        }
+
+        public Builder executorUUID(UUID uuid) {
+            this.executorUUID = uuid;
+            return this;
+        }
+
+        public Builder types(Set<PunishmentType> types) {
+            this.types = types;
+            return this;
+        }
+
+        public Builder type(PunishmentType type) {
+            this.types = EnumSet.of(type);
+            return this;
+        }
+
+        public Builder active(boolean active) {
+            this.active = active;
+            return this;
+        }
+
+        /**
+         * Active and not expired, i.e. currently in effect
+         */
+        public Builder effective() {
+            this.active = true;
+            this.unexpired = true;
+            return this;
+        }
+
+        public Builder ipBased(boolean ipBased) {
+            this.ipBased = ipBased;
+            return this;
+        }
+
+        public Builder createdAfter(Instant instant) {
+            this.createdAfter = instant;
+            return this;
+        }
+
+        public Builder createdBefore(Instant instant) {
+            this.createdBefore = instant;
+            return this;
+        }
+
+        public Builder includeArchived(boolean includeArchived) {
+            this.includeArchived = includeArchived;
+            return this;
+        }
+
+        public PunishmentFilter build() {
+            return new PunishmentFilter(this);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.nuvik.litebansreborn.storage;
+
+import com.nuvik.litebansreborn.models.Page;
+import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.models.PunishmentSummary;
+import com.nuvik.litebansreborn.models.PunishmentType;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Punishment Store - backend-neutral access to punishments
+ *
+ * Every punishment read and write goes through here, so the configured
+ * backend is the only place punishments live.
+ *
+ * All methods block; call them from the database executor
+ * (DatabaseManager.supplyAsync / runAsync), never the main thread.
+ * Failures surface as {@link StorageException}. Listings are newest first
+ * (created_at, then id).
+ */
+public interface PunishmentStore {
+
+    Set<PunishmentType> BANS = EnumSet.of(PunishmentType.BAN, PunishmentType.TEMP_BAN);
+    Set<PunishmentType> IP_BANS = EnumSet.of(PunishmentType.IP_BAN);
+    Set<PunishmentType> MUTES = EnumSet.of(PunishmentType.MUTE, PunishmentType.TEMP_MUTE);
+    Set<PunishmentType> IP_MUTES = EnumSet.of(PunishmentType.IP_MUTE);
+    Set<PunishmentType> ALL_BANS = EnumSet.of(PunishmentType.BAN, PunishmentType.TEMP_BAN, PunishmentType.IP_BAN);
+    Set<PunishmentType> ALL_MUTES = EnumSet.of(PunishmentType.MUTE, PunishmentType.TEMP_MUTE, PunishmentType.IP_MUTE);
+
+    /**
+     * Punishments of one type created on one day (yyyy-MM-dd)
+     */
+    record DailyCount(String day, String type, int count) {}
+
+    /**
+     * Punishments issued by one staff member
+     */
+    record StaffCount(String name, int total, int bans, int mutes, int warns, int kicks) {}
+
+    // ==================== Writes ====================
+
+    /**
+     * Persist a new punishment and assign its id
+     */
+    Punishment insert(Punishment punishment);
+
+    /**
+     * Deactivate every active punishment matching the filter, recording who removed it
+     *
+     * @return number of punishments removed
+     */
+    int deactivate(PunishmentFilter filter, UUID removedByUUID, String removedByName, String reason);
+
+    /**
+     * Clear the active flag of every punishment matching the filter, without removal details
+     *
+     * @return number of punishments expired
+     */
+    int expire(PunishmentFilter filter);
+
+    default int deactivate(UUID uuid, Set<PunishmentType> types, UUID removedByUUID, String removedByName, String reason) {
+        return deactivate(new PunishmentFilter.Builder().targetUUID(uuid).types(types).active(true).build(),
+                removedByUUID, removedByName, reason);
+    }
+
+    default int deactivateByIp(String ip, Set<PunishmentType> types, UUID removedByUUID, String removedByName, String reason) {
+        return deactivate(new PunishmentFilter.Builder().targetIP(ip).types(types).active(true).build(),
+                removedByUUID, removedByName, reason);
+    }
+
+    // ==================== Lookups ====================
+
+    /**
+     * Newest active, unexpired punishment of the given types for a player, or null
+     */
+    Punishment findActive(UUID uuid, Set<PunishmentType> types);
+
+    /**
+     * Newest active, unexpired IP punishment of the given types for an address, or null
+     */
+    Punishment findActiveByIp(String ip, Set<PunishmentType> types);
+
+    /**
+     * Whether the player has any active, unexpired punishment of the given types
+     */
+    boolean hasActive(UUID uuid, Set<PunishmentType> types);
+
+    /**
+     * A punishment by id (live punishments first, then the archive), or null
+     */
+    Punishment findById(long id);
+
+    // ==================== Listings ====================
+
+    /**
+     * Matching punishments, skipping offset rows; limit < 1 returns all of them
+     */
+    List<Punishment> find(PunishmentFilter filter, int offset, int limit);
+
+    /**
+     * Matching punishments, continuing after a cursor (keyset pagination, null cursor for the first page)
+     */
+    Page<Punishment> findPage(PunishmentFilter filter, String cursor, int limit);
+
+    /**
+     * Same listing as {@link #findPage} with the lightweight summary projection
+     */
+    Page<PunishmentSummary> findSummaries(PunishmentFilter filter, String cursor, int limit);
+
+    int count(PunishmentFilter filter);
+
+    /**
+     * Matching punishments counted per type id
+     */
+    Map<String, Integer> countByType(PunishmentFilter filter);
+
+    // ==================== Analytics ====================
+
+    /**
+     * Punishments created since the given instant, per hour of the day (24 entries)
+     */
+    int[] countByHour(Instant since);
+
+    /**
+     * Punishments created since the given instant, per day and type, oldest day first
+     */
+    List<DailyCount> countByDay(Instant since);
+
+    /**
+     * Staff members (console excluded) with the most punishments issued
+     */
+    List<StaffCount> countByStaff(int limit);
+}
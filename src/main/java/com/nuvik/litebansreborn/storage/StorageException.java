@@ -0,0 +1,11 @@
+package com.nuvik.litebansreborn.storage;
+
+/**
+ * Unchecked wrapper for backend failures (SQLException, MongoException)
+ */
+public class StorageException extends RuntimeException {
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
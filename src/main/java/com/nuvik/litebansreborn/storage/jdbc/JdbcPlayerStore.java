@@ -0,0 +1,250 @@
+package com.nuvik.litebansreborn.storage.jdbc;
+
+import com.nuvik.litebansreborn.database.DatabaseManager;
+import com.nuvik.litebansreborn.database.PlayerDataWriteQueue;
+import com.nuvik.litebansreborn.storage.PlayerStore;
+import com.nuvik.litebansreborn.storage.StorageException;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC player store
+ *
+ * Join writes go through the write-behind queue when it is enabled.
+ */
+public class JdbcPlayerStore implements PlayerStore {
+
+    private final DatabaseManager database;
+
+    public JdbcPlayerStore(DatabaseManager database) {
+        this.database = database;
+    }
+
+    @Override
+    public void recordJoin(UUID uuid, String name, String ip, Instant joinedAt) {
+        PlayerDataWriteQueue writeQueue = database.getWriteQueue();
+        if (writeQueue != null) {
+            writeQueue.recordJoin(uuid, name, ip);
+            return;
+        }
+
+        Timestamp now = Timestamp.from(joinedAt);
+        try (Connection conn = database.getConnection()) {
+            String playerSql = database.getUpsertSQL("players",
+                    new String[]{"uuid", "last_known_name", "last_known_ip", "first_join", "last_seen"},
+                    new String[]{"last_known_name", "last_known_ip", "last_seen"},
+                    new String[]{"uuid"});
+            try (PreparedStatement stmt = conn.prepareStatement(playerSql)) {
+                stmt.setString(1, uuid.toString());
+                stmt.setString(2, name);
+                stmt.setString(3, ip);
+                stmt.setTimestamp(4, now);
+                stmt.setTimestamp(5, now);
+                // For MySQL/MariaDB, we need the update parameters
+                if (playerSql.contains("ON DUPLICATE KEY UPDATE")) {
+                    stmt.setString(6, name);
+                    stmt.setString(7, ip);
+                    stmt.setTimestamp(8, now);
+                }
+                stmt.executeUpdate();
+            }
+
+            upsertHistory(conn, "player_names", "name", uuid, name, now);
+            if (ip != null) {
+                upsertHistory(conn, "player_ips", "ip", uuid, ip, now);
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Failed to record join", e);
+        }
+    }
+
+    private void upsertHistory(Connection conn, String table, String column, UUID uuid, String value, Timestamp now)
+            throws SQLException {
+        String sql = database.getUpsertSQL(table,
+                new String[]{"uuid", column, "first_seen", "last_seen"},
+                new String[]{"last_seen"},
+                new String[]{"uuid", column});
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, uuid.toString());
+            stmt.setString(2, value);
+            stmt.setTimestamp(3, now);
+            stmt.setTimestamp(4, now);
+            if (sql.contains("ON DUPLICATE KEY UPDATE")) {
+                stmt.setTimestamp(5, now);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public void setCountry(UUID uuid, String country) {
+        PlayerDataWriteQueue writeQueue = database.getWriteQueue();
+        if (writeQueue != null) {
+            writeQueue.recordCountry(uuid, country);
+            return;
+        }
+
+        String sql = "UPDATE " + database.getTable("players") + " SET country = ? WHERE uuid = ?";
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, country);
+            stmt.setString(2, uuid.toString());
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new StorageException("Failed to update country", e);
+        }
+    }
+
+    @Override
+    public List<String> getIps(UUID uuid) {
+        String sql = "SELECT DISTINCT ip FROM " + database.getTable("player_ips") + " WHERE uuid = ?";
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, uuid.toString());
+            List<String> ips = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ips.add(rs.getString("ip"));
+                }
+            }
+            return ips;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to load IP history", e);
+        }
+    }
+
+    @Override
+    public List<KnownPlayer> findByIp(Collection<String> ips) {
+        if (ips.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT DISTINCT p.uuid, p.last_known_name, p.last_seen " +
+                "FROM " + database.getTable("players") + " p " +
+                "JOIN " + database.getTable("player_ips") + " pi ON p.uuid = pi.uuid " +
+                "WHERE pi.ip IN (" + String.join(", ", Collections.nCopies(ips.size(), "?")) + ")";
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String ip : ips) {
+                stmt.setString(index++, ip);
+            }
+            List<KnownPlayer> players = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp lastSeen = rs.getTimestamp("last_seen");
+                    players.add(new KnownPlayer(UUID.fromString(rs.getString("uuid")),
+                            rs.getString("last_known_name"), lastSeen != null ? lastSeen.toInstant() : null));
+                }
+            }
+            return players;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to look up players by IP", e);
+        }
+    }
+
+    @Override
+    public String findCountryByIp(String ip) {
+        String sql = "SELECT country FROM " + database.getTable("players") +
+                " WHERE last_known_ip = ? AND country IS NOT NULL LIMIT 1";
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, ip);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("country") : null;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Failed to look up country", e);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> countByCountry() {
+        String sql = "SELECT country, COUNT(*) as count FROM " + database.getTable("players") +
+                " WHERE country IS NOT NULL AND country != '' GROUP BY country ORDER BY count DESC";
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            Map<String, Integer> countries = new LinkedHashMap<>();
+            while (rs.next()) {
+                countries.put(rs.getString("country"), rs.getInt("count"));
+            }
+            return countries;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to count players by country", e);
+        }
+    }
+
+    // ==================== Points ====================
+
+    @Override
+    public double getPoints(UUID uuid) {
+        try (Connection conn = database.getConnection()) {
+            return getPoints(conn, uuid);
+        } catch (SQLException e) {
+            throw new StorageException("Failed to load points", e);
+        }
+    }
+
+    private double getPoints(Connection conn, UUID uuid) throws SQLException {
+        String sql = "SELECT punishment_points FROM " + database.getTable("players") + " WHERE uuid = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, uuid.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getDouble("punishment_points") : 0;
+            }
+        }
+    }
+
+    @Override
+    public double addPoints(UUID uuid, double delta) {
+        try (Connection conn = database.getConnection()) {
+            double total = Math.max(0, getPoints(conn, uuid) + delta);
+            setPoints(conn, uuid, total);
+            return total;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to update points", e);
+        }
+    }
+
+    @Override
+    public void setPoints(UUID uuid, double points) {
+        try (Connection conn = database.getConnection()) {
+            setPoints(conn, uuid, Math.max(0, points));
+        } catch (SQLException e) {
+            throw new StorageException("Failed to update points", e);
+        }
+    }
+
+    private void setPoints(Connection conn, UUID uuid, double points) throws SQLException {
+        String sql = "UPDATE " + database.getTable("players") + " SET punishment_points = ? WHERE uuid = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDouble(1, points);
+            stmt.setString(2, uuid.toString());
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public int decayPoints(double amount) {
+        // CASE WHEN for cross-database compatibility instead of GREATEST/MAX
+        String sql = "UPDATE " + database.getTable("players") +
+                " SET punishment_points = CASE WHEN punishment_points - ? < 0 THEN 0 ELSE punishment_points - ? END " +
+                "WHERE punishment_points > 0";
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDouble(1, amount);
+            stmt.setDouble(2, amount);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new StorageException("Failed to decay points", e);
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.nuvik.litebansreborn.storage.jdbc;
+
+import com.nuvik.litebansreborn.database.DatabaseManager;
+import com.nuvik.litebansreborn.database.PageCursor;
+import com.nuvik.litebansreborn.database.PunishmentRowMapper;
+import com.nuvik.litebansreborn.database.PunishmentRowMapper.Projection;
+import com.nuvik.litebansreborn.models.Page;
+import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.models.PunishmentSummary;
+import com.nuvik.litebansreborn.models.PunishmentType;
+import com.nuvik.litebansreborn.storage.PunishmentFilter;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
+import com.nuvik.litebansreborn.storage.StorageException;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * JDBC punishment store (MySQL, MariaDB, PostgreSQL, SQLite, H2)
+ */
+public class JdbcPunishmentStore implements PunishmentStore {
+
+    private final DatabaseManager database;
+
+    public JdbcPunishmentStore(DatabaseManager database) {
+        this.database = database;
+    }
+
+    private String table() {
+        return database.getTable("punishments");
+    }
+
+    @Override
+    public Punishment insert(Punishment punishment) {
+        String sql = "INSERT INTO " + table() +
+                " (type, target_uuid, target_name, target_ip, executor_uuid, executor_name, " +
+                "reason, server, created_at, expires_at, active, silent, ip_based) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, punishment.getType().getId());
+            stmt.setString(2, punishment.getTargetUUID() != null ? punishment.getTargetUUID().toString() : null);
+            stmt.setString(3, punishment.getTargetName());
+            stmt.setString(4, punishment.getTargetIP());
+            stmt.setString(5, punishment.getExecutorUUID().toString());
+            stmt.setString(6, punishment.getExecutorName());
+            stmt.setString(7, punishment.getReason());
+            stmt.setString(8, punishment.getServer());
+            stmt.setTimestamp(9, Timestamp.from(punishment.getCreatedAt()));
+            stmt.setTimestamp(10, punishment.getExpiresAt() != null ? Timestamp.from(punishment.getExpiresAt()) : null);
+            stmt.setBoolean(11, punishment.isActive());
+            stmt.setBoolean(12, punishment.isSilent());
+            stmt.setBoolean(13, punishment.isIpBased());
+
+            stmt.executeUpdate();
+
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    punishment.setId(rs.getLong(1));
+                }
+            }
+            return punishment;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to insert punishment", e);
+        }
+    }
+
+    @Override
+    public Punishment findActive(UUID uuid, Set<PunishmentType> types) {
+        return findActive("target_uuid", uuid.toString(), types);
+    }
+
+    @Override
+    public Punishment findActiveByIp(String ip, Set<PunishmentType> types) {
+        return findActive("target_ip", ip, types);
+    }
+
+    private Punishment findActive(String column, String key, Set<PunishmentType> types) {
+        String sql = PunishmentRowMapper.select(Projection.FULL, table()) +
+                " WHERE " + column + " = ? AND type IN " + placeholders(types) + " AND active = TRUE " +
+                "AND (expires_at IS NULL OR expires_at > ?) ORDER BY created_at DESC LIMIT 1";
+
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = bindKeyAndTypes(stmt, key, types);
+            stmt.setTimestamp(index, Timestamp.from(Instant.now()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? PunishmentRowMapper.mapFull(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Failed to look up active punishment", e);
+        }
+    }
+
+    @Override
+    public boolean hasActive(UUID uuid, Set<PunishmentType> types) {
+        try (Connection conn = database.getConnection()) {
+            return PunishmentRowMapper.exists(conn, table(),
+                    "target_uuid = ? AND type IN " + placeholders(types) +
+                            " AND active = TRUE AND (expires_at IS NULL OR expires_at > ?)",
+                    stmt -> {
+                        int index = bindKeyAndTypes(stmt, uuid.toString(), types);
+                        stmt.setTimestamp(index, Timestamp.from(Instant.now()));
+                    });
+        } catch (SQLException e) {
+            throw new StorageException("Failed to check active punishment", e);
+        }
+    }
+
+    @Override
+    public Punishment findById(long id) {
+        try (Connection conn = database.getConnection()) {
+            Punishment punishment = findById(conn, table(), id);
+            return punishment != null ? punishment : findById(conn, database.getTable("punishments_archive"), id);
+        } catch (SQLException e) {
+            throw new StorageException("Failed to load punishment", e);
+        }
+    }
+
+    private Punishment findById(Connection conn, String table, long id) throws SQLException {
+        String sql = PunishmentRowMapper.select(Projection.FULL, table) + " WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? PunishmentRowMapper.mapFull(rs) : null;
+            }
+        }
+    }
+
+    // ==================== Writes ====================
+
+    @Override
+    public int deactivate(PunishmentFilter filter, UUID removedByUUID, String removedByName, String reason) {
+        Where where = where(filter, null);
+        String sql = "UPDATE " + table() +
+                " SET active = FALSE, removed_at = ?, removed_by_uuid = ?, " +
+                "removed_by_name = ?, remove_reason = ?" + where.andActive();
+
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.from(Instant.now()));
+            stmt.setString(2, removedByUUID.toString());
+            stmt.setString(3, removedByName);
+            stmt.setString(4, reason);
+            where.bind(stmt, 5);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new StorageException("Failed to remove punishment", e);
+        }
+    }
+
+    @Override
+    public int expire(PunishmentFilter filter) {
+        Where where = where(filter, null);
+        String sql = "UPDATE " + table() + " SET active = FALSE" + where.andActive();
+
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            where.bind(stmt, 1);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new StorageException("Failed to expire punishments", e);
+        }
+    }
+
+    // ==================== Listings ====================
+
+    @Override
+    public List<Punishment> find(PunishmentFilter filter, int offset, int limit) {
+        Where where = where(filter, null);
+        String sql = union(filter, Projection.FULL, where) + " ORDER BY created_at DESC, id DESC" +
+                (limit >= 1 ? " LIMIT ? OFFSET ?" : "");
+
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = bindUnion(filter, where, stmt);
+            if (limit >= 1) {
+                stmt.setInt(index++, limit);
+                stmt.setInt(index, Math.max(0, offset));
+            }
+
+            List<Punishment> punishments = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    punishments.add(PunishmentRowMapper.mapFull(rs));
+                }
+            }
+            return punishments;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to load punishments", e);
+        }
+    }
+
+    @Override
+    public Page<Punishment> findPage(PunishmentFilter filter, String cursor, int limit) {
+        return page(filter, cursor, limit, Projection.FULL, PunishmentRowMapper::mapFull,
+                Punishment::getCreatedAt, Punishment::getId);
+    }
+
+    @Override
+    public Page<PunishmentSummary> findSummaries(PunishmentFilter filter, String cursor, int limit) {
+        return page(filter, cursor, limit, Projection.SUMMARY, PunishmentRowMapper::mapSummary,
+                PunishmentSummary::getCreatedAt, PunishmentSummary::getId);
+    }
+
+    private <T> Page<T> page(PunishmentFilter filter, String cursor, int limit, Projection projection,
+                             PunishmentRowMapper.RowMapper<T> mapper,
+                             Function<T, Instant> createdAt, ToLongFunction<T> id) {
+        Where where = where(filter, PageCursor.decode(cursor));
+        String sql = union(filter, projection, where) + PageCursor.ORDER + " LIMIT ?";
+
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = bindUnion(filter, where, stmt);
+            stmt.setInt(index, limit + 1);
+
+            List<T> rows = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+            return Page.of(rows, limit, createdAt, id);
+        } catch (SQLException e) {
+            throw new StorageException("Failed to load punishments", e);
+        }
+    }
+
+    @Override
+    public int count(PunishmentFilter filter) {
+        int total = 0;
+        for (int count : countByType(filter).values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Integer> countByType(PunishmentFilter filter) {
+        Where where = where(filter, null);
+        Map<String, Integer> counts = new HashMap<>();
+        try (Connection conn = database.getConnection()) {
+            for (String table : tables(filter)) {
+                String sql = "SELECT type, COUNT(*) as count FROM " + table + where.sql() + " GROUP BY type";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    where.bind(stmt, 1);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            counts.merge(rs.getString("type"), rs.getInt("count"), Integer::sum);
+                        }
+                    }
+                }
+            }
+            return counts;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to count punishments", e);
+        }
+    }
+
+    // ==================== Analytics ====================
+
+    @Override
+    public int[] countByHour(Instant since) {
+        DatabaseManager.DatabaseType dbType = database.getDatabaseType();
+        String sql;
+        if (dbType == DatabaseManager.DatabaseType.SQLITE) {
+            sql = "SELECT strftime('%H', created_at) as h, COUNT(*) as count FROM " + table() +
+                    " WHERE created_at > ? GROUP BY strftime('%H', created_at)";
+        } else if (dbType == DatabaseManager.DatabaseType.H2) {
+            // Use 'h' instead of 'hour' because 'hour' is a reserved word in H2
+            sql = "SELECT HOUR(created_at) as h, COUNT(*) as count FROM " + table() +
+                    " WHERE created_at > ? GROUP BY HOUR(created_at) ORDER BY h";
+        } else {
+            sql = "SELECT EXTRACT(HOUR FROM created_at) as h, COUNT(*) as count FROM " + table() +
+                    " WHERE created_at > ? GROUP BY EXTRACT(HOUR FROM created_at) ORDER BY h";
+        }
+
+        int[] hourly = new int[24];
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.from(since));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int hour = dbType == DatabaseManager.DatabaseType.SQLITE
+                            ? Integer.parseInt(rs.getString("h")) : rs.getInt("h");
+                    if (hour >= 0 && hour < 24) {
+                        hourly[hour] = rs.getInt("count");
+                    }
+                }
+            }
+            return hourly;
+        } catch (SQLException | NumberFormatException e) {
+            throw new StorageException("Failed to count punishments by hour", e);
+        }
+    }
+
+    @Override
+    public List<DailyCount> countByDay(Instant since) {
+        String sql = "SELECT DATE(created_at) as day, type, COUNT(*) as count FROM " + table() +
+                " WHERE created_at > ? GROUP BY DATE(created_at), type ORDER BY day";
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.from(since));
+            List<DailyCount> days = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    days.add(new DailyCount(rs.getString("day"), rs.getString("type"), rs.getInt("count")));
+                }
+            }
+            return days;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to count punishments by day", e);
+        }
+    }
+
+    @Override
+    public List<StaffCount> countByStaff(int limit) {
+        String sql = "SELECT executor_name, " +
+                "COUNT(*) as total, " +
+                "SUM(CASE WHEN type = 'ban' OR type = 'tempban' THEN 1 ELSE 0 END) as bans, " +
+                "SUM(CASE WHEN type = 'mute' OR type = 'tempmute' THEN 1 ELSE 0 END) as mutes, " +
+                "SUM(CASE WHEN type = 'warn' THEN 1 ELSE 0 END) as warns, " +
+                "SUM(CASE WHEN type = 'kick' THEN 1 ELSE 0 END) as kicks " +
+                "FROM " + table() +
+                " WHERE executor_name IS NOT NULL AND executor_name != 'Console' " +
+                "GROUP BY executor_name ORDER BY total DESC LIMIT ?";
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, limit);
+            List<StaffCount> staff = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    staff.add(new StaffCount(rs.getString("executor_name"), rs.getInt("total"), rs.getInt("bans"),
+                            rs.getInt("mutes"), rs.getInt("warns"), rs.getInt("kicks")));
+                }
+            }
+            return staff;
+        } catch (SQLException e) {
+            throw new StorageException("Failed to count punishments by staff", e);
+        }
+    }
+
+    // ==================== Filters ====================
+
+    /**
+     * " WHERE ..." for a filter (empty when it matches everything) and its parameters in order
+     */
+    private record Where(String sql, List<Object> params) {
+
+        String andActive() {
+            return (sql.isEmpty() ? " WHERE " : sql + " AND ") + "active = TRUE";
+        }
+
+        int bind(PreparedStatement stmt, int index) throws SQLException {
+            for (Object param : params) {
+                if (param instanceof Timestamp timestamp) {
+                    stmt.setTimestamp(index++, timestamp);
+                } else if (param instanceof Long value) {
+                    stmt.setLong(index++, value);
+                } else {
+                    stmt.setString(index++, (String) param);
+                }
+            }
+            return index;
+        }
+    }
+
+    private static Where where(PunishmentFilter filter, PageCursor after) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+
+        if (filter.getId() != null) {
+            conditions.add("id = ?");
+            params.add(filter.getId());
+        }
+        if (filter.getTargetUUID() != null) {
+            conditions.add("target_uuid = ?");
+            params.add(filter.getTargetUUID().toString());
+        }
+        if (filter.getTargetName() != null) {
+            conditions.add("target_name = ?");
+            params.add(filter.getTargetName());
+        }
+        if (filter.getTargetIP() != null) {
+            conditions.add("target_ip = ?");
+            params.add(filter.getTargetIP());
+        }
+        if (filter.getExecutorUUID() != null) {
+            conditions.add("executor_uuid = ?");
+            params.add(filter.getExecutorUUID().toString());
+        }
+        if (filter.getTypes() != null) {
+            if (filter.getTypes().isEmpty()) {
+                conditions.add("1 = 0");
+            } else {
+                conditions.add("type IN " + placeholders(filter.getTypes()));
+                for (PunishmentType type : filter.getTypes()) {
+                    params.add(type.getId());
+                }
+            }
+        }
+        if (filter.getActive() != null) {
+            conditions.add(filter.getActive() ? "active = TRUE" : "active = FALSE");
+        }
+        if (filter.isUnexpired()) {
+            conditions.add("(expires_at IS NULL OR expires_at > ?)");
+            params.add(Timestamp.from(Instant.now()));
+        }
+        if (filter.getIpBased() != null) {
+            conditions.add(filter.getIpBased() ? "ip_based = TRUE" : "ip_based = FALSE");
+        }
+        if (filter.getCreatedAfter() != null) {
+            conditions.add("created_at > ?");
+            params.add(Timestamp.from(filter.getCreatedAfter()));
+        }
+        if (filter.getCreatedBefore() != null) {
+            conditions.add("created_at < ?");
+            params.add(Timestamp.from(filter.getCreatedBefore()));
+        }
+        if (after != null) {
+            Timestamp createdAt = Timestamp.from(after.getCreatedAt());
+            conditions.add(PageCursor.CONDITION);
+            params.add(createdAt);
+            params.add(createdAt);
+            params.add(after.getId());
+        }
+        return new Where(conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions), params);
+    }
+
+    private List<String> tables(PunishmentFilter filter) {
+        return filter.isIncludeArchived()
+                ? List.of(table(), database.getTable("punishments_archive"))
+                : List.of(table());
+    }
+
+    /**
+     * SELECT over the live table, or the live table UNION ALL the archive
+     */
+    private String union(PunishmentFilter filter, Projection projection, Where where) {
+        List<String> selects = new ArrayList<>();
+        for (String table : tables(filter)) {
+            selects.add(PunishmentRowMapper.select(projection, table) + where.sql());
+        }
+        return String.join(" UNION ALL ", selects);
+    }
+
+    private int bindUnion(PunishmentFilter filter, Where where, PreparedStatement stmt) throws SQLException {
+        int index = 1;
+        for (int branch = 0; branch < tables(filter).size(); branch++) {
+            index = where.bind(stmt, index);
+        }
+        return index;
+    }
+
+    private static String placeholders(Set<PunishmentType> types) {
+        return "(" + String.join(", ", Collections.nCopies(types.size(), "?")) + ")";
+    }
+
+    private static int bindKeyAndTypes(PreparedStatement stmt, String key, Set<PunishmentType> types) throws SQLException {
+        int index = 1;
+        stmt.setString(index++, key);
+        for (PunishmentType type : types) {
+            stmt.setString(index++, type.getId());
+        }
+        return index;
+    }
+}
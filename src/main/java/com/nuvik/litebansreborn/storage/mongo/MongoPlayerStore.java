@@ -0,0 +1,185 @@
+package com.nuvik.litebansreborn.storage.mongo;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.nuvik.litebansreborn.storage.PlayerStore;
+import com.nuvik.litebansreborn.storage.StorageException;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * MongoDB player store
+ *
+ * Name and IP history live as sets on the player document; one upsert per join.
+ * Points are updated with pipeline updates so concurrent changes are not lost.
+ */
+public class MongoPlayerStore implements PlayerStore {
+
+    private static final String POINTS = "punishment_points";
+
+    private final MongoStorage storage;
+
+    public MongoPlayerStore(MongoStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void recordJoin(UUID uuid, String name, String ip, Instant joinedAt) {
+        Date now = Date.from(joinedAt);
+        List<Bson> updates = new ArrayList<>();
+        updates.add(Updates.set("name", name));
+        updates.add(Updates.set("last_seen", now));
+        updates.add(Updates.setOnInsert("first_join", now));
+        updates.add(Updates.addToSet("names", name));
+        if (ip != null) {
+            updates.add(Updates.set("ip", ip));
+            updates.add(Updates.addToSet("ips", ip));
+        }
+
+        try {
+            storage.players().updateOne(Filters.eq("_id", uuid.toString()),
+                    Updates.combine(updates), new UpdateOptions().upsert(true));
+        } catch (MongoException e) {
+            throw new StorageException("Failed to record join", e);
+        }
+    }
+
+    @Override
+    public void setCountry(UUID uuid, String country) {
+        try {
+            storage.players().updateOne(Filters.eq("_id", uuid.toString()), Updates.set("country", country));
+        } catch (MongoException e) {
+            throw new StorageException("Failed to update country", e);
+        }
+    }
+
+    @Override
+    public List<String> getIps(UUID uuid) {
+        try {
+            Document player = storage.players().find(Filters.eq("_id", uuid.toString()))
+                    .projection(Projections.include("ips"))
+                    .first();
+            return player != null ? player.getList("ips", String.class, List.of()) : List.of();
+        } catch (MongoException e) {
+            throw new StorageException("Failed to load IP history", e);
+        }
+    }
+
+    @Override
+    public List<KnownPlayer> findByIp(Collection<String> ips) {
+        if (ips.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            List<KnownPlayer> players = new ArrayList<>();
+            for (Document player : storage.players().find(Filters.in("ips", ips))
+                    .projection(Projections.include("name", "last_seen"))) {
+                Date lastSeen = player.getDate("last_seen");
+                players.add(new KnownPlayer(UUID.fromString(player.getString("_id")), player.getString("name"),
+                        lastSeen != null ? lastSeen.toInstant() : null));
+            }
+            return players;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to look up players by IP", e);
+        }
+    }
+
+    @Override
+    public String findCountryByIp(String ip) {
+        try {
+            Document player = storage.players().find(Filters.and(Filters.eq("ip", ip), Filters.ne("country", null)))
+                    .projection(Projections.include("country"))
+                    .first();
+            return player != null ? player.getString("country") : null;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to look up country", e);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> countByCountry() {
+        try {
+            Map<String, Integer> countries = new LinkedHashMap<>();
+            for (Document group : storage.players().aggregate(List.of(
+                    Aggregates.match(Filters.and(Filters.ne("country", null), Filters.ne("country", ""))),
+                    Aggregates.group("$country", Accumulators.sum("count", 1)),
+                    Aggregates.sort(Sorts.descending("count"))))) {
+                countries.put(group.getString("_id"), ((Number) group.get("count")).intValue());
+            }
+            return countries;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to count players by country", e);
+        }
+    }
+
+    // ==================== Points ====================
+
+    @Override
+    public double getPoints(UUID uuid) {
+        try {
+            Document player = storage.players().find(Filters.eq("_id", uuid.toString()))
+                    .projection(Projections.include(POINTS))
+                    .first();
+            return points(player);
+        } catch (MongoException e) {
+            throw new StorageException("Failed to load points", e);
+        }
+    }
+
+    @Override
+    public double addPoints(UUID uuid, double delta) {
+        // Pipeline update so the read, add and clamp happen in one atomic write
+        Document total = new Document("$max", List.of(0,
+                new Document("$add", List.of(new Document("$ifNull", List.of("$" + POINTS, 0)), delta))));
+        try {
+            Document player = storage.players().findOneAndUpdate(Filters.eq("_id", uuid.toString()),
+                    List.of(new Document("$set", new Document(POINTS, total))),
+                    new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+            return points(player);
+        } catch (MongoException e) {
+            throw new StorageException("Failed to update points", e);
+        }
+    }
+
+    @Override
+    public void setPoints(UUID uuid, double points) {
+        try {
+            storage.players().updateOne(Filters.eq("_id", uuid.toString()), Updates.set(POINTS, Math.max(0, points)));
+        } catch (MongoException e) {
+            throw new StorageException("Failed to update points", e);
+        }
+    }
+
+    @Override
+    public int decayPoints(double amount) {
+        Document decayed = new Document("$max", List.of(0, new Document("$subtract", List.of("$" + POINTS, amount))));
+        try {
+            return (int) storage.players().updateMany(Filters.gt(POINTS, 0),
+                    List.of(new Document("$set", new Document(POINTS, decayed)))).getModifiedCount();
+        } catch (MongoException e) {
+            throw new StorageException("Failed to decay points", e);
+        }
+    }
+
+    private static double points(Document player) {
+        Object points = player != null ? player.get(POINTS) : null;
+        return points instanceof Number number ? number.doubleValue() : 0;
+    }
+}
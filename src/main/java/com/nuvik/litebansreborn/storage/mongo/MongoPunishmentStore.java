@@ -0,0 +1,519 @@
+package com.nuvik.litebansreborn.storage.mongo;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.nuvik.litebansreborn.database.PageCursor;
+import com.nuvik.litebansreborn.database.PunishmentRowMapper;
+import com.nuvik.litebansreborn.models.Page;
+import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.models.PunishmentSummary;
+import com.nuvik.litebansreborn.models.PunishmentType;
+import com.nuvik.litebansreborn.storage.PunishmentFilter;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
+import com.nuvik.litebansreborn.storage.StorageException;
+import com.nuvik.litebansreborn.utils.PlayerUtil;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * MongoDB punishment store
+ *
+ * Every punishment is a document in "punishments". When the deployment
+ * supports transactions, active bans and mutes are also embedded in the
+ * target's "players" document in the same transaction, so per-player checks
+ * read one document by _id and spread across shards with the player key.
+ * Otherwise they use the (target_uuid, type, active) compound index.
+ * IP lookups use the (target_ip, ip_based, active) compound index.
+ * There is no archive; all history stays in one collection.
+ */
+public class MongoPunishmentStore implements PunishmentStore {
+
+    private static final Set<PunishmentType> EMBEDDED = EnumSet.of(
+            PunishmentType.BAN, PunishmentType.TEMP_BAN, PunishmentType.MUTE, PunishmentType.TEMP_MUTE);
+
+    private final MongoStorage storage;
+
+    public MongoPunishmentStore(MongoStorage storage) {
+        this.storage = storage;
+    }
+
+    // ==================== Writes ====================
+
+    @Override
+    public Punishment insert(Punishment punishment) {
+        try {
+            punishment.setId(nextId());
+            Document document = toDocument(punishment);
+
+            if (storage.supportsTransactions() && punishment.getTargetUUID() != null
+                    && punishment.isActive() && EMBEDDED.contains(punishment.getType())) {
+                try (ClientSession session = storage.startSession()) {
+                    session.withTransaction(() -> {
+                        storage.punishments().insertOne(session, document);
+                        storage.players().updateOne(session,
+                                Filters.eq("_id", punishment.getTargetUUID().toString()),
+                                Updates.push("active", document), new UpdateOptions().upsert(true));
+                        return null;
+                    });
+                }
+            } else {
+                storage.punishments().insertOne(document);
+            }
+            return punishment;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to insert punishment", e);
+        }
+    }
+
+    @Override
+    public int deactivate(PunishmentFilter filter, UUID removedByUUID, String removedByName, String reason) {
+        try {
+            return deactivate(toBson(filter, null), Updates.combine(
+                    Updates.set("active", false),
+                    Updates.set("removed_at", new Date()),
+                    Updates.set("removed_by_uuid", removedByUUID.toString()),
+                    Updates.set("removed_by_name", removedByName),
+                    Updates.set("remove_reason", reason)));
+        } catch (MongoException e) {
+            throw new StorageException("Failed to remove punishment", e);
+        }
+    }
+
+    @Override
+    public int expire(PunishmentFilter filter) {
+        try {
+            return deactivate(toBson(filter, null), Updates.set("active", false));
+        } catch (MongoException e) {
+            throw new StorageException("Failed to expire punishments", e);
+        }
+    }
+
+    /**
+     * Apply the update to the matching active punishments and drop their embedded copies
+     */
+    private int deactivate(Bson filter, Bson update) {
+        List<Long> ids = new ArrayList<>();
+        Set<String> targets = new HashSet<>();
+        for (Document document : storage.punishments().find(Filters.and(filter, Filters.eq("active", true)))
+                .projection(Projections.include("_id", "target_uuid"))) {
+            ids.add(((Number) document.get("_id")).longValue());
+            String target = document.getString("target_uuid");
+            if (target != null) {
+                targets.add(target);
+            }
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        if (!storage.supportsTransactions()) {
+            return (int) storage.punishments().updateMany(Filters.in("_id", ids), update).getModifiedCount();
+        }
+        Bson pull = new Document("$pull", new Document("active", new Document("_id", new Document("$in", ids))));
+        try (ClientSession session = storage.startSession()) {
+            return session.withTransaction(() -> {
+                long modified = storage.punishments().updateMany(session, Filters.in("_id", ids), update)
+                        .getModifiedCount();
+                if (!targets.isEmpty()) {
+                    storage.players().updateMany(session, Filters.in("_id", targets), pull);
+                }
+                return (int) modified;
+            });
+        }
+    }
+
+    // ==================== Lookups ====================
+
+    @Override
+    public Punishment findActive(UUID uuid, Set<PunishmentType> types) {
+        try {
+            if (storage.supportsTransactions() && EMBEDDED.containsAll(types)) {
+                return findEmbedded(uuid, types);
+            }
+            Document document = storage.punishments().find(Filters.and(
+                            Filters.eq("target_uuid", uuid.toString()),
+                            Filters.in("type", typeIds(types)),
+                            Filters.eq("active", true),
+                            notExpired()))
+                    .sort(Sorts.descending("created_at", "_id"))
+                    .first();
+            return document != null ? fromDocument(document) : null;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to look up active punishment", e);
+        }
+    }
+
+    private Punishment findEmbedded(UUID uuid, Set<PunishmentType> types) {
+        Document player = storage.players().find(Filters.eq("_id", uuid.toString()))
+                .projection(new Document("active", 1))
+                .first();
+        if (player == null) {
+            return null;
+        }
+
+        Date now = new Date();
+        Punishment newest = null;
+        boolean sawExpired = false;
+        for (Document embedded : player.getList("active", Document.class, List.of())) {
+            Date expiresAt = embedded.getDate("expires_at");
+            if (expiresAt != null && !expiresAt.after(now)) {
+                sawExpired = true;
+                continue;
+            }
+            Punishment candidate = fromDocument(embedded);
+            if (types.contains(candidate.getType()) && candidate.isActive()
+                    && (newest == null || candidate.getCreatedAt().isAfter(newest.getCreatedAt()))) {
+                newest = candidate;
+            }
+        }
+
+        // Drop expired entries so the embedded list stays small
+        if (sawExpired) {
+            storage.players().updateOne(Filters.eq("_id", uuid.toString()),
+                    new Document("$pull", new Document("active",
+                            new Document("expires_at", new Document("$lte", now)))));
+        }
+        return newest;
+    }
+
+    @Override
+    public Punishment findActiveByIp(String ip, Set<PunishmentType> types) {
+        try {
+            Document document = storage.punishments().find(Filters.and(
+                            Filters.eq("target_ip", ip),
+                            Filters.eq("ip_based", true),
+                            Filters.eq("active", true),
+                            Filters.in("type", typeIds(types)),
+                            notExpired()))
+                    .sort(Sorts.descending("created_at"))
+                    .first();
+            return document != null ? fromDocument(document) : null;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to look up active punishment", e);
+        }
+    }
+
+    @Override
+    public boolean hasActive(UUID uuid, Set<PunishmentType> types) {
+        return findActive(uuid, types) != null;
+    }
+
+    @Override
+    public Punishment findById(long id) {
+        try {
+            Document document = storage.punishments().find(Filters.eq("_id", id)).first();
+            return document != null ? fromDocument(document) : null;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to load punishment", e);
+        }
+    }
+
+    // ==================== Listings ====================
+
+    @Override
+    public List<Punishment> find(PunishmentFilter filter, int offset, int limit) {
+        try {
+            FindIterable<Document> documents = storage.punishments().find(toBson(filter, null))
+                    .sort(Sorts.descending("created_at", "_id"))
+                    .skip(Math.max(0, offset));
+            if (limit >= 1) {
+                documents.limit(limit);
+            }
+
+            List<Punishment> punishments = new ArrayList<>();
+            for (Document document : documents) {
+                punishments.add(fromDocument(document));
+            }
+            return punishments;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to load punishments", e);
+        }
+    }
+
+    @Override
+    public Page<Punishment> findPage(PunishmentFilter filter, String cursor, int limit) {
+        return page(filter, cursor, limit, MongoPunishmentStore::fromDocument,
+                Punishment::getCreatedAt, Punishment::getId);
+    }
+
+    @Override
+    public Page<PunishmentSummary> findSummaries(PunishmentFilter filter, String cursor, int limit) {
+        return page(filter, cursor, limit, MongoPunishmentStore::toSummary,
+                PunishmentSummary::getCreatedAt, PunishmentSummary::getId);
+    }
+
+    private <T> Page<T> page(PunishmentFilter filter, String cursor, int limit, Function<Document, T> mapper,
+                             Function<T, Instant> createdAt, ToLongFunction<T> id) {
+        try {
+            List<T> rows = new ArrayList<>();
+            for (Document document : storage.punishments().find(toBson(filter, PageCursor.decode(cursor)))
+                    .sort(Sorts.descending("created_at", "_id"))
+                    .limit(limit + 1)) {
+                rows.add(mapper.apply(document));
+            }
+            return Page.of(rows, limit, createdAt, id);
+        } catch (MongoException e) {
+            throw new StorageException("Failed to load punishments", e);
+        }
+    }
+
+    @Override
+    public int count(PunishmentFilter filter) {
+        try {
+            return (int) storage.punishments().countDocuments(toBson(filter, null));
+        } catch (MongoException e) {
+            throw new StorageException("Failed to count punishments", e);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> countByType(PunishmentFilter filter) {
+        try {
+            Map<String, Integer> counts = new HashMap<>();
+            for (Document group : storage.punishments().aggregate(List.of(
+                    Aggregates.match(toBson(filter, null)),
+                    Aggregates.group("$type", Accumulators.sum("count", 1))))) {
+                counts.put(group.getString("_id"), ((Number) group.get("count")).intValue());
+            }
+            return counts;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to count punishments", e);
+        }
+    }
+
+    // ==================== Analytics ====================
+
+    @Override
+    public int[] countByHour(Instant since) {
+        try {
+            int[] hourly = new int[24];
+            for (Document group : storage.punishments().aggregate(List.of(
+                    Aggregates.match(Filters.gt("created_at", Date.from(since))),
+                    Aggregates.group(new Document("$hour", "$created_at"), Accumulators.sum("count", 1))))) {
+                int hour = ((Number) group.get("_id")).intValue();
+                if (hour >= 0 && hour < 24) {
+                    hourly[hour] = ((Number) group.get("count")).intValue();
+                }
+            }
+            return hourly;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to count punishments by hour", e);
+        }
+    }
+
+    @Override
+    public List<DailyCount> countByDay(Instant since) {
+        try {
+            List<DailyCount> days = new ArrayList<>();
+            for (Document group : storage.punishments().aggregate(List.of(
+                    Aggregates.match(Filters.gt("created_at", Date.from(since))),
+                    Aggregates.group(new Document("day", new Document("$dateToString",
+                                    new Document("format", "%Y-%m-%d").append("date", "$created_at")))
+                                    .append("type", "$type"),
+                            Accumulators.sum("count", 1)),
+                    Aggregates.sort(Sorts.ascending("_id.day"))))) {
+                Document key = group.get("_id", Document.class);
+                days.add(new DailyCount(key.getString("day"), key.getString("type"),
+                        ((Number) group.get("count")).intValue()));
+            }
+            return days;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to count punishments by day", e);
+        }
+    }
+
+    @Override
+    public List<StaffCount> countByStaff(int limit) {
+        try {
+            List<StaffCount> staff = new ArrayList<>();
+            for (Document group : storage.punishments().aggregate(List.of(
+                    Aggregates.match(Filters.and(Filters.ne("executor_name", null),
+                            Filters.ne("executor_name", "Console"))),
+                    Aggregates.group("$executor_name",
+                            Accumulators.sum("total", 1),
+                            Accumulators.sum("bans", typeCount("ban", "tempban")),
+                            Accumulators.sum("mutes", typeCount("mute", "tempmute")),
+                            Accumulators.sum("warns", typeCount("warn")),
+                            Accumulators.sum("kicks", typeCount("kick"))),
+                    Aggregates.sort(Sorts.descending("total")),
+                    Aggregates.limit(limit)))) {
+                staff.add(new StaffCount(group.getString("_id"),
+                        ((Number) group.get("total")).intValue(),
+                        ((Number) group.get("bans")).intValue(),
+                        ((Number) group.get("mutes")).intValue(),
+                        ((Number) group.get("warns")).intValue(),
+                        ((Number) group.get("kicks")).intValue()));
+            }
+            return staff;
+        } catch (MongoException e) {
+            throw new StorageException("Failed to count punishments by staff", e);
+        }
+    }
+
+    /**
+     * 1 when the document's type is one of the ids, else 0
+     */
+    private static Document typeCount(String... typeIds) {
+        return new Document("$cond", List.of(new Document("$in", List.of("$type", List.of(typeIds))), 1, 0));
+    }
+
+    // ==================== Filters ====================
+
+    private static Bson toBson(PunishmentFilter filter, PageCursor after) {
+        List<Bson> conditions = new ArrayList<>();
+        if (filter.getId() != null) {
+            conditions.add(Filters.eq("_id", filter.getId()));
+        }
+        if (filter.getTargetUUID() != null) {
+            conditions.add(Filters.eq("target_uuid", filter.getTargetUUID().toString()));
+        }
+        if (filter.getTargetName() != null) {
+            conditions.add(Filters.eq("target_name", filter.getTargetName()));
+        }
+        if (filter.getTargetIP() != null) {
+            conditions.add(Filters.eq("target_ip", filter.getTargetIP()));
+        }
+        if (filter.getExecutorUUID() != null) {
+            conditions.add(Filters.eq("executor_uuid", filter.getExecutorUUID().toString()));
+        }
+        if (filter.getTypes() != null) {
+            conditions.add(Filters.in("type", typeIds(filter.getTypes())));
+        }
+        if (filter.getActive() != null) {
+            conditions.add(Filters.eq("active", filter.getActive()));
+        }
+        if (filter.isUnexpired()) {
+            conditions.add(notExpired());
+        }
+        if (filter.getIpBased() != null) {
+            conditions.add(Filters.eq("ip_based", filter.getIpBased()));
+        }
+        if (filter.getCreatedAfter() != null) {
+            conditions.add(Filters.gt("created_at", Date.from(filter.getCreatedAfter())));
+        }
+        if (filter.getCreatedBefore() != null) {
+            conditions.add(Filters.lt("created_at", Date.from(filter.getCreatedBefore())));
+        }
+        if (after != null) {
+            Date createdAt = Date.from(after.getCreatedAt());
+            conditions.add(Filters.or(
+                    Filters.lt("created_at", createdAt),
+                    Filters.and(Filters.eq("created_at", createdAt), Filters.lt("_id", after.getId()))));
+        }
+        return conditions.isEmpty() ? new Document() : Filters.and(conditions);
+    }
+
+    // ==================== Mapping ====================
+
+    private long nextId() {
+        Document counter = storage.counters().findOneAndUpdate(
+                Filters.eq("_id", "punishments"),
+                Updates.inc("seq", 1L),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return ((Number) counter.get("seq")).longValue();
+    }
+
+    private static Bson notExpired() {
+        return Filters.or(Filters.eq("expires_at", null), Filters.gt("expires_at", new Date()));
+    }
+
+    private static List<String> typeIds(Set<PunishmentType> types) {
+        List<String> ids = new ArrayList<>(types.size());
+        for (PunishmentType type : types) {
+            ids.add(type.getId());
+        }
+        return ids;
+    }
+
+    static Document toDocument(Punishment p) {
+        return new Document("_id", p.getId())
+                .append("type", p.getType().getId())
+                .append("target_uuid", p.getTargetUUID() != null ? p.getTargetUUID().toString() : null)
+                .append("target_name", p.getTargetName())
+                .append("target_ip", p.getTargetIP())
+                .append("executor_uuid", p.getExecutorUUID() != null ? p.getExecutorUUID().toString() : null)
+                .append("executor_name", p.getExecutorName())
+                .append("reason", p.getReason())
+                .append("server", p.getServer())
+                .append("created_at", toDate(p.getCreatedAt()))
+                .append("expires_at", toDate(p.getExpiresAt()))
+                .append("active", p.isActive())
+                .append("removed_at", toDate(p.getRemovedAt()))
+                .append("removed_by_uuid", p.getRemovedByUUID() != null ? p.getRemovedByUUID().toString() : null)
+                .append("removed_by_name", p.getRemovedByName())
+                .append("remove_reason", p.getRemoveReason())
+                .append("silent", p.isSilent())
+                .append("ip_based", p.isIpBased());
+    }
+
+    static Punishment fromDocument(Document d) {
+        PunishmentType type = PunishmentType.fromId(d.getString("type"));
+        String targetUuid = d.getString("target_uuid");
+        String executorUuid = d.getString("executor_uuid");
+        String removedByUuid = d.getString("removed_by_uuid");
+
+        return new Punishment.Builder(type != null ? type : PunishmentType.BAN, d.getString("target_name"))
+                .id(((Number) d.get("_id")).longValue())
+                .targetUUID(targetUuid != null ? UUID.fromString(targetUuid) : null)
+                .targetIP(d.getString("target_ip"))
+                .executorUUID(executorUuid != null ? UUID.fromString(executorUuid) : PlayerUtil.CONSOLE_UUID)
+                .executorName(d.getString("executor_name"))
+                .reason(d.getString("reason"))
+                .server(d.getString("server"))
+                .createdAt(toInstant(d.getDate("created_at")))
+                .expiresAt(toInstant(d.getDate("expires_at")))
+                .active(d.getBoolean("active", false))
+                .removed(toInstant(d.getDate("removed_at")),
+                        removedByUuid != null ? UUID.fromString(removedByUuid) : null,
+                        d.getString("removed_by_name"), d.getString("remove_reason"))
+                .silent(d.getBoolean("silent", false))
+                .ipBased(d.getBoolean("ip_based", false))
+                .build();
+    }
+
+    private static PunishmentSummary toSummary(Document d) {
+        PunishmentType type = PunishmentType.fromId(d.getString("type"));
+        String targetUuid = d.getString("target_uuid");
+        String executorUuid = d.getString("executor_uuid");
+        String reason = d.getString("reason");
+        if (reason != null && reason.length() > PunishmentRowMapper.SUMMARY_REASON_LENGTH) {
+            reason = reason.substring(0, PunishmentRowMapper.SUMMARY_REASON_LENGTH);
+        }
+
+        return new PunishmentSummary(
+                ((Number) d.get("_id")).longValue(),
+                type != null ? type : PunishmentType.BAN,
+                targetUuid != null ? UUID.fromString(targetUuid) : null,
+                d.getString("target_name"),
+                executorUuid != null ? UUID.fromString(executorUuid) : PlayerUtil.CONSOLE_UUID,
+                d.getString("executor_name"),
+                reason,
+                toInstant(d.getDate("created_at")),
+                toInstant(d.getDate("expires_at")),
+                d.getBoolean("active", false),
+                d.getBoolean("ip_based", false));
+    }
+
+    private static Date toDate(Instant instant) {
+        return instant != null ? Date.from(instant) : null;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
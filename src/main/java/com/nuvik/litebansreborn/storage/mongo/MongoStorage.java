@@ -0,0 +1,108 @@
+package com.nuvik.litebansreborn.storage.mongo;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import org.bson.Document;
+
+/**
+ * MongoDB connection and collection layout
+ *
+ * Collections:
+ * - punishments: one document per punishment (_id is a numeric id from the counters collection)
+ * - players: one document per player, embedding name/IP history and the player's
+ *   currently active punishments, so a ban/mute check is a single _id read
+ * - counters: sequence numbers
+ *
+ * The embedded active punishments are only kept when the deployment supports
+ * transactions (replica set or sharded cluster), so the punishment and its
+ * embedded copy are written together; on a standalone server the stores read
+ * active punishments from the punishments collection instead.
+ */
+public class MongoStorage {
+
+    private final MongoClient client;
+    private final MongoDatabase database;
+    private final boolean transactions;
+
+    public MongoStorage(String uri, String databaseName) {
+        this.client = MongoClients.create(uri);
+        this.database = client.getDatabase(databaseName);
+        this.transactions = detectTransactions(database);
+    }
+
+    /**
+     * Wrap an existing database (e.g. an in-process test server)
+     */
+    public MongoStorage(MongoDatabase database) {
+        this.client = null;
+        this.database = database;
+        this.transactions = false;
+    }
+
+    /**
+     * Transactions need a replica set member or a mongos router
+     */
+    private static boolean detectTransactions(MongoDatabase database) {
+        try {
+            Document hello = database.runCommand(new Document("hello", 1));
+            return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+        } catch (MongoException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether multi-document writes can run in a transaction ({@link #startSession()})
+     */
+    public boolean supportsTransactions() {
+        return transactions;
+    }
+
+    public ClientSession startSession() {
+        return client.startSession();
+    }
+
+    /**
+     * Create the compound indexes used by the stores (no-op when they already exist)
+     */
+    public void createIndexes() {
+        MongoCollection<Document> punishments = punishments();
+        punishments.createIndex(Indexes.ascending("target_uuid", "type", "active"),
+                new IndexOptions().name("target_uuid_type_active"));
+        punishments.createIndex(Indexes.ascending("target_ip", "ip_based", "active"),
+                new IndexOptions().name("target_ip_ip_based_active"));
+        punishments.createIndex(Indexes.compoundIndex(Indexes.ascending("target_uuid"),
+                        Indexes.descending("created_at", "_id")),
+                new IndexOptions().name("target_uuid_created"));
+        punishments.createIndex(Indexes.descending("created_at", "_id"),
+                new IndexOptions().name("created"));
+
+        MongoCollection<Document> players = players();
+        players.createIndex(Indexes.ascending("ips"), new IndexOptions().name("ips"));
+        players.createIndex(Indexes.ascending("name"), new IndexOptions().name("name"));
+    }
+
+    public MongoCollection<Document> punishments() {
+        return database.getCollection("punishments");
+    }
+
+    public MongoCollection<Document> players() {
+        return database.getCollection("players");
+    }
+
+    public MongoCollection<Document> counters() {
+        return database.getCollection("counters");
+    }
+
+    public void close() {
+        if (client != null) {
+            client.close();
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.nuvik.litebansreborn.web;
 
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.storage.PunishmentFilter;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
 import com.sun.net.httpserver.HttpExchange;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -20,6 +20,11 @@ import java.util.concurrent.CompletableFuture;
  */
 public class AnalyticsHandler {
     
+    private static final PunishmentFilter ACTIVE_IP_PUNISHMENTS = new PunishmentFilter.Builder()
+            .ipBased(true)
+            .active(true)
+            .build();
+    
     private final LiteBansReborn plugin;
     
     public AnalyticsHandler(LiteBansReborn plugin) {
@@ -30,55 +35,13 @@ public class AnalyticsHandler {
      * Get punishment heatmap data (hour of day distribution)
      */
     public CompletableFuture<Map<String, Object>> getActivityHeatmap() {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             Map<String, Object> result = new HashMap<>();
             
-            // Get punishments by hour of day
-            // Get punishments by hour of day
-            // Get punishments by hour of day
-            com.nuvik.litebansreborn.database.DatabaseManager.DatabaseType dbType = plugin.getDatabaseManager().getDatabaseType();
-            String sql;
-            boolean useParameter = true;
-
-            if (dbType == com.nuvik.litebansreborn.database.DatabaseManager.DatabaseType.SQLITE) {
-                sql = "SELECT strftime('%H', created_at) as h, COUNT(*) as count " +
-                      "FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                      " WHERE created_at > datetime('now', '-30 days') GROUP BY strftime('%H', created_at)";
-                useParameter = false;
-            } else if (dbType == com.nuvik.litebansreborn.database.DatabaseManager.DatabaseType.H2) {
-                // Use 'h' instead of 'hour' because 'hour' is a reserved word in H2
-                sql = "SELECT HOUR(created_at) as h, COUNT(*) as count " +
-                      "FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                      " WHERE created_at > ? GROUP BY HOUR(created_at) ORDER BY h";
-            } else {
-                sql = "SELECT EXTRACT(HOUR FROM created_at) as h, COUNT(*) as count " +
-                      "FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                      " WHERE created_at > ? GROUP BY EXTRACT(HOUR FROM created_at) ORDER BY h";
-            }
-            
+            // Get punishments by hour of day, last 30 days
             int[] hourlyData = new int[24];
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                // Last 30 days
-                if (useParameter) {
-                    stmt.setTimestamp(1, Timestamp.from(Instant.now().minus(30, ChronoUnit.DAYS)));
-                }
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        int hourVal;
-                        if (dbType == com.nuvik.litebansreborn.database.DatabaseManager.DatabaseType.SQLITE) {
-                             hourVal = Integer.parseInt(rs.getString("h"));
-                        } else {
-                             hourVal = rs.getInt("h");
-                        }
-                        
-                        int count = rs.getInt("count");
-                        if (hourVal >= 0 && hourVal < 24) {
-                            hourlyData[hourVal] = count;
-                        }
-                    }
-                }
+            try {
+                hourlyData = store().countByHour(Instant.now().minus(30, ChronoUnit.DAYS));
             } catch (Exception e) {
                 plugin.getLogger().warning("Failed to load heapmap data: " + e.getMessage());
             }
@@ -94,7 +57,7 @@ public class AnalyticsHandler {
      * Get punishment trends over time (daily/weekly/monthly)
      */
     public CompletableFuture<Map<String, Object>> getPunishmentTrends(String period) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             Map<String, Object> result = new HashMap<>();
             List<Map<String, Object>> data = new ArrayList<>();
             
@@ -106,22 +69,12 @@ public class AnalyticsHandler {
             };
             
             // Get daily counts
-            String sql = "SELECT DATE(created_at) as day, type, COUNT(*) as count " +
-                        "FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE created_at > ? GROUP BY DATE(created_at), type ORDER BY day";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setTimestamp(1, Timestamp.from(Instant.now().minus(days, ChronoUnit.DAYS)));
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        Map<String, Object> entry = new HashMap<>();
-                        entry.put("date", rs.getString("day"));
-                        entry.put("type", rs.getString("type"));
-                        entry.put("count", rs.getInt("count"));
-                        data.add(entry);
-                    }
-                }
+            for (PunishmentStore.DailyCount day : store().countByDay(Instant.now().minus(days, ChronoUnit.DAYS))) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("date", day.day());
+                entry.put("type", day.type());
+                entry.put("count", day.count());
+                data.add(entry);
             }
             
             result.put("period", period);
@@ -136,34 +89,21 @@ public class AnalyticsHandler {
      * Get staff leaderboard with statistics
      */
     public CompletableFuture<Map<String, Object>> getStaffLeaderboard() {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             Map<String, Object> result = new HashMap<>();
             List<Map<String, Object>> leaderboard = new ArrayList<>();
             
-            String sql = "SELECT executor_name, " +
-                        "COUNT(*) as total, " +
-                        "SUM(CASE WHEN type = 'ban' OR type = 'tempban' THEN 1 ELSE 0 END) as bans, " +
-                        "SUM(CASE WHEN type = 'mute' OR type = 'tempmute' THEN 1 ELSE 0 END) as mutes, " +
-                        "SUM(CASE WHEN type = 'warn' THEN 1 ELSE 0 END) as warns, " +
-                        "SUM(CASE WHEN type = 'kick' THEN 1 ELSE 0 END) as kicks " +
-                        "FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE executor_name IS NOT NULL AND executor_name != 'Console' " +
-                        "GROUP BY executor_name ORDER BY total DESC LIMIT 20";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql);
-                 ResultSet rs = stmt.executeQuery()) {
-                int rank = 1;
-                while (rs.next()) {
-                    Map<String, Object> staff = new HashMap<>();
-                    staff.put("rank", rank++);
-                    staff.put("name", rs.getString("executor_name"));
-                    staff.put("total", rs.getInt("total"));
-                    staff.put("bans", rs.getInt("bans"));
-                    staff.put("mutes", rs.getInt("mutes"));
-                    staff.put("warns", rs.getInt("warns"));
-                    staff.put("kicks", rs.getInt("kicks"));
-                    leaderboard.add(staff);
-                }
+            int rank = 1;
+            for (PunishmentStore.StaffCount count : store().countByStaff(20)) {
+                Map<String, Object> staff = new HashMap<>();
+                staff.put("rank", rank++);
+                staff.put("name", count.name());
+                staff.put("total", count.total());
+                staff.put("bans", count.bans());
+                staff.put("mutes", count.mutes());
+                staff.put("warns", count.warns());
+                staff.put("kicks", count.kicks());
+                leaderboard.add(staff);
             }
             
             result.put("leaderboard", leaderboard);
@@ -177,30 +117,20 @@ public class AnalyticsHandler {
      * Get recent events timeline
      */
     public CompletableFuture<Map<String, Object>> getEventsTimeline(int limit) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             Map<String, Object> result = new HashMap<>();
             List<Map<String, Object>> events = new ArrayList<>();
             
-            String sql = "SELECT id, type, target_name, executor_name, reason, created_at, active " +
-                        "FROM " + plugin.getDatabaseManager().getTable("punishments") +
-                        " ORDER BY created_at DESC LIMIT ?";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, limit);
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        Map<String, Object> event = new HashMap<>();
-                        event.put("id", rs.getLong("id"));
-                        event.put("type", rs.getString("type"));
-                        event.put("target", rs.getString("target_name"));
-                        event.put("executor", rs.getString("executor_name"));
-                        event.put("reason", rs.getString("reason"));
-                        event.put("timestamp", rs.getTimestamp("created_at").toString());
-                        event.put("active", rs.getBoolean("active"));
-                        events.add(event);
-                    }
-                }
+            for (Punishment punishment : store().find(PunishmentFilter.ALL, 0, limit)) {
+                Map<String, Object> event = new HashMap<>();
+                event.put("id", punishment.getId());
+                event.put("type", punishment.getType().getId());
+                event.put("target", punishment.getTargetName());
+                event.put("executor", punishment.getExecutorName());
+                event.put("reason", punishment.getReason());
+                event.put("timestamp", Timestamp.from(punishment.getCreatedAt()).toString());
+                event.put("active", punishment.isActive());
+                events.add(event);
             }
             
             result.put("events", events);
@@ -217,43 +147,25 @@ public class AnalyticsHandler {
      * - playerCountries: Countries of normal players (shown in green)
      */
     public CompletableFuture<Map<String, Object>> getGeoStats() {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             Map<String, Object> result = new HashMap<>();
             Map<String, Integer> bannedCountries = new HashMap<>();
             Map<String, Integer> playerCountries = new HashMap<>();
             
             // 1. Get countries from normal players (green markers)
-            String playerSql = "SELECT country, COUNT(*) as count FROM " + 
-                        plugin.getDatabaseManager().getTable("players") +
-                        " WHERE country IS NOT NULL AND country != '' GROUP BY country ORDER BY count DESC";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(playerSql);
-                 ResultSet rs = stmt.executeQuery()) {
-                int playerRows = 0;
-                while (rs.next()) {
-                    String country = rs.getString("country");
-                    if (country != null && !country.isEmpty()) {
-                        playerCountries.put(country, rs.getInt("count"));
-                        playerRows++;
-                    }
-                }
-                plugin.debug("GeoStats: Found " + playerRows + " countries with players");
+            try {
+                playerCountries.putAll(plugin.getDatabaseManager().getPlayerStore().countByCountry());
+                plugin.debug("GeoStats: Found " + playerCountries.size() + " countries with players");
             } catch (Exception e) {
                 plugin.getLogger().warning("Error fetching player geo stats: " + e.getMessage());
             }
             
             // 2. Get IPs from active IP bans and resolve countries (red markers)
-            String ipBanSql = "SELECT DISTINCT target_ip FROM " + 
-                              plugin.getDatabaseManager().getTable("punishments") +
-                              " WHERE (type = 'IPBAN' OR ip_based = true) AND active = true AND target_ip IS NOT NULL";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(ipBanSql);
-                 ResultSet rs = stmt.executeQuery()) {
-                
+            try {
                 // Collect all banned IPs
-                java.util.List<String> bannedIPs = new java.util.ArrayList<>();
-                while (rs.next()) {
-                    String ip = rs.getString("target_ip");
+                Set<String> bannedIPs = new LinkedHashSet<>();
+                for (Punishment ban : store().find(ACTIVE_IP_PUNISHMENTS, 0, 0)) {
+                    String ip = ban.getTargetIP();
                     if (ip != null && !ip.isEmpty()) {
                         bannedIPs.add(ip);
                     }
@@ -263,7 +175,7 @@ public class AnalyticsHandler {
                 
                 // Now resolve each IP to country
                 for (String ip : bannedIPs) {
-                    String country = resolveIPToCountry(conn, ip);
+                    String country = resolveIPToCountry(ip);
                     plugin.debug("GeoStats: Resolved IP " + ip + " -> " + country);
                     if (country != null && !country.isEmpty()) {
                         bannedCountries.merge(country, 1, Integer::sum);
@@ -291,22 +203,12 @@ public class AnalyticsHandler {
      * Resolve an IP address to a country name
      * Uses cached data first, then VPN service if available
      */
-    private String resolveIPToCountry(Connection conn, String ip) {
-        // First check if we have this IP's country cached in player_ips or similar
+    private String resolveIPToCountry(String ip) {
+        // Check if player with this IP has country stored
         try {
-            // Check if player with this IP has country stored
-            String sql = "SELECT country FROM " + plugin.getDatabaseManager().getTable("players") +
-                        " WHERE last_known_ip = ? AND country IS NOT NULL LIMIT 1";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, ip);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        String country = rs.getString("country");
-                        if (country != null && !country.isEmpty()) {
-                            return country;
-                        }
-                    }
-                }
+            String country = plugin.getDatabaseManager().getPlayerStore().findCountryByIp(ip);
+            if (country != null && !country.isEmpty()) {
+                return country;
             }
         } catch (Exception e) {
             // Ignore, try next method
@@ -331,32 +233,23 @@ public class AnalyticsHandler {
      * Get player risk assessment
      */
     public CompletableFuture<Map<String, Object>> getPlayerRisk(String playerName) {
-        return plugin.getDatabaseManager().queryAsync(conn -> {
+        PunishmentFilter filter = new PunishmentFilter.Builder().targetName(playerName).build();
+        return plugin.getDatabaseManager().supplyAsync(() -> {
             Map<String, Object> result = new HashMap<>();
             
             // Count past punishments
-            String sql = "SELECT type, COUNT(*) as count FROM " + 
-                        plugin.getDatabaseManager().getTable("punishments") +
-                        " WHERE target_name = ? GROUP BY type";
-            
             int totalPunishments = 0;
             int bans = 0, mutes = 0, warns = 0, kicks = 0;
             
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, playerName);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        String type = rs.getString("type");
-                        int count = rs.getInt("count");
-                        totalPunishments += count;
-                        
-                        switch (type.toLowerCase()) {
-                            case "ban", "tempban" -> bans += count;
-                            case "mute", "tempmute" -> mutes += count;
-                            case "warn" -> warns += count;
-                            case "kick" -> kicks += count;
-                        }
-                    }
+            for (Map.Entry<String, Integer> entry : store().countByType(filter).entrySet()) {
+                int count = entry.getValue();
+                totalPunishments += count;
+                
+                switch (entry.getKey().toLowerCase()) {
+                    case "ban", "tempban" -> bans += count;
+                    case "mute", "tempmute" -> mutes += count;
+                    case "warn" -> warns += count;
+                    case "kick" -> kicks += count;
                 }
             }
             
@@ -385,6 +278,10 @@ public class AnalyticsHandler {
         });
     }
     
+    private PunishmentStore store() {
+        return plugin.getDatabaseManager().getPunishmentStore();
+    }
+    
     private int findPeakHour(int[] hourlyData) {
         int peak = 0;
         int peakHour = 0;
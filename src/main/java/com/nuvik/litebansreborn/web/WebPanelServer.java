@@ -3,10 +3,13 @@ package com.nuvik.litebansreborn.web;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.nuvik.litebansreborn.LiteBansReborn;
+import com.nuvik.litebansreborn.ai.GroqAIService;
 import com.nuvik.litebansreborn.managers.ReportManager;
 import com.nuvik.litebansreborn.models.Report;
 import com.nuvik.litebansreborn.models.Appeal;
+import com.nuvik.litebansreborn.models.Page;
 import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.models.PunishmentSummary;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
@@ -37,6 +40,9 @@ import java.util.logging.Level;
  */
 public class WebPanelServer {
 
+    // Upper bound for ?limit= on listing endpoints
+    private static final int MAX_PAGE_LIMIT = 200;
+
     private final LiteBansReborn plugin;
     private final Gson gson;
     private HttpServer server;
@@ -358,6 +364,9 @@ public class WebPanelServer {
         data.put("cachedMutes", cacheStats.get("mutes"));
         data.put("frozenPlayers", cacheStats.get("frozen"));
         
+        // Database executor stats (queue depth / wait times)
+        data.put("dbExecutor", plugin.getDatabaseManager().getExecutorStats());
+        
         // Anti-VPN stats
         if (plugin.getVPNManager() != null) {
             data.put("vpnEnabled", plugin.getVPNManager().isRuntimeEnabled());
@@ -369,77 +378,37 @@ public class WebPanelServer {
 
     private void handlePunishments(HttpExchange exchange) throws IOException {
         String query = exchange.getRequestURI().getQuery();
-        int page = getQueryParam(query, "page", 1);
-        int limit = getQueryParam(query, "limit", 50);
+        String cursor = getQueryParam(query, "cursor", null);
+        int limit = getLimitParam(query, 50);
         String type = getQueryParam(query, "type", "all");
+        boolean count = Boolean.parseBoolean(getQueryParam(query, "count", "false"));
+        
+        // Ban/mute categories include their temp and IP variants (type LIKE match)
+        String dbType = type.toLowerCase();
+        if (dbType.equals("warning")) dbType = "warn";
         
         try {
-            List<Map<String, Object>> punishments = new ArrayList<>();
-            
-            // Query database directly for all punishment types
-            String dbType = type.toLowerCase();
-            if (dbType.equals("warning")) dbType = "warn";
+            Page<PunishmentSummary> page = plugin.getHistoryManager().getPunishmentSummaries(dbType, cursor, limit).join();
             
-            String tableName = plugin.getDatabaseManager().getTable("punishments");
-            String sql;
-            
-            if (dbType.equals("all")) {
-                sql = "SELECT * FROM " + tableName + " ORDER BY created_at DESC LIMIT " + limit + " OFFSET " + ((page - 1) * limit);
-            } else {
-                // Include all subtypes for each punishment category
-                String typeCondition;
-                switch (dbType) {
-                    case "ban":
-                        typeCondition = "type IN ('ban', 'tempban', 'ipban')";
-                        break;
-                    case "mute":
-                        typeCondition = "type IN ('mute', 'tempmute', 'ipmute')";
-                        break;
-                    default:
-                        typeCondition = "type = '" + dbType + "'";
-                }
-                sql = "SELECT * FROM " + tableName + " WHERE " + typeCondition + " ORDER BY created_at DESC LIMIT " + limit + " OFFSET " + ((page - 1) * limit);
+            List<Map<String, Object>> punishments = new ArrayList<>();
+            for (PunishmentSummary p : page.getItems()) {
+                punishments.add(summaryToMap(p));
             }
             
-            // Execute query async
-            final String finalSql = sql;
-            var resultFuture = plugin.getDatabaseManager().queryAsync(conn -> {
-                List<Map<String, Object>> results = new ArrayList<>();
-                try (var stmt = conn.prepareStatement(finalSql);
-                     var rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        Map<String, Object> punishment = new HashMap<>();
-                        punishment.put("id", rs.getLong("id"));
-                        punishment.put("type", rs.getString("type") != null ? rs.getString("type").toUpperCase() : "UNKNOWN");
-                        punishment.put("targetName", rs.getString("target_name"));
-                        punishment.put("targetUUID", rs.getString("target_uuid"));
-                        punishment.put("executorName", rs.getString("executor_name"));
-                        punishment.put("executorUUID", rs.getString("executor_uuid"));
-                        punishment.put("reason", rs.getString("reason"));
-                        
-                        var createdAt = rs.getTimestamp("created_at");
-                        punishment.put("createdAt", createdAt != null ? createdAt.toString() : null);
-                        
-                        var expiresAt = rs.getTimestamp("expires_at");
-                        punishment.put("expiresAt", expiresAt != null ? expiresAt.toString() : null);
-                        
-                        punishment.put("active", rs.getBoolean("active"));
-                        results.add(punishment);
-                    }
-                }
-                return results;
-            });
-            
-            punishments = resultFuture.join();
-            
             Map<String, Object> response = new HashMap<>();
-            response.put("page", page);
             response.put("limit", limit);
-            response.put("total", punishments.size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.hasMore());
             response.put("punishments", punishments);
             response.put("type", type);
+            // Counting is a full scan on large tables, so only when asked for
+            if (count) {
+                response.put("total", plugin.getHistoryManager().getTotalPunishmentCount(dbType).join());
+            }
             
             sendJson(exchange, response);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "Invalid cursor");
         } catch (Exception e) {
             plugin.getLogger().warning("Error fetching punishments: " + e.getMessage());
             e.printStackTrace();
@@ -447,6 +416,22 @@ public class WebPanelServer {
         }
     }
     
+    private Map<String, Object> summaryToMap(PunishmentSummary p) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", p.getId());
+        map.put("type", p.getType().getId().toUpperCase());
+        map.put("targetName", p.getTargetName());
+        map.put("targetUUID", p.getTargetUUID() != null ? p.getTargetUUID().toString() : null);
+        map.put("executorName", p.getExecutorName());
+        map.put("executorUUID", p.getExecutorUUID() != null ? p.getExecutorUUID().toString() : null);
+        map.put("reason", p.getReason());
+        map.put("createdAt", p.getCreatedAt() != null ? p.getCreatedAt().toString() : null);
+        map.put("expiresAt", p.getExpiresAt() != null ? p.getExpiresAt().toString() : null);
+        map.put("active", p.isActive());
+        map.put("permanent", p.isPermanent());
+        return map;
+    }
+    
     private Map<String, Object> punishmentToMap(Punishment p, String type) {
         Map<String, Object> map = new HashMap<>();
         map.put("id", p.getId());
@@ -464,13 +449,13 @@ public class WebPanelServer {
     }
 
     private void handleRecentPunishments(HttpExchange exchange) throws IOException {
-        int limit = getQueryParam(exchange.getRequestURI().getQuery(), "limit", 10);
+        int limit = getLimitParam(exchange.getRequestURI().getQuery(), 10);
         
         try {
             List<Map<String, Object>> recent = new ArrayList<>();
             
-            var bans = plugin.getBanManager().getActiveBans(1, limit).join();
-            var mutes = plugin.getMuteManager().getActiveMutes(1, limit).join();
+            var bans = plugin.getBanManager().getActiveBans(null, limit).join().getItems();
+            var mutes = plugin.getMuteManager().getActiveMutes(null, limit).join().getItems();
             
             for (var ban : bans) recent.add(punishmentToMap(ban, "BAN"));
             for (var mute : mutes) recent.add(punishmentToMap(mute, "MUTE"));
@@ -483,21 +468,26 @@ public class WebPanelServer {
     
     private void handleReports(HttpExchange exchange) throws IOException {
         String query = exchange.getRequestURI().getQuery();
-        int page = getQueryParam(query, "page", 1);
-        int limit = getQueryParam(query, "limit", 20);
+        String cursor = getQueryParam(query, "cursor", null);
+        int limit = getLimitParam(query, 20);
         String status = getQueryParam(query, "status", "all");
+        boolean count = Boolean.parseBoolean(getQueryParam(query, "count", "false"));
         
         try {
-            List<Report> reports = plugin.getReportManager().getAllReports(status, page, limit).join();
-            int total = plugin.getReportManager().getTotalReportsCount(status).join();
+            Page<Report> page = plugin.getReportManager().getAllReports(status, cursor, limit).join();
             
             Map<String, Object> response = new HashMap<>();
-            response.put("page", page);
             response.put("limit", limit);
-            response.put("total", total);
-            response.put("reports", reports);
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.hasMore());
+            response.put("reports", page.getItems());
+            if (count) {
+                response.put("total", plugin.getReportManager().getTotalReportsCount(status).join());
+            }
             
             sendJson(exchange, response);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "Invalid cursor");
         } catch (Exception e) {
             sendError(exchange, 500, "Failed to fetch reports: " + e.getMessage());
         }
@@ -505,21 +495,26 @@ public class WebPanelServer {
     
     private void handleAppeals(HttpExchange exchange) throws IOException {
         String query = exchange.getRequestURI().getQuery();
-        int page = getQueryParam(query, "page", 1);
-        int limit = getQueryParam(query, "limit", 20);
+        String cursor = getQueryParam(query, "cursor", null);
+        int limit = getLimitParam(query, 20);
         String status = getQueryParam(query, "status", "all");
+        boolean count = Boolean.parseBoolean(getQueryParam(query, "count", "false"));
         
         try {
-            List<Appeal> appeals = plugin.getAppealManager().getAllAppeals(status, page, limit).join();
-            int total = plugin.getAppealManager().getTotalAppealsCount(status).join();
+            Page<Appeal> page = plugin.getAppealManager().getAllAppeals(status, cursor, limit).join();
             
             Map<String, Object> response = new HashMap<>();
-            response.put("page", page);
             response.put("limit", limit);
-            response.put("total", total);
-            response.put("appeals", appeals);
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.hasMore());
+            response.put("appeals", page.getItems());
+            if (count) {
+                response.put("total", plugin.getAppealManager().getTotalAppealsCount(status).join());
+            }
             
             sendJson(exchange, response);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "Invalid cursor");
         } catch (Exception e) {
             sendError(exchange, 500, "Failed to fetch appeals: " + e.getMessage());
         }
@@ -793,6 +788,13 @@ public class WebPanelServer {
         }
     }
 
+    /**
+     * ?limit= clamped to [1, MAX_PAGE_LIMIT]
+     */
+    private int getLimitParam(String query, int defaultValue) {
+        return Math.max(1, Math.min(MAX_PAGE_LIMIT, getQueryParam(query, "limit", defaultValue)));
+    }
+
     private String getQueryParam(String query, String key, String defaultValue) {
         if (query == null) return defaultValue;
         for (String param : query.split("&")) {
@@ -968,7 +970,7 @@ public class WebPanelServer {
 
     private void handleAnalyticsTimeline(HttpExchange exchange) throws IOException {
         String query = exchange.getRequestURI().getQuery();
-        int limit = getQueryParam(query, "limit", 50);
+        int limit = getLimitParam(query, 50);
         try {
             var data = getAnalyticsHandler().getEventsTimeline(limit).join();
             sendJson(exchange, data);
@@ -1021,11 +1023,22 @@ public class WebPanelServer {
             String message = data != null ? data.getOrDefault("message", "") : "";
             String player = data != null ? data.getOrDefault("player", "Unknown") : "Unknown";
             
-            // Return placeholder - AI service would be initialized in main plugin
             Map<String, Object> result = new HashMap<>();
-            result.put("isToxic", false);
-            result.put("score", 0);
-            result.put("analysis", "AI analysis not configured. Add groq-api-key to config.yml");
+            GroqAIService ai = plugin.getGroqAIService();
+            if (ai == null || !ai.isEnabled()) {
+                result.put("isToxic", false);
+                result.put("score", 0);
+                result.put("analysis", "AI analysis not configured. Add groq-api-key to config.yml");
+                sendJson(exchange, result);
+                return;
+            }
+            
+            GroqAIService.ToxicityResult toxicity = ai.analyzeToxicity(player, message).join();
+            result.put("isToxic", toxicity.isToxic());
+            result.put("score", toxicity.score());
+            result.put("analysis", toxicity.reason());
+            result.put("category", toxicity.category());
+            result.put("action", toxicity.action());
             sendJson(exchange, result);
         } catch (Exception e) {
             sendError(exchange, 500, "AI analysis failed: " + e.getMessage());
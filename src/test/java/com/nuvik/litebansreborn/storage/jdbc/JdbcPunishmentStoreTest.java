@@ -0,0 +1,226 @@
+package com.nuvik.litebansreborn.storage.jdbc;
+
+import com.nuvik.litebansreborn.database.DatabaseManager;
+import com.nuvik.litebansreborn.models.Page;
+import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.models.PunishmentType;
+import com.nuvik.litebansreborn.storage.PunishmentFilter;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JdbcPunishmentStore against an in-memory H2 database (MySQL mode, like the plugin's H2 setup)
+ */
+class JdbcPunishmentStoreTest {
+
+    private static final UUID TARGET = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID OTHER = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID STAFF = UUID.fromString("00000000-0000-0000-0000-0000000000aa");
+
+    private static final String COLUMNS = """
+            type VARCHAR(32) NOT NULL,
+            target_uuid VARCHAR(36) NOT NULL,
+            target_name VARCHAR(32) NOT NULL,
+            target_ip VARCHAR(45),
+            executor_uuid VARCHAR(36) NOT NULL,
+            executor_name VARCHAR(32) NOT NULL,
+            reason TEXT,
+            server VARCHAR(64),
+            created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+            expires_at TIMESTAMP NULL,
+            active BOOLEAN DEFAULT TRUE,
+            removed_at TIMESTAMP NULL,
+            removed_by_uuid VARCHAR(36),
+            removed_by_name VARCHAR(32),
+            remove_reason TEXT,
+            silent BOOLEAN DEFAULT FALSE,
+            ip_based BOOLEAN DEFAULT FALSE
+            """;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    // Keeps the in-memory database alive between the store's own connections
+    private Connection keepAlive;
+    private PunishmentStore store;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL";
+        keepAlive = DriverManager.getConnection(url, "sa", "");
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("CREATE TABLE punishments (id BIGINT AUTO_INCREMENT PRIMARY KEY, " + COLUMNS + ")");
+            stmt.execute("CREATE TABLE punishments_archive (id BIGINT PRIMARY KEY, " + COLUMNS
+                    + ", archived_at TIMESTAMP NULL)");
+        }
+
+        DatabaseManager database = mock(DatabaseManager.class);
+        when(database.getTable(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(database.getConnection()).thenAnswer(invocation -> DriverManager.getConnection(url, "sa", ""));
+        when(database.getDatabaseType()).thenReturn(DatabaseManager.DatabaseType.H2);
+        store = new JdbcPunishmentStore(database);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        keepAlive.close();
+    }
+
+    @Test
+    void insertAssignsIdsAndFindsActive() {
+        Punishment ban = store.insert(punishment(PunishmentType.BAN, TARGET, now));
+        Punishment mute = store.insert(punishment(PunishmentType.MUTE, TARGET, now));
+
+        assertTrue(ban.getId() > 0);
+        assertTrue(mute.getId() > ban.getId());
+        assertEquals(ban.getId(), store.findActive(TARGET, PunishmentStore.BANS).getId());
+        assertTrue(store.hasActive(TARGET, PunishmentStore.MUTES));
+        assertNull(store.findActive(OTHER, PunishmentStore.BANS));
+    }
+
+    @Test
+    void findFiltersAndOrdersNewestFirst() {
+        Punishment ban = store.insert(punishment(PunishmentType.BAN, TARGET, now.minusSeconds(300)));
+        Punishment mute = store.insert(punishment(PunishmentType.MUTE, TARGET, now.minusSeconds(200)));
+        Punishment warn = store.insert(punishment(PunishmentType.WARN, TARGET, now.minusSeconds(100)));
+        store.insert(punishment(PunishmentType.BAN, OTHER, now));
+
+        PunishmentFilter byTarget = new PunishmentFilter.Builder().targetUUID(TARGET).build();
+        assertEquals(List.of(warn.getId(), mute.getId(), ban.getId()), ids(store.find(byTarget, 0, 0)));
+        assertEquals(List.of(mute.getId()), ids(store.find(byTarget, 1, 1)));
+
+        PunishmentFilter mutes = new PunishmentFilter.Builder().targetUUID(TARGET).types(PunishmentStore.MUTES).build();
+        assertEquals(List.of(mute.getId()), ids(store.find(mutes, 0, 10)));
+    }
+
+    @Test
+    void findPageWalksEveryRowOnceWithTies() {
+        List<Long> inserted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Pairs share a timestamp so the id tie-break is exercised
+            inserted.add(store.insert(punishment(PunishmentType.WARN, TARGET, now.minusSeconds(i / 2 * 60))).getId());
+        }
+        List<Long> newestFirst = List.of(inserted.get(1), inserted.get(0), inserted.get(3), inserted.get(2),
+                inserted.get(4));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Page<Punishment> page = store.findPage(PunishmentFilter.ALL, cursor, 2);
+            seen.addAll(ids(page.getItems()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(newestFirst, seen);
+    }
+
+    @Test
+    void countHonoursFilters() {
+        store.insert(punishment(PunishmentType.BAN, TARGET, now));
+        store.insert(punishment(PunishmentType.TEMP_BAN, OTHER, now));
+        store.insert(punishment(PunishmentType.MUTE, TARGET, now));
+        store.insert(punishment(PunishmentType.WARN, TARGET, now));
+
+        assertEquals(4, store.count(PunishmentFilter.ALL));
+        assertEquals(2, store.count(new PunishmentFilter.Builder().types(PunishmentStore.BANS).build()));
+        assertEquals(3, store.count(new PunishmentFilter.Builder().targetUUID(TARGET).build()));
+        assertEquals(Map.of("ban", 1, "mute", 1, "warn", 1),
+                store.countByType(new PunishmentFilter.Builder().targetUUID(TARGET).build()));
+    }
+
+    @Test
+    void deactivateOnlyTouchesMatchingActiveRows() {
+        Punishment ban = store.insert(punishment(PunishmentType.BAN, TARGET, now));
+        Punishment mute = store.insert(punishment(PunishmentType.MUTE, TARGET, now));
+        store.insert(punishment(PunishmentType.BAN, OTHER, now));
+
+        assertEquals(1, store.deactivate(TARGET, PunishmentStore.BANS, STAFF, "Staff", "Appeal accepted"));
+        assertEquals(0, store.deactivate(TARGET, PunishmentStore.BANS, STAFF, "Staff", "Appeal accepted"));
+
+        Punishment removed = store.findById(ban.getId());
+        assertFalse(removed.isActive());
+        assertEquals("Staff", removed.getRemovedByName());
+        assertEquals("Appeal accepted", removed.getRemoveReason());
+        assertNotNull(removed.getRemovedAt());
+
+        assertNull(store.findActive(TARGET, PunishmentStore.BANS));
+        assertEquals(mute.getId(), store.findActive(TARGET, PunishmentStore.MUTES).getId());
+        assertNotNull(store.findActive(OTHER, PunishmentStore.BANS));
+    }
+
+    @Test
+    void findByIdFallsBackToArchive() throws SQLException {
+        Punishment live = store.insert(punishment(PunishmentType.BAN, TARGET, now));
+        archive(9000, PunishmentType.TEMP_BAN, TARGET, now.minus(400, ChronoUnit.DAYS));
+
+        assertEquals(live.getId(), store.findById(live.getId()).getId());
+        Punishment archived = store.findById(9000);
+        assertNotNull(archived);
+        assertEquals(PunishmentType.TEMP_BAN, archived.getType());
+        assertFalse(archived.isActive());
+        assertNull(store.findById(9001));
+
+        PunishmentFilter byTarget = new PunishmentFilter.Builder().targetUUID(TARGET).build();
+        assertEquals(List.of(live.getId()), ids(store.find(byTarget, 0, 0)));
+        PunishmentFilter withArchive = new PunishmentFilter.Builder().targetUUID(TARGET).includeArchived(true).build();
+        assertEquals(List.of(live.getId(), 9000L), ids(store.find(withArchive, 0, 0)));
+        assertEquals(2, store.count(withArchive));
+    }
+
+    // ==================== Helpers ====================
+
+    private static Punishment punishment(PunishmentType type, UUID target, Instant createdAt) {
+        return new Punishment.Builder(type, "player-" + target.toString().substring(35))
+                .targetUUID(target)
+                .executor(STAFF, "Staff")
+                .reason("Test")
+                .server("test")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private void archive(long id, PunishmentType type, UUID target, Instant createdAt) throws SQLException {
+        String sql = "INSERT INTO punishments_archive (id, type, target_uuid, target_name, executor_uuid, " +
+                "executor_name, reason, created_at, expires_at, active, archived_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, ?)";
+        try (PreparedStatement stmt = keepAlive.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            stmt.setString(2, type.getId());
+            stmt.setString(3, target.toString());
+            stmt.setString(4, "archived");
+            stmt.setString(5, STAFF.toString());
+            stmt.setString(6, "Staff");
+            stmt.setString(7, "Old");
+            stmt.setTimestamp(8, Timestamp.from(createdAt));
+            stmt.setTimestamp(9, Timestamp.from(createdAt.plus(1, ChronoUnit.DAYS)));
+            stmt.setTimestamp(10, Timestamp.from(now));
+            stmt.executeUpdate();
+        }
+    }
+
+    private static List<Long> ids(List<Punishment> punishments) {
+        return punishments.stream().map(Punishment::getId).toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.nuvik.litebansreborn.storage.mongo;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.nuvik.litebansreborn.models.Page;
+import com.nuvik.litebansreborn.models.Punishment;
+import com.nuvik.litebansreborn.models.PunishmentType;
+import com.nuvik.litebansreborn.storage.PunishmentFilter;
+import com.nuvik.litebansreborn.storage.PunishmentStore;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MongoPunishmentStore against an in-process server (standalone, so no embedded active copies)
+ */
+class MongoPunishmentStoreTest {
+
+    private static final UUID TARGET = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID OTHER = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID STAFF = UUID.fromString("00000000-0000-0000-0000-0000000000aa");
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private MongoServer server;
+    private MongoClient client;
+    private PunishmentStore store;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        MongoStorage storage = new MongoStorage(client.getDatabase("litebans"));
+        storage.createIndexes();
+        store = new MongoPunishmentStore(storage);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void insertAssignsSequentialIdsAndFindsActive() {
+        Punishment ban = store.insert(punishment(PunishmentType.BAN, TARGET, now));
+        Punishment mute = store.insert(punishment(PunishmentType.MUTE, TARGET, now));
+
+        assertEquals(ban.getId() + 1, mute.getId());
+        assertEquals(ban.getId(), store.findActive(TARGET, PunishmentStore.BANS).getId());
+        assertTrue(store.hasActive(TARGET, PunishmentStore.MUTES));
+        assertNull(store.findActive(OTHER, PunishmentStore.BANS));
+        assertEquals(PunishmentType.MUTE, store.findById(mute.getId()).getType());
+        assertNull(store.findById(mute.getId() + 100));
+    }
+
+    @Test
+    void deactivateOnlyTouchesMatchingActiveRows() {
+        Punishment ban = store.insert(punishment(PunishmentType.BAN, TARGET, now));
+        store.insert(punishment(PunishmentType.MUTE, TARGET, now));
+        store.insert(punishment(PunishmentType.BAN, OTHER, now));
+
+        assertEquals(1, store.deactivate(TARGET, PunishmentStore.BANS, STAFF, "Staff", "Appeal accepted"));
+        assertEquals(0, store.deactivate(TARGET, PunishmentStore.BANS, STAFF, "Staff", "Appeal accepted"));
+
+        Punishment removed = store.findById(ban.getId());
+        assertFalse(removed.isActive());
+        assertEquals("Staff", removed.getRemovedByName());
+        assertNull(store.findActive(TARGET, PunishmentStore.BANS));
+        assertNotNull(store.findActive(TARGET, PunishmentStore.MUTES));
+        assertNotNull(store.findActive(OTHER, PunishmentStore.BANS));
+    }
+
+    @Test
+    void findPageAndCountAgree() {
+        List<Long> inserted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Pairs share a timestamp so the id tie-break is exercised
+            inserted.add(store.insert(punishment(PunishmentType.WARN, TARGET, now.minusSeconds(i / 2 * 60))).getId());
+        }
+        store.insert(punishment(PunishmentType.KICK, OTHER, now));
+
+        PunishmentFilter byTarget = new PunishmentFilter.Builder().targetUUID(TARGET).build();
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<Punishment> page = store.findPage(byTarget, cursor, 2);
+            page.getItems().forEach(punishment -> seen.add(punishment.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(inserted.get(1), inserted.get(0), inserted.get(3), inserted.get(2), inserted.get(4)), seen);
+        assertEquals(5, store.count(byTarget));
+        assertEquals(6, store.count(PunishmentFilter.ALL));
+    }
+
+    private static Punishment punishment(PunishmentType type, UUID target, Instant createdAt) {
+        return new Punishment.Builder(type, "player-" + target.toString().substring(35))
+                .targetUUID(target)
+                .executor(STAFF, "Staff")
+                .reason("Test")
+                .server("test")
+                .createdAt(createdAt)
+                .build();
+    }
+}